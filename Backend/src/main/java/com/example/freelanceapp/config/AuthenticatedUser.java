@@ -0,0 +1,18 @@
+package com.example.freelanceapp.config;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.UUID;
+
+/**
+ * Security principal built from a verified access token.
+ * Carries the user's ID so controllers never need to look the user up by email.
+ */
+public record AuthenticatedUser(UUID id, String email) implements AuthenticatedPrincipal {
+
+    // Authentication.getName() keeps returning the email
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.freelanceapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection pools besides the primary one, which stays auto-configured from spring.datasource.
+ * Extra pools connect with the same spring.datasource url and credentials and take their pool
+ * settings from their own prefix. They are not default candidates, so only beans that ask for
+ * them by qualifier get them.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    public static final String NUMBERING = "numbering";
+
+    // Autocommit pool for document number reservations (numbering.datasource.hikari.*)
+    @Bean(defaultCandidate = false)
+    @Qualifier(NUMBERING)
+    @ConfigurationProperties("numbering.datasource.hikari")
+    public HikariDataSource numberingDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+}
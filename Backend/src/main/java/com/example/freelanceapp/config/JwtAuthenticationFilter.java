@@ -1,6 +1,7 @@
 package com.example.freelanceapp.config;
 
-import com.example.freelanceapp.utils.JwtUtil;
+import com.example.freelanceapp.utils.JwtClaimsResolver;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,12 +16,13 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final JwtClaimsResolver jwtClaimsResolver;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,26 +31,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = parseJwt(request);
 
-        if (token != null && jwtUtil.validateToken(token)) {
-            String email = jwtUtil.getEmailFromToken(token);
-            String userId = jwtUtil.getUserIdFromToken(token);
+        // Parse and verify the token once; repeat tokens are served from the claims cache
+        Claims claims = token != null ? jwtClaimsResolver.resolve(token) : null;
 
+        AuthenticatedUser principal = claims != null ? toPrincipal(claims) : null;
+
+        if (principal != null) {
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
-                            email, // principal = email
+                            principal, // principal carries user ID and email
                             null,
                             Collections.singletonList(new SimpleGrantedAuthority("USER"))
                     );
 
-            // Optionally attach userId
-            authentication.setDetails(userId);
-
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private AuthenticatedUser toPrincipal(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return new AuthenticatedUser(UUID.fromString(userId), claims.getSubject());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
@@ -56,7 +56,7 @@ public class SecurityConfig {
                     "/api/user/clients/*",
                     "/api/user/projects/*",
                     "/api/user/client/project/quotes/**",
-                    "/api/user/client/project/quotes/public/**",
+                    "/api/user/client/quotes/public/**",
                     "/api/user/client/project/quote/invoices/**",
                     "/api/user/client/project/quote/invoices/public/**",
                     "/api/user/client/project/quote/invoices/*/items/**",
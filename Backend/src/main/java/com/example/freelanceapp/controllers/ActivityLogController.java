@@ -1,9 +1,8 @@
 package com.example.freelanceapp.controllers;
 
+import com.example.freelanceapp.config.CurrentUser;
 import com.example.freelanceapp.dtos.ActivityLogResponse;
 import com.example.freelanceapp.dtos.ActivityLogSummaryResponse;
-import com.example.freelanceapp.entities.User;
-import com.example.freelanceapp.repositories.UserRepository;
 import com.example.freelanceapp.services.ActivityLogService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -11,8 +10,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -25,16 +22,6 @@ import java.util.UUID;
 public class ActivityLogController {
 
     private final ActivityLogService activityLogService;
-    private final UserRepository userRepository; // inject repository
-
-    // Helper method to get current user ID
-    private UUID getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-        return user.getId();
-    }
 
     // Helper method to get client info from request
     private String getClientIp(HttpServletRequest request) {
@@ -47,24 +34,21 @@ public class ActivityLogController {
 
     // Get all activities for current user
     @GetMapping
-    public ResponseEntity<List<ActivityLogResponse>> getAllActivities() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ActivityLogResponse>> getAllActivities(@CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getAllActivities(userId);
         return ResponseEntity.ok(activities);
     }
 
     // Get all activities with pagination
     @GetMapping("/paginated")
-    public ResponseEntity<Page<ActivityLogResponse>> getAllActivitiesPaginated(Pageable pageable) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Page<ActivityLogResponse>> getAllActivitiesPaginated(Pageable pageable, @CurrentUser UUID userId) {
         Page<ActivityLogResponse> activities = activityLogService.getAllActivities(userId, pageable);
         return ResponseEntity.ok(activities);
     }
 
     // Get activity by ID
     @GetMapping("/{activityId}")
-    public ResponseEntity<ActivityLogResponse> getActivityById(@PathVariable UUID activityId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ActivityLogResponse> getActivityById(@PathVariable UUID activityId, @CurrentUser UUID userId) {
         // Note: Since activity logs are user-specific, we need to verify ownership
         // For simplicity, we'll get all and filter. In production, add repository method.
         List<ActivityLogResponse> allActivities = activityLogService.getAllActivities(userId);
@@ -81,16 +65,14 @@ public class ActivityLogController {
 
     // Get activities by action
     @GetMapping("/action/{action}")
-    public ResponseEntity<List<ActivityLogResponse>> getActivitiesByAction(@PathVariable String action) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ActivityLogResponse>> getActivitiesByAction(@PathVariable String action, @CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getActivitiesByAction(userId, action);
         return ResponseEntity.ok(activities);
     }
 
     // Get activities by entity type
     @GetMapping("/entity-type/{entityType}")
-    public ResponseEntity<List<ActivityLogResponse>> getActivitiesByEntityType(@PathVariable String entityType) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ActivityLogResponse>> getActivitiesByEntityType(@PathVariable String entityType, @CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getActivitiesByEntityType(userId, entityType);
         return ResponseEntity.ok(activities);
     }
@@ -99,24 +81,22 @@ public class ActivityLogController {
     @GetMapping("/entity/{entityType}/{entityId}")
     public ResponseEntity<List<ActivityLogResponse>> getActivitiesByEntity(
             @PathVariable String entityType,
-            @PathVariable UUID entityId) {
-        UUID userId = getCurrentUserId();
+            @PathVariable UUID entityId,
+            @CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getActivitiesByEntity(userId, entityType, entityId);
         return ResponseEntity.ok(activities);
     }
 
     // Get activities by entity ID (any type)
     @GetMapping("/entity-id/{entityId}")
-    public ResponseEntity<List<ActivityLogResponse>> getActivitiesByEntityId(@PathVariable UUID entityId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ActivityLogResponse>> getActivitiesByEntityId(@PathVariable UUID entityId, @CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getActivitiesByEntityId(userId, entityId);
         return ResponseEntity.ok(activities);
     }
 
     // Search activities
     @GetMapping("/search")
-    public ResponseEntity<List<ActivityLogResponse>> searchActivities(@RequestParam String query) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ActivityLogResponse>> searchActivities(@RequestParam String query, @CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.searchActivities(userId, query);
         return ResponseEntity.ok(activities);
     }
@@ -125,48 +105,43 @@ public class ActivityLogController {
     @GetMapping("/date-range")
     public ResponseEntity<List<ActivityLogResponse>> getActivitiesByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        UUID userId = getCurrentUserId();
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getActivitiesByDateRange(userId, startDate, endDate);
         return ResponseEntity.ok(activities);
     }
 
     // Get today's activities
     @GetMapping("/today")
-    public ResponseEntity<List<ActivityLogResponse>> getTodayActivities() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ActivityLogResponse>> getTodayActivities(@CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getTodayActivities(userId);
         return ResponseEntity.ok(activities);
     }
 
     // Get this week's activities
     @GetMapping("/this-week")
-    public ResponseEntity<List<ActivityLogResponse>> getThisWeekActivities() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ActivityLogResponse>> getThisWeekActivities(@CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getThisWeekActivities(userId);
         return ResponseEntity.ok(activities);
     }
 
     // Get this month's activities
     @GetMapping("/this-month")
-    public ResponseEntity<List<ActivityLogResponse>> getThisMonthActivities() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ActivityLogResponse>> getThisMonthActivities(@CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getThisMonthActivities(userId);
         return ResponseEntity.ok(activities);
     }
 
     // Get activity summary
     @GetMapping("/summary")
-    public ResponseEntity<ActivityLogSummaryResponse> getActivitySummary() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ActivityLogSummaryResponse> getActivitySummary(@CurrentUser UUID userId) {
         ActivityLogSummaryResponse summary = activityLogService.getActivitySummary(userId);
         return ResponseEntity.ok(summary);
     }
 
     // Get activities count
     @GetMapping("/count")
-    public ResponseEntity<Long> getActivitiesCount() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Long> getActivitiesCount(@CurrentUser UUID userId) {
         Long count = activityLogService.getActivitiesCount(userId);
         return ResponseEntity.ok(count);
     }
@@ -174,8 +149,8 @@ public class ActivityLogController {
     // Get recent activities
     @GetMapping("/recent")
     public ResponseEntity<List<ActivityLogResponse>> getRecentActivities(
-            @RequestParam(defaultValue = "10") int limit) {
-        UUID userId = getCurrentUserId();
+            @RequestParam(defaultValue = "10") int limit,
+            @CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getRecentActivities(userId, limit);
         return ResponseEntity.ok(activities);
     }
@@ -183,8 +158,8 @@ public class ActivityLogController {
     // Get dashboard activities
     @GetMapping("/dashboard")
     public ResponseEntity<List<ActivityLogResponse>> getDashboardActivities(
-            @RequestParam(defaultValue = "5") int limit) {
-        UUID userId = getCurrentUserId();
+            @RequestParam(defaultValue = "5") int limit,
+            @CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getDashboardActivities(userId, limit);
         return ResponseEntity.ok(activities);
     }
@@ -193,16 +168,15 @@ public class ActivityLogController {
     @GetMapping("/filter")
     public ResponseEntity<List<ActivityLogResponse>> getActivitiesByActionAndEntityType(
             @RequestParam String action,
-            @RequestParam String entityType) {
-        UUID userId = getCurrentUserId();
+            @RequestParam String entityType,
+            @CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.getActivitiesByActionAndEntityType(userId, action, entityType);
         return ResponseEntity.ok(activities);
     }
 
     // Get user activity timeline
     @GetMapping("/timeline")
-    public ResponseEntity<List<ActivityLogResponse>> getUserActivityTimeline() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ActivityLogResponse>> getUserActivityTimeline(@CurrentUser UUID userId) {
         List<ActivityLogResponse> timeline = activityLogService.getUserActivityTimeline(userId);
         return ResponseEntity.ok(timeline);
     }
@@ -211,16 +185,15 @@ public class ActivityLogController {
     @GetMapping("/export")
     public ResponseEntity<List<ActivityLogResponse>> exportActivities(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        UUID userId = getCurrentUserId();
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @CurrentUser UUID userId) {
         List<ActivityLogResponse> activities = activityLogService.exportActivities(userId, startDate, endDate);
         return ResponseEntity.ok(activities);
     }
 
     // Clear old activities (admin/cleanup - protected endpoint)
     @DeleteMapping("/cleanup")
-    public ResponseEntity<Void> clearOldActivities(@RequestParam(defaultValue = "90") int daysToKeep) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Void> clearOldActivities(@RequestParam(defaultValue = "90") int daysToKeep, @CurrentUser UUID userId) {
         activityLogService.clearOldActivities(userId, daysToKeep);
         return ResponseEntity.noContent().build();
     }
@@ -232,8 +205,8 @@ public class ActivityLogController {
     public ResponseEntity<Void> logUserActivity(
             @RequestParam String action,
             @RequestParam String description,
-            HttpServletRequest request) {
-        UUID userId = getCurrentUserId();
+            HttpServletRequest request,
+            @CurrentUser UUID userId) {
         String ipAddress = getClientIp(request);
         String userAgent = request.getHeader("User-Agent");
         
@@ -247,8 +220,8 @@ public class ActivityLogController {
             @PathVariable UUID clientId,
             @RequestParam String action,
             @RequestParam String description,
-            HttpServletRequest request) {
-        UUID userId = getCurrentUserId();
+            HttpServletRequest request,
+            @CurrentUser UUID userId) {
         String ipAddress = getClientIp(request);
         String userAgent = request.getHeader("User-Agent");
         
@@ -262,8 +235,8 @@ public class ActivityLogController {
             @PathVariable UUID projectId,
             @RequestParam String action,
             @RequestParam String description,
-            HttpServletRequest request) {
-        UUID userId = getCurrentUserId();
+            HttpServletRequest request,
+            @CurrentUser UUID userId) {
         String ipAddress = getClientIp(request);
         String userAgent = request.getHeader("User-Agent");
         
@@ -277,8 +250,8 @@ public class ActivityLogController {
             @PathVariable UUID quoteId,
             @RequestParam String action,
             @RequestParam String description,
-            HttpServletRequest request) {
-        UUID userId = getCurrentUserId();
+            HttpServletRequest request,
+            @CurrentUser UUID userId) {
         String ipAddress = getClientIp(request);
         String userAgent = request.getHeader("User-Agent");
         
@@ -292,8 +265,8 @@ public class ActivityLogController {
             @PathVariable UUID invoiceId,
             @RequestParam String action,
             @RequestParam String description,
-            HttpServletRequest request) {
-        UUID userId = getCurrentUserId();
+            HttpServletRequest request,
+            @CurrentUser UUID userId) {
         String ipAddress = getClientIp(request);
         String userAgent = request.getHeader("User-Agent");
         
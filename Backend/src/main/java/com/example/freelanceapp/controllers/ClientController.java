@@ -1,11 +1,11 @@
 package com.example.freelanceapp.controllers;
 
+import com.example.freelanceapp.config.CurrentUser;
 
 import com.example.freelanceapp.dtos.client.ClientRequest;
 import com.example.freelanceapp.dtos.client.ClientResponse;
 import com.example.freelanceapp.dtos.client.ClientSummaryResponse;
-import com.example.freelanceapp.entities.User;
-import com.example.freelanceapp.repositories.UserRepository;
+import com.example.freelanceapp.dtos.search.AutocompleteResponse;
 import com.example.freelanceapp.services.ClientService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,8 +13,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -26,45 +24,31 @@ import java.util.UUID;
 public class ClientController {
 
     private final ClientService clientService;
-    private final UserRepository userRepository; // inject repository
-
-    // Helper method to get current user ID
-    private UUID getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-        return user.getId();
-    }
 
     // Create a new client
     @PostMapping
-    public ResponseEntity<ClientResponse> createClient(@Valid @RequestBody ClientRequest request) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ClientResponse> createClient(@Valid @RequestBody ClientRequest request, @CurrentUser UUID userId) {
         ClientResponse response = clientService.createClient(userId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     // Get all clients
     @GetMapping
-    public ResponseEntity<List<ClientResponse>> getAllClients() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ClientResponse>> getAllClients(@CurrentUser UUID userId) {
         List<ClientResponse> clients = clientService.getAllClients(userId);
         return ResponseEntity.ok(clients);
     }
 
     // Get all clients with pagination
     @GetMapping("/paginated")
-    public ResponseEntity<Page<ClientResponse>> getAllClientsPaginated(Pageable pageable) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Page<ClientResponse>> getAllClientsPaginated(Pageable pageable, @CurrentUser UUID userId) {
         Page<ClientResponse> clients = clientService.getAllClients(userId, pageable);
         return ResponseEntity.ok(clients);
     }
 
     // Get client by ID
     @GetMapping("/{clientId}")
-    public ResponseEntity<ClientResponse> getClientById(@PathVariable UUID clientId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ClientResponse> getClientById(@PathVariable UUID clientId, @CurrentUser UUID userId) {
         ClientResponse client = clientService.getClientById(userId, clientId);
         return ResponseEntity.ok(client);
     }
@@ -73,64 +57,67 @@ public class ClientController {
     @PutMapping("/{clientId}")
     public ResponseEntity<ClientResponse> updateClient(
             @PathVariable UUID clientId,
-            @Valid @RequestBody ClientRequest request) {
-        UUID userId = getCurrentUserId();
+            @Valid @RequestBody ClientRequest request,
+            @CurrentUser UUID userId) {
         ClientResponse updatedClient = clientService.updateClient(userId, clientId, request);
         return ResponseEntity.ok(updatedClient);
     }
 
     // Delete client
     @DeleteMapping("/{clientId}")
-    public ResponseEntity<Void> deleteClient(@PathVariable UUID clientId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Void> deleteClient(@PathVariable UUID clientId, @CurrentUser UUID userId) {
         clientService.deleteClient(userId, clientId);
         return ResponseEntity.noContent().build();
     }
 
     // Archive client
     @PostMapping("/{clientId}/archive")
-    public ResponseEntity<ClientResponse> archiveClient(@PathVariable UUID clientId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ClientResponse> archiveClient(@PathVariable UUID clientId, @CurrentUser UUID userId) {
         ClientResponse archivedClient = clientService.archiveClient(userId, clientId);
         return ResponseEntity.ok(archivedClient);
     }
 
     // Restore client
     @PostMapping("/{clientId}/restore")
-    public ResponseEntity<ClientResponse> restoreClient(@PathVariable UUID clientId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ClientResponse> restoreClient(@PathVariable UUID clientId, @CurrentUser UUID userId) {
         ClientResponse restoredClient = clientService.restoreClient(userId, clientId);
         return ResponseEntity.ok(restoredClient);
     }
 
     // Get clients by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<ClientResponse>> getClientsByStatus(@PathVariable String status) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ClientResponse>> getClientsByStatus(@PathVariable String status, @CurrentUser UUID userId) {
         List<ClientResponse> clients = clientService.getClientsByStatus(userId, status);
         return ResponseEntity.ok(clients);
     }
 
+    // Typeahead for client pickers (prefix of a name, contact or email; no database access)
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteResponse>> autocompleteClients(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit,
+            @CurrentUser UUID userId) {
+        List<AutocompleteResponse> suggestions = clientService.autocompleteClients(userId, prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     // Search clients
     @GetMapping("/search")
-    public ResponseEntity<List<ClientResponse>> searchClients(@RequestParam String query) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ClientResponse>> searchClients(@RequestParam String query, @CurrentUser UUID userId) {
         List<ClientResponse> clients = clientService.searchClients(userId, query);
         return ResponseEntity.ok(clients);
     }
 
     // Get client summary
     @GetMapping("/{clientId}/summary")
-    public ResponseEntity<ClientSummaryResponse> getClientSummary(@PathVariable UUID clientId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ClientSummaryResponse> getClientSummary(@PathVariable UUID clientId, @CurrentUser UUID userId) {
         ClientSummaryResponse summary = clientService.getClientSummary(userId, clientId);
         return ResponseEntity.ok(summary);
     }
 
     // Get clients count
     @GetMapping("/count")
-    public ResponseEntity<Long> getClientsCount() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Long> getClientsCount(@CurrentUser UUID userId) {
         Long count = clientService.getClientsCount(userId);
         return ResponseEntity.ok(count);
     }
@@ -138,8 +125,8 @@ public class ClientController {
     // Get recent clients
     @GetMapping("/recent")
     public ResponseEntity<List<ClientResponse>> getRecentClients(
-            @RequestParam(defaultValue = "5") int limit) {
-        UUID userId = getCurrentUserId();
+            @RequestParam(defaultValue = "5") int limit,
+            @CurrentUser UUID userId) {
         List<ClientResponse> recentClients = clientService.getRecentClients(userId, limit);
         return ResponseEntity.ok(recentClients);
     }
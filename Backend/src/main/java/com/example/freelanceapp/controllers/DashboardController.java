@@ -0,0 +1,31 @@
+package com.example.freelanceapp.controllers;
+
+import com.example.freelanceapp.config.CurrentUser;
+import com.example.freelanceapp.dtos.dashboard.DashboardSummaryResponse;
+import com.example.freelanceapp.services.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/user/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    // Get financial summary (invoice, quote and payment totals)
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummaryResponse> getSummary(@CurrentUser UUID userId) {
+        DashboardSummaryResponse summary = dashboardService.getSummary(userId);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofSeconds(dashboardService.getCacheTtlSeconds())).cachePrivate())
+            .body(summary);
+    }
+}
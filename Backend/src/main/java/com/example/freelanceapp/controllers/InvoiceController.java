@@ -1,20 +1,27 @@
 package com.example.freelanceapp.controllers;
 
+import com.example.freelanceapp.config.CurrentUser;
 import com.example.freelanceapp.dtos.invoice.*;
-import com.example.freelanceapp.entities.User;
-import com.example.freelanceapp.repositories.UserRepository;
+import com.example.freelanceapp.dtos.publiclink.PublicLinkResponse;
+import com.example.freelanceapp.exceptions.BadRequestException;
+import com.example.freelanceapp.services.DocumentRenderService;
+import com.example.freelanceapp.services.InvoiceExportService;
 import com.example.freelanceapp.services.InvoiceService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.example.freelanceapp.services.PublicLinkService;
+import com.example.freelanceapp.utils.ApiPaths;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -22,70 +29,70 @@ import java.util.List;
 import java.util.UUID;
 
 @RestController
-@RequestMapping("/api/user/client/project/quote/invoices")
+@RequestMapping(ApiPaths.INVOICES)
 @RequiredArgsConstructor
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
-    private final UserRepository userRepository; // inject repository
-
-    // Helper method to get current user ID
-    private UUID getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-        return user.getId();
-    }
-
-    // Helper method to get client info from request
-    private String getClientIp(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader != null) {
-            return xfHeader.split(",")[0];
-        }
-        return request.getRemoteAddr();
-    }
+    private final PublicLinkService publicLinkService;
+    private final InvoiceExportService invoiceExportService;
 
     // Create a new invoice
     @PostMapping
     public ResponseEntity<InvoiceResponse> createInvoice(
-            @Valid @RequestBody InvoiceRequest request) {
-        UUID userId = getCurrentUserId();
+            @Valid @RequestBody InvoiceRequest request,
+            @CurrentUser UUID userId) {
         InvoiceResponse response = invoiceService.createInvoice(userId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // Create many invoices at once; failures are reported per element
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkInvoiceResponse> createInvoices(
+            @Valid @RequestBody BulkInvoiceRequest request,
+            @CurrentUser UUID userId) {
+        BulkInvoiceResponse response = invoiceService.createInvoices(userId, request.getInvoices());
+        HttpStatus status = response.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+
     // Create invoice from quote
     @PostMapping("/from-quote/{quoteId}")
     public ResponseEntity<InvoiceResponse> createInvoiceFromQuote(
             @PathVariable UUID quoteId,
-            @RequestBody(required = false) InvoiceRequest request) {
-        UUID userId = getCurrentUserId();
+            @RequestBody(required = false) InvoiceRequest request,
+            @CurrentUser UUID userId) {
         InvoiceResponse response = invoiceService.createInvoiceFromQuote(userId, quoteId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     // Get all invoices
     @GetMapping
-    public ResponseEntity<List<InvoiceResponse>> getAllInvoices() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<InvoiceResponse>> getAllInvoices(@CurrentUser UUID userId) {
         List<InvoiceResponse> invoices = invoiceService.getAllInvoices(userId);
         return ResponseEntity.ok(invoices);
     }
 
     // Get all invoices with pagination
     @GetMapping("/paginated")
-    public ResponseEntity<Page<InvoiceResponse>> getAllInvoicesPaginated(Pageable pageable) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Page<InvoiceResponse>> getAllInvoicesPaginated(Pageable pageable, @CurrentUser UUID userId) {
         Page<InvoiceResponse> invoices = invoiceService.getAllInvoices(userId, pageable);
         return ResponseEntity.ok(invoices);
     }
 
+    // Get lightweight invoice rows for table views (cursor pagination)
+    @GetMapping("/list")
+    public ResponseEntity<InvoiceListPageResponse> getInvoiceList(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @CurrentUser UUID userId) {
+        InvoiceListPageResponse page = invoiceService.getInvoiceList(userId, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
     // Get invoice by ID
     @GetMapping("/{invoiceId}")
-    public ResponseEntity<InvoiceResponse> getInvoiceById(@PathVariable UUID invoiceId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<InvoiceResponse> getInvoiceById(@PathVariable UUID invoiceId, @CurrentUser UUID userId) {
         InvoiceResponse invoice = invoiceService.getInvoiceById(userId, invoiceId);
         return ResponseEntity.ok(invoice);
     }
@@ -94,104 +101,122 @@ public class InvoiceController {
     @PutMapping("/{invoiceId}")
     public ResponseEntity<InvoiceResponse> updateInvoice(
             @PathVariable UUID invoiceId,
-            @Valid @RequestBody InvoiceRequest request) {
-        UUID userId = getCurrentUserId();
+            @Valid @RequestBody InvoiceRequest request,
+            @CurrentUser UUID userId) {
         InvoiceResponse updatedInvoice = invoiceService.updateInvoice(userId, invoiceId, request);
         return ResponseEntity.ok(updatedInvoice);
     }
 
     // Delete invoice
     @DeleteMapping("/{invoiceId}")
-    public ResponseEntity<Void> deleteInvoice(@PathVariable UUID invoiceId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Void> deleteInvoice(@PathVariable UUID invoiceId, @CurrentUser UUID userId) {
         invoiceService.deleteInvoice(userId, invoiceId);
         return ResponseEntity.noContent().build();
     }
 
     // Send invoice
     @PostMapping("/{invoiceId}/send")
-    public ResponseEntity<InvoiceResponse> sendInvoice(@PathVariable UUID invoiceId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<InvoiceResponse> sendInvoice(@PathVariable UUID invoiceId, @CurrentUser UUID userId) {
         InvoiceResponse sentInvoice = invoiceService.sendInvoice(userId, invoiceId);
         return ResponseEntity.ok(sentInvoice);
     }
 
     // Cancel invoice
     @PostMapping("/{invoiceId}/cancel")
-    public ResponseEntity<InvoiceResponse> cancelInvoice(@PathVariable UUID invoiceId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<InvoiceResponse> cancelInvoice(@PathVariable UUID invoiceId, @CurrentUser UUID userId) {
         InvoiceResponse cancelledInvoice = invoiceService.cancelInvoice(userId, invoiceId);
         return ResponseEntity.ok(cancelledInvoice);
     }
 
+    // Issue a signed, expiring public link
+    @PostMapping("/{invoiceId}/public-link")
+    public ResponseEntity<PublicLinkResponse> createInvoicePublicLink(
+            @PathVariable UUID invoiceId,
+            @RequestParam(required = false) Integer ttlDays,
+            @CurrentUser UUID userId) {
+        PublicLinkResponse link = publicLinkService.createInvoiceLink(userId, invoiceId, ttlDays);
+        return ResponseEntity.status(HttpStatus.CREATED).body(link);
+    }
+
+    // Download the invoice PDF
+    @GetMapping("/{invoiceId}/pdf")
+    public ResponseEntity<Resource> getInvoicePdf(@PathVariable UUID invoiceId, @CurrentUser UUID userId) {
+        DocumentRenderService.RenderedPdf pdf = invoiceService.getInvoicePdf(userId, invoiceId);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_PDF)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + pdf.fileName() + "\"")
+            .body(new FileSystemResource(pdf.path()));
+    }
+
     // Duplicate invoice
     @PostMapping("/{invoiceId}/duplicate")
-    public ResponseEntity<InvoiceResponse> duplicateInvoice(@PathVariable UUID invoiceId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<InvoiceResponse> duplicateInvoice(@PathVariable UUID invoiceId, @CurrentUser UUID userId) {
         InvoiceResponse duplicatedInvoice = invoiceService.duplicateInvoice(userId, invoiceId);
         return ResponseEntity.ok(duplicatedInvoice);
     }
 
     // Get invoices by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<InvoiceResponse>> getInvoicesByStatus(@PathVariable String status) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<InvoiceResponse>> getInvoicesByStatus(@PathVariable String status, @CurrentUser UUID userId) {
         List<InvoiceResponse> invoices = invoiceService.getInvoicesByStatus(userId, status);
         return ResponseEntity.ok(invoices);
     }
 
     // Get invoices by client
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<List<InvoiceResponse>> getInvoicesByClient(@PathVariable UUID clientId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<InvoiceResponse>> getInvoicesByClient(@PathVariable UUID clientId, @CurrentUser UUID userId) {
         List<InvoiceResponse> invoices = invoiceService.getInvoicesByClient(userId, clientId);
         return ResponseEntity.ok(invoices);
     }
 
     // Get invoices by project
     @GetMapping("/project/{projectId}")
-    public ResponseEntity<List<InvoiceResponse>> getInvoicesByProject(@PathVariable UUID projectId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<InvoiceResponse>> getInvoicesByProject(@PathVariable UUID projectId, @CurrentUser UUID userId) {
         List<InvoiceResponse> invoices = invoiceService.getInvoicesByProject(userId, projectId);
         return ResponseEntity.ok(invoices);
     }
 
     // Get invoices by quote
     @GetMapping("/quote/{quoteId}")
-    public ResponseEntity<List<InvoiceResponse>> getInvoicesByQuote(@PathVariable UUID quoteId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<InvoiceResponse>> getInvoicesByQuote(@PathVariable UUID quoteId, @CurrentUser UUID userId) {
         List<InvoiceResponse> invoices = invoiceService.getInvoicesByQuote(userId, quoteId);
         return ResponseEntity.ok(invoices);
     }
 
     // Search invoices
     @GetMapping("/search")
-    public ResponseEntity<List<InvoiceResponse>> searchInvoices(@RequestParam String query) {
-        UUID userId = getCurrentUserId();
-        List<InvoiceResponse> invoices = invoiceService.searchInvoices(userId, query);
+    public ResponseEntity<List<InvoiceResponse>> searchInvoices(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer limit,
+            @CurrentUser UUID userId) {
+        List<InvoiceResponse> invoices = invoiceService.searchInvoices(userId, query, limit);
         return ResponseEntity.ok(invoices);
     }
 
     // Get invoice summary
     @GetMapping("/{invoiceId}/summary")
-    public ResponseEntity<InvoiceSummaryResponse> getInvoiceSummary(@PathVariable UUID invoiceId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<InvoiceSummaryResponse> getInvoiceSummary(@PathVariable UUID invoiceId, @CurrentUser UUID userId) {
         InvoiceSummaryResponse summary = invoiceService.getInvoiceSummary(userId, invoiceId);
         return ResponseEntity.ok(summary);
     }
 
     // Get invoice aging report
     @GetMapping("/aging-report")
-    public ResponseEntity<List<InvoiceAgingResponse>> getInvoiceAgingReport() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<InvoiceAgingResponse>> getInvoiceAgingReport(@CurrentUser UUID userId) {
         List<InvoiceAgingResponse> agingReport = invoiceService.getInvoiceAgingReport(userId);
         return ResponseEntity.ok(agingReport);
     }
 
+    // Get invoice aging bucket totals (no rows)
+    @GetMapping("/aging-report/summary")
+    public ResponseEntity<List<InvoiceAgingBucketResponse>> getInvoiceAgingSummary(@CurrentUser UUID userId) {
+        List<InvoiceAgingBucketResponse> summary = invoiceService.getInvoiceAgingSummary(userId);
+        return ResponseEntity.ok(summary);
+    }
+
     // Get overdue invoices
     @GetMapping("/overdue")
-    public ResponseEntity<List<InvoiceResponse>> getOverdueInvoices() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<InvoiceResponse>> getOverdueInvoices(@CurrentUser UUID userId) {
         List<InvoiceResponse> invoices = invoiceService.getOverdueInvoices(userId);
         return ResponseEntity.ok(invoices);
     }
@@ -200,8 +225,8 @@ public class InvoiceController {
     @GetMapping("/due-range")
     public ResponseEntity<List<InvoiceResponse>> getInvoicesByDueDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        UUID userId = getCurrentUserId();
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @CurrentUser UUID userId) {
         List<InvoiceResponse> invoices = invoiceService.getInvoicesByDueDateRange(userId, startDate, endDate);
         return ResponseEntity.ok(invoices);
     }
@@ -210,48 +235,65 @@ public class InvoiceController {
     @GetMapping("/issue-range")
     public ResponseEntity<List<InvoiceResponse>> getInvoicesByIssueDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        UUID userId = getCurrentUserId();
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @CurrentUser UUID userId) {
         List<InvoiceResponse> invoices = invoiceService.getInvoicesByIssueDateRange(userId, startDate, endDate);
         return ResponseEntity.ok(invoices);
     }
 
+    // Export invoices by issue date range as CSV or NDJSON, streamed as rows are read
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            @CurrentUser UUID userId) {
+        if (!InvoiceExportService.isSupportedFormat(format)) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+
+        boolean csv = InvoiceExportService.FORMAT_CSV.equals(format);
+        String filename = "invoices-" + startDate + "-to-" + endDate + (csv ? ".csv" : ".ndjson");
+        StreamingResponseBody body = outputStream ->
+            invoiceExportService.exportInvoices(userId, startDate, endDate, format, outputStream);
+
+        return ResponseEntity.ok()
+            .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
+
     // Get invoices count
     @GetMapping("/count")
-    public ResponseEntity<Long> getInvoicesCount() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Long> getInvoicesCount(@CurrentUser UUID userId) {
         Long count = invoiceService.getInvoicesCount(userId);
         return ResponseEntity.ok(count);
     }
 
     // Get invoices count by status
     @GetMapping("/count/status/{status}")
-    public ResponseEntity<Long> getInvoicesCountByStatus(@PathVariable String status) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Long> getInvoicesCountByStatus(@PathVariable String status, @CurrentUser UUID userId) {
         Long count = invoiceService.getInvoicesCountByStatus(userId, status);
         return ResponseEntity.ok(count);
     }
 
     // Get total invoiced amount
     @GetMapping("/total-invoiced")
-    public ResponseEntity<String> getTotalInvoicedAmount() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<String> getTotalInvoicedAmount(@CurrentUser UUID userId) {
         BigDecimal total = invoiceService.getTotalInvoicedAmount(userId);
         return ResponseEntity.ok(total.toString());
     }
 
     // Get total amount paid
     @GetMapping("/total-paid")
-    public ResponseEntity<String> getTotalAmountPaid() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<String> getTotalAmountPaid(@CurrentUser UUID userId) {
         BigDecimal total = invoiceService.getTotalAmountPaid(userId);
         return ResponseEntity.ok(total.toString());
     }
 
     // Get total balance due
     @GetMapping("/total-balance-due")
-    public ResponseEntity<String> getTotalBalanceDue() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<String> getTotalBalanceDue(@CurrentUser UUID userId) {
         BigDecimal total = invoiceService.getTotalBalanceDue(userId);
         return ResponseEntity.ok(total.toString());
     }
@@ -259,8 +301,8 @@ public class InvoiceController {
     // Get recent invoices
     @GetMapping("/recent")
     public ResponseEntity<List<InvoiceResponse>> getRecentInvoices(
-            @RequestParam(defaultValue = "5") int limit) {
-        UUID userId = getCurrentUserId();
+            @RequestParam(defaultValue = "5") int limit,
+            @CurrentUser UUID userId) {
         List<InvoiceResponse> recentInvoices = invoiceService.getRecentInvoices(userId, limit);
         return ResponseEntity.ok(recentInvoices);
     }
@@ -269,26 +311,19 @@ public class InvoiceController {
     @PatchMapping("/{invoiceId}/status")
     public ResponseEntity<InvoiceResponse> updateInvoiceStatus(
             @PathVariable UUID invoiceId,
-            @RequestParam String status) {
-        UUID userId = getCurrentUserId();
+            @RequestParam String status,
+            @CurrentUser UUID userId) {
         InvoiceResponse updatedInvoice = invoiceService.updateInvoiceStatus(userId, invoiceId, status);
         return ResponseEntity.ok(updatedInvoice);
     }
 
-    // ========== PUBLIC ENDPOINTS (No authentication required) ==========
+    // ========== LEGACY PUBLIC ENDPOINTS (No authentication required) ==========
+    // Deprecated: links already sent to clients use these; new links are signed (see PublicLinkController)
 
     // Get invoice by public hash (for client viewing)
+    @Deprecated
     @GetMapping("/public/{publicHash}")
-    public ResponseEntity<InvoiceResponse> getInvoiceByPublicHash(
-            @PathVariable String publicHash,
-            HttpServletRequest httpRequest) {
-        String ipAddress = getClientIp(httpRequest);
-        String userAgent = httpRequest.getHeader("User-Agent");
-        
-        // Record view
-        invoiceService.viewInvoice(publicHash);
-        
-        InvoiceResponse invoice = invoiceService.getInvoiceByPublicHash(publicHash);
-        return ResponseEntity.ok(invoice);
+    public ResponseEntity<InvoiceResponse> getInvoiceByPublicHash(@PathVariable String publicHash) {
+        return ResponseEntity.ok(publicLinkService.viewInvoiceByPublicHash(publicHash));
     }
 }
\ No newline at end of file
@@ -1,16 +1,13 @@
 package com.example.freelanceapp.controllers;
 
+import com.example.freelanceapp.config.CurrentUser;
 import com.example.freelanceapp.dtos.invoice.InvoicePaymentRequest;
 import com.example.freelanceapp.dtos.invoice.InvoicePaymentResponse;
-import com.example.freelanceapp.entities.User;
-import com.example.freelanceapp.repositories.UserRepository;
 import com.example.freelanceapp.services.PaymentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -23,32 +20,21 @@ import java.util.UUID;
 public class PaymentController {
 
     private final PaymentService paymentService;
-    private final UserRepository userRepository; // inject repository
 
 
-    // Helper method to get current user ID
-    private UUID getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-        return user.getId();
-    }
-
     // Add payment to invoice
     @PostMapping
     public ResponseEntity<InvoicePaymentResponse> addPayment(
             @PathVariable UUID invoiceId,
-            @Valid @RequestBody InvoicePaymentRequest request) {
-        UUID userId = getCurrentUserId();
+            @Valid @RequestBody InvoicePaymentRequest request,
+            @CurrentUser UUID userId) {
         InvoicePaymentResponse response = paymentService.addPayment(userId, invoiceId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     // Get all payments for an invoice
     @GetMapping
-    public ResponseEntity<List<InvoicePaymentResponse>> getInvoicePayments(@PathVariable UUID invoiceId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<InvoicePaymentResponse>> getInvoicePayments(@PathVariable UUID invoiceId, @CurrentUser UUID userId) {
         List<InvoicePaymentResponse> payments = paymentService.getInvoicePayments(userId, invoiceId);
         return ResponseEntity.ok(payments);
     }
@@ -57,8 +43,8 @@ public class PaymentController {
     @GetMapping("/{paymentId}")
     public ResponseEntity<InvoicePaymentResponse> getPaymentById(
             @PathVariable UUID invoiceId,
-            @PathVariable UUID paymentId) {
-        UUID userId = getCurrentUserId();
+            @PathVariable UUID paymentId,
+            @CurrentUser UUID userId) {
         InvoicePaymentResponse payment = paymentService.getPaymentById(userId, invoiceId, paymentId);
         return ResponseEntity.ok(payment);
     }
@@ -68,8 +54,8 @@ public class PaymentController {
     public ResponseEntity<InvoicePaymentResponse> updatePayment(
             @PathVariable UUID invoiceId,
             @PathVariable UUID paymentId,
-            @Valid @RequestBody InvoicePaymentRequest request) {
-        UUID userId = getCurrentUserId();
+            @Valid @RequestBody InvoicePaymentRequest request,
+            @CurrentUser UUID userId) {
         InvoicePaymentResponse updatedPayment = paymentService.updatePayment(userId, invoiceId, paymentId, request);
         return ResponseEntity.ok(updatedPayment);
     }
@@ -78,8 +64,8 @@ public class PaymentController {
     @DeleteMapping("/{paymentId}")
     public ResponseEntity<Void> deletePayment(
             @PathVariable UUID invoiceId,
-            @PathVariable UUID paymentId) {
-        UUID userId = getCurrentUserId();
+            @PathVariable UUID paymentId,
+            @CurrentUser UUID userId) {
         paymentService.deletePayment(userId, invoiceId, paymentId);
         return ResponseEntity.noContent().build();
     }
@@ -88,24 +74,22 @@ public class PaymentController {
     @GetMapping("/status/{status}")
     public ResponseEntity<List<InvoicePaymentResponse>> getPaymentsByStatus(
             @PathVariable UUID invoiceId,
-            @PathVariable String status) {
-        UUID userId = getCurrentUserId();
+            @PathVariable String status,
+            @CurrentUser UUID userId) {
         List<InvoicePaymentResponse> payments = paymentService.getPaymentsByStatus(userId, invoiceId, status);
         return ResponseEntity.ok(payments);
     }
 
     // Get total payments for user
     @GetMapping("/user-total")
-    public ResponseEntity<String> getTotalPaymentsByUser() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<String> getTotalPaymentsByUser(@CurrentUser UUID userId) {
         BigDecimal total = paymentService.getTotalPaymentsByUser(userId);
         return ResponseEntity.ok(total.toString());
     }
 
     // Get total payments for client
     @GetMapping("/client-total/{clientId}")
-    public ResponseEntity<String> getTotalPaymentsByClient(@PathVariable UUID clientId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<String> getTotalPaymentsByClient(@PathVariable UUID clientId, @CurrentUser UUID userId) {
         BigDecimal total = paymentService.getTotalPaymentsByClient(userId, clientId);
         return ResponseEntity.ok(total.toString());
     }
@@ -0,0 +1,67 @@
+package com.example.freelanceapp.controllers;
+
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import com.example.freelanceapp.dtos.quote.QuoteResponse;
+import com.example.freelanceapp.services.PublicLinkService;
+import com.example.freelanceapp.utils.ApiPaths;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Signed public links (no authentication required)
+@RestController
+@RequestMapping(ApiPaths.PUBLIC)
+@RequiredArgsConstructor
+public class PublicLinkController {
+
+    private final PublicLinkService publicLinkService;
+
+    // Helper method to get client info from request
+    private String getClientIp(HttpServletRequest request) {
+        String xfHeader = request.getHeader("X-Forwarded-For");
+        if (xfHeader != null) {
+            return xfHeader.split(",")[0];
+        }
+        return request.getRemoteAddr();
+    }
+
+    // View invoice through a signed link
+    @GetMapping("/invoices/{token}")
+    public ResponseEntity<InvoiceResponse> viewInvoice(@PathVariable String token) {
+        return ResponseEntity.ok(publicLinkService.viewInvoice(token));
+    }
+
+    // View quote through a signed link
+    @GetMapping("/quotes/{token}")
+    public ResponseEntity<QuoteResponse> viewQuote(
+            @PathVariable String token,
+            HttpServletRequest httpRequest) {
+        String ipAddress = getClientIp(httpRequest);
+        String userAgent = httpRequest.getHeader("User-Agent");
+        
+        return ResponseEntity.ok(publicLinkService.viewQuote(token, ipAddress, userAgent));
+    }
+
+    // Accept quote through a signed link
+    @PostMapping("/quotes/{token}/accept")
+    public ResponseEntity<QuoteResponse> acceptQuote(
+            @PathVariable String token,
+            HttpServletRequest httpRequest) {
+        String ipAddress = getClientIp(httpRequest);
+        String userAgent = httpRequest.getHeader("User-Agent");
+        
+        return ResponseEntity.ok(publicLinkService.acceptQuote(token, ipAddress, userAgent));
+    }
+
+    // Reject quote through a signed link
+    @PostMapping("/quotes/{token}/reject")
+    public ResponseEntity<QuoteResponse> rejectQuote(
+            @PathVariable String token,
+            HttpServletRequest httpRequest) {
+        String ipAddress = getClientIp(httpRequest);
+        String userAgent = httpRequest.getHeader("User-Agent");
+        
+        return ResponseEntity.ok(publicLinkService.rejectQuote(token, ipAddress, userAgent));
+    }
+}
@@ -1,19 +1,24 @@
 package com.example.freelanceapp.controllers;
 
+import com.example.freelanceapp.config.CurrentUser;
+import com.example.freelanceapp.dtos.publiclink.PublicLinkResponse;
 import com.example.freelanceapp.dtos.quote.*;
-import com.example.freelanceapp.entities.User;
-import com.example.freelanceapp.repositories.UserRepository;
+import com.example.freelanceapp.services.DocumentRenderService;
+import com.example.freelanceapp.services.PublicLinkService;
 import com.example.freelanceapp.services.QuoteService;
+import com.example.freelanceapp.utils.ApiPaths;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -22,21 +27,12 @@ import java.util.List;
 import java.util.UUID;
 
 @RestController
-@RequestMapping("/api/user/client/quotes")
+@RequestMapping(ApiPaths.QUOTES)
 @RequiredArgsConstructor
 public class QuoteController {
 
     private final QuoteService quoteService;
-    private final UserRepository userRepository; // inject repository
-
-    // Helper method to get current user ID
-    private UUID getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-        return user.getId();
-    }
+    private final PublicLinkService publicLinkService;
 
     // Helper method to get client info from request
     private String getClientIp(HttpServletRequest request) {
@@ -51,8 +47,8 @@ public class QuoteController {
     @PostMapping
     public ResponseEntity<QuoteResponse> createQuote(
             @Valid @RequestBody QuoteRequest request,
-            HttpServletRequest httpRequest) {
-        UUID userId = getCurrentUserId();
+            HttpServletRequest httpRequest,
+            @CurrentUser UUID userId) {
         String ipAddress = getClientIp(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
         
@@ -62,24 +58,21 @@ public class QuoteController {
 
     // Get all quotes
     @GetMapping
-    public ResponseEntity<List<QuoteResponse>> getAllQuotes() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<QuoteResponse>> getAllQuotes(@CurrentUser UUID userId) {
         List<QuoteResponse> quotes = quoteService.getAllQuotes(userId);
         return ResponseEntity.ok(quotes);
     }
 
     // Get all quotes with pagination
     @GetMapping("/paginated")
-    public ResponseEntity<Page<QuoteResponse>> getAllQuotesPaginated(Pageable pageable) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Page<QuoteResponse>> getAllQuotesPaginated(Pageable pageable, @CurrentUser UUID userId) {
         Page<QuoteResponse> quotes = quoteService.getAllQuotes(userId, pageable);
         return ResponseEntity.ok(quotes);
     }
 
     // Get quote by ID
     @GetMapping("/{quoteId}")
-    public ResponseEntity<QuoteResponse> getQuoteById(@PathVariable UUID quoteId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<QuoteResponse> getQuoteById(@PathVariable UUID quoteId, @CurrentUser UUID userId) {
         QuoteResponse quote = quoteService.getQuoteById(userId, quoteId);
         return ResponseEntity.ok(quote);
     }
@@ -89,8 +82,8 @@ public class QuoteController {
     public ResponseEntity<QuoteResponse> updateQuote(
             @PathVariable UUID quoteId,
             @Valid @RequestBody QuoteRequest request,
-            HttpServletRequest httpRequest) {
-        UUID userId = getCurrentUserId();
+            HttpServletRequest httpRequest,
+            @CurrentUser UUID userId) {
         String ipAddress = getClientIp(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
         
@@ -100,8 +93,7 @@ public class QuoteController {
 
     // Delete quote
     @DeleteMapping("/{quoteId}")
-    public ResponseEntity<Void> deleteQuote(@PathVariable UUID quoteId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Void> deleteQuote(@PathVariable UUID quoteId, @CurrentUser UUID userId) {
         quoteService.deleteQuote(userId, quoteId);
         return ResponseEntity.noContent().build();
     }
@@ -110,8 +102,8 @@ public class QuoteController {
     @PostMapping("/{quoteId}/send")
     public ResponseEntity<QuoteResponse> sendQuote(
             @PathVariable UUID quoteId,
-            HttpServletRequest httpRequest) {
-        UUID userId = getCurrentUserId();
+            HttpServletRequest httpRequest,
+            @CurrentUser UUID userId) {
         String ipAddress = getClientIp(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
         
@@ -119,12 +111,32 @@ public class QuoteController {
         return ResponseEntity.ok(sentQuote);
     }
 
+    // Issue a signed, expiring public link
+    @PostMapping("/{quoteId}/public-link")
+    public ResponseEntity<PublicLinkResponse> createQuotePublicLink(
+            @PathVariable UUID quoteId,
+            @RequestParam(required = false) Integer ttlDays,
+            @CurrentUser UUID userId) {
+        PublicLinkResponse link = publicLinkService.createQuoteLink(userId, quoteId, ttlDays);
+        return ResponseEntity.status(HttpStatus.CREATED).body(link);
+    }
+
+    // Download the quote PDF
+    @GetMapping("/{quoteId}/pdf")
+    public ResponseEntity<Resource> getQuotePdf(@PathVariable UUID quoteId, @CurrentUser UUID userId) {
+        DocumentRenderService.RenderedPdf pdf = quoteService.getQuotePdf(userId, quoteId);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_PDF)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + pdf.fileName() + "\"")
+            .body(new FileSystemResource(pdf.path()));
+    }
+
     // Duplicate quote
     @PostMapping("/{quoteId}/duplicate")
     public ResponseEntity<QuoteResponse> duplicateQuote(
             @PathVariable UUID quoteId,
-            HttpServletRequest httpRequest) {
-        UUID userId = getCurrentUserId();
+            HttpServletRequest httpRequest,
+            @CurrentUser UUID userId) {
         String ipAddress = getClientIp(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
         
@@ -134,56 +146,52 @@ public class QuoteController {
 
     // Get quotes by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<QuoteResponse>> getQuotesByStatus(@PathVariable String status) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<QuoteResponse>> getQuotesByStatus(@PathVariable String status, @CurrentUser UUID userId) {
         List<QuoteResponse> quotes = quoteService.getQuotesByStatus(userId, status);
         return ResponseEntity.ok(quotes);
     }
 
     // Get quotes by client
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<List<QuoteResponse>> getQuotesByClient(@PathVariable UUID clientId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<QuoteResponse>> getQuotesByClient(@PathVariable UUID clientId, @CurrentUser UUID userId) {
         List<QuoteResponse> quotes = quoteService.getQuotesByClient(userId, clientId);
         return ResponseEntity.ok(quotes);
     }
 
     // Get quotes by project
     @GetMapping("/project/{projectId}")
-    public ResponseEntity<List<QuoteResponse>> getQuotesByProject(@PathVariable UUID projectId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<QuoteResponse>> getQuotesByProject(@PathVariable UUID projectId, @CurrentUser UUID userId) {
         List<QuoteResponse> quotes = quoteService.getQuotesByProject(userId, projectId);
         return ResponseEntity.ok(quotes);
     }
 
     // Search quotes
     @GetMapping("/search")
-    public ResponseEntity<List<QuoteResponse>> searchQuotes(@RequestParam String query) {
-        UUID userId = getCurrentUserId();
-        List<QuoteResponse> quotes = quoteService.searchQuotes(userId, query);
+    public ResponseEntity<List<QuoteResponse>> searchQuotes(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer limit,
+            @CurrentUser UUID userId) {
+        List<QuoteResponse> quotes = quoteService.searchQuotes(userId, query, limit);
         return ResponseEntity.ok(quotes);
     }
 
     // Get quote summary
     @GetMapping("/{quoteId}/summary")
-    public ResponseEntity<QuoteSummaryResponse> getQuoteSummary(@PathVariable UUID quoteId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<QuoteSummaryResponse> getQuoteSummary(@PathVariable UUID quoteId, @CurrentUser UUID userId) {
         QuoteSummaryResponse summary = quoteService.getQuoteSummary(userId, quoteId);
         return ResponseEntity.ok(summary);
     }
 
     // Get quote history
     @GetMapping("/{quoteId}/history")
-    public ResponseEntity<List<QuoteHistoryResponse>> getQuoteHistory(@PathVariable UUID quoteId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<QuoteHistoryResponse>> getQuoteHistory(@PathVariable UUID quoteId, @CurrentUser UUID userId) {
         List<QuoteHistoryResponse> history = quoteService.getQuoteHistory(userId, quoteId);
         return ResponseEntity.ok(history);
     }
 
     // Get expired quotes
     @GetMapping("/expired")
-    public ResponseEntity<List<QuoteResponse>> getExpiredQuotes() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<QuoteResponse>> getExpiredQuotes(@CurrentUser UUID userId) {
         List<QuoteResponse> quotes = quoteService.getExpiredQuotes(userId);
         return ResponseEntity.ok(quotes);
     }
@@ -192,32 +200,29 @@ public class QuoteController {
     @GetMapping("/valid-until-range")
     public ResponseEntity<List<QuoteResponse>> getQuotesByValidUntilRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        UUID userId = getCurrentUserId();
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @CurrentUser UUID userId) {
         List<QuoteResponse> quotes = quoteService.getQuotesByValidUntilRange(userId, startDate, endDate);
         return ResponseEntity.ok(quotes);
     }
 
     // Get quotes count
     @GetMapping("/count")
-    public ResponseEntity<Long> getQuotesCount() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Long> getQuotesCount(@CurrentUser UUID userId) {
         Long count = quoteService.getQuotesCount(userId);
         return ResponseEntity.ok(count);
     }
 
     // Get quotes count by status
     @GetMapping("/count/status/{status}")
-    public ResponseEntity<Long> getQuotesCountByStatus(@PathVariable String status) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Long> getQuotesCountByStatus(@PathVariable String status, @CurrentUser UUID userId) {
         Long count = quoteService.getQuotesCountByStatus(userId, status);
         return ResponseEntity.ok(count);
     }
 
     // Get accepted quotes total amount
     @GetMapping("/accepted-total")
-    public ResponseEntity<String> getAcceptedQuotesTotal() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<String> getAcceptedQuotesTotal(@CurrentUser UUID userId) {
         BigDecimal total = quoteService.getAcceptedQuotesTotal(userId);
         return ResponseEntity.ok(total.toString());
     }
@@ -225,8 +230,8 @@ public class QuoteController {
     // Get recent quotes
     @GetMapping("/recent")
     public ResponseEntity<List<QuoteResponse>> getRecentQuotes(
-            @RequestParam(defaultValue = "5") int limit) {
-        UUID userId = getCurrentUserId();
+            @RequestParam(defaultValue = "5") int limit,
+            @CurrentUser UUID userId) {
         List<QuoteResponse> recentQuotes = quoteService.getRecentQuotes(userId, limit);
         return ResponseEntity.ok(recentQuotes);
     }
@@ -235,15 +240,17 @@ public class QuoteController {
     @PatchMapping("/{quoteId}/status")
     public ResponseEntity<QuoteResponse> updateQuoteStatus(
             @PathVariable UUID quoteId,
-            @RequestParam String status) {
-        UUID userId = getCurrentUserId();
+            @RequestParam String status,
+            @CurrentUser UUID userId) {
         QuoteResponse updatedQuote = quoteService.updateQuoteStatus(userId, quoteId, status);
         return ResponseEntity.ok(updatedQuote);
     }
 
-    // ========== PUBLIC ENDPOINTS (No authentication required) ==========
+    // ========== LEGACY PUBLIC ENDPOINTS (No authentication required) ==========
+    // Deprecated: links already sent to clients use these; new links are signed (see PublicLinkController)
 
     // Get quote by public hash (for client viewing)
+    @Deprecated
     @GetMapping("/public/{publicHash}")
     public ResponseEntity<QuoteResponse> getQuoteByPublicHash(
             @PathVariable String publicHash,
@@ -251,14 +258,11 @@ public class QuoteController {
         String ipAddress = getClientIp(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
         
-        // Record view
-        quoteService.viewQuote(publicHash, ipAddress, userAgent);
-        
-        QuoteResponse quote = quoteService.getQuoteByPublicHash(publicHash);
-        return ResponseEntity.ok(quote);
+        return ResponseEntity.ok(publicLinkService.viewQuoteByPublicHash(publicHash, ipAddress, userAgent));
     }
 
-    // Accept quote (for client action)
+    // Accept quote by public hash (for client action)
+    @Deprecated
     @PostMapping("/public/{publicHash}/accept")
     public ResponseEntity<QuoteResponse> acceptQuote(
             @PathVariable String publicHash,
@@ -266,11 +270,11 @@ public class QuoteController {
         String ipAddress = getClientIp(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
         
-        QuoteResponse acceptedQuote = quoteService.acceptQuote(publicHash, ipAddress, userAgent);
-        return ResponseEntity.ok(acceptedQuote);
+        return ResponseEntity.ok(publicLinkService.acceptQuoteByPublicHash(publicHash, ipAddress, userAgent));
     }
 
-    // Reject quote (for client action)
+    // Reject quote by public hash (for client action)
+    @Deprecated
     @PostMapping("/public/{publicHash}/reject")
     public ResponseEntity<QuoteResponse> rejectQuote(
             @PathVariable String publicHash,
@@ -278,7 +282,6 @@ public class QuoteController {
         String ipAddress = getClientIp(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
         
-        QuoteResponse rejectedQuote = quoteService.rejectQuote(publicHash, ipAddress, userAgent);
-        return ResponseEntity.ok(rejectedQuote);
+        return ResponseEntity.ok(publicLinkService.rejectQuoteByPublicHash(publicHash, ipAddress, userAgent));
     }
 }
\ No newline at end of file
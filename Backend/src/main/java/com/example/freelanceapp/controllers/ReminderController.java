@@ -1,20 +1,19 @@
 package com.example.freelanceapp.controllers;
 
+import com.example.freelanceapp.config.CurrentUser;
 import com.example.freelanceapp.dtos.reminder.*;
-import com.example.freelanceapp.entities.User;
-import com.example.freelanceapp.repositories.UserRepository;
 import com.example.freelanceapp.services.ReminderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -27,46 +26,33 @@ import java.util.UUID;
 public class ReminderController {
 
     private final ReminderService reminderService;
-    private final UserRepository userRepository; // inject repository
-
-    // Helper method to get current user ID
-    private UUID getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-        return user.getId();
-    }
 
     // Create a new reminder
     @PostMapping
     public ResponseEntity<ReminderResponse> createReminder(
-            @Valid @RequestBody ReminderRequest request) {
-        UUID userId = getCurrentUserId();
+            @Valid @RequestBody ReminderRequest request,
+            @CurrentUser UUID userId) {
         ReminderResponse response = reminderService.createReminder(userId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     // Get all reminders
     @GetMapping
-    public ResponseEntity<List<ReminderResponse>> getAllReminders() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ReminderResponse>> getAllReminders(@CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.getAllReminders(userId);
         return ResponseEntity.ok(reminders);
     }
 
     // Get all reminders with pagination
     @GetMapping("/paginated")
-    public ResponseEntity<Page<ReminderResponse>> getAllRemindersPaginated(Pageable pageable) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Page<ReminderResponse>> getAllRemindersPaginated(Pageable pageable, @CurrentUser UUID userId) {
         Page<ReminderResponse> reminders = reminderService.getAllReminders(userId, pageable);
         return ResponseEntity.ok(reminders);
     }
 
     // Get reminder by ID
     @GetMapping("/{reminderId}")
-    public ResponseEntity<ReminderResponse> getReminderById(@PathVariable UUID reminderId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ReminderResponse> getReminderById(@PathVariable UUID reminderId, @CurrentUser UUID userId) {
         ReminderResponse reminder = reminderService.getReminderById(userId, reminderId);
         return ResponseEntity.ok(reminder);
     }
@@ -75,40 +61,36 @@ public class ReminderController {
     @PutMapping("/{reminderId}")
     public ResponseEntity<ReminderResponse> updateReminder(
             @PathVariable UUID reminderId,
-            @Valid @RequestBody ReminderRequest request) {
-        UUID userId = getCurrentUserId();
+            @Valid @RequestBody ReminderRequest request,
+            @CurrentUser UUID userId) {
         ReminderResponse updatedReminder = reminderService.updateReminder(userId, reminderId, request);
         return ResponseEntity.ok(updatedReminder);
     }
 
     // Delete reminder
     @DeleteMapping("/{reminderId}")
-    public ResponseEntity<Void> deleteReminder(@PathVariable UUID reminderId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Void> deleteReminder(@PathVariable UUID reminderId, @CurrentUser UUID userId) {
         reminderService.deleteReminder(userId, reminderId);
         return ResponseEntity.noContent().build();
     }
 
     // Mark reminder as completed
     @PostMapping("/{reminderId}/complete")
-    public ResponseEntity<ReminderResponse> markAsCompleted(@PathVariable UUID reminderId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ReminderResponse> markAsCompleted(@PathVariable UUID reminderId, @CurrentUser UUID userId) {
         ReminderResponse completedReminder = reminderService.markAsCompleted(userId, reminderId);
         return ResponseEntity.ok(completedReminder);
     }
 
     // Mark reminder as pending
     @PostMapping("/{reminderId}/pending")
-    public ResponseEntity<ReminderResponse> markAsPending(@PathVariable UUID reminderId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ReminderResponse> markAsPending(@PathVariable UUID reminderId, @CurrentUser UUID userId) {
         ReminderResponse pendingReminder = reminderService.markAsPending(userId, reminderId);
         return ResponseEntity.ok(pendingReminder);
     }
 
     // Cancel reminder
     @PostMapping("/{reminderId}/cancel")
-    public ResponseEntity<ReminderResponse> cancelReminder(@PathVariable UUID reminderId) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ReminderResponse> cancelReminder(@PathVariable UUID reminderId, @CurrentUser UUID userId) {
         ReminderResponse cancelledReminder = reminderService.cancelReminder(userId, reminderId);
         return ResponseEntity.ok(cancelledReminder);
     }
@@ -118,24 +100,32 @@ public class ReminderController {
     public ResponseEntity<ReminderResponse> snoozeReminder(
             @PathVariable UUID reminderId,
             @RequestParam(defaultValue = "1") int days,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime newTime) {
-        UUID userId = getCurrentUserId();
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime newTime,
+            @CurrentUser UUID userId) {
         ReminderResponse snoozedReminder = reminderService.snoozeReminder(userId, reminderId, days, newTime);
         return ResponseEntity.ok(snoozedReminder);
     }
 
+    // Cancel one occurrence of a recurring reminder
+    @PostMapping("/{reminderId}/occurrences/{occurrenceDate}/cancel")
+    public ResponseEntity<ReminderResponse> cancelOccurrence(
+            @PathVariable UUID reminderId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate occurrenceDate,
+            @CurrentUser UUID userId) {
+        ReminderResponse reminder = reminderService.cancelOccurrence(userId, reminderId, occurrenceDate);
+        return ResponseEntity.ok(reminder);
+    }
+
     // Get reminders by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<ReminderResponse>> getRemindersByStatus(@PathVariable String status) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ReminderResponse>> getRemindersByStatus(@PathVariable String status, @CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.getRemindersByStatus(userId, status);
         return ResponseEntity.ok(reminders);
     }
 
     // Get reminders by priority
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<ReminderResponse>> getRemindersByPriority(@PathVariable String priority) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ReminderResponse>> getRemindersByPriority(@PathVariable String priority, @CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.getRemindersByPriority(userId, priority);
         return ResponseEntity.ok(reminders);
     }
@@ -144,40 +134,52 @@ public class ReminderController {
     @GetMapping("/related/{relatedType}/{relatedId}")
     public ResponseEntity<List<ReminderResponse>> getRemindersByRelatedEntity(
             @PathVariable String relatedType,
-            @PathVariable UUID relatedId) {
-        UUID userId = getCurrentUserId();
+            @PathVariable UUID relatedId,
+            @CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.getRemindersByRelatedEntity(userId, relatedType, relatedId);
         return ResponseEntity.ok(reminders);
     }
 
     // Search reminders
     @GetMapping("/search")
-    public ResponseEntity<List<ReminderResponse>> searchReminders(@RequestParam String query) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ReminderResponse>> searchReminders(@RequestParam String query, @CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.searchReminders(userId, query);
         return ResponseEntity.ok(reminders);
     }
 
     // Get reminder summary
     @GetMapping("/summary")
-    public ResponseEntity<ReminderSummaryResponse> getReminderSummary() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<ReminderSummaryResponse> getReminderSummary(@CurrentUser UUID userId) {
         ReminderSummaryResponse summary = reminderService.getReminderSummary(userId);
         return ResponseEntity.ok(summary);
     }
 
+    // Get header badge counts (overdue and due today); polled by the header bar
+    @GetMapping("/badge")
+    public ResponseEntity<ReminderBadgeResponse> getReminderBadge(@CurrentUser UUID userId) {
+        ReminderBadgeResponse badge = reminderService.getReminderBadge(userId);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofSeconds(reminderService.getBadgeMaxAgeSeconds())).cachePrivate())
+            .body(badge);
+    }
+
+    // Get recently fired reminders (in-app notification feed)
+    @GetMapping("/notifications")
+    public ResponseEntity<List<ReminderNotificationResponse>> getReminderNotifications(@CurrentUser UUID userId) {
+        List<ReminderNotificationResponse> notifications = reminderService.getReminderNotifications(userId);
+        return ResponseEntity.ok(notifications);
+    }
+
     // Get due today reminders
     @GetMapping("/due-today")
-    public ResponseEntity<List<ReminderResponse>> getDueTodayReminders() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ReminderResponse>> getDueTodayReminders(@CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.getDueTodayReminders(userId);
         return ResponseEntity.ok(reminders);
     }
 
     // Get overdue reminders
     @GetMapping("/overdue")
-    public ResponseEntity<List<ReminderResponse>> getOverdueReminders() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ReminderResponse>> getOverdueReminders(@CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.getOverdueReminders(userId);
         return ResponseEntity.ok(reminders);
     }
@@ -185,8 +187,8 @@ public class ReminderController {
     // Get upcoming reminders
     @GetMapping("/upcoming")
     public ResponseEntity<List<UpcomingReminderResponse>> getUpcomingReminders(
-            @RequestParam(defaultValue = "10") int limit) {
-        UUID userId = getCurrentUserId();
+            @RequestParam(defaultValue = "10") int limit,
+            @CurrentUser UUID userId) {
         List<UpcomingReminderResponse> reminders = reminderService.getUpcomingReminders(userId, limit);
         return ResponseEntity.ok(reminders);
     }
@@ -195,8 +197,8 @@ public class ReminderController {
     @GetMapping("/due-range")
     public ResponseEntity<List<ReminderResponse>> getRemindersByDueDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        UUID userId = getCurrentUserId();
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.getRemindersByDueDateRange(userId, startDate, endDate);
         return ResponseEntity.ok(reminders);
     }
@@ -205,40 +207,36 @@ public class ReminderController {
     @GetMapping("/completed-range")
     public ResponseEntity<List<ReminderResponse>> getCompletedRemindersInRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        UUID userId = getCurrentUserId();
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.getCompletedRemindersInRange(userId, startDate, endDate);
         return ResponseEntity.ok(reminders);
     }
 
     // Get active recurring reminders
     @GetMapping("/recurring")
-    public ResponseEntity<List<ReminderResponse>> getActiveRecurringReminders() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<List<ReminderResponse>> getActiveRecurringReminders(@CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.getActiveRecurringReminders(userId);
         return ResponseEntity.ok(reminders);
     }
 
     // Get reminders count
     @GetMapping("/count")
-    public ResponseEntity<Long> getRemindersCount() {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Long> getRemindersCount(@CurrentUser UUID userId) {
         Long count = reminderService.getRemindersCount(userId);
         return ResponseEntity.ok(count);
     }
 
     // Get reminders count by status
     @GetMapping("/count/status/{status}")
-    public ResponseEntity<Long> getRemindersCountByStatus(@PathVariable String status) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Long> getRemindersCountByStatus(@PathVariable String status, @CurrentUser UUID userId) {
         Long count = reminderService.getRemindersCountByStatus(userId, status);
         return ResponseEntity.ok(count);
     }
 
     // Get reminders count by priority
     @GetMapping("/count/priority/{priority}")
-    public ResponseEntity<Long> getRemindersCountByPriority(@PathVariable String priority) {
-        UUID userId = getCurrentUserId();
+    public ResponseEntity<Long> getRemindersCountByPriority(@PathVariable String priority, @CurrentUser UUID userId) {
         Long count = reminderService.getRemindersCountByPriority(userId, priority);
         return ResponseEntity.ok(count);
     }
@@ -246,8 +244,8 @@ public class ReminderController {
     // Get recent reminders
     @GetMapping("/recent")
     public ResponseEntity<List<ReminderResponse>> getRecentReminders(
-            @RequestParam(defaultValue = "5") int limit) {
-        UUID userId = getCurrentUserId();
+            @RequestParam(defaultValue = "5") int limit,
+            @CurrentUser UUID userId) {
         List<ReminderResponse> reminders = reminderService.getRecentReminders(userId, limit);
         return ResponseEntity.ok(reminders);
     }
@@ -256,9 +254,27 @@ public class ReminderController {
     @PostMapping("/bulk-update")
     public ResponseEntity<Void> bulkUpdateReminderStatus(
             @RequestBody List<UUID> reminderIds,
-            @RequestParam String status) {
-        UUID userId = getCurrentUserId();
+            @RequestParam String status,
+            @CurrentUser UUID userId) {
         reminderService.bulkUpdateReminderStatus(userId, reminderIds, status);
         return ResponseEntity.noContent().build();
     }
+
+    // Bulk snooze reminders
+    @PostMapping("/bulk-snooze")
+    public ResponseEntity<Void> bulkSnoozeReminders(
+            @RequestBody List<UUID> reminderIds,
+            @RequestParam(defaultValue = "1") int days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime newTime,
+            @CurrentUser UUID userId) {
+        reminderService.bulkSnoozeReminders(userId, reminderIds, days, newTime);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Bulk delete reminders
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<Void> bulkDeleteReminders(@RequestBody List<UUID> reminderIds, @CurrentUser UUID userId) {
+        reminderService.bulkDeleteReminders(userId, reminderIds);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.example.freelanceapp.controllers;
+
+import com.example.freelanceapp.config.CurrentUser;
+import com.example.freelanceapp.dtos.search.SearchResponse;
+import com.example.freelanceapp.services.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    // Search clients, projects, quotes, invoices and reminders in one request
+    @GetMapping
+    public ResponseEntity<SearchResponse> search(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer limit,
+            @CurrentUser UUID userId) {
+        SearchResponse response = searchService.search(userId, query, limit);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.freelanceapp.dtos.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSummaryResponse {
+    // Invoices
+    private Long invoiceCount;
+    private Map<String, Long> invoiceCountByStatus;
+    private BigDecimal totalInvoiced;
+    private BigDecimal totalPaid;
+    private BigDecimal totalBalanceDue;
+    private BigDecimal overdueBalance;
+
+    // Quotes
+    private Long quoteCount;
+    private Map<String, Long> quoteCountByStatus;
+    private BigDecimal acceptedQuotesTotal;
+
+    // Payments
+    private Long completedPaymentCount;
+    private BigDecimal totalPaymentsReceived;
+    private Long pendingPaymentCount;
+    private BigDecimal pendingPaymentsTotal;
+
+    private LocalDateTime updatedAt; // when the figures last changed
+}
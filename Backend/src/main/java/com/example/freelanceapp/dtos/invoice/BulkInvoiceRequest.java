@@ -0,0 +1,18 @@
+package com.example.freelanceapp.dtos.invoice;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkInvoiceRequest {
+    
+    // Elements are validated one by one so a bad entry fails only itself
+    @NotEmpty(message = "At least one invoice is required")
+    private List<InvoiceRequest> invoices;
+}
@@ -0,0 +1,17 @@
+package com.example.freelanceapp.dtos.invoice;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkInvoiceResponse {
+    private int requested;
+    private int created;
+    private int failed;
+    private List<BulkInvoiceResult> results;
+}
@@ -0,0 +1,15 @@
+package com.example.freelanceapp.dtos.invoice;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkInvoiceResult {
+    private int index;
+    private boolean created;
+    private InvoiceListItemResponse invoice;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.example.freelanceapp.dtos.invoice;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceAgingBucketResponse {
+    private String agingCategory; // Paid, Current, 1-30 Days, 31-60 Days, 61-90 Days, Over 90 Days
+    private Long invoiceCount;
+    private BigDecimal totalAmount;
+    private BigDecimal amountPaid;
+    private BigDecimal balanceDue;
+}
@@ -0,0 +1,28 @@
+package com.example.freelanceapp.dtos.invoice;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceListItemResponse {
+    private UUID id;
+    private String invoiceNumber;
+    private String title;
+    private UUID clientId;
+    private String clientName;
+    private String status;
+    private LocalDate issueDate;
+    private LocalDate dueDate;
+    private BigDecimal totalAmount;
+    private BigDecimal balanceDue;
+    private String currency;
+    private LocalDateTime createdAt;
+}
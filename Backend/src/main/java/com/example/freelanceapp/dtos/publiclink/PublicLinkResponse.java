@@ -0,0 +1,19 @@
+package com.example.freelanceapp.dtos.publiclink;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicLinkResponse {
+    private String documentType;
+    private UUID documentId;
+    private String token;
+    private String path;
+    private LocalDateTime expiresAt;
+}
@@ -25,4 +25,5 @@ public class QuoteItemRequest {
     private BigDecimal taxRate;
     private BigDecimal discount;
     private Integer sortOrder;
+    private String id; // existing item to update; omit for a new item
 }
\ No newline at end of file
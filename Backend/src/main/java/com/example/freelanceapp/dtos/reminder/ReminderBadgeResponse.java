@@ -0,0 +1,14 @@
+package com.example.freelanceapp.dtos.reminder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderBadgeResponse {
+    private Long overdueCount;
+    private Long dueTodayCount;
+    private Long attentionCount; // overdue + due today
+}
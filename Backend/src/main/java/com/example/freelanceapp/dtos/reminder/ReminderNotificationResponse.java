@@ -0,0 +1,21 @@
+package com.example.freelanceapp.dtos.reminder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderNotificationResponse {
+    private UUID reminderId;
+    private String title;
+    private String description;
+    private String relatedType;
+    private UUID relatedId;
+    private LocalDateTime dueAt;
+    private LocalDateTime firedAt;
+}
@@ -25,5 +25,7 @@ public class ReminderRequest {
     private String status;
     private String priority; // low, medium, high
     private Boolean isRecurring;
-    private String recurrencePattern; // daily, weekly, monthly
+    private String recurrencePattern; // daily, weekly, monthly, yearly
+    private Integer recurrenceInterval; // every n periods (default 1)
+    private LocalDate recurrenceUntil; // last possible occurrence date
 }
\ No newline at end of file
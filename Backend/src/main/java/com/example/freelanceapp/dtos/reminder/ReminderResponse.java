@@ -26,6 +26,9 @@ public class ReminderResponse {
     private String priority;
     private Boolean isRecurring;
     private String recurrencePattern;
+    private Integer recurrenceInterval;
+    private LocalDate recurrenceUntil;
+    private LocalDate occurrenceDate; // nominal series date of this occurrence
     private LocalDateTime completedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -0,0 +1,16 @@
+package com.example.freelanceapp.dtos.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteResponse {
+    private UUID id;
+    private String label;
+    private String detail;
+}
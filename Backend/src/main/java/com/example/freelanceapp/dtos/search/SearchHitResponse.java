@@ -0,0 +1,18 @@
+package com.example.freelanceapp.dtos.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitResponse {
+    private String type; // client, project, quote, invoice, reminder
+    private UUID id;
+    private String label;
+    private String detail;
+    private double score;
+}
@@ -0,0 +1,16 @@
+package com.example.freelanceapp.dtos.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponse {
+    private String query;
+    private List<SearchHitResponse> hits;
+    private List<String> incompleteTypes; // types that missed the deadline or failed
+}
@@ -0,0 +1,28 @@
+package com.example.freelanceapp.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "document_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSequence {
+
+    @Id
+    @Column(name = "sequence_key", length = 50)
+    private String sequenceKey; // prefix + period, e.g. INV-202601
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue; // first number not yet reserved by any node
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
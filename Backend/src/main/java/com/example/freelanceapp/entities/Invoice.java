@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -13,14 +14,21 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "invoices")
+@Table(
+    name = "invoices",
+    indexes = @Index(name = "idx_invoices_user_created", columnList = "user_id, created_at DESC, id DESC")
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Invoice {
 
+    // The overdue rule as a SQL condition on invoices, for the sweep; isOverdueOn is the same rule
+    public static final String OVERDUE_CONDITION =
+        "sent_at IS NOT NULL AND due_date < :today AND balance_due > 0 AND amount_paid = 0";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -44,7 +52,6 @@ public class Invoice {
         nullable = false,
         unique = true,
         length = 50,
-        insertable = false,
         updatable = false
     )
     private String invoiceNumber;
@@ -116,4 +123,13 @@ public class Invoice {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    // Unpaid and past due on the given day, and sent: a draft has not reached the client, so it
+    // never becomes overdue. Keep in step with OVERDUE_CONDITION
+    public boolean isOverdueOn(LocalDate today) {
+        return sentAt != null
+            && dueDate.isBefore(today)
+            && balanceDue.compareTo(BigDecimal.ZERO) > 0
+            && amountPaid.compareTo(BigDecimal.ZERO) == 0;
+    }
+}
@@ -32,7 +32,8 @@ public class QuoteHistory {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
-    @Column(name = "ip_address")
+    @JdbcTypeCode(SqlTypes.INET)
+    @Column(name = "ip_address", columnDefinition = "inet")
     private String ipAddress;
 
     @Column(name = "user_agent", columnDefinition = "TEXT")
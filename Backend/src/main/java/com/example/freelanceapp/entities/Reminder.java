@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -20,7 +21,7 @@ import java.util.UUID;
 public class Reminder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -57,9 +58,29 @@ public class Reminder {
     @Column(name = "recurrence_pattern", length = 50)
     private String recurrencePattern; // daily, weekly, monthly
 
+    @Column(name = "recurrence_interval")
+    private Integer recurrenceInterval = 1; // every n days/weeks/months/years
+
+    @Column(name = "recurrence_until")
+    private LocalDate recurrenceUntil; // last possible occurrence date
+
+    // Series anchor (first occurrence); occurrences are expanded from here on read
+    @Column(name = "series_start")
+    private LocalDate seriesStart;
+
+    @Column(name = "series_time")
+    private LocalTime seriesTime;
+
+    // Nominal date of the series' current open occurrence (due_date/due_time may differ if it was snoozed)
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    @Column(name = "notified_at")
+    private LocalDateTime notifiedAt; // set when the dispatcher fires the reminder
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
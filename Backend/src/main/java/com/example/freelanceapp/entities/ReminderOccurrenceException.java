@@ -0,0 +1,54 @@
+package com.example.freelanceapp.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+// One occurrence of a recurring reminder that differs from its series (all others are expanded on read)
+@Entity
+@Table(name = "reminder_occurrence_exceptions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderOccurrenceException {
+
+    @Id
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reminder_id", nullable = false)
+    private Reminder reminder;
+
+    @Column(name = "occurrence_date", nullable = false)
+    private LocalDate occurrenceDate; // nominal date in the series
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status; // completed, cancelled, snoozed
+
+    @Column(name = "due_date")
+    private LocalDate dueDate; // snoozed: moved to this date
+
+    @Column(name = "due_time")
+    private LocalTime dueTime; // snoozed: moved to this time
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
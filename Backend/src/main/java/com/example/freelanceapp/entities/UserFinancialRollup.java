@@ -0,0 +1,99 @@
+package com.example.freelanceapp.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "user_financial_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFinancialRollup {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    // Invoices
+    @Column(name = "invoice_count", nullable = false)
+    private Long invoiceCount = 0L;
+
+    @Column(name = "draft_invoice_count", nullable = false)
+    private Long draftInvoiceCount = 0L;
+
+    @Column(name = "sent_invoice_count", nullable = false)
+    private Long sentInvoiceCount = 0L;
+
+    @Column(name = "viewed_invoice_count", nullable = false)
+    private Long viewedInvoiceCount = 0L;
+
+    @Column(name = "partial_invoice_count", nullable = false)
+    private Long partialInvoiceCount = 0L;
+
+    @Column(name = "paid_invoice_count", nullable = false)
+    private Long paidInvoiceCount = 0L;
+
+    @Column(name = "overdue_invoice_count", nullable = false)
+    private Long overdueInvoiceCount = 0L;
+
+    @Column(name = "cancelled_invoice_count", nullable = false)
+    private Long cancelledInvoiceCount = 0L;
+
+    @Column(name = "total_invoiced", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalInvoiced = BigDecimal.ZERO;
+
+    @Column(name = "total_paid", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalPaid = BigDecimal.ZERO;
+
+    @Column(name = "total_balance_due", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalBalanceDue = BigDecimal.ZERO;
+
+    @Column(name = "overdue_balance", nullable = false, precision = 14, scale = 2)
+    private BigDecimal overdueBalance = BigDecimal.ZERO;
+
+    // Quotes
+    @Column(name = "quote_count", nullable = false)
+    private Long quoteCount = 0L;
+
+    @Column(name = "draft_quote_count", nullable = false)
+    private Long draftQuoteCount = 0L;
+
+    @Column(name = "sent_quote_count", nullable = false)
+    private Long sentQuoteCount = 0L;
+
+    @Column(name = "accepted_quote_count", nullable = false)
+    private Long acceptedQuoteCount = 0L;
+
+    @Column(name = "rejected_quote_count", nullable = false)
+    private Long rejectedQuoteCount = 0L;
+
+    @Column(name = "expired_quote_count", nullable = false)
+    private Long expiredQuoteCount = 0L;
+
+    @Column(name = "accepted_quotes_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal acceptedQuotesTotal = BigDecimal.ZERO;
+
+    // Payments
+    @Column(name = "completed_payment_count", nullable = false)
+    private Long completedPaymentCount = 0L;
+
+    @Column(name = "total_payments_received", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalPaymentsReceived = BigDecimal.ZERO;
+
+    @Column(name = "pending_payment_count", nullable = false)
+    private Long pendingPaymentCount = 0L;
+
+    @Column(name = "pending_payments_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal pendingPaymentsTotal = BigDecimal.ZERO;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,6 +25,8 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
     
     Optional<Client> findByIdAndUserId(UUID id, UUID userId);
     
+    List<Client> findByUserIdAndIdIn(UUID userId, Collection<UUID> ids);
+    
     boolean existsByUserIdAndEmail(UUID userId, String email);
     
     boolean existsByUserIdAndCompanyName(UUID userId, String companyName);
@@ -34,6 +37,40 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
            "LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')))")
     List<Client> searchByUser(@Param("userId") UUID userId, @Param("search") String search);
     
+    // Unified search hits: name or email match, best word similarity first (trigram indexes V7/V8)
+    @Query(
+           value = "SELECT c.id AS id, COALESCE(c.company_name, c.contact_name) AS label, c.email AS detail, " +
+                   "CAST(GREATEST(word_similarity(:term, c.company_name), word_similarity(:term, c.contact_name), " +
+                   "word_similarity(:term, c.email)) AS double precision) AS score " +
+                   "FROM clients c " +
+                   "WHERE c.user_id = :userId " +
+                   "AND (c.company_name ILIKE :pattern OR c.contact_name ILIKE :pattern OR c.email ILIKE :pattern) " +
+                   "ORDER BY score DESC, c.id DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true
+    )
+    List<SearchHitRow> findSearchHits(@Param("userId") UUID userId,
+                                      @Param("term") String term,
+                                      @Param("pattern") String pattern,
+                                      @Param("limit") int limit);
+    
+    // Name and email of every client of a user, for the autocomplete index
+    interface ClientAutocompleteRow {
+        UUID getId();
+        String getCompanyName();
+        String getContactName();
+        String getEmail();
+    }
+    
+    @Query("SELECT c.id AS id, c.companyName AS companyName, c.contactName AS contactName, c.email AS email " +
+           "FROM Client c WHERE c.user.id = :userId")
+    List<ClientAutocompleteRow> findAutocompleteRows(@Param("userId") UUID userId);
+    
+    // Display names for a batch of client ids
+    @Query("SELECT c.id AS id, COALESCE(c.companyName, c.contactName) AS name " +
+           "FROM Client c WHERE c.user.id = :userId AND c.id IN :ids")
+    List<EntityNameRow> findNamesByUserIdAndIdIn(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+    
     @Query("SELECT COUNT(c) FROM Client c WHERE c.user.id = :userId")
     Long countByUserId(@Param("userId") UUID userId);
     
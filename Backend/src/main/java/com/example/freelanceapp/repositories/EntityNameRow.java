@@ -0,0 +1,9 @@
+package com.example.freelanceapp.repositories;
+
+import java.util.UUID;
+
+// Id and display name only, for labelling references to clients, projects, quotes and invoices
+public interface EntityNameRow {
+    UUID getId();
+    String getName();
+}
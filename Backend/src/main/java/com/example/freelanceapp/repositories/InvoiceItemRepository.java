@@ -6,7 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,8 +15,8 @@ public interface InvoiceItemRepository extends JpaRepository<InvoiceItem, UUID>
     
     List<InvoiceItem> findByInvoiceId(UUID invoiceId);
     
-    void deleteByInvoiceId(UUID invoiceId);
+    @Query("SELECT ii FROM InvoiceItem ii WHERE ii.invoice.id IN :invoiceIds ORDER BY ii.sortOrder ASC")
+    List<InvoiceItem> findByInvoiceIdIn(@Param("invoiceIds") Collection<UUID> invoiceIds);
     
-    @Query("SELECT SUM(ii.total) FROM InvoiceItem ii WHERE ii.invoice.id = :invoiceId")
-    BigDecimal calculateSubtotalByInvoiceId(@Param("invoiceId") UUID invoiceId);
+    void deleteByInvoiceId(UUID invoiceId);
 }
\ No newline at end of file
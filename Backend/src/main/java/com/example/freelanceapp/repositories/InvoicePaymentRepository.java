@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,11 +16,10 @@ public interface InvoicePaymentRepository extends JpaRepository<InvoicePayment,
     
     List<InvoicePayment> findByInvoiceId(UUID invoiceId);
     
-    List<InvoicePayment> findByInvoiceIdAndStatus(UUID invoiceId, String status);
+    @Query("SELECT ip FROM InvoicePayment ip WHERE ip.invoice.id IN :invoiceIds ORDER BY ip.paymentDate ASC")
+    List<InvoicePayment> findByInvoiceIdIn(@Param("invoiceIds") Collection<UUID> invoiceIds);
     
-    @Query("SELECT COALESCE(SUM(ip.amount), 0) FROM InvoicePayment ip " +
-           "WHERE ip.invoice.id = :invoiceId AND ip.status = 'completed'")
-    BigDecimal sumCompletedPaymentsByInvoiceId(@Param("invoiceId") UUID invoiceId);
+    List<InvoicePayment> findByInvoiceIdAndStatus(UUID invoiceId, String status);
     
     @Query("SELECT COALESCE(SUM(ip.amount), 0) FROM InvoicePayment ip " +
            "WHERE ip.invoice.client.id = :clientId AND ip.status = 'completed'")
@@ -29,5 +29,24 @@ public interface InvoicePaymentRepository extends JpaRepository<InvoicePayment,
            "WHERE ip.invoice.user.id = :userId AND ip.status = 'completed'")
     BigDecimal sumPaidAmountByUserId(@Param("userId") UUID userId);
     
+    // Financial rollup: completed and pending payments for a user in one pass
+    interface PaymentRollupRow {
+        Long getCompletedCount();
+        BigDecimal getCompletedTotal();
+        Long getPendingCount();
+        BigDecimal getPendingTotal();
+    }
+    
+    @Query(
+           value = "SELECT COUNT(*) FILTER (WHERE ip.status = 'completed') AS completedCount, " +
+                   "COALESCE(SUM(ip.amount) FILTER (WHERE ip.status = 'completed'), 0) AS completedTotal, " +
+                   "COUNT(*) FILTER (WHERE ip.status = 'pending') AS pendingCount, " +
+                   "COALESCE(SUM(ip.amount) FILTER (WHERE ip.status = 'pending'), 0) AS pendingTotal " +
+                   "FROM invoice_payments ip JOIN invoices i ON i.id = ip.invoice_id " +
+                   "WHERE i.user_id = :userId",
+           nativeQuery = true
+    )
+    PaymentRollupRow summarizeForRollup(@Param("userId") UUID userId);
+    
     boolean existsByTransactionId(String transactionId);
 }
\ No newline at end of file
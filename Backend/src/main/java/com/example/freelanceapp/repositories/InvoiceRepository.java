@@ -1,46 +1,122 @@
 package com.example.freelanceapp.repositories;
 
 import com.example.freelanceapp.entities.Invoice;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
     
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
     List<Invoice> findByUserId(UUID userId);
     
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
     Page<Invoice> findByUserId(UUID userId, Pageable pageable);
     
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
     List<Invoice> findByUserIdAndStatus(UUID userId, String status);
     
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
     List<Invoice> findByClientId(UUID clientId);
     
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
     List<Invoice> findByProjectId(UUID projectId);
     
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
     List<Invoice> findByQuoteId(UUID quoteId);
     
     Optional<Invoice> findByIdAndUserId(UUID id, UUID userId);
     
+    // Row lock for changes that adjust the stored totals, so concurrent deltas are not lost
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Invoice i WHERE i.id = :id AND i.user.id = :userId")
+    Optional<Invoice> findByIdAndUserIdForUpdate(@Param("id") UUID id, @Param("userId") UUID userId);
+    
     Optional<Invoice> findByInvoiceNumber(String invoiceNumber);
     
-    Optional<Invoice> findByPublicHash(String publicHash);
+    // Document id behind a legacy public hash link
+    @Query("SELECT i.id FROM Invoice i WHERE i.publicHash = :publicHash")
+    Optional<UUID> findIdByPublicHash(@Param("publicHash") String publicHash);
     
-    @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId AND " +
-           "(LOWER(i.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(i.invoiceNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(i.client.companyName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(i.client.contactName) LIKE LOWER(CONCAT('%', :search, '%')))")
-    List<Invoice> searchByUser(@Param("userId") UUID userId, @Param("search") String search);
+    // Ranked search over number, title and client names, served by the trigram indexes (V7).
+    // Candidates come from a UNION so each branch can use its own index; ranking is the best
+    // word similarity across the four columns.
+    @Query(
+           value = "SELECT i.id FROM invoices i JOIN clients c ON c.id = i.client_id " +
+                   "WHERE i.id IN (" +
+                   "  SELECT d.id FROM invoices d WHERE d.user_id = :userId " +
+                   "  AND (d.invoice_number ILIKE :pattern OR d.title ILIKE :pattern) " +
+                   "  UNION " +
+                   "  SELECT d.id FROM invoices d JOIN clients dc ON dc.id = d.client_id " +
+                   "  WHERE d.user_id = :userId AND dc.user_id = :userId " +
+                   "  AND (dc.company_name ILIKE :pattern OR dc.contact_name ILIKE :pattern)" +
+                   ") " +
+                   "ORDER BY GREATEST(word_similarity(:term, i.invoice_number), word_similarity(:term, i.title), " +
+                   "word_similarity(:term, c.company_name), word_similarity(:term, c.contact_name)) DESC, " +
+                   "i.created_at DESC, i.id DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true
+    )
+    List<UUID> searchIdsByUser(@Param("userId") UUID userId,
+                               @Param("term") String term,
+                               @Param("pattern") String pattern,
+                               @Param("limit") int limit);
+    
+    // Unified search hits: same matching and ranking as searchIdsByUser, returned as lightweight rows
+    @Query(
+           value = "SELECT i.id AS id, i.invoice_number AS label, " +
+                   "COALESCE(i.title, c.company_name, c.contact_name) AS detail, " +
+                   "CAST(GREATEST(word_similarity(:term, i.invoice_number), word_similarity(:term, i.title), " +
+                   "word_similarity(:term, c.company_name), word_similarity(:term, c.contact_name)) AS double precision) AS score " +
+                   "FROM invoices i JOIN clients c ON c.id = i.client_id " +
+                   "WHERE i.id IN (" +
+                   "  SELECT d.id FROM invoices d WHERE d.user_id = :userId " +
+                   "  AND (d.invoice_number ILIKE :pattern OR d.title ILIKE :pattern) " +
+                   "  UNION " +
+                   "  SELECT d.id FROM invoices d JOIN clients dc ON dc.id = d.client_id " +
+                   "  WHERE d.user_id = :userId AND dc.user_id = :userId " +
+                   "  AND (dc.company_name ILIKE :pattern OR dc.contact_name ILIKE :pattern)" +
+                   ") " +
+                   "ORDER BY score DESC, i.created_at DESC, i.id DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true
+    )
+    List<SearchHitRow> findSearchHits(@Param("userId") UUID userId,
+                                      @Param("term") String term,
+                                      @Param("pattern") String pattern,
+                                      @Param("limit") int limit);
+    
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
+    List<Invoice> findByIdIn(Collection<UUID> ids);
+    
+    // Public link view: the invoice with everything its response needs, outside any session
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
+    Optional<Invoice> findWithDetailsById(UUID id);
+    
+    // Display names ("Title (INV-...)") for a batch of invoice ids
+    @Query("SELECT i.id AS id, CONCAT(i.title, ' (', i.invoiceNumber, ')') AS name " +
+           "FROM Invoice i WHERE i.user.id = :userId AND i.id IN :ids")
+    List<EntityNameRow> findNamesByUserIdAndIdIn(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
     
     @Query("SELECT COUNT(i) FROM Invoice i WHERE i.user.id = :userId")
     Long countByUserId(UUID userId);
@@ -48,22 +124,26 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
     @Query("SELECT COUNT(i) FROM Invoice i WHERE i.user.id = :userId AND i.status = :status")
     Long countByUserIdAndStatus(@Param("userId") UUID userId, @Param("status") String status);
     
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
     @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId AND i.dueDate < :currentDate " +
            "AND i.status NOT IN ('paid', 'cancelled') AND i.balanceDue > 0")
     List<Invoice> findOverdueInvoices(@Param("userId") UUID userId, 
                                      @Param("currentDate") LocalDate currentDate);
     
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
     @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId AND i.dueDate BETWEEN :startDate AND :endDate")
     List<Invoice> findByDueDateRange(@Param("userId") UUID userId, 
                                     @Param("startDate") LocalDate startDate, 
                                     @Param("endDate") LocalDate endDate);
     
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
     @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId AND " +
            "i.issueDate BETWEEN :startDate AND :endDate")
     List<Invoice> findByIssueDateRange(@Param("userId") UUID userId, 
                                       @Param("startDate") LocalDate startDate, 
                                       @Param("endDate") LocalDate endDate);
     
+    @EntityGraph(attributePaths = {"client", "project", "quote"})
     @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId " +
            "ORDER BY i.createdAt DESC")
     List<Invoice> findRecentByUser(@Param("userId") UUID userId, Pageable pageable);
@@ -77,6 +157,40 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
     @Query("SELECT COALESCE(SUM(i.balanceDue), 0) FROM Invoice i WHERE i.user.id = :userId")
     BigDecimal sumBalanceDueByUserId(@Param("userId") UUID userId);
     
+    // Financial rollup: every invoice count and amount for a user in one pass
+    interface InvoiceRollupRow {
+        Long getInvoiceCount();
+        Long getDraftCount();
+        Long getSentCount();
+        Long getViewedCount();
+        Long getPartialCount();
+        Long getPaidCount();
+        Long getOverdueCount();
+        Long getCancelledCount();
+        BigDecimal getTotalInvoiced();
+        BigDecimal getTotalPaid();
+        BigDecimal getTotalBalanceDue();
+        BigDecimal getOverdueBalance();
+    }
+    
+    @Query(
+           value = "SELECT COUNT(*) AS invoiceCount, " +
+                   "COUNT(*) FILTER (WHERE i.status = 'draft') AS draftCount, " +
+                   "COUNT(*) FILTER (WHERE i.status = 'sent') AS sentCount, " +
+                   "COUNT(*) FILTER (WHERE i.status = 'viewed') AS viewedCount, " +
+                   "COUNT(*) FILTER (WHERE i.status = 'partial') AS partialCount, " +
+                   "COUNT(*) FILTER (WHERE i.status = 'paid') AS paidCount, " +
+                   "COUNT(*) FILTER (WHERE i.status = 'overdue') AS overdueCount, " +
+                   "COUNT(*) FILTER (WHERE i.status = 'cancelled') AS cancelledCount, " +
+                   "COALESCE(SUM(i.total_amount), 0) AS totalInvoiced, " +
+                   "COALESCE(SUM(i.amount_paid), 0) AS totalPaid, " +
+                   "COALESCE(SUM(i.balance_due), 0) AS totalBalanceDue, " +
+                   "COALESCE(SUM(i.balance_due) FILTER (WHERE i.status = 'overdue'), 0) AS overdueBalance " +
+                   "FROM invoices i WHERE i.user_id = :userId",
+           nativeQuery = true
+    )
+    InvoiceRollupRow summarizeForRollup(@Param("userId") UUID userId);
+    
     @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId AND " +
            "i.status = :status " +
            "ORDER BY i.dueDate ASC")
@@ -84,4 +198,179 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
                                                    @Param("status") String status);
     
     boolean existsByUserIdAndInvoiceNumber(UUID userId, String invoiceNumber);
-}
\ No newline at end of file
+    
+    // Highest sequence already used for a number prefix such as INV-202601- (seeds a new counter)
+    @Query(
+           value = "SELECT COALESCE(MAX(CAST(SPLIT_PART(i.invoice_number, '-', 3) AS INTEGER)), 0) " +
+                   "FROM invoices i WHERE i.invoice_number LIKE CONCAT(:numberPrefix, '%')",
+           nativeQuery = true
+    )
+    Long findMaxSequenceByNumberPrefix(@Param("numberPrefix") String numberPrefix);
+    
+    // Aging report rows, bucketed in the database (same rules as the invoice_aging_report view)
+    interface InvoiceAgingRow {
+        UUID getId();
+        String getInvoiceNumber();
+        String getClientName();
+        LocalDate getIssueDate();
+        LocalDate getDueDate();
+        BigDecimal getTotalAmount();
+        BigDecimal getAmountPaid();
+        BigDecimal getBalanceDue();
+        String getStatus();
+        String getAgingCategory();
+        Long getDaysOverdue();
+    }
+    
+    @Query(
+           value = "SELECT i.id AS id, i.invoice_number AS invoiceNumber, " +
+                   "COALESCE(c.company_name, c.contact_name) AS clientName, " +
+                   "i.issue_date AS issueDate, i.due_date AS dueDate, i.total_amount AS totalAmount, " +
+                   "i.amount_paid AS amountPaid, i.balance_due AS balanceDue, i.status AS status, " +
+                   "CASE " +
+                   "WHEN i.balance_due <= 0 THEN 'Paid' " +
+                   "WHEN i.due_date >= :today THEN 'Current' " +
+                   "WHEN CAST(:today AS date) - i.due_date <= 30 THEN '1-30 Days' " +
+                   "WHEN CAST(:today AS date) - i.due_date <= 60 THEN '31-60 Days' " +
+                   "WHEN CAST(:today AS date) - i.due_date <= 90 THEN '61-90 Days' " +
+                   "ELSE 'Over 90 Days' END AS agingCategory, " +
+                   "CASE WHEN i.balance_due > 0 AND i.due_date < :today " +
+                   "THEN CAST(CAST(:today AS date) - i.due_date AS bigint) ELSE 0 END AS daysOverdue " +
+                   "FROM invoices i JOIN clients c ON c.id = i.client_id " +
+                   "WHERE i.user_id = :userId AND i.status NOT IN ('draft', 'cancelled') " +
+                   "ORDER BY i.due_date ASC",
+           nativeQuery = true
+    )
+    List<InvoiceAgingRow> findAgingReport(@Param("userId") UUID userId, @Param("today") LocalDate today);
+    
+    interface InvoiceAgingBucketRow {
+        String getAgingCategory();
+        Long getInvoiceCount();
+        BigDecimal getTotalAmount();
+        BigDecimal getAmountPaid();
+        BigDecimal getBalanceDue();
+    }
+    
+    @Query(
+           value = "SELECT a.aging_category AS agingCategory, COUNT(*) AS invoiceCount, " +
+                   "COALESCE(SUM(a.total_amount), 0) AS totalAmount, " +
+                   "COALESCE(SUM(a.amount_paid), 0) AS amountPaid, " +
+                   "COALESCE(SUM(a.balance_due), 0) AS balanceDue " +
+                   "FROM (SELECT i.total_amount, i.amount_paid, i.balance_due, " +
+                   "CASE " +
+                   "WHEN i.balance_due <= 0 THEN 'Paid' " +
+                   "WHEN i.due_date >= :today THEN 'Current' " +
+                   "WHEN CAST(:today AS date) - i.due_date <= 30 THEN '1-30 Days' " +
+                   "WHEN CAST(:today AS date) - i.due_date <= 60 THEN '31-60 Days' " +
+                   "WHEN CAST(:today AS date) - i.due_date <= 90 THEN '61-90 Days' " +
+                   "ELSE 'Over 90 Days' END AS aging_category " +
+                   "FROM invoices i " +
+                   "WHERE i.user_id = :userId AND i.status NOT IN ('draft', 'cancelled')) a " +
+                   "GROUP BY a.aging_category",
+           nativeQuery = true
+    )
+    List<InvoiceAgingBucketRow> summarizeAgingReport(@Param("userId") UUID userId, @Param("today") LocalDate today);
+    
+    // Forward-only cursor for exports; must be consumed inside a transaction
+    @QueryHints({
+           @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+           @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Invoice i JOIN FETCH i.client LEFT JOIN FETCH i.project LEFT JOIN FETCH i.quote " +
+           "WHERE i.user.id = :userId AND i.issueDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY i.issueDate ASC, i.id ASC")
+    Stream<Invoice> streamByIssueDateRange(@Param("userId") UUID userId,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+    
+    // Lightweight list rows, newest first, keyset-paginated on (created_at, id)
+    interface InvoiceListRow {
+        UUID getId();
+        String getInvoiceNumber();
+        String getTitle();
+        UUID getClientId();
+        String getClientName();
+        String getStatus();
+        LocalDate getIssueDate();
+        LocalDate getDueDate();
+        BigDecimal getTotalAmount();
+        BigDecimal getBalanceDue();
+        String getCurrency();
+        LocalDateTime getCreatedAt();
+    }
+    
+    @Query(
+           value = "SELECT i.id AS id, i.invoice_number AS invoiceNumber, i.title AS title, " +
+                   "c.id AS clientId, COALESCE(c.company_name, c.contact_name) AS clientName, " +
+                   "i.status AS status, i.issue_date AS issueDate, i.due_date AS dueDate, " +
+                   "i.total_amount AS totalAmount, i.balance_due AS balanceDue, " +
+                   "i.currency AS currency, i.created_at AS createdAt " +
+                   "FROM invoices i JOIN clients c ON c.id = i.client_id " +
+                   "WHERE i.user_id = :userId " +
+                   "ORDER BY i.created_at DESC, i.id DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true
+    )
+    List<InvoiceListRow> findListFirstPage(@Param("userId") UUID userId, @Param("limit") int limit);
+    
+    @Query(
+           value = "SELECT i.id AS id, i.invoice_number AS invoiceNumber, i.title AS title, " +
+                   "c.id AS clientId, COALESCE(c.company_name, c.contact_name) AS clientName, " +
+                   "i.status AS status, i.issue_date AS issueDate, i.due_date AS dueDate, " +
+                   "i.total_amount AS totalAmount, i.balance_due AS balanceDue, " +
+                   "i.currency AS currency, i.created_at AS createdAt " +
+                   "FROM invoices i JOIN clients c ON c.id = i.client_id " +
+                   "WHERE i.user_id = :userId " +
+                   "AND (i.created_at, i.id) < (:createdAt, :id) " +
+                   "ORDER BY i.created_at DESC, i.id DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true
+    )
+    List<InvoiceListRow> findListPageAfter(@Param("userId") UUID userId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") UUID id,
+                                           @Param("limit") int limit);
+    
+    // Overdue sweep: one row per invoice moved to overdue, with the status it had before
+    interface OverdueSweepRow {
+        UUID getId();
+        UUID getUserId();
+        String getPreviousStatus();
+        BigDecimal getTotalAmount();
+        BigDecimal getAmountPaid();
+        BigDecimal getBalanceDue();
+    }
+    
+    // Move up to :chunkSize sent or viewed invoices matching Invoice.OVERDUE_CONDITION to overdue.
+    // Drafts stay drafts: they have not reached the client, and only drafts can still be edited or
+    // deleted. Rows locked by a concurrent edit are skipped and picked up by the next chunk or run.
+    @Query(
+           value = "WITH batch AS (" +
+                   "SELECT id, status FROM invoices " +
+                   "WHERE status IN ('sent', 'viewed') AND " + Invoice.OVERDUE_CONDITION + " " +
+                   "LIMIT :chunkSize FOR UPDATE SKIP LOCKED) " +
+                   "UPDATE invoices i SET status = 'overdue', updated_at = CURRENT_TIMESTAMP " +
+                   "FROM batch b WHERE i.id = b.id " +
+                   "RETURNING i.id AS id, i.user_id AS userId, b.status AS previousStatus, " +
+                   "i.total_amount AS totalAmount, i.amount_paid AS amountPaid, i.balance_due AS balanceDue",
+           nativeQuery = true
+    )
+    List<OverdueSweepRow> markOverdueChunk(@Param("today") LocalDate today, @Param("chunkSize") int chunkSize);
+    
+    // Record the first public view of each document: ids[n] was first viewed at viewedAts[n].
+    // Returns the ids that were updated
+    @Query(
+           value = "UPDATE invoices d SET viewed_at = v.viewed_at " +
+                   "FROM unnest(CAST(:ids AS uuid[]), CAST(:viewedAts AS timestamp[])) AS v(id, viewed_at) " +
+                   "WHERE d.id = v.id AND d.viewed_at IS NULL " +
+                   "RETURNING d.id",
+           nativeQuery = true
+    )
+    List<UUID> markViewedByIds(@Param("ids") UUID[] ids,
+                               @Param("viewedAts") LocalDateTime[] viewedAts);
+    
+    // Point pdf_url at the document's PDF download (leaves updated_at alone)
+    @Modifying
+    @Query(value = "UPDATE invoices SET pdf_url = :pdfUrl WHERE id = :id", nativeQuery = true)
+    int updatePdfUrl(@Param("id") UUID id, @Param("pdfUrl") String pdfUrl);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,6 +29,8 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
     
     Optional<Project> findByIdAndUserId(UUID id, UUID userId);
     
+    List<Project> findByUserIdAndIdIn(UUID userId, Collection<UUID> ids);
+    
     boolean existsByUserIdAndName(UUID userId, String name);
     
     Long countByUserId(UUID userId);
@@ -39,6 +42,35 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')))")
     List<Project> searchByUser(@Param("userId") UUID userId, @Param("search") String search);
     
+    // Unified search hits: project name match, best word similarity first (trigram index V8)
+    @Query(
+           value = "SELECT p.id AS id, p.name AS label, COALESCE(c.company_name, c.contact_name) AS detail, " +
+                   "CAST(word_similarity(:term, p.name) AS double precision) AS score " +
+                   "FROM projects p JOIN clients c ON c.id = p.client_id " +
+                   "WHERE p.user_id = :userId AND p.name ILIKE :pattern " +
+                   "ORDER BY score DESC, p.id DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true
+    )
+    List<SearchHitRow> findSearchHits(@Param("userId") UUID userId,
+                                      @Param("term") String term,
+                                      @Param("pattern") String pattern,
+                                      @Param("limit") int limit);
+    
+    // Name and client of every project of a user, for the autocomplete index
+    interface ProjectAutocompleteRow {
+        UUID getId();
+        String getName();
+        UUID getClientId();
+    }
+    
+    @Query("SELECT p.id AS id, p.name AS name, p.client.id AS clientId FROM Project p WHERE p.user.id = :userId")
+    List<ProjectAutocompleteRow> findAutocompleteRows(@Param("userId") UUID userId);
+    
+    // Display names for a batch of project ids
+    @Query("SELECT p.id AS id, p.name AS name FROM Project p WHERE p.user.id = :userId AND p.id IN :ids")
+    List<EntityNameRow> findNamesByUserIdAndIdIn(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+    
     @Query("SELECT p FROM Project p WHERE p.user.id = :userId AND p.dueDate < :currentDate " +
            "AND p.status IN ('active', 'on_hold')")
     List<Project> findOverdueProjects(@Param("userId") UUID userId, 
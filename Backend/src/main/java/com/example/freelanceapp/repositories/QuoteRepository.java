@@ -3,13 +3,17 @@ package com.example.freelanceapp.repositories;
 import com.example.freelanceapp.entities.Quote;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,16 +33,73 @@ public interface QuoteRepository extends JpaRepository<Quote, UUID> {
     
     Optional<Quote> findByIdAndUserId(UUID id, UUID userId);
     
-    Optional<Quote> findByQuoteNumber(String quoteNumber);
+    List<Quote> findByUserIdAndIdIn(UUID userId, Collection<UUID> ids);
     
-    Optional<Quote> findByPublicHash(String publicHash);
+    Optional<Quote> findByQuoteNumber(String quoteNumber);
     
-    @Query("SELECT q FROM Quote q WHERE q.user.id = :userId AND " +
-           "(LOWER(q.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(q.quoteNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(q.client.companyName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(q.client.contactName) LIKE LOWER(CONCAT('%', :search, '%')))")
-    List<Quote> searchByUser(@Param("userId") UUID userId, @Param("search") String search);
+    // Document id behind a legacy public hash link
+    @Query("SELECT q.id FROM Quote q WHERE q.publicHash = :publicHash")
+    Optional<UUID> findIdByPublicHash(@Param("publicHash") String publicHash);
+    
+    // Ranked search over number, title and client names, served by the trigram indexes (V7).
+    // Candidates come from a UNION so each branch can use its own index; ranking is the best
+    // word similarity across the four columns.
+    @Query(
+           value = "SELECT q.id FROM quotes q JOIN clients c ON c.id = q.client_id " +
+                   "WHERE q.id IN (" +
+                   "  SELECT d.id FROM quotes d WHERE d.user_id = :userId " +
+                   "  AND (d.quote_number ILIKE :pattern OR d.title ILIKE :pattern) " +
+                   "  UNION " +
+                   "  SELECT d.id FROM quotes d JOIN clients dc ON dc.id = d.client_id " +
+                   "  WHERE d.user_id = :userId AND dc.user_id = :userId " +
+                   "  AND (dc.company_name ILIKE :pattern OR dc.contact_name ILIKE :pattern)" +
+                   ") " +
+                   "ORDER BY GREATEST(word_similarity(:term, q.quote_number), word_similarity(:term, q.title), " +
+                   "word_similarity(:term, c.company_name), word_similarity(:term, c.contact_name)) DESC, " +
+                   "q.created_at DESC, q.id DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true
+    )
+    List<UUID> searchIdsByUser(@Param("userId") UUID userId,
+                               @Param("term") String term,
+                               @Param("pattern") String pattern,
+                               @Param("limit") int limit);
+    
+    // Unified search hits: same matching and ranking as searchIdsByUser, returned as lightweight rows
+    @Query(
+           value = "SELECT q.id AS id, q.quote_number AS label, " +
+                   "COALESCE(q.title, c.company_name, c.contact_name) AS detail, " +
+                   "CAST(GREATEST(word_similarity(:term, q.quote_number), word_similarity(:term, q.title), " +
+                   "word_similarity(:term, c.company_name), word_similarity(:term, c.contact_name)) AS double precision) AS score " +
+                   "FROM quotes q JOIN clients c ON c.id = q.client_id " +
+                   "WHERE q.id IN (" +
+                   "  SELECT d.id FROM quotes d WHERE d.user_id = :userId " +
+                   "  AND (d.quote_number ILIKE :pattern OR d.title ILIKE :pattern) " +
+                   "  UNION " +
+                   "  SELECT d.id FROM quotes d JOIN clients dc ON dc.id = d.client_id " +
+                   "  WHERE d.user_id = :userId AND dc.user_id = :userId " +
+                   "  AND (dc.company_name ILIKE :pattern OR dc.contact_name ILIKE :pattern)" +
+                   ") " +
+                   "ORDER BY score DESC, q.created_at DESC, q.id DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true
+    )
+    List<SearchHitRow> findSearchHits(@Param("userId") UUID userId,
+                                      @Param("term") String term,
+                                      @Param("pattern") String pattern,
+                                      @Param("limit") int limit);
+    
+    @EntityGraph(attributePaths = {"client", "project"})
+    List<Quote> findByIdIn(Collection<UUID> ids);
+    
+    // Public link view: the quote with everything its response needs, outside any session
+    @EntityGraph(attributePaths = {"client", "project"})
+    Optional<Quote> findWithDetailsById(UUID id);
+    
+    // Display names ("Title (QUO-...)") for a batch of quote ids
+    @Query("SELECT q.id AS id, CONCAT(q.title, ' (', q.quoteNumber, ')') AS name " +
+           "FROM Quote q WHERE q.user.id = :userId AND q.id IN :ids")
+    List<EntityNameRow> findNamesByUserIdAndIdIn(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
     
     @Query("SELECT COUNT(q) FROM Quote q WHERE q.user.id = :userId")
     Long countByUserId(UUID userId);
@@ -64,5 +125,58 @@ public interface QuoteRepository extends JpaRepository<Quote, UUID> {
     @Query("SELECT SUM(q.totalAmount) FROM Quote q WHERE q.user.id = :userId AND q.status = 'accepted'")
     BigDecimal sumAcceptedAmountByUserId(@Param("userId") UUID userId);
     
+    // Financial rollup: every quote count and the accepted value for a user in one pass
+    interface QuoteRollupRow {
+        Long getQuoteCount();
+        Long getDraftCount();
+        Long getSentCount();
+        Long getAcceptedCount();
+        Long getRejectedCount();
+        Long getExpiredCount();
+        BigDecimal getAcceptedTotal();
+    }
+    
+    @Query(
+           value = "SELECT COUNT(*) AS quoteCount, " +
+                   "COUNT(*) FILTER (WHERE q.status = 'draft') AS draftCount, " +
+                   "COUNT(*) FILTER (WHERE q.status = 'sent') AS sentCount, " +
+                   "COUNT(*) FILTER (WHERE q.status = 'accepted') AS acceptedCount, " +
+                   "COUNT(*) FILTER (WHERE q.status = 'rejected') AS rejectedCount, " +
+                   "COUNT(*) FILTER (WHERE q.status = 'expired') AS expiredCount, " +
+                   "COALESCE(SUM(q.total_amount) FILTER (WHERE q.status = 'accepted'), 0) AS acceptedTotal " +
+                   "FROM quotes q WHERE q.user_id = :userId",
+           nativeQuery = true
+    )
+    QuoteRollupRow summarizeForRollup(@Param("userId") UUID userId);
+    
     boolean existsByUserIdAndQuoteNumber(UUID userId, String quoteNumber);
-}
\ No newline at end of file
+    
+    // Highest sequence already used for a number prefix such as QUO-202601- (seeds a new counter)
+    @Query(
+           value = "SELECT COALESCE(MAX(CAST(SPLIT_PART(q.quote_number, '-', 3) AS INTEGER)), 0) " +
+                   "FROM quotes q WHERE q.quote_number LIKE CONCAT(:numberPrefix, '%')",
+           nativeQuery = true
+    )
+    Long findMaxSequenceByNumberPrefix(@Param("numberPrefix") String numberPrefix);
+    
+    // Which of these quotes still exist; they stay locked against deletion until the transaction ends
+    @Query(value = "SELECT id FROM quotes WHERE id IN (:ids) FOR SHARE", nativeQuery = true)
+    List<UUID> lockExistingIds(@Param("ids") Collection<UUID> ids);
+    
+    // Record the first public view of each document: ids[n] was first viewed at viewedAts[n].
+    // Returns the ids that were updated
+    @Query(
+           value = "UPDATE quotes d SET viewed_at = v.viewed_at " +
+                   "FROM unnest(CAST(:ids AS uuid[]), CAST(:viewedAts AS timestamp[])) AS v(id, viewed_at) " +
+                   "WHERE d.id = v.id AND d.viewed_at IS NULL " +
+                   "RETURNING d.id",
+           nativeQuery = true
+    )
+    List<UUID> markViewedByIds(@Param("ids") UUID[] ids,
+                               @Param("viewedAts") LocalDateTime[] viewedAts);
+    
+    // Point pdf_url at the document's PDF download (leaves updated_at alone)
+    @Modifying
+    @Query(value = "UPDATE quotes SET pdf_url = :pdfUrl WHERE id = :id", nativeQuery = true)
+    int updatePdfUrl(@Param("id") UUID id, @Param("pdfUrl") String pdfUrl);
+}
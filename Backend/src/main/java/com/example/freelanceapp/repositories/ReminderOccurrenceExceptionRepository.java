@@ -0,0 +1,33 @@
+package com.example.freelanceapp.repositories;
+
+import com.example.freelanceapp.entities.ReminderOccurrenceException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReminderOccurrenceExceptionRepository extends JpaRepository<ReminderOccurrenceException, UUID> {
+    
+    Optional<ReminderOccurrenceException> findByReminderIdAndOccurrenceDate(UUID reminderId, LocalDate occurrenceDate);
+    
+    List<ReminderOccurrenceException> findByReminderIdAndOccurrenceDateAfter(UUID reminderId, LocalDate occurrenceDate);
+    
+    // Exceptions from each series' current occurrence on (what closing and advancing the series needs)
+    @Query("SELECT e FROM ReminderOccurrenceException e JOIN e.reminder r " +
+           "WHERE r.id IN :reminderIds AND e.occurrenceDate >= r.occurrenceDate")
+    List<ReminderOccurrenceException> findFromCurrentOccurrence(@Param("reminderIds") Collection<UUID> reminderIds);
+    
+    // Exceptions that affect a date range: the nominal date or the snoozed-to date falls in it
+    @Query("SELECT e FROM ReminderOccurrenceException e WHERE e.reminder.id IN :reminderIds AND " +
+           "(e.occurrenceDate BETWEEN :startDate AND :endDate OR e.dueDate BETWEEN :startDate AND :endDate)")
+    List<ReminderOccurrenceException> findAffectingRange(@Param("reminderIds") Collection<UUID> reminderIds,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate);
+}
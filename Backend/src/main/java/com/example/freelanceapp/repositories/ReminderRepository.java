@@ -10,6 +10,8 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -37,17 +39,41 @@ public interface ReminderRepository extends JpaRepository<Reminder, UUID> {
            "AND r.status = 'pending'")
     List<Reminder> findOverdue(@Param("userId") UUID userId, @Param("today") LocalDate today);
     
+    // Pending one-off reminders in a date range (recurring series are expanded separately)
     @Query("SELECT r FROM Reminder r WHERE r.user.id = :userId AND r.dueDate BETWEEN :startDate AND :endDate " +
-           "AND r.status = 'pending'")
+           "AND r.status = 'pending' AND r.seriesStart IS NULL")
     List<Reminder> findByDueDateRange(@Param("userId") UUID userId, 
                                      @Param("startDate") LocalDate startDate, 
                                      @Param("endDate") LocalDate endDate);
     
+    // Pending recurring series that may have occurrences in [startDate, endDate] (served by idx_reminders_pending_series)
+    @Query("SELECT r FROM Reminder r WHERE r.user.id = :userId AND r.isRecurring = true " +
+           "AND r.status = 'pending' AND r.seriesStart <= :endDate " +
+           "AND (r.recurrenceUntil IS NULL OR r.recurrenceUntil >= :startDate OR r.dueDate >= :startDate)")
+    List<Reminder> findPendingSeriesInRange(@Param("userId") UUID userId,
+                                            @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+    
     @Query("SELECT r FROM Reminder r WHERE r.user.id = :userId AND " +
            "(LOWER(r.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(r.description) LIKE LOWER(CONCAT('%', :search, '%')))")
     List<Reminder> searchByUser(@Param("userId") UUID userId, @Param("search") String search);
     
+    // Unified search hits: reminder title match, best word similarity first (trigram index V8)
+    @Query(
+           value = "SELECT r.id AS id, r.title AS label, CAST(r.due_date AS varchar) AS detail, " +
+                   "CAST(word_similarity(:term, r.title) AS double precision) AS score " +
+                   "FROM reminders r " +
+                   "WHERE r.user_id = :userId AND r.title ILIKE :pattern " +
+                   "ORDER BY score DESC, r.id DESC " +
+                   "LIMIT :limit",
+           nativeQuery = true
+    )
+    List<SearchHitRow> findSearchHits(@Param("userId") UUID userId,
+                                      @Param("term") String term,
+                                      @Param("pattern") String pattern,
+                                      @Param("limit") int limit);
+    
     @Query("SELECT COUNT(r) FROM Reminder r WHERE r.user.id = :userId")
     Long countByUserId(UUID userId);
     
@@ -60,6 +86,186 @@ public interface ReminderRepository extends JpaRepository<Reminder, UUID> {
     @Query("SELECT COUNT(r) FROM Reminder r WHERE r.user.id = :userId AND r.isRecurring = true")
     Long countRecurringByUserId(UUID userId);
     
+    // All summary counts in one pass over the user's reminders
+    interface ReminderSummaryRow {
+        Long getTotalReminders();
+        Long getPendingCount();
+        Long getCompletedCount();
+        Long getOverdueCount();
+        Long getDueTodayCount();
+        Long getHighPriorityCount();
+        Long getRecurringCount();
+    }
+    
+    @Query(
+           value = "SELECT COUNT(*) AS totalReminders, " +
+                   "COUNT(*) FILTER (WHERE r.status = 'pending') AS pendingCount, " +
+                   "COUNT(*) FILTER (WHERE r.status = 'completed') AS completedCount, " +
+                   "COUNT(*) FILTER (WHERE r.status = 'pending' AND r.due_date < :today) AS overdueCount, " +
+                   "COUNT(*) FILTER (WHERE r.status = 'pending' AND r.due_date = :today) AS dueTodayCount, " +
+                   "COUNT(*) FILTER (WHERE r.priority = 'high') AS highPriorityCount, " +
+                   "COUNT(*) FILTER (WHERE r.is_recurring = true) AS recurringCount " +
+                   "FROM reminders r WHERE r.user_id = :userId",
+           nativeQuery = true
+    )
+    ReminderSummaryRow summarizeByUser(@Param("userId") UUID userId, @Param("today") LocalDate today);
+    
+    // Dispatch window: pending, not yet fired reminders due in [from, to), earliest first.
+    // The due instant is due_date + due_time (09:00 when no time is set), matching the V9 index.
+    interface DueReminderRow {
+        UUID getId();
+        UUID getUserId();
+        String getUserEmail();
+        String getTitle();
+        String getDescription();
+        String getRelatedType();
+        UUID getRelatedId();
+        LocalDateTime getDueAt();
+    }
+    
+    @Query(
+           value = "SELECT r.id AS id, r.user_id AS userId, u.email AS userEmail, r.title AS title, " +
+                   "r.description AS description, r.related_type AS relatedType, r.related_id AS relatedId, " +
+                   "(r.due_date + COALESCE(r.due_time, TIME '09:00')) AS dueAt " +
+                   "FROM reminders r JOIN users u ON u.id = r.user_id " +
+                   "WHERE r.status = 'pending' AND r.notified_at IS NULL " +
+                   "AND (r.due_date + COALESCE(r.due_time, TIME '09:00')) >= :from " +
+                   "AND (r.due_date + COALESCE(r.due_time, TIME '09:00')) < :to " +
+                   "ORDER BY dueAt " +
+                   "LIMIT :limit",
+           nativeQuery = true
+    )
+    List<DueReminderRow> findDispatchWindow(@Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("limit") int limit);
+    
+    // Claim reminders for firing: only those still pending, unfired and due by :now are returned
+    @Query(
+           value = "UPDATE reminders SET notified_at = :now " +
+                   "WHERE id IN (:ids) AND status = 'pending' AND notified_at IS NULL " +
+                   "AND (due_date + COALESCE(due_time, TIME '09:00')) <= :now " +
+                   "RETURNING id",
+           nativeQuery = true
+    )
+    List<UUID> claimForDispatch(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+    
+    // Bulk status change in one statement. Pending series being completed close their current occurrence
+    // instead (recorded as an exception) and move to their next open rule date, or end with the status once
+    // the rule is exhausted; returns the changed rows, with a due instant only where they still fire.
+    // Rule dates are series_start + n * interval units, as in RecurrenceRule; the next open one is at most
+    // one step further than the closed occurrences ahead of the current one.
+    @Query(
+           value = "WITH pending_series AS (" +
+                   "  SELECT r.id, r.occurrence_date, r.series_start, r.recurrence_until, " +
+                   "  GREATEST(COALESCE(r.recurrence_interval, 1), 1) AS every, " +
+                   "  LOWER(COALESCE(r.recurrence_pattern, 'daily')) AS pattern " +
+                   "  FROM reminders r " +
+                   "  WHERE :status = 'completed' AND r.user_id = :userId AND r.id = ANY(:ids) " +
+                   "  AND r.status = 'pending' AND r.is_recurring = TRUE AND r.series_start IS NOT NULL" +
+                   "), rules AS (" +
+                   "  SELECT p.*, " +
+                   "  p.every * CASE p.pattern WHEN 'weekly' THEN INTERVAL '7 days' WHEN 'monthly' THEN INTERVAL '1 month' " +
+                   "  WHEN 'yearly' THEN INTERVAL '1 year' ELSE INTERVAL '1 day' END AS step, " +
+                   "  CAST(FLOOR(CASE WHEN p.pattern IN ('monthly', 'yearly') " +
+                   "  THEN (EXTRACT(YEAR FROM p.occurrence_date) - EXTRACT(YEAR FROM p.series_start)) * 12 " +
+                   "  + EXTRACT(MONTH FROM p.occurrence_date) - EXTRACT(MONTH FROM p.series_start) " +
+                   "  ELSE p.occurrence_date - p.series_start END " +
+                   "  / (p.every * CASE p.pattern WHEN 'weekly' THEN 7 WHEN 'yearly' THEN 12 ELSE 1 END)) AS int) AS current_index " +
+                   "  FROM pending_series p" +
+                   "), series AS (" +
+                   "  SELECT s.id, s.occurrence_date, n.next_date, x.id IS NOT NULL AS snoozed, " +
+                   "  x.due_date AS snoozed_date, x.due_time AS snoozed_time " +
+                   "  FROM rules s " +
+                   "  LEFT JOIN LATERAL (" +
+                   "    SELECT d.next_date FROM generate_series(1, 1 + (" +
+                   "      SELECT COUNT(*) FROM reminder_occurrence_exceptions c " +
+                   "      WHERE c.reminder_id = s.id AND c.occurrence_date > s.occurrence_date " +
+                   "      AND c.status IN ('completed', 'cancelled'))) k " +
+                   "    CROSS JOIN LATERAL (SELECT CAST(s.series_start + (s.current_index + k) * s.step AS date) AS next_date) d " +
+                   "    WHERE d.next_date > s.occurrence_date " +
+                   "    AND (s.recurrence_until IS NULL OR d.next_date <= s.recurrence_until) " +
+                   "    AND NOT EXISTS (SELECT 1 FROM reminder_occurrence_exceptions c " +
+                   "      WHERE c.reminder_id = s.id AND c.occurrence_date = d.next_date " +
+                   "      AND c.status IN ('completed', 'cancelled')) " +
+                   "    ORDER BY k LIMIT 1" +
+                   "  ) n ON TRUE " +
+                   "  LEFT JOIN reminder_occurrence_exceptions x " +
+                   "  ON x.reminder_id = s.id AND x.occurrence_date = n.next_date AND x.status = 'snoozed'" +
+                   "), closed AS (" +
+                   "  INSERT INTO reminder_occurrence_exceptions " +
+                   "  (reminder_id, occurrence_date, status, due_date, due_time, completed_at, created_at, updated_at) " +
+                   "  SELECT s.id, s.occurrence_date, 'completed', NULL, NULL, :now, :now, :now FROM series s " +
+                   "  ON CONFLICT (reminder_id, occurrence_date) DO UPDATE SET status = 'completed', " +
+                   "  due_date = NULL, due_time = NULL, completed_at = EXCLUDED.completed_at, updated_at = EXCLUDED.updated_at" +
+                   "), advanced AS (" +
+                   "  UPDATE reminders r SET " +
+                   "  status = CASE WHEN s.next_date IS NULL THEN :status ELSE 'pending' END, " +
+                   "  completed_at = CASE WHEN s.next_date IS NULL THEN CAST(:now AS timestamp) END, " +
+                   "  occurrence_date = COALESCE(s.next_date, r.occurrence_date), " +
+                   "  due_date = CASE WHEN s.next_date IS NULL THEN r.due_date WHEN s.snoozed THEN s.snoozed_date ELSE s.next_date END, " +
+                   "  due_time = CASE WHEN s.next_date IS NULL THEN r.due_time WHEN s.snoozed THEN s.snoozed_time ELSE r.series_time END, " +
+                   "  notified_at = NULL, updated_at = :now " +
+                   "  FROM series s WHERE r.id = s.id " +
+                   "  RETURNING r.*" +
+                   "), changed AS (" +
+                   "  UPDATE reminders r SET status = :status, " +
+                   "  completed_at = CASE WHEN :status = 'completed' THEN COALESCE(r.completed_at, :now) END, " +
+                   "  updated_at = :now " +
+                   "  WHERE r.user_id = :userId AND r.id = ANY(:ids) " +
+                   "  AND NOT (:status = 'completed' AND r.status = 'pending' AND r.is_recurring = TRUE " +
+                   "  AND r.series_start IS NOT NULL) " +
+                   "  RETURNING r.*" +
+                   ") " +
+                   "SELECT c.id AS id, c.user_id AS userId, u.email AS userEmail, c.title AS title, " +
+                   "c.description AS description, c.related_type AS relatedType, c.related_id AS relatedId, " +
+                   "CASE WHEN c.status = 'pending' AND c.notified_at IS NULL " +
+                   "THEN c.due_date + COALESCE(c.due_time, TIME '09:00') END AS dueAt " +
+                   "FROM (SELECT * FROM advanced UNION ALL SELECT * FROM changed) c JOIN users u ON u.id = c.user_id",
+           nativeQuery = true
+    )
+    List<DueReminderRow> bulkUpdateStatus(@Param("userId") UUID userId,
+                                          @Param("ids") UUID[] ids,
+                                          @Param("status") String status,
+                                          @Param("now") LocalDateTime now);
+    
+    // Bulk snooze in one statement: moves pending reminders by :days (and to :newTime unless :keepTime),
+    // recording the move as a snoozed occurrence for series, and returns the rows to reschedule
+    @Query(
+           value = "WITH snoozed AS (" +
+                   "  UPDATE reminders r SET due_date = COALESCE(r.due_date, :today) + :days, " +
+                   "  due_time = CASE WHEN :keepTime THEN r.due_time ELSE :newTime END, " +
+                   "  notified_at = NULL, updated_at = :now " +
+                   "  WHERE r.user_id = :userId AND r.id = ANY(:ids) AND r.status = 'pending' " +
+                   "  RETURNING r.*" +
+                   "), moved AS (" +
+                   "  INSERT INTO reminder_occurrence_exceptions " +
+                   "  (reminder_id, occurrence_date, status, due_date, due_time, created_at, updated_at) " +
+                   "  SELECT s.id, s.occurrence_date, 'snoozed', s.due_date, s.due_time, :now, :now FROM snoozed s " +
+                   "  WHERE s.is_recurring = TRUE AND s.series_start IS NOT NULL " +
+                   "  ON CONFLICT (reminder_id, occurrence_date) DO UPDATE SET status = 'snoozed', " +
+                   "  due_date = EXCLUDED.due_date, due_time = EXCLUDED.due_time, updated_at = EXCLUDED.updated_at" +
+                   ") " +
+                   "SELECT s.id AS id, s.user_id AS userId, u.email AS userEmail, s.title AS title, " +
+                   "s.description AS description, s.related_type AS relatedType, s.related_id AS relatedId, " +
+                   "(s.due_date + COALESCE(s.due_time, TIME '09:00')) AS dueAt " +
+                   "FROM snoozed s JOIN users u ON u.id = s.user_id",
+           nativeQuery = true
+    )
+    List<DueReminderRow> bulkSnooze(@Param("userId") UUID userId,
+                                    @Param("ids") UUID[] ids,
+                                    @Param("today") LocalDate today,
+                                    @Param("days") int days,
+                                    @Param("keepTime") boolean keepTime,
+                                    @Param("newTime") LocalTime newTime,
+                                    @Param("now") LocalDateTime now);
+    
+    // Bulk delete in one statement (occurrence exceptions go with it via ON DELETE CASCADE); returns the deleted ids
+    @Query(
+           value = "DELETE FROM reminders WHERE user_id = :userId AND id = ANY(:ids) RETURNING id",
+           nativeQuery = true
+    )
+    List<UUID> bulkDelete(@Param("userId") UUID userId, @Param("ids") UUID[] ids);
+    
     @Query("SELECT r FROM Reminder r WHERE r.user.id = :userId AND r.status = 'pending' " +
            "ORDER BY r.dueDate ASC, r.priority DESC")
     List<Reminder> findUpcomingReminders(@Param("userId") UUID userId, Pageable pageable);
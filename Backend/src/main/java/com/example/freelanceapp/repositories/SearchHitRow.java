@@ -0,0 +1,11 @@
+package com.example.freelanceapp.repositories;
+
+import java.util.UUID;
+
+// One match for the unified search (GET /api/search), shared by the per-entity hit queries
+public interface SearchHitRow {
+    UUID getId();
+    String getLabel();
+    String getDetail();
+    Double getScore();
+}
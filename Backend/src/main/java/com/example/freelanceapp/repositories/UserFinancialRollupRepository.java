@@ -0,0 +1,39 @@
+package com.example.freelanceapp.repositories;
+
+import com.example.freelanceapp.entities.UserFinancialRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserFinancialRollupRepository extends JpaRepository<UserFinancialRollup, UUID> {
+
+    // Row lock so concurrent deltas for the same user are applied one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM UserFinancialRollup r WHERE r.userId = :userId")
+    Optional<UserFinancialRollup> findByUserIdForUpdate(@Param("userId") UUID userId);
+    
+    // Create an all-zero row; returns 0 if another transaction already created it
+    @Modifying
+    @Query(
+           value = "INSERT INTO user_financial_rollup (user_id, " +
+                   "invoice_count, draft_invoice_count, sent_invoice_count, viewed_invoice_count, " +
+                   "partial_invoice_count, paid_invoice_count, overdue_invoice_count, cancelled_invoice_count, " +
+                   "total_invoiced, total_paid, total_balance_due, overdue_balance, " +
+                   "quote_count, draft_quote_count, sent_quote_count, accepted_quote_count, " +
+                   "rejected_quote_count, expired_quote_count, accepted_quotes_total, " +
+                   "completed_payment_count, total_payments_received, pending_payment_count, pending_payments_total, " +
+                   "updated_at) " +
+                   "VALUES (:userId, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (user_id) DO NOTHING",
+           nativeQuery = true
+    )
+    int insertEmptyIfAbsent(@Param("userId") UUID userId);
+}
@@ -2,8 +2,10 @@ package com.example.freelanceapp.repositories;
 
 import com.example.freelanceapp.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +14,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     Optional<User> findByStripeCustomerId(String stripeCustomerId);
+    
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<UUID> findAllIds();
 }
\ No newline at end of file
@@ -0,0 +1,247 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.dtos.search.AutocompleteResponse;
+import com.example.freelanceapp.repositories.ClientRepository;
+import com.example.freelanceapp.repositories.ClientRepository.ClientAutocompleteRow;
+import com.example.freelanceapp.repositories.ProjectRepository;
+import com.example.freelanceapp.repositories.ProjectRepository.ProjectAutocompleteRow;
+import com.example.freelanceapp.utils.VersionedLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.ref.SoftReference;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * In-memory prefix autocomplete over a user's client names and emails and project names.
+ * Each user's index is a sorted array of lower-cased terms (every field, plus every word
+ * start inside it), so a lookup is a binary search and a short scan with no database
+ * access. Indexes are loaded on first use and kept current by ClientService and
+ * ProjectService after commit. They are held through soft references, with an LRU cap on
+ * the number of users, so the JVM can drop them under memory pressure; a dropped index is
+ * reloaded on the next lookup.
+ */
+@Service
+public class AutocompleteService {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+
+    private final ClientRepository clientRepository;
+    private final ProjectRepository projectRepository;
+    private final VersionedLruCache<UUID, SoftReference<UserIndex>> indexes;
+
+    public AutocompleteService(ClientRepository clientRepository,
+                               ProjectRepository projectRepository,
+                               @Value("${autocomplete.max-users:5000}") int maxUsers) {
+        this.clientRepository = clientRepository;
+        this.projectRepository = projectRepository;
+        this.indexes = new VersionedLruCache<>(maxUsers, 0);
+    }
+
+    // Clients whose company name, contact name or email (or a word in them) starts with the prefix
+    public List<AutocompleteResponse> suggestClients(UUID userId, String prefix, Integer limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        return lookup(index(userId).clientTerms, key, clampLimit(limit));
+    }
+
+    // Projects whose name (or a word in it) starts with the prefix
+    public List<AutocompleteResponse> suggestProjects(UUID userId, String prefix, Integer limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        return lookup(index(userId).projectTerms, key, clampLimit(limit));
+    }
+
+    // Called by ClientService after a create or update
+    public void clientSaved(UUID userId, UUID clientId, String companyName, String contactName, String email) {
+        afterCommit(userId, index -> index.putClient(new ClientEntry(clientId, companyName, contactName, email)));
+    }
+
+    // Called by ClientService after a delete (the client's projects are removed by cascade)
+    public void clientDeleted(UUID userId, UUID clientId) {
+        afterCommit(userId, index -> index.removeClient(clientId));
+    }
+
+    // Called by ProjectService after a create or update
+    public void projectSaved(UUID userId, UUID projectId, String name, UUID clientId) {
+        afterCommit(userId, index -> index.putProject(new ProjectEntry(projectId, name, clientId)));
+    }
+
+    // Called by ProjectService after a delete
+    public void projectDeleted(UUID userId, UUID projectId) {
+        afterCommit(userId, index -> index.removeProject(projectId));
+    }
+
+    // The user's index, loading it if it was never loaded or has been dropped by the JVM
+    private UserIndex index(UUID userId) {
+        while (true) {
+            UserIndex index = indexes.get(userId,
+                reference -> reference.get() != null,
+                () -> new SoftReference<>(new UserIndex(clientRepository.findAutocompleteRows(userId),
+                    projectRepository.findAutocompleteRows(userId)))).get();
+            // Only null if the index was collected between the load and this read
+            if (index != null) {
+                return index;
+            }
+        }
+    }
+
+    // Apply a change to the user's index (if loaded) once the writing transaction commits
+    private void afterCommit(UUID userId, Consumer<UserIndex> change) {
+        Runnable apply = () -> {
+            SoftReference<UserIndex> reference = indexes.currentForUpdate(userId);
+            UserIndex index = reference != null ? reference.get() : null;
+            if (index != null) {
+                change.accept(index);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private static int clampLimit(Integer limit) {
+        return limit != null ? Math.max(1, Math.min(limit, MAX_LIMIT)) : DEFAULT_LIMIT;
+    }
+
+    private static String normalize(String text) {
+        return text != null ? text.strip().toLowerCase(Locale.ROOT) : "";
+    }
+
+    // Binary search for the first term >= prefix, then scan while terms still match
+    private static List<AutocompleteResponse> lookup(Term[] terms, String prefix, int limit) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].key().compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        List<AutocompleteResponse> suggestions = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        for (int i = low; i < terms.length && suggestions.size() < limit && terms[i].key().startsWith(prefix); i++) {
+            Term term = terms[i];
+            if (seen.add(term.id())) {
+                suggestions.add(new AutocompleteResponse(term.id(), term.label(), term.detail()));
+            }
+        }
+        return suggestions;
+    }
+
+    private record ClientEntry(UUID id, String companyName, String contactName, String email) {
+        String displayName() {
+            return companyName != null ? companyName : contactName;
+        }
+    }
+
+    private record ProjectEntry(UUID id, String name, UUID clientId) {
+    }
+
+    // One searchable key pointing at a suggestion
+    private record Term(String key, UUID id, String label, String detail) {
+    }
+
+    private static final Comparator<Term> TERM_ORDER = Comparator.comparing(Term::key).thenComparing(Term::id);
+
+    // One user's entries and the sorted term arrays built from them (replaced on every change)
+    private static final class UserIndex {
+
+        private final Map<UUID, ClientEntry> clients = new HashMap<>();
+        private final Map<UUID, ProjectEntry> projects = new HashMap<>();
+        private volatile Term[] clientTerms;
+        private volatile Term[] projectTerms;
+
+        UserIndex(List<ClientAutocompleteRow> clientRows, List<ProjectAutocompleteRow> projectRows) {
+            for (ClientAutocompleteRow row : clientRows) {
+                clients.put(row.getId(), new ClientEntry(row.getId(), row.getCompanyName(), row.getContactName(), row.getEmail()));
+            }
+            for (ProjectAutocompleteRow row : projectRows) {
+                projects.put(row.getId(), new ProjectEntry(row.getId(), row.getName(), row.getClientId()));
+            }
+            rebuildClients();
+            rebuildProjects();
+        }
+
+        synchronized void putClient(ClientEntry client) {
+            clients.put(client.id(), client);
+            rebuildClients();
+            // Project suggestions show the client name
+            rebuildProjects();
+        }
+
+        synchronized void removeClient(UUID clientId) {
+            clients.remove(clientId);
+            projects.values().removeIf(project -> clientId.equals(project.clientId()));
+            rebuildClients();
+            rebuildProjects();
+        }
+
+        synchronized void putProject(ProjectEntry project) {
+            projects.put(project.id(), project);
+            rebuildProjects();
+        }
+
+        synchronized void removeProject(UUID projectId) {
+            projects.remove(projectId);
+            rebuildProjects();
+        }
+
+        private void rebuildClients() {
+            List<Term> terms = new ArrayList<>();
+            for (ClientEntry client : clients.values()) {
+                String label = client.displayName();
+                addTerms(terms, client.companyName(), client.id(), label, client.email());
+                addTerms(terms, client.contactName(), client.id(), label, client.email());
+                addTerms(terms, client.email(), client.id(), label, client.email());
+            }
+            clientTerms = sorted(terms);
+        }
+
+        private void rebuildProjects() {
+            List<Term> terms = new ArrayList<>();
+            for (ProjectEntry project : projects.values()) {
+                ClientEntry client = clients.get(project.clientId());
+                addTerms(terms, project.name(), project.id(), project.name(), client != null ? client.displayName() : null);
+            }
+            projectTerms = sorted(terms);
+        }
+
+        // The whole field and every word start in it ("acme corp" -> "acme corp", "corp")
+        private static void addTerms(List<Term> terms, String field, UUID id, String label, String detail) {
+            String text = normalize(field);
+            for (int i = 0; i < text.length(); i++) {
+                boolean wordStart = i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1));
+                if (wordStart && Character.isLetterOrDigit(text.charAt(i))) {
+                    terms.add(new Term(text.substring(i), id, label, detail));
+                } else if (i == 0) {
+                    terms.add(new Term(text, id, label, detail));
+                }
+            }
+        }
+
+        private static Term[] sorted(List<Term> terms) {
+            Term[] array = terms.toArray(new Term[0]);
+            Arrays.sort(array, TERM_ORDER);
+            return array;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.freelanceapp.services;
 import com.example.freelanceapp.dtos.client.ClientRequest;
 import com.example.freelanceapp.dtos.client.ClientResponse;
 import com.example.freelanceapp.dtos.client.ClientSummaryResponse;
+import com.example.freelanceapp.dtos.search.AutocompleteResponse;
 import com.example.freelanceapp.entities.Client;
 import com.example.freelanceapp.entities.User;
 import com.example.freelanceapp.exceptions.BadRequestException;
@@ -26,6 +27,8 @@ public class ClientService {
 
     private final ClientRepository clientRepository;
     private final UserRepository userRepository;
+    private final FinancialRollupService financialRollupService;
+    private final AutocompleteService autocompleteService;
 
     // Map Entity to DTO
     private ClientResponse mapToResponse(Client client) {
@@ -95,6 +98,8 @@ public class ClientService {
         // Create and save client
         Client client = mapToEntity(request, user);
         Client savedClient = clientRepository.save(client);
+        autocompleteService.clientSaved(userId, savedClient.getId(), savedClient.getCompanyName(),
+            savedClient.getContactName(), savedClient.getEmail());
 
         return mapToResponse(savedClient);
     }
@@ -194,6 +199,8 @@ public class ClientService {
         }
 
         Client updatedClient = clientRepository.save(client);
+        autocompleteService.clientSaved(userId, updatedClient.getId(), updatedClient.getCompanyName(),
+            updatedClient.getContactName(), updatedClient.getEmail());
         return mapToResponse(updatedClient);
     }
 
@@ -207,6 +214,10 @@ public class ClientService {
         // You might want to add these checks based on your business logic
         
         clientRepository.delete(client);
+        autocompleteService.clientDeleted(userId, clientId);
+        
+        // The client's quotes and invoices are removed by ON DELETE CASCADE
+        financialRollupService.rebuild(userId);
     }
 
     // Archive client
@@ -231,6 +242,11 @@ public class ClientService {
         return mapToResponse(restoredClient);
     }
 
+    // Typeahead suggestions from the in-memory autocomplete index
+    public List<AutocompleteResponse> autocompleteClients(UUID userId, String prefix, Integer limit) {
+        return autocompleteService.suggestClients(userId, prefix, limit);
+    }
+
     // Search clients
     public List<ClientResponse> searchClients(UUID userId, String searchTerm) {
         return clientRepository.searchByUser(userId, searchTerm).stream()
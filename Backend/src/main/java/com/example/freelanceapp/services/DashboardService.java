@@ -0,0 +1,70 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.dtos.dashboard.DashboardSummaryResponse;
+import com.example.freelanceapp.entities.UserFinancialRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Serves the dashboard financial summary from the user_financial_rollup read model,
+ * so a dashboard load is a single primary-key lookup however much history a user has.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    private final FinancialRollupService financialRollupService;
+
+    @Value("${dashboard.summary.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    // Get dashboard summary
+    public DashboardSummaryResponse getSummary(UUID userId) {
+        return toResponse(financialRollupService.getRollup(userId));
+    }
+
+    // Seconds a client may reuse the summary
+    public long getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    private DashboardSummaryResponse toResponse(UserFinancialRollup rollup) {
+        Map<String, Long> invoiceCountByStatus = new LinkedHashMap<>();
+        invoiceCountByStatus.put("draft", rollup.getDraftInvoiceCount());
+        invoiceCountByStatus.put("sent", rollup.getSentInvoiceCount());
+        invoiceCountByStatus.put("viewed", rollup.getViewedInvoiceCount());
+        invoiceCountByStatus.put("partial", rollup.getPartialInvoiceCount());
+        invoiceCountByStatus.put("paid", rollup.getPaidInvoiceCount());
+        invoiceCountByStatus.put("overdue", rollup.getOverdueInvoiceCount());
+        invoiceCountByStatus.put("cancelled", rollup.getCancelledInvoiceCount());
+
+        Map<String, Long> quoteCountByStatus = new LinkedHashMap<>();
+        quoteCountByStatus.put("draft", rollup.getDraftQuoteCount());
+        quoteCountByStatus.put("sent", rollup.getSentQuoteCount());
+        quoteCountByStatus.put("accepted", rollup.getAcceptedQuoteCount());
+        quoteCountByStatus.put("rejected", rollup.getRejectedQuoteCount());
+        quoteCountByStatus.put("expired", rollup.getExpiredQuoteCount());
+
+        return new DashboardSummaryResponse(
+            rollup.getInvoiceCount(),
+            invoiceCountByStatus,
+            rollup.getTotalInvoiced(),
+            rollup.getTotalPaid(),
+            rollup.getTotalBalanceDue(),
+            rollup.getOverdueBalance(),
+            rollup.getQuoteCount(),
+            quoteCountByStatus,
+            rollup.getAcceptedQuotesTotal(),
+            rollup.getCompletedPaymentCount(),
+            rollup.getTotalPaymentsReceived(),
+            rollup.getPendingPaymentCount(),
+            rollup.getPendingPaymentsTotal(),
+            rollup.getUpdatedAt()
+        );
+    }
+}
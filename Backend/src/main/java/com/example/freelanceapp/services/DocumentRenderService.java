@@ -0,0 +1,385 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.entities.*;
+import com.example.freelanceapp.repositories.InvoiceItemRepository;
+import com.example.freelanceapp.repositories.InvoiceRepository;
+import com.example.freelanceapp.repositories.QuoteItemRepository;
+import com.example.freelanceapp.repositories.QuoteRepository;
+import com.example.freelanceapp.utils.ApiPaths;
+import com.example.freelanceapp.utils.PdfDocumentBuilder;
+import com.example.freelanceapp.utils.PublicDocumentCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders invoice and quote PDFs. The rendered content is described by a DocumentContent
+ * value; the stored file is named after the document and the content's SHA-256, so a
+ * document whose data has not changed is served from disk and never rendered twice, and
+ * each document keeps only its latest file. Background renders (triggered when a
+ * document is sent) run after commit on a small bounded pool; when the queue is full the
+ * job is dropped and the PDF is rendered on its next download instead.
+ */
+@Service
+@Slf4j
+public class DocumentRenderService {
+
+    // Bump when the layout changes so existing files are not reused
+    private static final String TEMPLATE_VERSION = "2";
+    // Amount columns fit "USD 1234567.00" (bold in the totals) in full
+    private static final float[] ITEM_COLUMNS = {0, 155, 185, 285, 330, 380};
+    private static final float[] TOTAL_COLUMNS = {280, 380};
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceItemRepository invoiceItemRepository;
+    private final QuoteRepository quoteRepository;
+    private final QuoteItemRepository quoteItemRepository;
+    private final PublicDocumentCache publicDocumentCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Path storageDir;
+    private final ThreadPoolExecutor executor;
+
+    // Documents with a render queued, so repeated triggers collapse into one job
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    // A stored PDF and the file name to present it under
+    public record RenderedPdf(Path path, String fileName) {
+    }
+
+    private record Row(String label, String value) {
+    }
+
+    private record ItemRow(String description, String quantity, String unitPrice,
+                           String taxRate, String discount, String total) {
+    }
+
+    // Everything that appears on the page; equal content means an identical PDF
+    private record DocumentContent(String heading, String title, String status,
+                                   List<String> from, List<String> billTo, List<Row> details,
+                                   List<ItemRow> items, List<Row> totals, String notes, String terms) {
+    }
+
+    public DocumentRenderService(InvoiceRepository invoiceRepository,
+                                 InvoiceItemRepository invoiceItemRepository,
+                                 QuoteRepository quoteRepository,
+                                 QuoteItemRepository quoteItemRepository,
+                                 PublicDocumentCache publicDocumentCache,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${documents.pdf.storage-dir:./data/pdfs}") String storageDir,
+                                 @Value("${documents.pdf.render-threads:2}") int renderThreads,
+                                 @Value("${documents.pdf.queue-capacity:100}") int queueCapacity) {
+        this.invoiceRepository = invoiceRepository;
+        this.invoiceItemRepository = invoiceItemRepository;
+        this.quoteRepository = quoteRepository;
+        this.quoteItemRepository = quoteItemRepository;
+        this.publicDocumentCache = publicDocumentCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storageDir = Paths.get(storageDir).toAbsolutePath();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(renderThreads, renderThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "pdf-render-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Queue a background render of the invoice once the current transaction commits
+    public void renderInvoiceAfterCommit(UUID invoiceId) {
+        afterCommit(() -> submit("invoice:" + invoiceId, () ->
+            transactionTemplate.executeWithoutResult(status ->
+                invoiceRepository.findById(invoiceId).ifPresent(this::renderInvoice))));
+    }
+
+    // Queue a background render of the quote once the current transaction commits
+    public void renderQuoteAfterCommit(UUID quoteId) {
+        afterCommit(() -> submit("quote:" + quoteId, () ->
+            transactionTemplate.executeWithoutResult(status ->
+                quoteRepository.findById(quoteId).ifPresent(this::renderQuote))));
+    }
+
+    // Get the invoice's PDF, rendering it only if this content has not been stored yet
+    public RenderedPdf renderInvoice(Invoice invoice) {
+        List<InvoiceItem> items = invoiceItemRepository.findByInvoiceId(invoice.getId());
+        Path path = store("invoice-" + invoice.getId(), invoiceContent(invoice, items));
+
+        String pdfUrl = ApiPaths.invoicePdf(invoice.getId());
+        if (!pdfUrl.equals(invoice.getPdfUrl())) {
+            invoiceRepository.updatePdfUrl(invoice.getId(), pdfUrl);
+            publicDocumentCache.evictInvoice(invoice.getId());
+        }
+        return new RenderedPdf(path, invoice.getInvoiceNumber() + ".pdf");
+    }
+
+    // Get the quote's PDF, rendering it only if this content has not been stored yet
+    public RenderedPdf renderQuote(Quote quote) {
+        List<QuoteItem> items = quoteItemRepository.findByQuoteId(quote.getId());
+        Path path = store("quote-" + quote.getId(), quoteContent(quote, items));
+
+        String pdfUrl = ApiPaths.quotePdf(quote.getId());
+        if (!pdfUrl.equals(quote.getPdfUrl())) {
+            quoteRepository.updatePdfUrl(quote.getId(), pdfUrl);
+            publicDocumentCache.evictQuote(quote.getId());
+        }
+        return new RenderedPdf(path, quote.getQuoteNumber() + ".pdf");
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void submit(String key, Runnable job) {
+        if (!queued.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                // Cleared first, so a change made while rendering queues a fresh job
+                queued.remove(key);
+                try {
+                    job.run();
+                } catch (RuntimeException e) {
+                    log.warn("PDF render failed for {}", key, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(key);
+            log.warn("PDF render queue full, {} will be rendered on download", key);
+        }
+    }
+
+    // Write the rendered content as "<documentKey>-<hash>.pdf" unless that file already exists,
+    // then remove the document's files for earlier content
+    private Path store(String documentKey, DocumentContent content) {
+        Path target = storageDir.resolve(documentKey + "-" + contentHash(content) + ".pdf");
+        if (Files.exists(target)) {
+            return target;
+        }
+        try {
+            Files.createDirectories(storageDir);
+            Path temp = Files.createTempFile(storageDir, "render-", ".tmp");
+            Files.write(temp, layout(content));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store rendered PDF", e);
+        }
+        deletePrevious(documentKey, target);
+        return target;
+    }
+
+    // A file still being streamed stays readable after its directory entry is removed
+    private void deletePrevious(String documentKey, Path current) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(storageDir, documentKey + "-*.pdf")) {
+            for (Path file : files) {
+                if (!file.equals(current)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not remove earlier PDFs of {}", documentKey, e);
+        }
+    }
+
+    private String contentHash(DocumentContent content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((TEMPLATE_VERSION + "\n" + content).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private byte[] layout(DocumentContent content) {
+        PdfDocumentBuilder pdf = new PdfDocumentBuilder()
+            .title(content.heading())
+            .text(content.title())
+            .text("Status: " + content.status());
+
+        pdf.heading("From");
+        content.from().forEach(pdf::text);
+        pdf.heading("Bill To");
+        content.billTo().forEach(pdf::text);
+
+        pdf.space();
+        for (Row row : content.details()) {
+            pdf.columns(new float[] {0, 120}, false, row.label(), row.value());
+        }
+
+        pdf.heading("Items");
+        pdf.columns(ITEM_COLUMNS, true, "Description", "Qty", "Unit Price", "Tax %", "Disc. %", "Total");
+        for (ItemRow item : content.items()) {
+            pdf.columns(ITEM_COLUMNS, false, item.description(), item.quantity(), item.unitPrice(),
+                item.taxRate(), item.discount(), item.total());
+        }
+
+        pdf.space();
+        for (Row row : content.totals()) {
+            pdf.columns(TOTAL_COLUMNS, "Total".equals(row.label()), row.label(), row.value());
+        }
+
+        if (content.notes() != null && !content.notes().isBlank()) {
+            pdf.heading("Notes");
+            pdf.text(content.notes());
+        }
+        if (content.terms() != null && !content.terms().isBlank()) {
+            pdf.heading("Terms");
+            pdf.text(content.terms());
+        }
+        return pdf.build();
+    }
+
+    private DocumentContent invoiceContent(Invoice invoice, List<InvoiceItem> items) {
+        String currency = invoice.getCurrency();
+        List<Row> details = new ArrayList<>();
+        details.add(new Row("Issue date", String.valueOf(invoice.getIssueDate())));
+        details.add(new Row("Due date", String.valueOf(invoice.getDueDate())));
+        if (invoice.getPaymentTerms() != null) {
+            details.add(new Row("Payment terms", invoice.getPaymentTerms()));
+        }
+        if (invoice.getPaymentLink() != null) {
+            details.add(new Row("Pay online", invoice.getPaymentLink()));
+        }
+
+        List<Row> totals = List.of(
+            new Row("Subtotal", money(currency, invoice.getSubtotal())),
+            new Row("Tax", money(currency, invoice.getTaxAmount())),
+            new Row("Discount", money(currency, invoice.getDiscountAmount())),
+            new Row("Total", money(currency, invoice.getTotalAmount())),
+            new Row("Paid", money(currency, invoice.getAmountPaid())),
+            new Row("Balance due", money(currency, invoice.getBalanceDue()))
+        );
+
+        List<ItemRow> itemRows = items.stream()
+            .sorted(Comparator.comparing(InvoiceItem::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder())))
+            .map(item -> new ItemRow(item.getDescription(), number(item.getQuantity()),
+                money(currency, item.getUnitPrice()), number(item.getTaxRate()), number(item.getDiscount()),
+                money(currency, item.getTotal())))
+            .toList();
+
+        return new DocumentContent("INVOICE " + invoice.getInvoiceNumber(), invoice.getTitle(), invoice.getStatus(),
+            fromLines(invoice.getUser()), billToLines(invoice.getClient()), details, itemRows, totals,
+            invoice.getNotes(), invoice.getTerms());
+    }
+
+    private DocumentContent quoteContent(Quote quote, List<QuoteItem> items) {
+        String currency = quote.getCurrency();
+        List<Row> details = new ArrayList<>();
+        if (quote.getValidUntil() != null) {
+            details.add(new Row("Valid until", String.valueOf(quote.getValidUntil())));
+        }
+        if (quote.getSummary() != null) {
+            details.add(new Row("Summary", quote.getSummary()));
+        }
+
+        List<Row> totals = List.of(
+            new Row("Subtotal", money(currency, quote.getSubtotal())),
+            new Row("Tax", money(currency, quote.getTaxAmount())),
+            new Row("Discount", money(currency, quote.getDiscountAmount())),
+            new Row("Total", money(currency, quote.getTotalAmount()))
+        );
+
+        List<ItemRow> itemRows = items.stream()
+            .sorted(Comparator.comparing(QuoteItem::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder())))
+            .map(item -> new ItemRow(item.getDescription(), number(item.getQuantity()),
+                money(currency, item.getUnitPrice()), number(item.getTaxRate()), number(item.getDiscount()),
+                money(currency, item.getTotal())))
+            .toList();
+
+        return new DocumentContent("QUOTE " + quote.getQuoteNumber(), quote.getTitle(), quote.getStatus(),
+            fromLines(quote.getUser()), billToLines(quote.getClient()), details, itemRows, totals,
+            quote.getNotes(), quote.getTermsAndConditions());
+    }
+
+    private List<String> fromLines(User user) {
+        List<String> lines = new ArrayList<>();
+        if (user.getCompanyName() != null) {
+            lines.add(user.getCompanyName());
+        }
+        String name = ((user.getFirstName() != null ? user.getFirstName() : "") + " "
+            + (user.getLastName() != null ? user.getLastName() : "")).trim();
+        if (!name.isEmpty()) {
+            lines.add(name);
+        }
+        lines.add(user.getEmail());
+        return lines;
+    }
+
+    private List<String> billToLines(Client client) {
+        List<String> lines = new ArrayList<>();
+        if (client.getCompanyName() != null) {
+            lines.add(client.getCompanyName());
+        }
+        if (client.getContactName() != null) {
+            lines.add(client.getContactName());
+        }
+        if (client.getAddress() != null) {
+            lines.add(client.getAddress());
+        }
+        String cityLine = String.join(" ", Arrays.asList(client.getPostalCode(), client.getCity(), client.getState())
+            .stream().filter(Objects::nonNull).toList());
+        if (!cityLine.isEmpty()) {
+            lines.add(cityLine);
+        }
+        if (client.getCountry() != null) {
+            lines.add(client.getCountry());
+        }
+        if (client.getEmail() != null) {
+            lines.add(client.getEmail());
+        }
+        if (client.getTaxNumber() != null) {
+            lines.add("Tax no. " + client.getTaxNumber());
+        }
+        return lines;
+    }
+
+    private String money(String currency, BigDecimal amount) {
+        BigDecimal value = amount != null ? amount : BigDecimal.ZERO;
+        return currency + " " + value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private String number(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros().toPlainString() : "0";
+    }
+}
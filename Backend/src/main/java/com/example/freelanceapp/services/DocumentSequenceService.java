@@ -0,0 +1,150 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.config.DataSourceConfig;
+import com.example.freelanceapp.repositories.InvoiceRepository;
+import com.example.freelanceapp.repositories.QuoteRepository;
+import com.example.freelanceapp.utils.NumberGenerator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates invoice and quote numbers from a document_sequences counter row per prefix and month.
+ * Each node reserves a block of numbers with one UPDATE ... RETURNING and hands them out from
+ * memory, so issuing a number normally touches no database row at all.
+ *
+ * <p>Reservations run on a small connection pool of their own (the numbering pool of
+ * {@link DataSourceConfig}), in autocommit: the counter row is
+ * locked only for that one statement, never for the caller's transaction, and a refill never waits
+ * for a connection held by the callers it is refilling for. Numbers are therefore unique across
+ * nodes but not gap-free: a rolled-back create, or a node restarting mid-block, skips numbers.
+ */
+@Service
+public class DocumentSequenceService {
+
+    private static final String INVOICE_PREFIX = "INV-";
+    private static final String QUOTE_PREFIX = "QUO-";
+
+    // Advance an existing counter; returns the new next_value, or nothing if the row is missing
+    private static final String ADVANCE_SQL =
+            "UPDATE document_sequences " +
+            "SET next_value = next_value + ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE sequence_key = ? " +
+            "RETURNING next_value";
+
+    // Create the counter after startValue's block, or advance it if another node created it first
+    private static final String CREATE_OR_ADVANCE_SQL =
+            "INSERT INTO document_sequences (sequence_key, next_value, updated_at) " +
+            "VALUES (?, ?, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (sequence_key) DO UPDATE " +
+            "SET next_value = document_sequences.next_value + ?, updated_at = CURRENT_TIMESTAMP " +
+            "RETURNING next_value";
+
+    private final InvoiceRepository invoiceRepository;
+    private final QuoteRepository quoteRepository;
+    private final NumberGenerator numberGenerator;
+    private final int blockSize;
+    private final JdbcTemplate reservationJdbc;
+
+    // Blocks currently being handed out, keyed by prefix + period
+    private final ConcurrentMap<String, SequenceBlock> blocks = new ConcurrentHashMap<>();
+
+    public DocumentSequenceService(InvoiceRepository invoiceRepository,
+                                   QuoteRepository quoteRepository,
+                                   NumberGenerator numberGenerator,
+                                   @Value("${numbering.block-size:50}") int blockSize,
+                                   @Qualifier(DataSourceConfig.NUMBERING) DataSource reservationDataSource) {
+        this.invoiceRepository = invoiceRepository;
+        this.quoteRepository = quoteRepository;
+        this.numberGenerator = numberGenerator;
+        this.blockSize = Math.max(1, blockSize);
+        this.reservationJdbc = new JdbcTemplate(reservationDataSource);
+    }
+
+    // Next invoice number for the current month (INV-YYYYMM-001)
+    public String nextInvoiceNumber() {
+        return nextNumber(INVOICE_PREFIX);
+    }
+
+    // Next quote number for the current month (QUO-YYYYMM-001)
+    public String nextQuoteNumber() {
+        return nextNumber(QUOTE_PREFIX);
+    }
+
+    private String nextNumber(String prefix) {
+        String period = numberGenerator.currentPeriod();
+        return numberGenerator.formatNumber(prefix, period, nextSequence(prefix, period));
+    }
+
+    // Take a number from the current block, refilling it when it runs out
+    private long nextSequence(String prefix, String period) {
+        String key = prefix + period;
+        while (true) {
+            SequenceBlock block = blocks.get(key);
+            if (block != null) {
+                long value = block.next.getAndIncrement();
+                if (value <= block.last) {
+                    return value;
+                }
+            }
+            refill(prefix, period, block);
+        }
+    }
+
+    // One refill at a time; threads that queued behind it find the new block and return at once
+    private synchronized void refill(String prefix, String period, SequenceBlock exhausted) {
+        String key = prefix + period;
+        if (blocks.get(key) != exhausted) {
+            return;
+        }
+        // Blocks of earlier months are never used again
+        blocks.keySet().removeIf(existing -> existing.startsWith(prefix) && !existing.equals(key));
+
+        long end = reserveBlock(prefix, period);
+        blocks.put(key, new SequenceBlock(end - blockSize, end - 1));
+    }
+
+    // Advance the counter by one block; returns the exclusive upper bound of the reserved block
+    private long reserveBlock(String prefix, String period) {
+        String sequenceKey = prefix + period;
+
+        Long end = reservationJdbc.query(ADVANCE_SQL,
+                rs -> rs.next() ? rs.getLong(1) : null, blockSize, sequenceKey);
+        if (end != null) {
+            return end;
+        }
+
+        // First number of this period: continue after any numbers issued before the counter existed
+        long startValue = findMaxIssuedSequence(prefix, period) + 1;
+        return reservationJdbc.queryForObject(CREATE_OR_ADVANCE_SQL, Long.class,
+                sequenceKey, startValue + blockSize, blockSize);
+    }
+
+    // Runs on the caller's connection, if it has one; it only reads
+    private long findMaxIssuedSequence(String prefix, String period) {
+        String numberPrefix = prefix + period + "-";
+        Long max = null;
+        if (INVOICE_PREFIX.equals(prefix)) {
+            max = invoiceRepository.findMaxSequenceByNumberPrefix(numberPrefix);
+        } else if (QUOTE_PREFIX.equals(prefix)) {
+            max = quoteRepository.findMaxSequenceByNumberPrefix(numberPrefix);
+        }
+        return max != null ? max : 0;
+    }
+
+    private static final class SequenceBlock {
+        private final AtomicLong next;
+        private final long last;
+
+        private SequenceBlock(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.entities.QuoteHistory;
+import com.example.freelanceapp.repositories.InvoiceRepository;
+import com.example.freelanceapp.repositories.QuoteHistoryRepository;
+import com.example.freelanceapp.repositories.QuoteRepository;
+import com.example.freelanceapp.utils.PublicDocumentCache;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind tracking of public link views. Views are queued in memory and written in
+ * batches, one transaction per document type: one UPDATE sets viewed_at on first view, to each
+ * document's earliest view in the batch, and quote history rows are inserted with one batched
+ * saveAll. Views of documents deleted in the meantime are skipped; a batch that still fails is queued again for the next flush. If the
+ * buffer is full, further views are dropped (and counted) rather than slowing down the public page.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DocumentViewService {
+
+    private final InvoiceRepository invoiceRepository;
+    private final QuoteRepository quoteRepository;
+    private final QuoteHistoryRepository quoteHistoryRepository;
+    private final PublicDocumentCache publicDocumentCache;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${public-links.views.max-buffered:10000}")
+    private int maxBuffered;
+
+    private record InvoiceView(UUID invoiceId, LocalDateTime viewedAt) {
+    }
+
+    private record QuoteView(UUID quoteId, LocalDateTime viewedAt, String ipAddress, String userAgent) {
+    }
+
+    private final Queue<InvoiceView> invoiceViews = new ConcurrentLinkedQueue<>();
+    private final Queue<QuoteView> quoteViews = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Queue an invoice view
+    public void recordInvoiceView(UUID invoiceId) {
+        if (reserveSlot()) {
+            invoiceViews.add(new InvoiceView(invoiceId, LocalDateTime.now()));
+        }
+    }
+
+    // Queue a quote view (written to quote_history on flush)
+    public void recordQuoteView(UUID quoteId, String ipAddress, String userAgent) {
+        if (reserveSlot()) {
+            quoteViews.add(new QuoteView(quoteId, LocalDateTime.now(), ipAddress, userAgent));
+        }
+    }
+
+    private boolean reserveSlot() {
+        if (buffered.incrementAndGet() > maxBuffered) {
+            buffered.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    // Write out everything buffered so far, each document type in its own transaction
+    @Scheduled(fixedDelayString = "${public-links.views.flush-interval-ms:5000}")
+    public void flush() {
+        int invoiceCount = flush(invoiceViews, this::writeInvoiceViews, "invoice");
+        int quoteCount = flush(quoteViews, this::writeQuoteViews, "quote");
+        if (invoiceCount > 0 || quoteCount > 0) {
+            log.debug("Flushed public link views: {} invoice, {} quote (dropped since startup: {})",
+                invoiceCount, quoteCount, dropped.get());
+        }
+    }
+
+    // Write one type's batch; on failure the views go back on the queue (as far as the buffer allows)
+    private <T> int flush(Queue<T> queue, Consumer<List<T>> writer, String type) {
+        List<T> batch = drain(queue);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> writer.accept(batch));
+            return batch.size();
+        } catch (RuntimeException e) {
+            log.warn("Could not write {} buffered {} views, keeping them for the next flush", batch.size(), type, e);
+            batch.forEach(view -> {
+                if (reserveSlot()) {
+                    queue.add(view);
+                }
+            });
+            return 0;
+        }
+    }
+
+    // Set viewed_at on first view to each invoice's earliest view in the batch.
+    // Ids of deleted invoices simply match no row.
+    private void writeInvoiceViews(List<InvoiceView> batch) {
+        Map<UUID, LocalDateTime> firstViews = new HashMap<>();
+        batch.forEach(view -> firstViews.merge(view.invoiceId(), view.viewedAt(), DocumentViewService::earlier));
+        markViewed(firstViews, invoiceRepository::markViewedByIds)
+            .forEach(publicDocumentCache::evictInvoice);
+    }
+
+    // Set viewed_at on first view and insert one history row per view of a quote that still exists
+    private void writeQuoteViews(List<QuoteView> batch) {
+        Set<UUID> ids = new HashSet<>();
+        batch.forEach(view -> ids.add(view.quoteId()));
+        Set<UUID> existing = new HashSet<>(quoteRepository.lockExistingIds(ids));
+        if (existing.isEmpty()) {
+            return;
+        }
+
+        List<QuoteHistory> historyEntries = new ArrayList<>();
+        Map<UUID, LocalDateTime> firstViews = new HashMap<>();
+        for (QuoteView view : batch) {
+            if (!existing.contains(view.quoteId())) {
+                continue;
+            }
+            firstViews.merge(view.quoteId(), view.viewedAt(), DocumentViewService::earlier);
+
+            QuoteHistory history = new QuoteHistory();
+            history.setQuote(quoteRepository.getReferenceById(view.quoteId()));
+            history.setAction("viewed");
+            history.setDescription("Quote viewed by client");
+            history.setIpAddress(view.ipAddress());
+            history.setUserAgent(view.userAgent());
+            history.setMetadata("{}");
+            historyEntries.add(history);
+        }
+        markViewed(firstViews, quoteRepository::markViewedByIds)
+            .forEach(publicDocumentCache::evictQuote);
+        quoteHistoryRepository.saveAll(historyEntries);
+    }
+
+    // One UPDATE for the whole batch, each document with its own first view time
+    private List<UUID> markViewed(Map<UUID, LocalDateTime> firstViews,
+                                  BiFunction<UUID[], LocalDateTime[], List<UUID>> update) {
+        UUID[] ids = new UUID[firstViews.size()];
+        LocalDateTime[] viewedAts = new LocalDateTime[firstViews.size()];
+        int i = 0;
+        for (Map.Entry<UUID, LocalDateTime> entry : firstViews.entrySet()) {
+            ids[i] = entry.getKey();
+            viewedAts[i] = entry.getValue();
+            i++;
+        }
+        return update.apply(ids, viewedAts);
+    }
+
+    private static LocalDateTime earlier(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    // Flush what is left on shutdown
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private <T> List<T> drain(Queue<T> queue) {
+        List<T> batch = new ArrayList<>();
+        T view;
+        while ((view = queue.poll()) != null) {
+            batch.add(view);
+            buffered.decrementAndGet();
+        }
+        return batch;
+    }
+}
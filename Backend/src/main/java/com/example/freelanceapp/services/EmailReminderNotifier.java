@@ -0,0 +1,31 @@
+package com.example.freelanceapp.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Email channel for fired reminders. There is no mail transport configured yet, so this
+ * is a local SMTP stand-in: it writes the message it would send to the log. Disabled
+ * unless reminders.dispatch.email.enabled is set.
+ */
+@Component
+@Slf4j
+public class EmailReminderNotifier implements ReminderNotifier {
+
+    @Value("${reminders.dispatch.email.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reminders.dispatch.email.from:reminders@freelanceapp.local}")
+    private String from;
+
+    @Override
+    public void notify(ReminderDispatchService.DueReminder reminder) {
+        if (!enabled || reminder.userEmail() == null) {
+            return;
+        }
+        log.info("SMTP stand-in: from={} to={} subject=\"Reminder: {}\" due={} body=\"{}\"",
+            from, reminder.userEmail(), reminder.title(), reminder.dueAt(),
+            reminder.description() != null ? reminder.description() : "");
+    }
+}
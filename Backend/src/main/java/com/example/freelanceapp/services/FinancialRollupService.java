@@ -0,0 +1,343 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.entities.Invoice;
+import com.example.freelanceapp.entities.InvoicePayment;
+import com.example.freelanceapp.entities.Quote;
+import com.example.freelanceapp.entities.UserFinancialRollup;
+import com.example.freelanceapp.repositories.InvoicePaymentRepository;
+import com.example.freelanceapp.repositories.InvoicePaymentRepository.PaymentRollupRow;
+import com.example.freelanceapp.repositories.InvoiceRepository;
+import com.example.freelanceapp.repositories.InvoiceRepository.InvoiceRollupRow;
+import com.example.freelanceapp.repositories.QuoteRepository;
+import com.example.freelanceapp.repositories.QuoteRepository.QuoteRollupRow;
+import com.example.freelanceapp.repositories.UserFinancialRollupRepository;
+import com.example.freelanceapp.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Maintains the user_financial_rollup read model. Services report each change to an
+ * invoice, quote or payment as a before/after pair of figures and only the difference
+ * is applied to the user's row, inside the caller's transaction. A user without a row
+ * is rebuilt from the base tables, and a scheduled job verifies every row.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FinancialRollupService {
+
+    private final UserFinancialRollupRepository rollupRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final QuoteRepository quoteRepository;
+    private final InvoicePaymentRepository invoicePaymentRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // The parts of an invoice that feed the rollup
+    public record InvoiceFigures(String status, BigDecimal totalAmount, BigDecimal amountPaid, BigDecimal balanceDue) {
+        public static InvoiceFigures of(Invoice invoice) {
+            return new InvoiceFigures(invoice.getStatus(), invoice.getTotalAmount(),
+                invoice.getAmountPaid(), invoice.getBalanceDue());
+        }
+    }
+
+    // The parts of a quote that feed the rollup
+    public record QuoteFigures(String status, BigDecimal totalAmount) {
+        public static QuoteFigures of(Quote quote) {
+            return new QuoteFigures(quote.getStatus(), quote.getTotalAmount());
+        }
+    }
+
+    // The parts of a payment that feed the rollup
+    public record PaymentFigures(String status, BigDecimal amount) {
+        public static PaymentFigures of(InvoicePayment payment) {
+            return new PaymentFigures(payment.getStatus(), payment.getAmount());
+        }
+    }
+
+    // Apply an invoice change; before is null for a new invoice, after is null for a deleted one
+    @Transactional
+    public void recordInvoiceChange(UUID userId, InvoiceFigures before, InvoiceFigures after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        UserFinancialRollup rollup = lockOrRebuild(userId);
+        if (rollup == null) {
+            return;
+        }
+        if (before != null) {
+            applyInvoice(rollup, before, -1);
+        }
+        if (after != null) {
+            applyInvoice(rollup, after, 1);
+        }
+        rollupRepository.save(rollup);
+    }
+
+    // Apply a batch of invoice changes under a single row lock (before/after lists may differ in length)
+    @Transactional
+    public void recordInvoiceChanges(UUID userId, List<InvoiceFigures> before, List<InvoiceFigures> after) {
+        if (before.isEmpty() && after.isEmpty()) {
+            return;
+        }
+        UserFinancialRollup rollup = lockOrRebuild(userId);
+        if (rollup == null) {
+            return;
+        }
+        for (InvoiceFigures figures : before) {
+            applyInvoice(rollup, figures, -1);
+        }
+        for (InvoiceFigures figures : after) {
+            applyInvoice(rollup, figures, 1);
+        }
+        rollupRepository.save(rollup);
+    }
+
+    // Apply a quote change; before is null for a new quote, after is null for a deleted one
+    @Transactional
+    public void recordQuoteChange(UUID userId, QuoteFigures before, QuoteFigures after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        UserFinancialRollup rollup = lockOrRebuild(userId);
+        if (rollup == null) {
+            return;
+        }
+        if (before != null) {
+            applyQuote(rollup, before, -1);
+        }
+        if (after != null) {
+            applyQuote(rollup, after, 1);
+        }
+        rollupRepository.save(rollup);
+    }
+
+    // Apply a payment change; before is null for a new payment, after is null for a deleted one
+    @Transactional
+    public void recordPaymentChange(UUID userId, PaymentFigures before, PaymentFigures after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        UserFinancialRollup rollup = lockOrRebuild(userId);
+        if (rollup == null) {
+            return;
+        }
+        if (before != null) {
+            applyPayment(rollup, before, -1);
+        }
+        if (after != null) {
+            applyPayment(rollup, after, 1);
+        }
+        rollupRepository.save(rollup);
+    }
+
+    // Get a user's rollup (primary-key lookup), building it on first use
+    @Transactional
+    public UserFinancialRollup getRollup(UUID userId) {
+        return rollupRepository.findById(userId)
+            .orElseGet(() -> rebuild(userId));
+    }
+
+    // Recompute a user's rollup from invoices, quotes and payments
+    @Transactional
+    public UserFinancialRollup rebuild(UUID userId) {
+        rollupRepository.insertEmptyIfAbsent(userId);
+        UserFinancialRollup rollup = rollupRepository.findByUserIdForUpdate(userId)
+            .orElseThrow(() -> new IllegalStateException("Financial rollup row missing for user " + userId));
+        rollupRepository.flush();
+        copyComputed(computeFromBaseTables(userId), rollup);
+        return rollupRepository.save(rollup);
+    }
+
+    // Compare every stored rollup with the base tables and repair any drift
+    @Scheduled(cron = "${rollup.verify.cron:0 30 3 * * *}")
+    public void verifyAll() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<UUID> userIds = userRepository.findAllIds();
+        int repaired = 0;
+
+        for (UUID userId : userIds) {
+            Boolean drifted = transactionTemplate.execute(status -> verify(userId));
+            if (Boolean.TRUE.equals(drifted)) {
+                repaired++;
+            }
+        }
+
+        log.info("Financial rollup verification finished: {} users checked, {} repaired", userIds.size(), repaired);
+    }
+
+    // Verify one user's rollup; returns true if it had to be repaired
+    private boolean verify(UUID userId) {
+        UserFinancialRollup stored = rollupRepository.findByUserIdForUpdate(userId).orElse(null);
+        if (stored == null) {
+            rebuild(userId);
+            return false;
+        }
+
+        UserFinancialRollup computed = computeFromBaseTables(userId);
+        if (sameFigures(stored, computed)) {
+            return false;
+        }
+
+        log.warn("Financial rollup drift for user {}: stored {} but base tables give {}", userId, stored, computed);
+        copyComputed(computed, stored);
+        rollupRepository.save(stored);
+        return true;
+    }
+
+    // Lock the user's row; returns null when the row had to be built, since the rebuild already includes the change
+    private UserFinancialRollup lockOrRebuild(UUID userId) {
+        UserFinancialRollup rollup = rollupRepository.findByUserIdForUpdate(userId).orElse(null);
+        if (rollup != null) {
+            return rollup;
+        }
+
+        if (rollupRepository.insertEmptyIfAbsent(userId) == 0) {
+            // Another transaction created the row first; our change is not in it yet
+            return rollupRepository.findByUserIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Financial rollup row missing for user " + userId));
+        }
+        rebuild(userId);
+        return null;
+    }
+
+    private UserFinancialRollup computeFromBaseTables(UUID userId) {
+        InvoiceRollupRow invoices = invoiceRepository.summarizeForRollup(userId);
+        QuoteRollupRow quotes = quoteRepository.summarizeForRollup(userId);
+        PaymentRollupRow payments = invoicePaymentRepository.summarizeForRollup(userId);
+
+        UserFinancialRollup rollup = new UserFinancialRollup();
+        rollup.setInvoiceCount(invoices.getInvoiceCount());
+        rollup.setDraftInvoiceCount(invoices.getDraftCount());
+        rollup.setSentInvoiceCount(invoices.getSentCount());
+        rollup.setViewedInvoiceCount(invoices.getViewedCount());
+        rollup.setPartialInvoiceCount(invoices.getPartialCount());
+        rollup.setPaidInvoiceCount(invoices.getPaidCount());
+        rollup.setOverdueInvoiceCount(invoices.getOverdueCount());
+        rollup.setCancelledInvoiceCount(invoices.getCancelledCount());
+        rollup.setTotalInvoiced(invoices.getTotalInvoiced());
+        rollup.setTotalPaid(invoices.getTotalPaid());
+        rollup.setTotalBalanceDue(invoices.getTotalBalanceDue());
+        rollup.setOverdueBalance(invoices.getOverdueBalance());
+
+        rollup.setQuoteCount(quotes.getQuoteCount());
+        rollup.setDraftQuoteCount(quotes.getDraftCount());
+        rollup.setSentQuoteCount(quotes.getSentCount());
+        rollup.setAcceptedQuoteCount(quotes.getAcceptedCount());
+        rollup.setRejectedQuoteCount(quotes.getRejectedCount());
+        rollup.setExpiredQuoteCount(quotes.getExpiredCount());
+        rollup.setAcceptedQuotesTotal(quotes.getAcceptedTotal());
+
+        rollup.setCompletedPaymentCount(payments.getCompletedCount());
+        rollup.setTotalPaymentsReceived(payments.getCompletedTotal());
+        rollup.setPendingPaymentCount(payments.getPendingCount());
+        rollup.setPendingPaymentsTotal(payments.getPendingTotal());
+        return rollup;
+    }
+
+    private void copyComputed(UserFinancialRollup source, UserFinancialRollup target) {
+        UUID userId = target.getUserId();
+        LocalDateTime updatedAt = target.getUpdatedAt();
+        BeanUtils.copyProperties(source, target);
+        target.setUserId(userId);
+        target.setUpdatedAt(updatedAt);
+    }
+
+    private boolean sameFigures(UserFinancialRollup a, UserFinancialRollup b) {
+        return a.getInvoiceCount().equals(b.getInvoiceCount())
+            && a.getDraftInvoiceCount().equals(b.getDraftInvoiceCount())
+            && a.getSentInvoiceCount().equals(b.getSentInvoiceCount())
+            && a.getViewedInvoiceCount().equals(b.getViewedInvoiceCount())
+            && a.getPartialInvoiceCount().equals(b.getPartialInvoiceCount())
+            && a.getPaidInvoiceCount().equals(b.getPaidInvoiceCount())
+            && a.getOverdueInvoiceCount().equals(b.getOverdueInvoiceCount())
+            && a.getCancelledInvoiceCount().equals(b.getCancelledInvoiceCount())
+            && sameAmount(a.getTotalInvoiced(), b.getTotalInvoiced())
+            && sameAmount(a.getTotalPaid(), b.getTotalPaid())
+            && sameAmount(a.getTotalBalanceDue(), b.getTotalBalanceDue())
+            && sameAmount(a.getOverdueBalance(), b.getOverdueBalance())
+            && a.getQuoteCount().equals(b.getQuoteCount())
+            && a.getDraftQuoteCount().equals(b.getDraftQuoteCount())
+            && a.getSentQuoteCount().equals(b.getSentQuoteCount())
+            && a.getAcceptedQuoteCount().equals(b.getAcceptedQuoteCount())
+            && a.getRejectedQuoteCount().equals(b.getRejectedQuoteCount())
+            && a.getExpiredQuoteCount().equals(b.getExpiredQuoteCount())
+            && sameAmount(a.getAcceptedQuotesTotal(), b.getAcceptedQuotesTotal())
+            && a.getCompletedPaymentCount().equals(b.getCompletedPaymentCount())
+            && sameAmount(a.getTotalPaymentsReceived(), b.getTotalPaymentsReceived())
+            && a.getPendingPaymentCount().equals(b.getPendingPaymentCount())
+            && sameAmount(a.getPendingPaymentsTotal(), b.getPendingPaymentsTotal());
+    }
+
+    private boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a.compareTo(b) == 0;
+    }
+
+    private void applyInvoice(UserFinancialRollup rollup, InvoiceFigures figures, int sign) {
+        rollup.setInvoiceCount(rollup.getInvoiceCount() + sign);
+        switch (String.valueOf(figures.status())) {
+            case "draft" -> rollup.setDraftInvoiceCount(rollup.getDraftInvoiceCount() + sign);
+            case "sent" -> rollup.setSentInvoiceCount(rollup.getSentInvoiceCount() + sign);
+            case "viewed" -> rollup.setViewedInvoiceCount(rollup.getViewedInvoiceCount() + sign);
+            case "partial" -> rollup.setPartialInvoiceCount(rollup.getPartialInvoiceCount() + sign);
+            case "paid" -> rollup.setPaidInvoiceCount(rollup.getPaidInvoiceCount() + sign);
+            case "overdue" -> {
+                rollup.setOverdueInvoiceCount(rollup.getOverdueInvoiceCount() + sign);
+                rollup.setOverdueBalance(add(rollup.getOverdueBalance(), figures.balanceDue(), sign));
+            }
+            case "cancelled" -> rollup.setCancelledInvoiceCount(rollup.getCancelledInvoiceCount() + sign);
+            default -> { }
+        }
+        rollup.setTotalInvoiced(add(rollup.getTotalInvoiced(), figures.totalAmount(), sign));
+        rollup.setTotalPaid(add(rollup.getTotalPaid(), figures.amountPaid(), sign));
+        rollup.setTotalBalanceDue(add(rollup.getTotalBalanceDue(), figures.balanceDue(), sign));
+    }
+
+    private void applyQuote(UserFinancialRollup rollup, QuoteFigures figures, int sign) {
+        rollup.setQuoteCount(rollup.getQuoteCount() + sign);
+        switch (String.valueOf(figures.status())) {
+            case "draft" -> rollup.setDraftQuoteCount(rollup.getDraftQuoteCount() + sign);
+            case "sent" -> rollup.setSentQuoteCount(rollup.getSentQuoteCount() + sign);
+            case "accepted" -> {
+                rollup.setAcceptedQuoteCount(rollup.getAcceptedQuoteCount() + sign);
+                rollup.setAcceptedQuotesTotal(add(rollup.getAcceptedQuotesTotal(), figures.totalAmount(), sign));
+            }
+            case "rejected" -> rollup.setRejectedQuoteCount(rollup.getRejectedQuoteCount() + sign);
+            case "expired" -> rollup.setExpiredQuoteCount(rollup.getExpiredQuoteCount() + sign);
+            default -> { }
+        }
+    }
+
+    private void applyPayment(UserFinancialRollup rollup, PaymentFigures figures, int sign) {
+        switch (String.valueOf(figures.status())) {
+            case "completed" -> {
+                rollup.setCompletedPaymentCount(rollup.getCompletedPaymentCount() + sign);
+                rollup.setTotalPaymentsReceived(add(rollup.getTotalPaymentsReceived(), figures.amount(), sign));
+            }
+            case "pending" -> {
+                rollup.setPendingPaymentCount(rollup.getPendingPaymentCount() + sign);
+                rollup.setPendingPaymentsTotal(add(rollup.getPendingPaymentsTotal(), figures.amount(), sign));
+            }
+            default -> { }
+        }
+    }
+
+    private BigDecimal add(BigDecimal total, BigDecimal amount, int sign) {
+        if (amount == null) {
+            return total;
+        }
+        return sign > 0 ? total.add(amount) : total.subtract(amount);
+    }
+}
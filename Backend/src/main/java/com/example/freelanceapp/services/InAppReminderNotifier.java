@@ -0,0 +1,63 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.dtos.reminder.ReminderNotificationResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-app notification feed: keeps the most recent fired reminders per user in memory,
+ * newest first, for the header bar to read. The feed is bounded per user and in the
+ * number of users, and is not persisted (reminders themselves record notified_at).
+ * Because the feed is per-process, reminder dispatch supports a single application node
+ * only: with several nodes each reminder is still fired once, but its notification would
+ * only show up for requests served by the node that claimed it.
+ */
+@Component
+public class InAppReminderNotifier implements ReminderNotifier {
+
+    private final int maxPerUser;
+    private final Map<UUID, Deque<ReminderNotificationResponse>> feeds;
+
+    public InAppReminderNotifier(@Value("${reminders.feed.max-per-user:50}") int maxPerUser,
+                                 @Value("${reminders.feed.max-users:10000}") int maxUsers) {
+        this.maxPerUser = maxPerUser;
+        this.feeds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Deque<ReminderNotificationResponse>> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    @Override
+    public synchronized void notify(ReminderDispatchService.DueReminder reminder) {
+        Deque<ReminderNotificationResponse> feed = feeds.computeIfAbsent(reminder.userId(), userId -> new ArrayDeque<>());
+        feed.addFirst(new ReminderNotificationResponse(
+            reminder.id(),
+            reminder.title(),
+            reminder.description(),
+            reminder.relatedType(),
+            reminder.relatedId(),
+            reminder.dueAt(),
+            LocalDateTime.now()
+        ));
+        while (feed.size() > maxPerUser) {
+            feed.removeLast();
+        }
+    }
+
+    // Most recent notifications for a user, newest first
+    public synchronized List<ReminderNotificationResponse> getRecent(UUID userId) {
+        Deque<ReminderNotificationResponse> feed = feeds.get(userId);
+        return feed != null ? new ArrayList<>(feed) : new ArrayList<>();
+    }
+}
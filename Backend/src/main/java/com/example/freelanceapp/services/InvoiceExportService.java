@@ -0,0 +1,209 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.entities.Invoice;
+import com.example.freelanceapp.entities.InvoiceItem;
+import com.example.freelanceapp.entities.InvoicePayment;
+import com.example.freelanceapp.exceptions.BadRequestException;
+import com.example.freelanceapp.repositories.InvoiceItemRepository;
+import com.example.freelanceapp.repositories.InvoicePaymentRepository;
+import com.example.freelanceapp.repositories.InvoiceRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams invoices, with their items and payments flattened into one record per line,
+ * straight from a database cursor to the response. Invoices are processed in fixed-size
+ * chunks and detached afterwards, so memory use does not grow with the export size.
+ */
+@Service
+@RequiredArgsConstructor
+public class InvoiceExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final List<String> COLUMNS = List.of(
+        "recordType", "invoiceId", "invoiceNumber", "title", "status", "clientName", "projectName",
+        "quoteNumber", "issueDate", "dueDate", "paidDate", "currency", "subtotal", "taxAmount",
+        "discountAmount", "totalAmount", "amountPaid", "balanceDue",
+        "itemDescription", "itemQuantity", "itemUnitPrice", "itemTaxRate", "itemDiscount", "itemTotal",
+        "paymentMethod", "paymentTransactionId", "paymentAmount", "paymentDate", "paymentStatus"
+    );
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceItemRepository invoiceItemRepository;
+    private final InvoicePaymentRepository invoicePaymentRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public static boolean isSupportedFormat(String format) {
+        return FORMAT_CSV.equals(format) || FORMAT_NDJSON.equals(format);
+    }
+
+    // Export invoices issued in the date range. Runs in its own read-only transaction
+    // because it is called from the async thread of a StreamingResponseBody.
+    public void exportInvoices(UUID userId, LocalDate startDate, LocalDate endDate,
+                               String format, OutputStream outputStream) throws IOException {
+        if (!isSupportedFormat(format)) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        boolean csv = FORMAT_CSV.equals(format);
+        if (csv) {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+            writer.flush();
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Invoice> invoices = invoiceRepository.streamByIssueDateRange(userId, startDate, endDate)) {
+                    List<Invoice> chunk = new ArrayList<>(CHUNK_SIZE);
+                    Iterator<Invoice> iterator = invoices.iterator();
+                    while (iterator.hasNext()) {
+                        chunk.add(iterator.next());
+                        if (chunk.size() == CHUNK_SIZE) {
+                            writeChunk(chunk, csv, writer);
+                            chunk.clear();
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        writeChunk(chunk, csv, writer);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+    }
+
+    private void writeChunk(List<Invoice> chunk, boolean csv, Writer writer) throws IOException {
+        List<UUID> invoiceIds = chunk.stream()
+            .map(Invoice::getId)
+            .collect(Collectors.toList());
+
+        Map<UUID, List<InvoiceItem>> itemsByInvoice = invoiceItemRepository.findByInvoiceIdIn(invoiceIds).stream()
+            .collect(Collectors.groupingBy(item -> item.getInvoice().getId()));
+        Map<UUID, List<InvoicePayment>> paymentsByInvoice = invoicePaymentRepository.findByInvoiceIdIn(invoiceIds).stream()
+            .collect(Collectors.groupingBy(payment -> payment.getInvoice().getId()));
+
+        for (Invoice invoice : chunk) {
+            writeRecord(invoiceRecord(invoice, "invoice"), csv, writer);
+
+            for (InvoiceItem item : itemsByInvoice.getOrDefault(invoice.getId(), Collections.emptyList())) {
+                Map<String, Object> record = invoiceRecord(invoice, "item");
+                record.put("itemDescription", item.getDescription());
+                record.put("itemQuantity", item.getQuantity());
+                record.put("itemUnitPrice", item.getUnitPrice());
+                record.put("itemTaxRate", item.getTaxRate());
+                record.put("itemDiscount", item.getDiscount());
+                record.put("itemTotal", item.getTotal());
+                writeRecord(record, csv, writer);
+            }
+
+            for (InvoicePayment payment : paymentsByInvoice.getOrDefault(invoice.getId(), Collections.emptyList())) {
+                Map<String, Object> record = invoiceRecord(invoice, "payment");
+                record.put("paymentMethod", payment.getPaymentMethod());
+                record.put("paymentTransactionId", payment.getTransactionId());
+                record.put("paymentAmount", payment.getAmount());
+                record.put("paymentDate", payment.getPaymentDate());
+                record.put("paymentStatus", payment.getStatus());
+                writeRecord(record, csv, writer);
+            }
+        }
+
+        // Push this chunk to the client and drop the entities from the persistence context
+        writer.flush();
+        entityManager.clear();
+    }
+
+    private Map<String, Object> invoiceRecord(Invoice invoice, String recordType) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        for (String column : COLUMNS) {
+            record.put(column, null);
+        }
+        record.put("recordType", recordType);
+        record.put("invoiceId", invoice.getId());
+        record.put("invoiceNumber", invoice.getInvoiceNumber());
+        record.put("title", invoice.getTitle());
+        record.put("status", invoice.getStatus());
+        record.put("clientName", invoice.getClient().getCompanyName() != null ?
+            invoice.getClient().getCompanyName() : invoice.getClient().getContactName());
+        record.put("projectName", invoice.getProject() != null ? invoice.getProject().getName() : null);
+        record.put("quoteNumber", invoice.getQuote() != null ? invoice.getQuote().getQuoteNumber() : null);
+        record.put("issueDate", invoice.getIssueDate());
+        record.put("dueDate", invoice.getDueDate());
+        record.put("paidDate", invoice.getPaidDate());
+        record.put("currency", invoice.getCurrency());
+        record.put("subtotal", invoice.getSubtotal());
+        record.put("taxAmount", invoice.getTaxAmount());
+        record.put("discountAmount", invoice.getDiscountAmount());
+        record.put("totalAmount", invoice.getTotalAmount());
+        record.put("amountPaid", invoice.getAmountPaid());
+        record.put("balanceDue", invoice.getBalanceDue());
+        return record;
+    }
+
+    private void writeRecord(Map<String, Object> record, boolean csv, Writer writer) throws IOException {
+        if (csv) {
+            StringJoiner line = new StringJoiner(",");
+            for (Object value : record.values()) {
+                line.add(escapeCsv(value));
+            }
+            writer.write(line.toString());
+        } else {
+            // Omit empty columns so each JSON line only carries what applies to its record type
+            Map<String, Object> json = new LinkedHashMap<>();
+            record.forEach((key, value) -> {
+                if (value != null) {
+                    json.put(key, value);
+                }
+            });
+            writer.write(objectMapper.writeValueAsString(json));
+        }
+        writer.write('\n');
+    }
+
+    private String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Free text that a spreadsheet would read as a formula is prefixed so it stays text;
+        // numbers are left alone, so negative amounts still import as numbers
+        if (value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
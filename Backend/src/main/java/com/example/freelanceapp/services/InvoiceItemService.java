@@ -8,6 +8,7 @@ import com.example.freelanceapp.exceptions.BadRequestException;
 import com.example.freelanceapp.exceptions.NotFoundException;
 import com.example.freelanceapp.repositories.InvoiceItemRepository;
 import com.example.freelanceapp.repositories.InvoiceRepository;
+import com.example.freelanceapp.utils.PublicDocumentCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +26,7 @@ public class InvoiceItemService {
     private final InvoiceItemRepository invoiceItemRepository;
     private final InvoiceRepository invoiceRepository;
     private final InvoiceService invoiceService;
+    private final PublicDocumentCache publicDocumentCache;
 
     // Map Entity to Response DTO
     private InvoiceItemResponse mapToResponse(InvoiceItem item) {
@@ -42,20 +44,20 @@ public class InvoiceItemService {
         );
     }
 
-    // Calculate item total
+    // Calculate item total, rounded to the 2 decimals the total column stores
     private BigDecimal calculateItemTotal(BigDecimal quantity, BigDecimal unitPrice, 
                                          BigDecimal taxRate, BigDecimal discount) {
         BigDecimal subtotal = quantity.multiply(unitPrice);
         BigDecimal discountAmount = subtotal.multiply(discount.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP));
         BigDecimal amountAfterDiscount = subtotal.subtract(discountAmount);
         BigDecimal taxAmount = amountAfterDiscount.multiply(taxRate.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP));
-        return amountAfterDiscount.add(taxAmount);
+        return amountAfterDiscount.add(taxAmount).setScale(2, RoundingMode.HALF_UP);
     }
 
     // Add item to invoice
     @Transactional
     public InvoiceItemResponse addInvoiceItem(UUID userId, UUID invoiceId, InvoiceItemRequest request) {
-        Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
+        Invoice invoice = invoiceRepository.findByIdAndUserIdForUpdate(invoiceId, userId)
             .orElseThrow(() -> new NotFoundException("Invoice not found"));
         
         // Validate invoice status (only draft invoices can be modified)
@@ -84,7 +86,7 @@ public class InvoiceItemService {
         InvoiceItem savedItem = invoiceItemRepository.save(invoiceItem);
         
         // Update invoice totals
-        invoiceService.updateInvoiceTotals(invoice);
+        invoiceService.applyTotalsDelta(invoice, itemTotal, BigDecimal.ZERO);
         
         return mapToResponse(savedItem);
     }
@@ -93,7 +95,7 @@ public class InvoiceItemService {
     @Transactional
     public InvoiceItemResponse updateInvoiceItem(UUID userId, UUID invoiceId, UUID itemId, InvoiceItemRequest request) {
         // Verify invoice belongs to user
-        Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
+        Invoice invoice = invoiceRepository.findByIdAndUserIdForUpdate(invoiceId, userId)
             .orElseThrow(() -> new NotFoundException("Invoice not found"));
         
         // Validate invoice status (only draft invoices can be modified)
@@ -109,6 +111,8 @@ public class InvoiceItemService {
             throw new BadRequestException("Invoice item does not belong to the specified invoice");
         }
         
+        BigDecimal oldTotal = invoiceItem.getTotal() != null ? invoiceItem.getTotal() : BigDecimal.ZERO;
+        
         // Update fields
         if (request.getDescription() != null) {
             invoiceItem.setDescription(request.getDescription());
@@ -141,7 +145,7 @@ public class InvoiceItemService {
         InvoiceItem updatedItem = invoiceItemRepository.save(invoiceItem);
         
         // Update invoice totals
-        invoiceService.updateInvoiceTotals(invoice);
+        invoiceService.applyTotalsDelta(invoice, itemTotal.subtract(oldTotal), BigDecimal.ZERO);
         
         return mapToResponse(updatedItem);
     }
@@ -150,7 +154,7 @@ public class InvoiceItemService {
     @Transactional
     public void deleteInvoiceItem(UUID userId, UUID invoiceId, UUID itemId) {
         // Verify invoice belongs to user
-        Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
+        Invoice invoice = invoiceRepository.findByIdAndUserIdForUpdate(invoiceId, userId)
             .orElseThrow(() -> new NotFoundException("Invoice not found"));
         
         // Validate invoice status (only draft invoices can be modified)
@@ -169,7 +173,8 @@ public class InvoiceItemService {
         invoiceItemRepository.delete(invoiceItem);
         
         // Update invoice totals
-        invoiceService.updateInvoiceTotals(invoice);
+        BigDecimal removedTotal = invoiceItem.getTotal() != null ? invoiceItem.getTotal() : BigDecimal.ZERO;
+        invoiceService.applyTotalsDelta(invoice, removedTotal.negate(), BigDecimal.ZERO);
     }
 
     // Get all items for an invoice
@@ -227,5 +232,6 @@ public class InvoiceItemService {
                 invoiceItemRepository.save(item);
             }
         }
+        publicDocumentCache.evictInvoice(invoice.getId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.repositories.InvoiceRepository;
+import com.example.freelanceapp.repositories.InvoiceRepository.OverdueSweepRow;
+import com.example.freelanceapp.services.FinancialRollupService.InvoiceFigures;
+import com.example.freelanceapp.utils.PublicDocumentCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves unpaid, past-due invoices that were sent to the overdue status for all users, so that
+ * status filters and counts are correct without re-deriving the status from the due date.
+ * Drafts are left alone. Each chunk is one set-based UPDATE in its own transaction; rows already overdue are
+ * not eligible, so running the sweep again (or on several nodes) changes nothing.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class InvoiceOverdueService {
+
+    private final InvoiceRepository invoiceRepository;
+    private final FinancialRollupService financialRollupService;
+    private final PublicDocumentCache publicDocumentCache;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${invoices.overdue-sweep.chunk-size:500}")
+    private int chunkSize;
+
+    // Totals since startup, reported with every run
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong invoicesMarked = new AtomicLong();
+
+    // Sweep all users in chunks until no eligible invoice is left
+    @Scheduled(cron = "${invoices.overdue-sweep.cron:0 5 * * * *}")
+    public void sweep() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDate today = LocalDate.now();
+        long startedAt = System.nanoTime();
+        int chunks = 0;
+        int marked = 0;
+
+        int updated;
+        do {
+            Integer chunkUpdated = transactionTemplate.execute(status -> sweepChunk(today));
+            updated = chunkUpdated != null ? chunkUpdated : 0;
+            marked += updated;
+            chunks++;
+        } while (updated == chunkSize);
+
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        long totalRuns = runs.incrementAndGet();
+        long totalMarked = invoicesMarked.addAndGet(marked);
+        log.info("Overdue sweep finished: {} invoices marked in {} chunks, {} ms (runs={}, marked since startup={})",
+            marked, chunks, elapsedMs, totalRuns, totalMarked);
+    }
+
+    // Mark one chunk and apply the status changes to each affected user's rollup
+    private int sweepChunk(LocalDate today) {
+        List<OverdueSweepRow> rows = invoiceRepository.markOverdueChunk(today, chunkSize);
+
+        // Sorted by user so concurrent sweeps take rollup locks in the same order
+        Map<UUID, List<OverdueSweepRow>> rowsByUser = new TreeMap<>();
+        for (OverdueSweepRow row : rows) {
+            rowsByUser.computeIfAbsent(row.getUserId(), userId -> new ArrayList<>()).add(row);
+            publicDocumentCache.evictInvoice(row.getId());
+        }
+
+        for (Map.Entry<UUID, List<OverdueSweepRow>> entry : rowsByUser.entrySet()) {
+            List<InvoiceFigures> before = new ArrayList<>();
+            List<InvoiceFigures> after = new ArrayList<>();
+            for (OverdueSweepRow row : entry.getValue()) {
+                before.add(new InvoiceFigures(row.getPreviousStatus(), row.getTotalAmount(),
+                    row.getAmountPaid(), row.getBalanceDue()));
+                after.add(new InvoiceFigures("overdue", row.getTotalAmount(),
+                    row.getAmountPaid(), row.getBalanceDue()));
+            }
+            financialRollupService.recordInvoiceChanges(entry.getKey(), before, after);
+        }
+        return rows.size();
+    }
+}
@@ -5,21 +5,34 @@ import com.example.freelanceapp.entities.*;
 import com.example.freelanceapp.exceptions.BadRequestException;
 import com.example.freelanceapp.exceptions.NotFoundException;
 import com.example.freelanceapp.repositories.*;
+import com.example.freelanceapp.services.FinancialRollupService.InvoiceFigures;
+import com.example.freelanceapp.services.FinancialRollupService.PaymentFigures;
+import com.example.freelanceapp.utils.PublicDocumentCache;
+import com.example.freelanceapp.utils.SearchPatterns;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class InvoiceService {
 
@@ -31,13 +44,60 @@ public class InvoiceService {
     private final ProjectRepository projectRepository;
     private final QuoteRepository quoteRepository;
     private final QuoteItemRepository quoteItemRepository;
+    private final DocumentSequenceService documentSequenceService;
+    private final FinancialRollupService financialRollupService;
+    private final Validator validator;
+    private final PublicDocumentCache publicDocumentCache;
+    private final DocumentViewService documentViewService;
+    private final DocumentRenderService documentRenderService;
+    private final PlatformTransactionManager transactionManager;
 
+    @Value("${invoices.bulk.max-size:500}")
+    private int bulkMaxSize;
+
+    @Value("${invoices.bulk.chunk-size:50}")
+    private int bulkChunkSize;
+
+    private static final int DEFAULT_LIST_PAGE_SIZE = 50;
+    private static final int MAX_LIST_PAGE_SIZE = 200;
+    private static final int DEFAULT_SEARCH_RESULTS = 20;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final List<String> AGING_CATEGORIES =
+        List.of("Current", "1-30 Days", "31-60 Days", "61-90 Days", "Over 90 Days", "Paid");
+    private static final List<String> SENT_STATUSES = List.of("sent", "viewed", "overdue");
 
     // Map Entity to Response DTO
     private InvoiceResponse mapToResponse(Invoice invoice) {
         List<InvoiceItem> items = invoiceItemRepository.findByInvoiceId(invoice.getId());
         List<InvoicePayment> payments = invoicePaymentRepository.findByInvoiceId(invoice.getId());
-        
+        return mapToResponse(invoice, items, payments);
+    }
+
+    // Map a list of invoices with one query for all items and one for all payments.
+    // Client, project and quote are expected to be fetched with the invoices.
+    private List<InvoiceResponse> mapToResponses(List<Invoice> invoices) {
+        if (invoices.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UUID> invoiceIds = invoices.stream()
+            .map(Invoice::getId)
+            .collect(Collectors.toList());
+
+        Map<UUID, List<InvoiceItem>> itemsByInvoice = invoiceItemRepository.findByInvoiceIdIn(invoiceIds).stream()
+            .collect(Collectors.groupingBy(item -> item.getInvoice().getId()));
+        Map<UUID, List<InvoicePayment>> paymentsByInvoice = invoicePaymentRepository.findByInvoiceIdIn(invoiceIds).stream()
+            .collect(Collectors.groupingBy(payment -> payment.getInvoice().getId()));
+
+        return invoices.stream()
+            .map(invoice -> mapToResponse(
+                invoice,
+                itemsByInvoice.getOrDefault(invoice.getId(), Collections.emptyList()),
+                paymentsByInvoice.getOrDefault(invoice.getId(), Collections.emptyList())))
+            .collect(Collectors.toList());
+    }
+
+    private InvoiceResponse mapToResponse(Invoice invoice, List<InvoiceItem> items, List<InvoicePayment> payments) {
         List<InvoiceItemResponse> itemResponses = items.stream()
             .map(this::mapItemToResponse)
             .collect(Collectors.toList());
@@ -133,6 +193,7 @@ public class InvoiceService {
         invoice.setDiscountAmount(request.getDiscountAmount() != null ? request.getDiscountAmount() : BigDecimal.ZERO);
         invoice.setCurrency(request.getCurrency() != null ? request.getCurrency() : "USD");
         invoice.setPaymentLink(request.getPaymentLink());
+        invoice.setInvoiceNumber(documentSequenceService.nextInvoiceNumber());
         
         // Generate public hash for shareable links
         invoice.setPublicHash(UUID.randomUUID().toString().replace("-", ""));
@@ -140,30 +201,110 @@ public class InvoiceService {
         return invoice;
     }
 
-    // Calculate item total
+    // Calculate item total, rounded to the 2 decimals the total column stores
     private BigDecimal calculateItemTotal(BigDecimal quantity, BigDecimal unitPrice, 
                                          BigDecimal taxRate, BigDecimal discount) {
         BigDecimal subtotal = quantity.multiply(unitPrice);
         BigDecimal discountAmount = subtotal.multiply(discount.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP));
         BigDecimal amountAfterDiscount = subtotal.subtract(discountAmount);
         BigDecimal taxAmount = amountAfterDiscount.multiply(taxRate.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP));
-        return amountAfterDiscount.add(taxAmount);
+        return amountAfterDiscount.add(taxAmount).setScale(2, RoundingMode.HALF_UP);
     }
 
-    // Update invoice totals
-    @Transactional
-    public void updateInvoiceTotals(Invoice invoice) {
-        // Calculate subtotal from items
-        BigDecimal subtotal = invoiceItemRepository.calculateSubtotalByInvoiceId(invoice.getId());
-        if (subtotal == null) {
-            subtotal = BigDecimal.ZERO;
+    /**
+     * Bring an invoice's items in line with the requested list. Requests carrying an id
+     * update that row in place (only if a value actually changed), requests without one
+     * are inserted, and rows missing from the list are deleted in one statement, so
+     * editing one line touches one row. Returns the resulting change in subtotal.
+     */
+    private BigDecimal reconcileItems(Invoice invoice, List<InvoiceItemRequest> itemRequests) {
+        Map<UUID, InvoiceItem> existingItems = invoiceItemRepository.findByInvoiceId(invoice.getId()).stream()
+            .collect(Collectors.toMap(InvoiceItem::getId, item -> item));
+        
+        List<InvoiceItem> newItems = new ArrayList<>();
+        BigDecimal subtotalDelta = BigDecimal.ZERO;
+        for (int i = 0; i < itemRequests.size(); i++) {
+            InvoiceItemRequest itemRequest = itemRequests.get(i);
+            InvoiceItem invoiceItem;
+            if (itemRequest.getId() != null && !itemRequest.getId().isEmpty()) {
+                UUID itemId;
+                try {
+                    itemId = UUID.fromString(itemRequest.getId());
+                } catch (IllegalArgumentException e) {
+                    throw new BadRequestException("Invalid invoice item ID format");
+                }
+                invoiceItem = existingItems.remove(itemId);
+                if (invoiceItem == null) {
+                    throw new NotFoundException("Invoice item not found: " + itemId);
+                }
+                subtotalDelta = subtotalDelta.subtract(invoiceItem.getTotal() != null ? invoiceItem.getTotal() : BigDecimal.ZERO);
+            } else {
+                invoiceItem = new InvoiceItem();
+                invoiceItem.setInvoice(invoice);
+                newItems.add(invoiceItem);
+            }
+            
+            invoiceItem.setDescription(itemRequest.getDescription());
+            invoiceItem.setQuantity(itemRequest.getQuantity() != null ? itemRequest.getQuantity() : BigDecimal.ONE);
+            invoiceItem.setUnitPrice(itemRequest.getUnitPrice() != null ? itemRequest.getUnitPrice() : BigDecimal.ZERO);
+            invoiceItem.setTaxRate(itemRequest.getTaxRate() != null ? itemRequest.getTaxRate() : BigDecimal.ZERO);
+            invoiceItem.setDiscount(itemRequest.getDiscount() != null ? itemRequest.getDiscount() : BigDecimal.ZERO);
+            invoiceItem.setSortOrder(itemRequest.getSortOrder() != null ? itemRequest.getSortOrder() : i);
+            BigDecimal itemTotal = calculateItemTotal(
+                invoiceItem.getQuantity(),
+                invoiceItem.getUnitPrice(),
+                invoiceItem.getTaxRate(),
+                invoiceItem.getDiscount()
+            );
+            // Only touch the total when the amount differs, so an unchanged row stays clean
+            if (invoiceItem.getTotal() == null || invoiceItem.getTotal().compareTo(itemTotal) != 0) {
+                invoiceItem.setTotal(itemTotal);
+            }
+            subtotalDelta = subtotalDelta.add(invoiceItem.getTotal());
         }
         
-        // Calculate total paid
-        BigDecimal totalPaid = invoicePaymentRepository.sumCompletedPaymentsByInvoiceId(invoice.getId());
-        if (totalPaid == null) {
-            totalPaid = BigDecimal.ZERO;
+        // Matched rows are managed: dirty checking flushes only the changed ones as a batched UPDATE
+        invoiceItemRepository.saveAll(newItems);
+        if (!existingItems.isEmpty()) {
+            subtotalDelta = subtotalDelta.subtract(sumItemTotals(new ArrayList<>(existingItems.values())));
+            invoiceItemRepository.deleteAllInBatch(existingItems.values());
+        }
+        return subtotalDelta;
+    }
+
+    // Sum of item totals (an invoice's subtotal contribution)
+    private BigDecimal sumItemTotals(List<InvoiceItem> items) {
+        return items.stream()
+            .map(InvoiceItem::getTotal)
+            .filter(Objects::nonNull)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // Amount a payment contributes to amount_paid
+    public static BigDecimal completedAmount(InvoicePayment payment) {
+        if (payment == null || !"completed".equals(payment.getStatus()) || payment.getAmount() == null) {
+            return BigDecimal.ZERO;
         }
+        return payment.getAmount();
+    }
+
+    /**
+     * Apply item and payment changes to the stored invoice totals. This is the only
+     * place subtotal, amount_paid and balance_due change: callers pass the difference
+     * their change makes (sum of item totals, sum of completed payments), so no
+     * aggregate over the invoice's items or payments is needed. Callers that may race
+     * on the same invoice load it with findByIdAndUserIdForUpdate.
+     */
+    @Transactional
+    public void applyTotalsDelta(Invoice invoice, BigDecimal subtotalDelta, BigDecimal amountPaidDelta) {
+        InvoiceFigures before = InvoiceFigures.of(invoice);
+        
+        // Item totals are already rounded to cents, so the header stays equal to SUM(items.total)
+        BigDecimal subtotal = (invoice.getSubtotal() != null ? invoice.getSubtotal() : BigDecimal.ZERO)
+            .add(subtotalDelta)
+            .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal totalPaid = (invoice.getAmountPaid() != null ? invoice.getAmountPaid() : BigDecimal.ZERO)
+            .add(amountPaidDelta);
         
         // Calculate total amount
         BigDecimal totalAmount = subtotal
@@ -183,6 +324,8 @@ public class InvoiceService {
         updateInvoiceStatus(invoice);
         
         invoiceRepository.save(invoice);
+        financialRollupService.recordInvoiceChange(invoice.getUser().getId(), before, InvoiceFigures.of(invoice));
+        publicDocumentCache.evictInvoice(invoice.getId());
     }
 
     // Update invoice status based on payments
@@ -198,7 +341,7 @@ public class InvoiceService {
             }
         } else if (invoice.getAmountPaid().compareTo(BigDecimal.ZERO) > 0) {
             invoice.setStatus("partial");
-        } else if (invoice.getDueDate().isBefore(LocalDate.now())) {
+        } else if (invoice.isOverdueOn(LocalDate.now())) {
             invoice.setStatus("overdue");
         } else if (invoice.getSentAt() != null) {
             invoice.setStatus("sent");
@@ -264,42 +407,256 @@ public class InvoiceService {
         invoice.setBalanceDue(BigDecimal.ZERO);
         
         Invoice savedInvoice = invoiceRepository.save(invoice);
+        financialRollupService.recordInvoiceChange(userId, null, InvoiceFigures.of(savedInvoice));
         
         // Add invoice items if provided
         if (request.getItems() != null && !request.getItems().isEmpty()) {
-            List<InvoiceItem> invoiceItems = new ArrayList<>();
-            for (int i = 0; i < request.getItems().size(); i++) {
-                InvoiceItemRequest itemRequest = request.getItems().get(i);
-                InvoiceItem invoiceItem = new InvoiceItem();
-                invoiceItem.setInvoice(savedInvoice);
-                invoiceItem.setDescription(itemRequest.getDescription());
-                invoiceItem.setQuantity(itemRequest.getQuantity() != null ? itemRequest.getQuantity() : BigDecimal.ONE);
-                invoiceItem.setUnitPrice(itemRequest.getUnitPrice() != null ? itemRequest.getUnitPrice() : BigDecimal.ZERO);
-                invoiceItem.setTaxRate(itemRequest.getTaxRate() != null ? itemRequest.getTaxRate() : BigDecimal.ZERO);
-                invoiceItem.setDiscount(itemRequest.getDiscount() != null ? itemRequest.getDiscount() : BigDecimal.ZERO);
-                invoiceItem.setSortOrder(itemRequest.getSortOrder() != null ? itemRequest.getSortOrder() : i);
-                
-                // Calculate item total
-                BigDecimal itemTotal = calculateItemTotal(
-                    invoiceItem.getQuantity(),
-                    invoiceItem.getUnitPrice(),
-                    invoiceItem.getTaxRate(),
-                    invoiceItem.getDiscount()
-                );
-                invoiceItem.setTotal(itemTotal);
-                
-                invoiceItems.add(invoiceItem);
-            }
-            
+            List<InvoiceItem> invoiceItems = buildItems(savedInvoice, request.getItems());
             invoiceItemRepository.saveAll(invoiceItems);
             
             // Update invoice totals
-            updateInvoiceTotals(savedInvoice);
+            applyTotalsDelta(savedInvoice, sumItemTotals(invoiceItems), BigDecimal.ZERO);
         }
         
         return mapToResponse(savedInvoice);
     }
 
+    // Build new (unsaved) items for an invoice from the request list
+    private List<InvoiceItem> buildItems(Invoice invoice, List<InvoiceItemRequest> itemRequests) {
+        List<InvoiceItem> invoiceItems = new ArrayList<>();
+        for (int i = 0; i < itemRequests.size(); i++) {
+            InvoiceItemRequest itemRequest = itemRequests.get(i);
+            InvoiceItem invoiceItem = new InvoiceItem();
+            invoiceItem.setInvoice(invoice);
+            invoiceItem.setDescription(itemRequest.getDescription());
+            invoiceItem.setQuantity(itemRequest.getQuantity() != null ? itemRequest.getQuantity() : BigDecimal.ONE);
+            invoiceItem.setUnitPrice(itemRequest.getUnitPrice() != null ? itemRequest.getUnitPrice() : BigDecimal.ZERO);
+            invoiceItem.setTaxRate(itemRequest.getTaxRate() != null ? itemRequest.getTaxRate() : BigDecimal.ZERO);
+            invoiceItem.setDiscount(itemRequest.getDiscount() != null ? itemRequest.getDiscount() : BigDecimal.ZERO);
+            invoiceItem.setSortOrder(itemRequest.getSortOrder() != null ? itemRequest.getSortOrder() : i);
+            
+            // Calculate item total
+            BigDecimal itemTotal = calculateItemTotal(
+                invoiceItem.getQuantity(),
+                invoiceItem.getUnitPrice(),
+                invoiceItem.getTaxRate(),
+                invoiceItem.getDiscount()
+            );
+            invoiceItem.setTotal(itemTotal);
+            
+            invoiceItems.add(invoiceItem);
+        }
+        return invoiceItems;
+    }
+
+    /**
+     * Create many invoices in one call. Each element is validated on its own and a failure
+     * is reported against its index without affecting the others. Client, project and quote
+     * ownership is checked with one IN query per type for the whole batch, totals are worked
+     * out in memory, and invoices and items are written with batched inserts, one transaction
+     * per chunk. If a chunk fails for any reason its elements are retried one transaction
+     * each, so only the element that cannot be saved is reported as failed.
+     */
+    public BulkInvoiceResponse createInvoices(UUID userId, List<InvoiceRequest> requests) {
+        if (requests.size() > bulkMaxSize) {
+            throw new BadRequestException("At most " + bulkMaxSize + " invoices can be created per request");
+        }
+        
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new NotFoundException("User not found"));
+        
+        BulkInvoiceResult[] results = new BulkInvoiceResult[requests.size()];
+        UUID[] clientIds = new UUID[requests.size()];
+        UUID[] projectIds = new UUID[requests.size()];
+        UUID[] quoteIds = new UUID[requests.size()];
+        
+        // Per-element validation and ID parsing
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validateBulkElement(requests.get(i));
+            if (error == null) {
+                try {
+                    InvoiceRequest request = requests.get(i);
+                    clientIds[i] = parseBulkId(request.getClientId(), "client");
+                    projectIds[i] = parseBulkId(request.getProjectId(), "project");
+                    quoteIds[i] = parseBulkId(request.getQuoteId(), "quote");
+                } catch (BadRequestException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (error != null) {
+                results[i] = new BulkInvoiceResult(i, false, null, error);
+            }
+        }
+        
+        // Ownership checks: one query per referenced type
+        Map<UUID, Client> clients = clientRepository.findByUserIdAndIdIn(userId, nonNullIds(clientIds)).stream()
+            .collect(Collectors.toMap(Client::getId, client -> client));
+        Map<UUID, Project> projects = projectRepository.findByUserIdAndIdIn(userId, nonNullIds(projectIds)).stream()
+            .collect(Collectors.toMap(Project::getId, project -> project));
+        Map<UUID, Quote> quotes = quoteRepository.findByUserIdAndIdIn(userId, nonNullIds(quoteIds)).stream()
+            .collect(Collectors.toMap(Quote::getId, quote -> quote));
+        
+        List<BulkElement> elements = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Client client = clients.get(clientIds[i]);
+            Project project = projectIds[i] != null ? projects.get(projectIds[i]) : null;
+            Quote quote = quoteIds[i] != null ? quotes.get(quoteIds[i]) : null;
+            if (client == null) {
+                results[i] = new BulkInvoiceResult(i, false, null, "Client not found or not authorized");
+                continue;
+            }
+            if (projectIds[i] != null && project == null) {
+                results[i] = new BulkInvoiceResult(i, false, null, "Project not found or not authorized");
+                continue;
+            }
+            if (quoteIds[i] != null && quote == null) {
+                results[i] = new BulkInvoiceResult(i, false, null, "Quote not found or not authorized");
+                continue;
+            }
+            elements.add(new BulkElement(i, requests.get(i), client, project, quote));
+        }
+        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int created = 0;
+        for (int from = 0; from < elements.size(); from += bulkChunkSize) {
+            List<BulkElement> chunk = elements.subList(from, Math.min(from + bulkChunkSize, elements.size()));
+            List<Invoice> invoices;
+            try {
+                invoices = transactionTemplate.execute(status -> insertBulkChunk(userId, user, chunk));
+            } catch (RuntimeException e) {
+                // Something in the chunk failed and it was rolled back: retry its elements one by one
+                // to isolate it, so every element ends up either created or reported
+                for (BulkElement element : chunk) {
+                    int index = element.index();
+                    List<Invoice> single;
+                    try {
+                        single = transactionTemplate.execute(
+                            status -> insertBulkChunk(userId, user, List.of(element)));
+                    } catch (RuntimeException elementError) {
+                        log.warn("Bulk invoice element {} could not be saved", index, elementError);
+                        results[index] = new BulkInvoiceResult(index, false, null, "Invoice could not be saved");
+                        continue;
+                    }
+                    results[index] = new BulkInvoiceResult(index, true, mapToListItem(single.get(0)), null);
+                    created++;
+                }
+                continue;
+            }
+            // Mapped only after the commit, outside the retry, so a committed chunk is never inserted twice
+            for (int j = 0; j < chunk.size(); j++) {
+                int index = chunk.get(j).index();
+                results[index] = new BulkInvoiceResult(index, true, mapToListItem(invoices.get(j)), null);
+            }
+            created += chunk.size();
+        }
+        
+        return new BulkInvoiceResponse(
+            requests.size(),
+            created,
+            requests.size() - created,
+            Arrays.asList(results)
+        );
+    }
+
+    // A bulk element that passed validation and ownership checks
+    private record BulkElement(int index, InvoiceRequest request, Client client, Project project, Quote quote) {
+    }
+
+    // Build and insert one chunk of bulk invoices inside the caller's transaction; invoices are
+    // returned in chunk order
+    private List<Invoice> insertBulkChunk(UUID userId, User user, List<BulkElement> chunk) {
+        List<Invoice> invoices = new ArrayList<>();
+        List<InvoiceItem> allItems = new ArrayList<>();
+        for (BulkElement element : chunk) {
+            InvoiceRequest request = element.request();
+            Invoice invoice = mapToEntity(request, user, element.client(), element.project(), element.quote());
+            List<InvoiceItem> items = request.getItems() != null
+                ? buildItems(invoice, request.getItems())
+                : Collections.emptyList();
+            
+            // Same totals createInvoice ends up with, computed before the insert
+            BigDecimal subtotal = sumItemTotals(items);
+            BigDecimal totalAmount = subtotal
+                .add(invoice.getTaxAmount())
+                .subtract(invoice.getDiscountAmount());
+            invoice.setSubtotal(subtotal);
+            invoice.setAmountPaid(BigDecimal.ZERO);
+            if (items.isEmpty()) {
+                invoice.setTotalAmount(BigDecimal.ZERO);
+                invoice.setBalanceDue(BigDecimal.ZERO);
+            } else {
+                invoice.setTotalAmount(totalAmount);
+                invoice.setBalanceDue(totalAmount);
+                updateInvoiceStatus(invoice);
+            }
+            
+            invoices.add(invoice);
+            allItems.addAll(items);
+        }
+        
+        invoiceRepository.saveAll(invoices);
+        invoiceItemRepository.saveAll(allItems);
+        financialRollupService.recordInvoiceChanges(userId, Collections.emptyList(), invoices.stream()
+            .map(InvoiceFigures::of)
+            .collect(Collectors.toList()));
+        return invoices;
+    }
+
+    // Check one bulk element against InvoiceRequest's constraints; returns the first message or null
+    private String validateBulkElement(InvoiceRequest request) {
+        if (request == null) {
+            return "Invoice is required";
+        }
+        Set<ConstraintViolation<InvoiceRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (request.getDueDate().isBefore(request.getIssueDate())) {
+            return "Due date cannot be before issue date";
+        }
+        return null;
+    }
+
+    // Parse an optional ID from a bulk element
+    private UUID parseBulkId(String id, String type) {
+        if (id == null || id.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + type + " ID format");
+        }
+    }
+
+    private Set<UUID> nonNullIds(UUID[] ids) {
+        return Arrays.stream(ids)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    }
+
+    // Map an invoice (with its client loaded) to a lightweight row
+    private InvoiceListItemResponse mapToListItem(Invoice invoice) {
+        return new InvoiceListItemResponse(
+            invoice.getId(),
+            invoice.getInvoiceNumber(),
+            invoice.getTitle(),
+            invoice.getClient().getId(),
+            invoice.getClient().getCompanyName() != null ?
+                invoice.getClient().getCompanyName() : invoice.getClient().getContactName(),
+            invoice.getStatus(),
+            invoice.getIssueDate(),
+            invoice.getDueDate(),
+            invoice.getTotalAmount(),
+            invoice.getBalanceDue(),
+            invoice.getCurrency(),
+            invoice.getCreatedAt()
+        );
+    }
+
     // Get invoice by ID
     public InvoiceResponse getInvoiceById(UUID userId, UUID invoiceId) {
         Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
@@ -307,31 +664,87 @@ public class InvoiceService {
         return mapToResponse(invoice);
     }
 
-    // Get invoice by public hash (for public viewing)
-    public InvoiceResponse getInvoiceByPublicHash(String publicHash) {
-        Invoice invoice = invoiceRepository.findByPublicHash(publicHash)
-            .orElseThrow(() -> new NotFoundException("Invoice not found"));
-        return mapToResponse(invoice);
-    }
-
     // Get all invoices for a user
     public List<InvoiceResponse> getAllInvoices(UUID userId) {
-        return invoiceRepository.findByUserId(userId).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(invoiceRepository.findByUserId(userId));
     }
 
     // Get all invoices with pagination
     public Page<InvoiceResponse> getAllInvoices(UUID userId, Pageable pageable) {
-        return invoiceRepository.findByUserId(userId, pageable)
-            .map(this::mapToResponse);
+        Page<Invoice> invoices = invoiceRepository.findByUserId(userId, pageable);
+        return new PageImpl<>(mapToResponses(invoices.getContent()), pageable, invoices.getTotalElements());
+    }
+
+    // Get a page of lightweight invoice rows, newest first.
+    // Uses keyset pagination on (created_at, id) so deep pages cost the same as the first one.
+    public InvoiceListPageResponse getInvoiceList(UUID userId, String cursor, Integer limit) {
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_LIST_PAGE_SIZE)) : DEFAULT_LIST_PAGE_SIZE;
+
+        // Fetch one extra row to know whether another page exists
+        List<InvoiceRepository.InvoiceListRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = invoiceRepository.findListFirstPage(userId, pageSize + 1);
+        } else {
+            String[] position = decodeListCursor(cursor);
+            rows = invoiceRepository.findListPageAfter(
+                userId, LocalDateTime.parse(position[0]), UUID.fromString(position[1]), pageSize + 1);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<InvoiceListItemResponse> items = rows.stream()
+            .map(row -> new InvoiceListItemResponse(
+                row.getId(),
+                row.getInvoiceNumber(),
+                row.getTitle(),
+                row.getClientId(),
+                row.getClientName(),
+                row.getStatus(),
+                row.getIssueDate(),
+                row.getDueDate(),
+                row.getTotalAmount(),
+                row.getBalanceDue(),
+                row.getCurrency(),
+                row.getCreatedAt()
+            ))
+            .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            InvoiceRepository.InvoiceListRow last = rows.get(rows.size() - 1);
+            nextCursor = encodeListCursor(last.getCreatedAt(), last.getId());
+        }
+
+        return new InvoiceListPageResponse(items, nextCursor, hasMore);
+    }
+
+    private String encodeListCursor(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeListCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split("\\|");
+            if (position.length != 2) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            // Validate both parts before they reach the query
+            LocalDateTime.parse(position[0]);
+            UUID.fromString(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
     }
 
     // Get invoices by status
     public List<InvoiceResponse> getInvoicesByStatus(UUID userId, String status) {
-        return invoiceRepository.findByUserIdAndStatus(userId, status).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(invoiceRepository.findByUserIdAndStatus(userId, status));
     }
 
     // Get invoices by client
@@ -340,9 +753,7 @@ public class InvoiceService {
         clientRepository.findByIdAndUserId(clientId, userId)
             .orElseThrow(() -> new NotFoundException("Client not found"));
             
-        return invoiceRepository.findByClientId(clientId).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(invoiceRepository.findByClientId(clientId));
     }
 
     // Get invoices by project
@@ -351,9 +762,7 @@ public class InvoiceService {
         projectRepository.findByIdAndUserId(projectId, userId)
             .orElseThrow(() -> new NotFoundException("Project not found"));
             
-        return invoiceRepository.findByProjectId(projectId).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(invoiceRepository.findByProjectId(projectId));
     }
 
     // Get invoices by quote
@@ -362,21 +771,20 @@ public class InvoiceService {
         quoteRepository.findByIdAndUserId(quoteId, userId)
             .orElseThrow(() -> new NotFoundException("Quote not found"));
             
-        return invoiceRepository.findByQuoteId(quoteId).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(invoiceRepository.findByQuoteId(quoteId));
     }
 
     // Update invoice
     @Transactional
     public InvoiceResponse updateInvoice(UUID userId, UUID invoiceId, InvoiceRequest request) {
-        Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
+        Invoice invoice = invoiceRepository.findByIdAndUserIdForUpdate(invoiceId, userId)
             .orElseThrow(() -> new NotFoundException("Invoice not found"));
 
         // Only draft invoices can be modified
         if (!"draft".equals(invoice.getStatus())) {
             throw new BadRequestException("Only draft invoices can be modified");
         }
+        InvoiceFigures before = InvoiceFigures.of(invoice);
 
         // Update client if provided
         if (request.getClientId() != null) {
@@ -463,40 +871,16 @@ public class InvoiceService {
         }
 
         // Update invoice items if provided
+        BigDecimal subtotalDelta = BigDecimal.ZERO;
         if (request.getItems() != null) {
-            // Delete existing items
-            invoiceItemRepository.deleteByInvoiceId(invoiceId);
-            
-            // Add new items
-            List<InvoiceItem> invoiceItems = new ArrayList<>();
-            for (int i = 0; i < request.getItems().size(); i++) {
-                InvoiceItemRequest itemRequest = request.getItems().get(i);
-                InvoiceItem invoiceItem = new InvoiceItem();
-                invoiceItem.setInvoice(invoice);
-                invoiceItem.setDescription(itemRequest.getDescription());
-                invoiceItem.setQuantity(itemRequest.getQuantity() != null ? itemRequest.getQuantity() : BigDecimal.ONE);
-                invoiceItem.setUnitPrice(itemRequest.getUnitPrice() != null ? itemRequest.getUnitPrice() : BigDecimal.ZERO);
-                invoiceItem.setTaxRate(itemRequest.getTaxRate() != null ? itemRequest.getTaxRate() : BigDecimal.ZERO);
-                invoiceItem.setDiscount(itemRequest.getDiscount() != null ? itemRequest.getDiscount() : BigDecimal.ZERO);
-                invoiceItem.setSortOrder(itemRequest.getSortOrder() != null ? itemRequest.getSortOrder() : i);
-                
-                // Calculate item total
-                BigDecimal itemTotal = calculateItemTotal(
-                    invoiceItem.getQuantity(),
-                    invoiceItem.getUnitPrice(),
-                    invoiceItem.getTaxRate(),
-                    invoiceItem.getDiscount()
-                );
-                invoiceItem.setTotal(itemTotal);
-                
-                invoiceItems.add(invoiceItem);
-            }
-            
-            invoiceItemRepository.saveAll(invoiceItems);
+            subtotalDelta = reconcileItems(invoice, request.getItems());
         }
 
+        // Status change now, amount changes when totals are recalculated
+        financialRollupService.recordInvoiceChange(userId, before, InvoiceFigures.of(invoice));
+        
         // Update totals
-        updateInvoiceTotals(invoice);
+        applyTotalsDelta(invoice, subtotalDelta, BigDecimal.ZERO);
         
         Invoice updatedInvoice = invoiceRepository.save(invoice);
         return mapToResponse(updatedInvoice);
@@ -513,7 +897,16 @@ public class InvoiceService {
             throw new BadRequestException("Only draft invoices can be deleted");
         }
         
+        // Payments go with the invoice (ON DELETE CASCADE)
+        List<InvoicePayment> payments = invoicePaymentRepository.findByInvoiceId(invoiceId);
+        
         invoiceRepository.delete(invoice);
+        publicDocumentCache.evictInvoice(invoice.getId());
+        
+        financialRollupService.recordInvoiceChange(userId, InvoiceFigures.of(invoice), null);
+        for (InvoicePayment payment : payments) {
+            financialRollupService.recordPaymentChange(userId, PaymentFigures.of(payment), null);
+        }
     }
 
     // Send invoice (change status to sent)
@@ -534,26 +927,37 @@ public class InvoiceService {
         }
         
         // Update invoice status and sent time
+        InvoiceFigures before = InvoiceFigures.of(invoice);
         invoice.setStatus("sent");
         invoice.setSentAt(LocalDateTime.now());
         
         Invoice updatedInvoice = invoiceRepository.save(invoice);
+        financialRollupService.recordInvoiceChange(userId, before, InvoiceFigures.of(updatedInvoice));
+        publicDocumentCache.evictInvoice(updatedInvoice.getId());
+        
+        // Render the PDF in the background once the send is committed
+        documentRenderService.renderInvoiceAfterCommit(updatedInvoice.getId());
         return mapToResponse(updatedInvoice);
     }
 
-    // View invoice (from public link)
+    // View invoice from a signed public link. Served from the public cache; the view is
+    // recorded in the background by DocumentViewService.
+    public InvoiceResponse viewInvoiceById(UUID invoiceId) {
+        InvoiceResponse response = publicDocumentCache.getInvoice(invoiceId, () -> {
+            Invoice invoice = invoiceRepository.findWithDetailsById(invoiceId)
+                .orElseThrow(() -> new NotFoundException("Invoice not found"));
+            return mapToResponse(invoice);
+        });
+        documentViewService.recordInvoiceView(invoiceId);
+        return response;
+    }
+
+    // Get the invoice PDF (stored by content hash; rendered here only if the content changed)
     @Transactional
-    public InvoiceResponse viewInvoice(String publicHash) {
-        Invoice invoice = invoiceRepository.findByPublicHash(publicHash)
+    public DocumentRenderService.RenderedPdf getInvoicePdf(UUID userId, UUID invoiceId) {
+        Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
             .orElseThrow(() -> new NotFoundException("Invoice not found"));
-        
-        // Only update viewed time if not already set
-        if (invoice.getViewedAt() == null) {
-            invoice.setViewedAt(LocalDateTime.now());
-            invoiceRepository.save(invoice);
-        }
-        
-        return mapToResponse(invoice);
+        return documentRenderService.renderInvoice(invoice);
     }
 
     // Cancel invoice
@@ -568,16 +972,19 @@ public class InvoiceService {
         }
         
         // Update invoice status
+        InvoiceFigures before = InvoiceFigures.of(invoice);
         invoice.setStatus("cancelled");
         
         Invoice updatedInvoice = invoiceRepository.save(invoice);
+        financialRollupService.recordInvoiceChange(userId, before, InvoiceFigures.of(updatedInvoice));
+        publicDocumentCache.evictInvoice(updatedInvoice.getId());
         return mapToResponse(updatedInvoice);
     }
 
     // Add payment to invoice
     @Transactional
     public InvoiceResponse addPayment(UUID userId, UUID invoiceId, InvoicePaymentRequest request) {
-        Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
+        Invoice invoice = invoiceRepository.findByIdAndUserIdForUpdate(invoiceId, userId)
             .orElseThrow(() -> new NotFoundException("Invoice not found"));
         
         // Validate invoice can receive payments
@@ -616,39 +1023,49 @@ public class InvoiceService {
         payment.setMetadata(request.getMetadata() != null ? request.getMetadata() : "{}");
         
         invoicePaymentRepository.save(payment);
+        financialRollupService.recordPaymentChange(userId, null, PaymentFigures.of(payment));
         
         // Update invoice totals and status
-        updateInvoiceTotals(invoice);
+        applyTotalsDelta(invoice, BigDecimal.ZERO, completedAmount(payment));
         
         return mapToResponse(invoice);
     }
 
-    // Search invoices
-    public List<InvoiceResponse> searchInvoices(UUID userId, String searchTerm) {
-        return invoiceRepository.searchByUser(userId, searchTerm).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+    // Search invoices by number, title or client name, best matches first
+    public List<InvoiceResponse> searchInvoices(UUID userId, String searchTerm, Integer limit) {
+        String term = searchTerm != null ? searchTerm.trim() : "";
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        int maxResults = limit != null ? Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)) : DEFAULT_SEARCH_RESULTS;
+
+        List<UUID> ids = invoiceRepository.searchIdsByUser(userId, term, SearchPatterns.containing(term), maxResults);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Load the matches in one query and put them back in rank order
+        Map<UUID, Invoice> invoicesById = invoiceRepository.findByIdIn(ids).stream()
+            .collect(Collectors.toMap(Invoice::getId, invoice -> invoice));
+        return mapToResponses(ids.stream()
+            .map(invoicesById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList()));
     }
 
     // Get overdue invoices
     public List<InvoiceResponse> getOverdueInvoices(UUID userId) {
-        return invoiceRepository.findOverdueInvoices(userId, LocalDate.now()).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(invoiceRepository.findOverdueInvoices(userId, LocalDate.now()));
     }
 
     // Get invoices by due date range
     public List<InvoiceResponse> getInvoicesByDueDateRange(UUID userId, LocalDate startDate, LocalDate endDate) {
-        return invoiceRepository.findByDueDateRange(userId, startDate, endDate).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(invoiceRepository.findByDueDateRange(userId, startDate, endDate));
     }
 
     // Get invoices by issue date range
     public List<InvoiceResponse> getInvoicesByIssueDateRange(UUID userId, LocalDate startDate, LocalDate endDate) {
-        return invoiceRepository.findByIssueDateRange(userId, startDate, endDate).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(invoiceRepository.findByIssueDateRange(userId, startDate, endDate));
     }
 
     // Get invoice summary
@@ -679,47 +1096,44 @@ public class InvoiceService {
         );
     }
 
-    // Get invoice aging report
+    // Get invoice aging report (bucketed in the database, one query)
     public List<InvoiceAgingResponse> getInvoiceAgingReport(UUID userId) {
-        List<Invoice> invoices = invoiceRepository.findByUserId(userId);
-        
-        return invoices.stream()
-            .filter(invoice -> !"draft".equals(invoice.getStatus()) && !"cancelled".equals(invoice.getStatus()))
-            .map(invoice -> {
-                String agingCategory;
-                long daysOverdue = 0;
-                
-                if (invoice.getBalanceDue().compareTo(BigDecimal.ZERO) <= 0) {
-                    agingCategory = "Paid";
-                } else if (invoice.getDueDate().isAfter(LocalDate.now()) || invoice.getDueDate().equals(LocalDate.now())) {
-                    agingCategory = "Current";
-                } else {
-                    daysOverdue = ChronoUnit.DAYS.between(invoice.getDueDate(), LocalDate.now());
-                    
-                    if (daysOverdue <= 30) {
-                        agingCategory = "1-30 Days";
-                    } else if (daysOverdue <= 60) {
-                        agingCategory = "31-60 Days";
-                    } else if (daysOverdue <= 90) {
-                        agingCategory = "61-90 Days";
-                    } else {
-                        agingCategory = "Over 90 Days";
-                    }
+        return invoiceRepository.findAgingReport(userId, LocalDate.now()).stream()
+            .map(row -> new InvoiceAgingResponse(
+                row.getId().toString(),
+                row.getInvoiceNumber(),
+                row.getClientName(),
+                row.getIssueDate(),
+                row.getDueDate(),
+                row.getTotalAmount(),
+                row.getAmountPaid(),
+                row.getBalanceDue(),
+                row.getStatus(),
+                row.getAgingCategory(),
+                row.getDaysOverdue()
+            ))
+            .collect(Collectors.toList());
+    }
+
+    // Get per-bucket counts and totals of the aging report, without the rows.
+    // Every bucket is returned in display order, empty ones with zero totals.
+    public List<InvoiceAgingBucketResponse> getInvoiceAgingSummary(UUID userId) {
+        Map<String, InvoiceRepository.InvoiceAgingBucketRow> rowsByCategory =
+            invoiceRepository.summarizeAgingReport(userId, LocalDate.now()).stream()
+                .collect(Collectors.toMap(InvoiceRepository.InvoiceAgingBucketRow::getAgingCategory, row -> row));
+
+        return AGING_CATEGORIES.stream()
+            .map(category -> {
+                InvoiceRepository.InvoiceAgingBucketRow row = rowsByCategory.get(category);
+                if (row == null) {
+                    return new InvoiceAgingBucketResponse(category, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
                 }
-                
-                return new InvoiceAgingResponse(
-                    invoice.getId().toString(),
-                    invoice.getInvoiceNumber(),
-                    invoice.getClient().getCompanyName() != null ? 
-                        invoice.getClient().getCompanyName() : invoice.getClient().getContactName(),
-                    invoice.getIssueDate(),
-                    invoice.getDueDate(),
-                    invoice.getTotalAmount(),
-                    invoice.getAmountPaid(),
-                    invoice.getBalanceDue(),
-                    invoice.getStatus(),
-                    agingCategory,
-                    daysOverdue
+                return new InvoiceAgingBucketResponse(
+                    category,
+                    row.getInvoiceCount(),
+                    row.getTotalAmount(),
+                    row.getAmountPaid(),
+                    row.getBalanceDue()
                 );
             })
             .collect(Collectors.toList());
@@ -755,11 +1169,8 @@ public class InvoiceService {
 
     // Get recent invoices
     public List<InvoiceResponse> getRecentInvoices(UUID userId, int limit) {
-        return invoiceRepository.findRecentByUser(userId,
-            org.springframework.data.domain.PageRequest.of(0, limit))
-            .stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(invoiceRepository.findRecentByUser(userId,
+            org.springframework.data.domain.PageRequest.of(0, limit)));
     }
 
     // Update invoice status
@@ -774,18 +1185,22 @@ public class InvoiceService {
             throw new BadRequestException("Invalid invoice status");
         }
         
+        InvoiceFigures before = InvoiceFigures.of(invoice);
         invoice.setStatus(status);
         
-        // Update timestamps based on status
-        if ("sent".equals(status) && invoice.getSentAt() == null) {
+        // Update timestamps based on status; viewed and overdue also mean the client has it
+        if (SENT_STATUSES.contains(status) && invoice.getSentAt() == null) {
             invoice.setSentAt(LocalDateTime.now());
-        } else if ("paid".equals(status) && invoice.getPaidDate() == null) {
+        }
+        if ("paid".equals(status) && invoice.getPaidDate() == null) {
             invoice.setPaidDate(LocalDate.now());
         } else if ("viewed".equals(status) && invoice.getViewedAt() == null) {
             invoice.setViewedAt(LocalDateTime.now());
         }
         
         Invoice updatedInvoice = invoiceRepository.save(invoice);
+        financialRollupService.recordInvoiceChange(userId, before, InvoiceFigures.of(updatedInvoice));
+        publicDocumentCache.evictInvoice(updatedInvoice.getId());
         return mapToResponse(updatedInvoice);
     }
 
@@ -816,9 +1231,11 @@ public class InvoiceService {
         newInvoice.setBalanceDue(originalInvoice.getTotalAmount());
         newInvoice.setCurrency(originalInvoice.getCurrency());
         newInvoice.setPaymentLink(originalInvoice.getPaymentLink());
+        newInvoice.setInvoiceNumber(documentSequenceService.nextInvoiceNumber());
         newInvoice.setPublicHash(UUID.randomUUID().toString().replace("-", ""));
         
         Invoice savedInvoice = invoiceRepository.save(newInvoice);
+        financialRollupService.recordInvoiceChange(userId, null, InvoiceFigures.of(savedInvoice));
         
         // Duplicate invoice items
         List<InvoiceItem> originalItems = invoiceItemRepository.findByInvoiceId(invoiceId);
@@ -881,7 +1298,8 @@ public class InvoiceService {
                     quoteItem.getUnitPrice(),
                     quoteItem.getTaxRate(),
                     quoteItem.getDiscount(),
-                    quoteItem.getSortOrder()
+                    quoteItem.getSortOrder(),
+                    null
                 ))
                 .collect(Collectors.toList());
             request.setItems(itemRequests);
@@ -8,6 +8,8 @@ import com.example.freelanceapp.exceptions.BadRequestException;
 import com.example.freelanceapp.exceptions.NotFoundException;
 import com.example.freelanceapp.repositories.InvoicePaymentRepository;
 import com.example.freelanceapp.repositories.InvoiceRepository;
+import com.example.freelanceapp.services.FinancialRollupService.PaymentFigures;
+import com.example.freelanceapp.utils.PublicDocumentCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +26,8 @@ public class PaymentService {
     private final InvoicePaymentRepository invoicePaymentRepository;
     private final InvoiceRepository invoiceRepository;
     private final InvoiceService invoiceService;
+    private final FinancialRollupService financialRollupService;
+    private final PublicDocumentCache publicDocumentCache;
 
     // Map Entity to Response DTO
     private InvoicePaymentResponse mapToResponse(InvoicePayment payment) {
@@ -45,7 +49,7 @@ public class PaymentService {
     // Add payment to invoice
     @Transactional
     public InvoicePaymentResponse addPayment(UUID userId, UUID invoiceId, InvoicePaymentRequest request) {
-        Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
+        Invoice invoice = invoiceRepository.findByIdAndUserIdForUpdate(invoiceId, userId)
             .orElseThrow(() -> new NotFoundException("Invoice not found"));
         
         // Validate invoice can receive payments
@@ -84,9 +88,10 @@ public class PaymentService {
         payment.setMetadata(request.getMetadata() != null ? request.getMetadata() : "{}");
         
         InvoicePayment savedPayment = invoicePaymentRepository.save(payment);
+        financialRollupService.recordPaymentChange(userId, null, PaymentFigures.of(savedPayment));
         
         // Update invoice totals and status
-        invoiceService.updateInvoiceTotals(invoice);
+        invoiceService.applyTotalsDelta(invoice, BigDecimal.ZERO, InvoiceService.completedAmount(savedPayment));
         
         return mapToResponse(savedPayment);
     }
@@ -95,7 +100,7 @@ public class PaymentService {
     @Transactional
     public InvoicePaymentResponse updatePayment(UUID userId, UUID invoiceId, UUID paymentId, InvoicePaymentRequest request) {
         // Verify invoice belongs to user
-        Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
+        Invoice invoice = invoiceRepository.findByIdAndUserIdForUpdate(invoiceId, userId)
             .orElseThrow(() -> new NotFoundException("Invoice not found"));
         
         InvoicePayment payment = invoicePaymentRepository.findById(paymentId)
@@ -114,8 +119,9 @@ public class PaymentService {
             }
         }
         
-        // Store old amount for recalculation
-        BigDecimal oldAmount = payment.getAmount();
+        // Store old contribution for recalculation
+        BigDecimal oldCompletedAmount = InvoiceService.completedAmount(payment);
+        PaymentFigures before = PaymentFigures.of(payment);
         
         // Update fields
         if (request.getPaymentMethod() != null) {
@@ -148,10 +154,14 @@ public class PaymentService {
         }
         
         InvoicePayment updatedPayment = invoicePaymentRepository.save(payment);
+        financialRollupService.recordPaymentChange(userId, before, PaymentFigures.of(updatedPayment));
         
-        // Update invoice totals if amount changed
-        if (request.getAmount() != null && request.getAmount().compareTo(oldAmount) != 0) {
-            invoiceService.updateInvoiceTotals(invoice);
+        // Update invoice totals if the amount or status changed what counts as paid
+        BigDecimal paidDelta = InvoiceService.completedAmount(updatedPayment).subtract(oldCompletedAmount);
+        if (paidDelta.signum() != 0) {
+            invoiceService.applyTotalsDelta(invoice, BigDecimal.ZERO, paidDelta);
+        } else {
+            publicDocumentCache.evictInvoice(invoice.getId());
         }
         
         return mapToResponse(updatedPayment);
@@ -161,7 +171,7 @@ public class PaymentService {
     @Transactional
     public void deletePayment(UUID userId, UUID invoiceId, UUID paymentId) {
         // Verify invoice belongs to user
-        Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
+        Invoice invoice = invoiceRepository.findByIdAndUserIdForUpdate(invoiceId, userId)
             .orElseThrow(() -> new NotFoundException("Invoice not found"));
         
         InvoicePayment payment = invoicePaymentRepository.findById(paymentId)
@@ -178,9 +188,10 @@ public class PaymentService {
         }
         
         invoicePaymentRepository.delete(payment);
+        financialRollupService.recordPaymentChange(userId, PaymentFigures.of(payment), null);
         
         // Update invoice totals
-        invoiceService.updateInvoiceTotals(invoice);
+        invoiceService.applyTotalsDelta(invoice, BigDecimal.ZERO, InvoiceService.completedAmount(payment).negate());
     }
 
     // Get all payments for an invoice
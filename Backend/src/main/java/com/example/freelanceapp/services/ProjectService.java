@@ -3,6 +3,7 @@ package com.example.freelanceapp.services;
 import com.example.freelanceapp.dtos.project.ProjectRequest;
 import com.example.freelanceapp.dtos.project.ProjectResponse;
 import com.example.freelanceapp.dtos.project.ProjectSummaryResponse;
+import com.example.freelanceapp.dtos.search.AutocompleteResponse;
 import com.example.freelanceapp.entities.Client;
 import com.example.freelanceapp.entities.Project;
 import com.example.freelanceapp.entities.User;
@@ -31,6 +32,7 @@ public class ProjectService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final ClientRepository clientRepository;
+    private final AutocompleteService autocompleteService;
 
     // Map Entity to Response DTO
     private ProjectResponse mapToResponse(Project project) {
@@ -110,6 +112,7 @@ public class ProjectService {
         // Create and save project
         Project project = mapToEntity(request, user, client);
         Project savedProject = projectRepository.save(project);
+        autocompleteService.projectSaved(userId, savedProject.getId(), savedProject.getName(), client.getId());
 
         return mapToResponse(savedProject);
     }
@@ -218,6 +221,8 @@ public class ProjectService {
         }
 
         Project updatedProject = projectRepository.save(project);
+        autocompleteService.projectSaved(userId, updatedProject.getId(), updatedProject.getName(),
+            updatedProject.getClient().getId());
         return mapToResponse(updatedProject);
     }
 
@@ -231,6 +236,12 @@ public class ProjectService {
         // You might want to add these checks based on your business logic
         
         projectRepository.delete(project);
+        autocompleteService.projectDeleted(userId, projectId);
+    }
+
+    // Typeahead suggestions from the in-memory autocomplete index
+    public List<AutocompleteResponse> autocompleteProjects(UUID userId, String prefix, Integer limit) {
+        return autocompleteService.suggestProjects(userId, prefix, limit);
     }
 
     // Search projects
@@ -0,0 +1,159 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import com.example.freelanceapp.dtos.publiclink.PublicLinkResponse;
+import com.example.freelanceapp.dtos.quote.QuoteResponse;
+import com.example.freelanceapp.entities.Invoice;
+import com.example.freelanceapp.entities.Quote;
+import com.example.freelanceapp.exceptions.BadRequestException;
+import com.example.freelanceapp.exceptions.NotFoundException;
+import com.example.freelanceapp.repositories.InvoiceRepository;
+import com.example.freelanceapp.repositories.QuoteRepository;
+import com.example.freelanceapp.utils.ApiPaths;
+import com.example.freelanceapp.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Signed, stateless public links to invoices and quotes. A link token is an HMAC-signed
+ * JWT (same key as access tokens) naming the document type and id with an expiry, so
+ * forged, expired or malformed links are rejected without touching the database and valid
+ * ones resolve with a primary-key fetch (or the public cache).
+ *
+ * <p>Tokens are not stored, so one cannot be revoked before it expires: deleting the document
+ * is the only way to cut off a link early, and rotating jwt.secret cuts off all of them (and
+ * every login). Keep the validity short for sensitive documents.
+ *
+ * <p>The unsigned /public/{hash} links sent before signed links existed still resolve, through
+ * the same cache and view tracking; they are deprecated and never expire.
+ */
+@Service
+@RequiredArgsConstructor
+public class PublicLinkService {
+
+    private static final String INVOICE = "invoice";
+    private static final String QUOTE = "quote";
+    private static final String TOKEN_TYPE = "public-link";
+
+    private final JwtUtil jwtUtil;
+    private final InvoiceRepository invoiceRepository;
+    private final QuoteRepository quoteRepository;
+    private final InvoiceService invoiceService;
+    private final QuoteService quoteService;
+
+    @Value("${public-links.token.ttl-days:30}")
+    private int defaultTtlDays;
+
+    @Value("${public-links.token.max-ttl-days:365}")
+    private int maxTtlDays;
+
+    // Issue a signed link to one of the user's invoices
+    public PublicLinkResponse createInvoiceLink(UUID userId, UUID invoiceId, Integer ttlDays) {
+        Invoice invoice = invoiceRepository.findByIdAndUserId(invoiceId, userId)
+            .orElseThrow(() -> new NotFoundException("Invoice not found"));
+        return issue(INVOICE, invoice.getId(), ttlDays, ApiPaths.PUBLIC + "/invoices/");
+    }
+
+    // Issue a signed link to one of the user's quotes
+    public PublicLinkResponse createQuoteLink(UUID userId, UUID quoteId, Integer ttlDays) {
+        Quote quote = quoteRepository.findByIdAndUserId(quoteId, userId)
+            .orElseThrow(() -> new NotFoundException("Quote not found"));
+        return issue(QUOTE, quote.getId(), ttlDays, ApiPaths.PUBLIC + "/quotes/");
+    }
+
+    // Resolve a signed invoice link
+    public InvoiceResponse viewInvoice(String token) {
+        return invoiceService.viewInvoiceById(verify(token, INVOICE));
+    }
+
+    // Resolve a signed quote link
+    public QuoteResponse viewQuote(String token, String ipAddress, String userAgent) {
+        return quoteService.viewQuoteById(verify(token, QUOTE), ipAddress, userAgent);
+    }
+
+    // Accept the quote behind a signed link
+    public QuoteResponse acceptQuote(String token, String ipAddress, String userAgent) {
+        return quoteService.acceptQuote(verify(token, QUOTE), ipAddress, userAgent);
+    }
+
+    // Reject the quote behind a signed link
+    public QuoteResponse rejectQuote(String token, String ipAddress, String userAgent) {
+        return quoteService.rejectQuote(verify(token, QUOTE), ipAddress, userAgent);
+    }
+
+    // Resolve a legacy hash link to an invoice (deprecated)
+    @Deprecated
+    public InvoiceResponse viewInvoiceByPublicHash(String publicHash) {
+        return invoiceService.viewInvoiceById(resolveHash(invoiceRepository.findIdByPublicHash(publicHash)));
+    }
+
+    // Resolve a legacy hash link to a quote (deprecated)
+    @Deprecated
+    public QuoteResponse viewQuoteByPublicHash(String publicHash, String ipAddress, String userAgent) {
+        return quoteService.viewQuoteById(resolveHash(quoteRepository.findIdByPublicHash(publicHash)),
+            ipAddress, userAgent);
+    }
+
+    // Accept the quote behind a legacy hash link (deprecated)
+    @Deprecated
+    public QuoteResponse acceptQuoteByPublicHash(String publicHash, String ipAddress, String userAgent) {
+        return quoteService.acceptQuote(resolveHash(quoteRepository.findIdByPublicHash(publicHash)),
+            ipAddress, userAgent);
+    }
+
+    // Reject the quote behind a legacy hash link (deprecated)
+    @Deprecated
+    public QuoteResponse rejectQuoteByPublicHash(String publicHash, String ipAddress, String userAgent) {
+        return quoteService.rejectQuote(resolveHash(quoteRepository.findIdByPublicHash(publicHash)),
+            ipAddress, userAgent);
+    }
+
+    private UUID resolveHash(Optional<UUID> documentId) {
+        return documentId.orElseThrow(() -> new NotFoundException("Link is invalid or has expired"));
+    }
+
+    private PublicLinkResponse issue(String documentType, UUID documentId, Integer ttlDays, String pathPrefix) {
+        int days = ttlDays != null ? ttlDays : defaultTtlDays;
+        if (days < 1 || days > maxTtlDays) {
+            throw new BadRequestException("Link validity must be between 1 and " + maxTtlDays + " days");
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusDays(days);
+        Date expiry = Date.from(expiresAt.atZone(ZoneId.systemDefault()).toInstant());
+        String token = jwtUtil.generatePublicLinkToken(documentType, documentId.toString(), expiry);
+
+        return new PublicLinkResponse(documentType, documentId, token, pathPrefix + token, expiresAt);
+    }
+
+    // Check signature, expiry and document type and return the document id; every failure
+    // looks the same to the caller
+    private UUID verify(String token, String expectedType) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new NotFoundException("Link is invalid or has expired");
+        }
+
+        if (!TOKEN_TYPE.equals(claims.get("type", String.class))
+                || !expectedType.equals(claims.get("doc", String.class))
+                || claims.getSubject() == null) {
+            throw new NotFoundException("Link is invalid or has expired");
+        }
+
+        try {
+            return UUID.fromString(claims.getSubject());
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException("Link is invalid or has expired");
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.example.freelanceapp.exceptions.BadRequestException;
 import com.example.freelanceapp.exceptions.NotFoundException;
 import com.example.freelanceapp.repositories.QuoteItemRepository;
 import com.example.freelanceapp.repositories.QuoteRepository;
+import com.example.freelanceapp.utils.PublicDocumentCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +26,7 @@ public class QuoteItemService {
     private final QuoteItemRepository quoteItemRepository;
     private final QuoteRepository quoteRepository;
     private final QuoteService quoteService;
+    private final PublicDocumentCache publicDocumentCache;
 
     // Map Entity to Response DTO
     private QuoteItemResponse mapToResponse(QuoteItem item) {
@@ -42,14 +44,14 @@ public class QuoteItemService {
         );
     }
 
-    // Calculate item total
+    // Calculate item total, rounded to the 2 decimals the total column stores
     private BigDecimal calculateItemTotal(BigDecimal quantity, BigDecimal unitPrice, 
                                          BigDecimal taxRate, BigDecimal discount) {
         BigDecimal subtotal = quantity.multiply(unitPrice);
         BigDecimal discountAmount = subtotal.multiply(discount.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP));
         BigDecimal amountAfterDiscount = subtotal.subtract(discountAmount);
         BigDecimal taxAmount = amountAfterDiscount.multiply(taxRate.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP));
-        return amountAfterDiscount.add(taxAmount);
+        return amountAfterDiscount.add(taxAmount).setScale(2, RoundingMode.HALF_UP);
     }
 
     // Add item to quote
@@ -227,5 +229,6 @@ public class QuoteItemService {
                 quoteItemRepository.save(item);
             }
         }
+        publicDocumentCache.evictQuote(quote.getId());
     }
 }
\ No newline at end of file
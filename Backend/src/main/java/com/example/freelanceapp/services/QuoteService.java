@@ -5,7 +5,9 @@ import com.example.freelanceapp.entities.*;
 import com.example.freelanceapp.exceptions.BadRequestException;
 import com.example.freelanceapp.exceptions.NotFoundException;
 import com.example.freelanceapp.repositories.*;
-import com.example.freelanceapp.utils.NumberGenerator;
+import com.example.freelanceapp.services.FinancialRollupService.QuoteFigures;
+import com.example.freelanceapp.utils.PublicDocumentCache;
+import com.example.freelanceapp.utils.SearchPatterns;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -29,7 +31,14 @@ public class QuoteService {
     private final UserRepository userRepository;
     private final ClientRepository clientRepository;
     private final ProjectRepository projectRepository;
-    private final NumberGenerator numberGenerator;
+    private final DocumentSequenceService documentSequenceService;
+    private final FinancialRollupService financialRollupService;
+    private final PublicDocumentCache publicDocumentCache;
+    private final DocumentViewService documentViewService;
+    private final DocumentRenderService documentRenderService;
+
+    private static final int DEFAULT_SEARCH_RESULTS = 20;
+    private static final int MAX_SEARCH_RESULTS = 100;
 
     // Map Entity to Response DTO
     private QuoteResponse mapToResponse(Quote quote) {
@@ -99,6 +108,7 @@ public class QuoteService {
         quote.setTaxAmount(request.getTaxAmount() != null ? request.getTaxAmount() : BigDecimal.ZERO);
         quote.setDiscountAmount(request.getDiscountAmount() != null ? request.getDiscountAmount() : BigDecimal.ZERO);
         quote.setCurrency(request.getCurrency() != null ? request.getCurrency() : "USD");
+        quote.setQuoteNumber(documentSequenceService.nextQuoteNumber());
         
         // Generate public hash for shareable links
         quote.setPublicHash(UUID.randomUUID().toString().replace("-", ""));
@@ -106,14 +116,14 @@ public class QuoteService {
         return quote;
     }
 
-    // Calculate item total
+    // Calculate item total, rounded to the 2 decimals the total column stores
     private BigDecimal calculateItemTotal(BigDecimal quantity, BigDecimal unitPrice, 
                                          BigDecimal taxRate, BigDecimal discount) {
         BigDecimal subtotal = quantity.multiply(unitPrice);
         BigDecimal discountAmount = subtotal.multiply(discount.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP));
         BigDecimal amountAfterDiscount = subtotal.subtract(discountAmount);
         BigDecimal taxAmount = amountAfterDiscount.multiply(taxRate.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP));
-        return amountAfterDiscount.add(taxAmount);
+        return amountAfterDiscount.add(taxAmount).setScale(2, RoundingMode.HALF_UP);
     }
 
     // Add quote history entry
@@ -168,6 +178,7 @@ public class QuoteService {
         quote.setTotalAmount(BigDecimal.ZERO);
         
         Quote savedQuote = quoteRepository.save(quote);
+        financialRollupService.recordQuoteChange(userId, null, QuoteFigures.of(savedQuote));
         
         // Add quote items if provided
         if (request.getItems() != null && !request.getItems().isEmpty()) {
@@ -207,9 +218,65 @@ public class QuoteService {
         return mapToResponse(savedQuote);
     }
 
+    /**
+     * Bring a quote's items in line with the requested list. Requests carrying an id
+     * update that row in place (only if a value actually changed), requests without one
+     * are inserted, and rows missing from the list are deleted in one statement.
+     */
+    private void reconcileItems(Quote quote, List<QuoteItemRequest> itemRequests) {
+        Map<UUID, QuoteItem> existingItems = quoteItemRepository.findByQuoteId(quote.getId()).stream()
+            .collect(Collectors.toMap(QuoteItem::getId, item -> item));
+        
+        List<QuoteItem> newItems = new ArrayList<>();
+        for (int i = 0; i < itemRequests.size(); i++) {
+            QuoteItemRequest itemRequest = itemRequests.get(i);
+            QuoteItem quoteItem;
+            if (itemRequest.getId() != null && !itemRequest.getId().isEmpty()) {
+                UUID itemId;
+                try {
+                    itemId = UUID.fromString(itemRequest.getId());
+                } catch (IllegalArgumentException e) {
+                    throw new BadRequestException("Invalid quote item ID format");
+                }
+                quoteItem = existingItems.remove(itemId);
+                if (quoteItem == null) {
+                    throw new NotFoundException("Quote item not found: " + itemId);
+                }
+            } else {
+                quoteItem = new QuoteItem();
+                quoteItem.setQuote(quote);
+                newItems.add(quoteItem);
+            }
+            
+            quoteItem.setDescription(itemRequest.getDescription());
+            quoteItem.setQuantity(itemRequest.getQuantity() != null ? itemRequest.getQuantity() : BigDecimal.ONE);
+            quoteItem.setUnitPrice(itemRequest.getUnitPrice() != null ? itemRequest.getUnitPrice() : BigDecimal.ZERO);
+            quoteItem.setTaxRate(itemRequest.getTaxRate() != null ? itemRequest.getTaxRate() : BigDecimal.ZERO);
+            quoteItem.setDiscount(itemRequest.getDiscount() != null ? itemRequest.getDiscount() : BigDecimal.ZERO);
+            quoteItem.setSortOrder(itemRequest.getSortOrder() != null ? itemRequest.getSortOrder() : i);
+            BigDecimal itemTotal = calculateItemTotal(
+                quoteItem.getQuantity(),
+                quoteItem.getUnitPrice(),
+                quoteItem.getTaxRate(),
+                quoteItem.getDiscount()
+            );
+            // Only touch the total when the amount differs, so an unchanged row stays clean
+            if (quoteItem.getTotal() == null || quoteItem.getTotal().compareTo(itemTotal) != 0) {
+                quoteItem.setTotal(itemTotal);
+            }
+        }
+        
+        // Matched rows are managed: dirty checking flushes only the changed ones as a batched UPDATE
+        quoteItemRepository.saveAll(newItems);
+        if (!existingItems.isEmpty()) {
+            quoteItemRepository.deleteAllInBatch(existingItems.values());
+        }
+    }
+
     // Update quote totals
     @Transactional
     public void updateQuoteTotals(Quote quote) {
+        QuoteFigures before = QuoteFigures.of(quote);
         BigDecimal subtotal = quoteItemRepository.calculateSubtotalByQuoteId(quote.getId());
         if (subtotal == null) {
             subtotal = BigDecimal.ZERO;
@@ -222,6 +289,8 @@ public class QuoteService {
         quote.setSubtotal(subtotal);
         quote.setTotalAmount(totalAmount);
         quoteRepository.save(quote);
+        financialRollupService.recordQuoteChange(quote.getUser().getId(), before, QuoteFigures.of(quote));
+        publicDocumentCache.evictQuote(quote.getId());
     }
 
     // Get quote by ID
@@ -231,13 +300,6 @@ public class QuoteService {
         return mapToResponse(quote);
     }
 
-    // Get quote by public hash (for public viewing)
-    public QuoteResponse getQuoteByPublicHash(String publicHash) {
-        Quote quote = quoteRepository.findByPublicHash(publicHash)
-            .orElseThrow(() -> new NotFoundException("Quote not found"));
-        return mapToResponse(quote);
-    }
-
     // Get all quotes for a user
     public List<QuoteResponse> getAllQuotes(UUID userId) {
         return quoteRepository.findByUserId(userId).stream()
@@ -286,6 +348,7 @@ public class QuoteService {
                                     String ipAddress, String userAgent) {
         Quote quote = quoteRepository.findByIdAndUserId(quoteId, userId)
             .orElseThrow(() -> new NotFoundException("Quote not found"));
+        QuoteFigures before = QuoteFigures.of(quote);
 
         // Update client if provided
         if (request.getClientId() != null) {
@@ -346,37 +409,12 @@ public class QuoteService {
 
         // Update quote items if provided
         if (request.getItems() != null) {
-            // Delete existing items
-            quoteItemRepository.deleteByQuoteId(quoteId);
-            
-            // Add new items
-            List<QuoteItem> quoteItems = new ArrayList<>();
-            for (int i = 0; i < request.getItems().size(); i++) {
-                QuoteItemRequest itemRequest = request.getItems().get(i);
-                QuoteItem quoteItem = new QuoteItem();
-                quoteItem.setQuote(quote);
-                quoteItem.setDescription(itemRequest.getDescription());
-                quoteItem.setQuantity(itemRequest.getQuantity() != null ? itemRequest.getQuantity() : BigDecimal.ONE);
-                quoteItem.setUnitPrice(itemRequest.getUnitPrice() != null ? itemRequest.getUnitPrice() : BigDecimal.ZERO);
-                quoteItem.setTaxRate(itemRequest.getTaxRate() != null ? itemRequest.getTaxRate() : BigDecimal.ZERO);
-                quoteItem.setDiscount(itemRequest.getDiscount() != null ? itemRequest.getDiscount() : BigDecimal.ZERO);
-                quoteItem.setSortOrder(itemRequest.getSortOrder() != null ? itemRequest.getSortOrder() : i);
-                
-                // Calculate item total
-                BigDecimal itemTotal = calculateItemTotal(
-                    quoteItem.getQuantity(),
-                    quoteItem.getUnitPrice(),
-                    quoteItem.getTaxRate(),
-                    quoteItem.getDiscount()
-                );
-                quoteItem.setTotal(itemTotal);
-                
-                quoteItems.add(quoteItem);
-            }
-            
-            quoteItemRepository.saveAll(quoteItems);
+            reconcileItems(quote, request.getItems());
         }
 
+        // Status change now, amount changes when totals are recalculated
+        financialRollupService.recordQuoteChange(userId, before, QuoteFigures.of(quote));
+        
         // Update totals
         updateQuoteTotals(quote);
         
@@ -400,6 +438,8 @@ public class QuoteService {
         }
         
         quoteRepository.delete(quote);
+        financialRollupService.recordQuoteChange(userId, QuoteFigures.of(quote), null);
+        publicDocumentCache.evictQuote(quote.getId());
     }
 
     // Send quote (change status to sent)
@@ -421,22 +461,36 @@ public class QuoteService {
         }
         
         // Update quote status and sent time
+        QuoteFigures before = QuoteFigures.of(quote);
         quote.setStatus("sent");
         quote.setSentAt(LocalDateTime.now());
         
         Quote updatedQuote = quoteRepository.save(quote);
+        financialRollupService.recordQuoteChange(userId, before, QuoteFigures.of(updatedQuote));
+        publicDocumentCache.evictQuote(updatedQuote.getId());
         
         // Add history entry
         addQuoteHistory(updatedQuote, "sent", "Quote sent to client", ipAddress, userAgent);
         
+        // Render the PDF in the background once the send is committed
+        documentRenderService.renderQuoteAfterCommit(updatedQuote.getId());
+        
         return mapToResponse(updatedQuote);
     }
 
-    // Accept quote (from public link)
+    // Get the quote PDF (stored by content hash; rendered here only if the content changed)
+    @Transactional
+    public DocumentRenderService.RenderedPdf getQuotePdf(UUID userId, UUID quoteId) {
+        Quote quote = quoteRepository.findByIdAndUserId(quoteId, userId)
+            .orElseThrow(() -> new NotFoundException("Quote not found"));
+        return documentRenderService.renderQuote(quote);
+    }
+
+    // Accept quote (from a signed public link)
     @Transactional
-    public QuoteResponse acceptQuote(String publicHash, 
+    public QuoteResponse acceptQuote(UUID quoteId, 
                                     String ipAddress, String userAgent) {
-        Quote quote = quoteRepository.findByPublicHash(publicHash)
+        Quote quote = quoteRepository.findById(quoteId)
             .orElseThrow(() -> new NotFoundException("Quote not found"));
         
         // Validate quote can be accepted
@@ -449,11 +503,14 @@ public class QuoteService {
         }
         
         // Update quote status and accepted time
+        QuoteFigures before = QuoteFigures.of(quote);
         quote.setStatus("accepted");
         quote.setAcceptedAt(LocalDateTime.now());
         quote.setViewedAt(LocalDateTime.now());
         
         Quote updatedQuote = quoteRepository.save(quote);
+        financialRollupService.recordQuoteChange(updatedQuote.getUser().getId(), before, QuoteFigures.of(updatedQuote));
+        publicDocumentCache.evictQuote(updatedQuote.getId());
         
         // Add history entry
         addQuoteHistory(updatedQuote, "accepted", "Quote accepted by client", ipAddress, userAgent);
@@ -461,11 +518,11 @@ public class QuoteService {
         return mapToResponse(updatedQuote);
     }
 
-    // Reject quote (from public link)
+    // Reject quote (from a signed public link)
     @Transactional
-    public QuoteResponse rejectQuote(String publicHash, 
+    public QuoteResponse rejectQuote(UUID quoteId, 
                                     String ipAddress, String userAgent) {
-        Quote quote = quoteRepository.findByPublicHash(publicHash)
+        Quote quote = quoteRepository.findById(quoteId)
             .orElseThrow(() -> new NotFoundException("Quote not found"));
         
         // Validate quote can be rejected
@@ -474,10 +531,13 @@ public class QuoteService {
         }
         
         // Update quote status
+        QuoteFigures before = QuoteFigures.of(quote);
         quote.setStatus("rejected");
         quote.setViewedAt(LocalDateTime.now());
         
         Quote updatedQuote = quoteRepository.save(quote);
+        financialRollupService.recordQuoteChange(updatedQuote.getUser().getId(), before, QuoteFigures.of(updatedQuote));
+        publicDocumentCache.evictQuote(updatedQuote.getId());
         
         // Add history entry
         addQuoteHistory(updatedQuote, "rejected", "Quote rejected by client", ipAddress, userAgent);
@@ -485,28 +545,37 @@ public class QuoteService {
         return mapToResponse(updatedQuote);
     }
 
-    // View quote (from public link)
-    @Transactional
-    public QuoteResponse viewQuote(String publicHash, 
-                                  String ipAddress, String userAgent) {
-        Quote quote = quoteRepository.findByPublicHash(publicHash)
-            .orElseThrow(() -> new NotFoundException("Quote not found"));
-        
-        // Only update viewed time if not already set
-        if (quote.getViewedAt() == null) {
-            quote.setViewedAt(LocalDateTime.now());
-            quoteRepository.save(quote);
-        }
-        
-        // Add history entry
-        addQuoteHistory(quote, "viewed", "Quote viewed by client", ipAddress, userAgent);
-        
-        return mapToResponse(quote);
+    // View quote from a signed public link. Served from the public cache; the view and its
+    // history entry are recorded in the background by DocumentViewService.
+    public QuoteResponse viewQuoteById(UUID quoteId, String ipAddress, String userAgent) {
+        QuoteResponse response = publicDocumentCache.getQuote(quoteId, () -> {
+            Quote quote = quoteRepository.findWithDetailsById(quoteId)
+                .orElseThrow(() -> new NotFoundException("Quote not found"));
+            return mapToResponse(quote);
+        });
+        documentViewService.recordQuoteView(quoteId, ipAddress, userAgent);
+        return response;
     }
 
-    // Search quotes
-    public List<QuoteResponse> searchQuotes(UUID userId, String searchTerm) {
-        return quoteRepository.searchByUser(userId, searchTerm).stream()
+    // Search quotes by number, title or client name, best matches first
+    public List<QuoteResponse> searchQuotes(UUID userId, String searchTerm, Integer limit) {
+        String term = searchTerm != null ? searchTerm.trim() : "";
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        int maxResults = limit != null ? Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)) : DEFAULT_SEARCH_RESULTS;
+
+        List<UUID> ids = quoteRepository.searchIdsByUser(userId, term, SearchPatterns.containing(term), maxResults);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Load the matches in one query and put them back in rank order
+        Map<UUID, Quote> quotesById = quoteRepository.findByIdIn(ids).stream()
+            .collect(Collectors.toMap(Quote::getId, quote -> quote));
+        return ids.stream()
+            .map(quotesById::get)
+            .filter(Objects::nonNull)
             .map(this::mapToResponse)
             .collect(Collectors.toList());
     }
@@ -615,6 +684,7 @@ public class QuoteService {
             throw new BadRequestException("Invalid quote status");
         }
         
+        QuoteFigures before = QuoteFigures.of(quote);
         quote.setStatus(status);
         
         // Update timestamps based on status
@@ -627,6 +697,8 @@ public class QuoteService {
         }
         
         Quote updatedQuote = quoteRepository.save(quote);
+        financialRollupService.recordQuoteChange(userId, before, QuoteFigures.of(updatedQuote));
+        publicDocumentCache.evictQuote(updatedQuote.getId());
         return mapToResponse(updatedQuote);
     }
 
@@ -653,9 +725,11 @@ public class QuoteService {
         newQuote.setSubtotal(originalQuote.getSubtotal());
         newQuote.setTotalAmount(originalQuote.getTotalAmount());
         newQuote.setCurrency(originalQuote.getCurrency());
+        newQuote.setQuoteNumber(documentSequenceService.nextQuoteNumber());
         newQuote.setPublicHash(UUID.randomUUID().toString().replace("-", ""));
         
         Quote savedQuote = quoteRepository.save(newQuote);
+        financialRollupService.recordQuoteChange(userId, null, QuoteFigures.of(savedQuote));
         
         // Duplicate quote items
         List<QuoteItem> originalItems = quoteItemRepository.findByQuoteId(quoteId);
@@ -0,0 +1,221 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.entities.Reminder;
+import com.example.freelanceapp.repositories.ReminderRepository;
+import com.example.freelanceapp.repositories.ReminderRepository.DueReminderRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Fires pending reminders at their due time. Once a minute the next window of unfired
+ * reminders is loaded for all users with one query into a priority queue ordered by due
+ * instant, and a one-second tick fires whatever is due. Firing first claims the reminders
+ * in the database (notified_at), so each fires once even with several nodes, and then
+ * hands them to every ReminderNotifier. ReminderService reports saves and deletes after
+ * commit, so reminders created or rescheduled inside the window, or already past due, are
+ * queued (or dropped) without waiting for the next refill. The catch-up period only limits
+ * the backlog left over from before startup: every refill covers all unfired reminders due
+ * since that cutoff, so a reminder saved after its due time still fires. The in-app feed
+ * fed by this dispatcher lives in process memory, so dispatch assumes a single node (see
+ * InAppReminderNotifier).
+ */
+@Service
+@Slf4j
+public class ReminderDispatchService {
+
+    // Due time used when a reminder has a date but no time (same as the V9 index expression)
+    public static final LocalTime DEFAULT_DUE_TIME = LocalTime.of(9, 0);
+
+    // A reminder waiting to fire, as handed to the notifiers
+    public record DueReminder(UUID id, UUID userId, String userEmail, String title, String description,
+                              String relatedType, UUID relatedId, LocalDateTime dueAt) {
+    }
+
+    private final ReminderRepository reminderRepository;
+    private final List<ReminderNotifier> notifiers;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowMinutes;
+    private final int maxQueued;
+
+    // Reminders due before this (missed while the app was down, beyond the catch-up period) never fire
+    private final LocalDateTime backlogCutoff;
+
+    // Queue entries replaced or removed since they were added are skipped (lazy deletion);
+    // queued holds the live entry per reminder
+    private final PriorityQueue<DueReminder> queue = new PriorityQueue<>(Comparator.comparing(DueReminder::dueAt));
+    private final Map<UUID, DueReminder> queued = new HashMap<>();
+
+    // Reminders due up to here are all in the queue; later ones wait for a refill
+    private LocalDateTime horizon = LocalDateTime.MIN;
+
+    public ReminderDispatchService(ReminderRepository reminderRepository,
+                                   List<ReminderNotifier> notifiers,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${reminders.dispatch.window-minutes:5}") long windowMinutes,
+                                   @Value("${reminders.dispatch.catch-up-minutes:60}") long catchUpMinutes,
+                                   @Value("${reminders.dispatch.max-queued:10000}") int maxQueued) {
+        this.reminderRepository = reminderRepository;
+        this.notifiers = notifiers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windowMinutes = windowMinutes;
+        this.maxQueued = maxQueued;
+        this.backlogCutoff = LocalDateTime.now().minusMinutes(catchUpMinutes);
+    }
+
+    // Due instant of a reminder, or null if it has no due date
+    public static LocalDateTime dueAt(LocalDate dueDate, LocalTime dueTime) {
+        return dueDate != null ? LocalDateTime.of(dueDate, dueTime != null ? dueTime : DEFAULT_DUE_TIME) : null;
+    }
+
+    // Load the next window, plus every unfired reminder due since the backlog cutoff, for all users
+    @Scheduled(fixedDelayString = "${reminders.dispatch.refill-interval-ms:60000}")
+    public void refill() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowEnd = now.plusMinutes(windowMinutes);
+        List<DueReminderRow> rows = reminderRepository.findDispatchWindow(
+            backlogCutoff, windowEnd, maxQueued);
+
+        synchronized (this) {
+            for (DueReminderRow row : rows) {
+                schedule(new DueReminder(row.getId(), row.getUserId(), row.getUserEmail(), row.getTitle(),
+                    row.getDescription(), row.getRelatedType(), row.getRelatedId(), row.getDueAt()));
+            }
+            // A full batch may have stopped short of the window end
+            horizon = rows.size() == maxQueued ? rows.get(rows.size() - 1).getDueAt() : windowEnd;
+            log.debug("Reminder dispatch refill: {} reminders in window, {} queued", rows.size(), queued.size());
+        }
+    }
+
+    // Fire everything that is due
+    @Scheduled(fixedDelayString = "${reminders.dispatch.tick-ms:1000}")
+    public void fireDue() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, DueReminder> due = new LinkedHashMap<>();
+        synchronized (this) {
+            while (!queue.isEmpty() && !queue.peek().dueAt().isAfter(now)) {
+                DueReminder reminder = queue.poll();
+                if (queued.get(reminder.id()) == reminder) {
+                    queued.remove(reminder.id());
+                    due.put(reminder.id(), reminder);
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Only reminders still pending, unfired and due are claimed (deleted, completed or
+        // rescheduled ones drop out here)
+        List<UUID> claimed;
+        try {
+            claimed = transactionTemplate.execute(status -> reminderRepository.claimForDispatch(due.keySet(), now));
+        } catch (RuntimeException e) {
+            log.warn("Could not claim {} due reminders; retrying on the next tick", due.size(), e);
+            synchronized (this) {
+                due.values().forEach(this::schedule);
+            }
+            return;
+        }
+
+        for (UUID id : claimed != null ? claimed : List.<UUID>of()) {
+            DueReminder reminder = due.get(id);
+            for (ReminderNotifier notifier : notifiers) {
+                try {
+                    notifier.notify(reminder);
+                } catch (RuntimeException e) {
+                    log.warn("Reminder notifier {} failed for reminder {}", notifier.getClass().getSimpleName(), id, e);
+                }
+            }
+        }
+    }
+
+    // Called by ReminderService after saving a reminder; applied once the transaction commits
+    public void reminderSaved(Reminder reminder) {
+        UUID reminderId = reminder.getId();
+        LocalDateTime dueAt = dueAt(reminder.getDueDate(), reminder.getDueTime());
+        DueReminder dueReminder = "pending".equals(reminder.getStatus()) && reminder.getNotifiedAt() == null && dueAt != null
+            ? new DueReminder(reminderId, reminder.getUser().getId(), reminder.getUser().getEmail(), reminder.getTitle(),
+                reminder.getDescription(), reminder.getRelatedType(), reminder.getRelatedId(), dueAt)
+            : null;
+
+        afterCommit(() -> {
+            synchronized (this) {
+                reschedule(reminderId, dueReminder);
+            }
+        });
+    }
+
+    // Called by ReminderService after a set-based update; rows without a due instant are no longer due to fire
+    public void remindersSaved(List<DueReminderRow> rows) {
+        List<DueReminder> dueReminders = new ArrayList<>(rows.size());
+        for (DueReminderRow row : rows) {
+            dueReminders.add(new DueReminder(row.getId(), row.getUserId(), row.getUserEmail(), row.getTitle(),
+                row.getDescription(), row.getRelatedType(), row.getRelatedId(), row.getDueAt()));
+        }
+
+        afterCommit(() -> {
+            synchronized (this) {
+                dueReminders.forEach(dueReminder ->
+                    reschedule(dueReminder.id(), dueReminder.dueAt() != null ? dueReminder : null));
+            }
+        });
+    }
+
+    // Called by ReminderService after deleting a reminder
+    public void reminderDeleted(UUID reminderId) {
+        remindersDeleted(List.of(reminderId));
+    }
+
+    // Called by ReminderService after deleting reminders in bulk
+    public void remindersDeleted(Collection<UUID> reminderIds) {
+        afterCommit(() -> {
+            synchronized (this) {
+                reminderIds.forEach(queued::remove);
+            }
+        });
+    }
+
+    // Caller holds the lock; queue the reminder if it is already due or falls inside the loaded window,
+    // otherwise drop it
+    private void reschedule(UUID reminderId, DueReminder dueReminder) {
+        if (dueReminder != null && (!dueReminder.dueAt().isAfter(horizon)
+                || !dueReminder.dueAt().isAfter(LocalDateTime.now()))) {
+            schedule(dueReminder);
+        } else {
+            queued.remove(reminderId);
+        }
+    }
+
+    // Caller holds the lock; an unchanged reminder that is already queued is left as is
+    private void schedule(DueReminder reminder) {
+        if (reminder.equals(queued.get(reminder.id()))) {
+            return;
+        }
+        queued.put(reminder.id(), reminder);
+        queue.add(reminder);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.freelanceapp.services;
+
+// A channel that delivers fired reminders; every bean of this type receives each fired reminder
+public interface ReminderNotifier {
+
+    void notify(ReminderDispatchService.DueReminder reminder);
+}
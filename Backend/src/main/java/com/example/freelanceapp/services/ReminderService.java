@@ -5,8 +5,14 @@ import com.example.freelanceapp.entities.*;
 import com.example.freelanceapp.exceptions.BadRequestException;
 import com.example.freelanceapp.exceptions.NotFoundException;
 import com.example.freelanceapp.repositories.*;
+import com.example.freelanceapp.repositories.ReminderRepository.DueReminderRow;
+import com.example.freelanceapp.repositories.ReminderRepository.ReminderSummaryRow;
+import com.example.freelanceapp.utils.RecurrenceRule;
+import com.example.freelanceapp.utils.ReminderSummaryCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,22 +22,46 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ReminderService {
 
+    // Upper bound on the occurrences one series contributes to a date range
+    private static final int MAX_OCCURRENCES_PER_SERIES = 1000;
+
     private final ReminderRepository reminderRepository;
+    private final ReminderOccurrenceExceptionRepository occurrenceExceptionRepository;
     private final UserRepository userRepository;
     private final ClientRepository clientRepository;
     private final ProjectRepository projectRepository;
     private final QuoteRepository quoteRepository;
     private final InvoiceRepository invoiceRepository;
+    private final ReminderSummaryCache reminderSummaryCache;
+    private final ReminderDispatchService reminderDispatchService;
+    private final InAppReminderNotifier inAppReminderNotifier;
+
+    @Value("${reminders.badge.max-age-seconds:10}")
+    private long badgeMaxAgeSeconds;
 
     // Map Entity to Response DTO
     private ReminderResponse mapToResponse(Reminder reminder) {
-        String relatedEntityName = getRelatedEntityName(reminder);
+        Map<String, Map<UUID, String>> relatedNames = resolveRelatedNames(reminder.getUser().getId(), List.of(reminder));
+        return mapToResponse(reminder, relatedNameOf(reminder, relatedNames));
+    }
+
+    // Map a list of reminders with one name query per related type (at most four)
+    private List<ReminderResponse> mapToResponses(UUID userId, List<Reminder> reminders) {
+        Map<String, Map<UUID, String>> relatedNames = resolveRelatedNames(userId, reminders);
+        return reminders.stream()
+            .map(reminder -> mapToResponse(reminder, relatedNameOf(reminder, relatedNames)))
+            .collect(Collectors.toList());
+    }
+
+    private ReminderResponse mapToResponse(Reminder reminder, String relatedEntityName) {
         LocalDate today = LocalDate.now();
         
         return new ReminderResponse(
@@ -48,6 +78,9 @@ public class ReminderService {
             reminder.getPriority(),
             reminder.getIsRecurring(),
             reminder.getRecurrencePattern(),
+            reminder.getRecurrenceInterval(),
+            reminder.getRecurrenceUntil(),
+            reminder.getOccurrenceDate(),
             reminder.getCompletedAt(),
             reminder.getCreatedAt(),
             reminder.getUpdatedAt(),
@@ -59,68 +92,162 @@ public class ReminderService {
         );
     }
     
+    // Virtual occurrence of a series: the series' response moved to one of its expanded dates
+    private ReminderResponse mapToOccurrenceResponse(Reminder reminder, String relatedEntityName,
+                                                     LocalDate occurrenceDate, LocalDate dueDate, LocalTime dueTime) {
+        LocalDate today = LocalDate.now();
+        ReminderResponse response = mapToResponse(reminder, relatedEntityName);
+        response.setOccurrenceDate(occurrenceDate);
+        response.setDueDate(dueDate);
+        response.setDueTime(dueTime);
+        response.setIsOverdue(dueDate.isBefore(today));
+        response.setIsDueToday(dueDate.equals(today));
+        return response;
+    }
+    
+    // Next time the series is due: its current occurrence, or the first rule date from now on if that one is past
     private LocalDateTime calculateNextOccurrence(Reminder reminder) {
-        if (!Boolean.TRUE.equals(reminder.getIsRecurring()) || reminder.getDueDate() == null) {
+        if (!isSeries(reminder)) {
             return null;
         }
         
-        LocalDate nextDate = reminder.getDueDate();
-        LocalTime nextTime = reminder.getDueTime() != null ? reminder.getDueTime() : LocalTime.of(9, 0);
-        
-        while (nextDate.isBefore(LocalDate.now()) || 
-               (nextDate.equals(LocalDate.now()) && 
-                nextTime != null && nextTime.isBefore(LocalTime.now()))) {
-            nextDate = calculateNextRecurrenceDate(nextDate, reminder.getRecurrencePattern());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime currentDue = ReminderDispatchService.dueAt(reminder.getDueDate(), reminder.getDueTime());
+        if (!currentDue.isBefore(now)) {
+            return currentDue;
         }
         
-        return LocalDateTime.of(nextDate, nextTime);
+        RecurrenceRule rule = ruleOf(reminder);
+        LocalTime time = reminder.getSeriesTime() != null ? reminder.getSeriesTime() : ReminderDispatchService.DEFAULT_DUE_TIME;
+        LocalDate from = now.toLocalDate().isAfter(reminder.getOccurrenceDate()) ? now.toLocalDate().minusDays(1) : reminder.getOccurrenceDate();
+        LocalDate nextDate = rule.nextAfter(from);
+        if (nextDate != null && LocalDateTime.of(nextDate, time).isBefore(now)) {
+            nextDate = rule.nextAfter(nextDate);
+        }
+        return nextDate != null ? LocalDateTime.of(nextDate, time) : null;
     }
-    
-    private LocalDate calculateNextRecurrenceDate(LocalDate currentDate, String recurrencePattern) {
-        if (recurrencePattern == null) {
-            return currentDate.plusDays(1);
+
+    // A recurring reminder stored as a series (occurrences expanded from series_start)
+    private boolean isSeries(Reminder reminder) {
+        return Boolean.TRUE.equals(reminder.getIsRecurring()) && reminder.getSeriesStart() != null;
+    }
+
+    private RecurrenceRule ruleOf(Reminder reminder) {
+        return RecurrenceRule.of(reminder.getRecurrencePattern(), reminder.getSeriesStart(),
+            reminder.getRecurrenceInterval(), reminder.getRecurrenceUntil());
+    }
+
+    // (Re)anchor the series at the reminder's due date; non-recurring reminders carry no series
+    private void startSeries(Reminder reminder) {
+        boolean recurring = Boolean.TRUE.equals(reminder.getIsRecurring()) && reminder.getDueDate() != null;
+        reminder.setSeriesStart(recurring ? reminder.getDueDate() : null);
+        reminder.setSeriesTime(recurring ? reminder.getDueTime() : null);
+        reminder.setOccurrenceDate(recurring ? reminder.getDueDate() : null);
+    }
+
+    // Exception row for one occurrence of a series, existing or new (unsaved)
+    private ReminderOccurrenceException occurrenceExceptionOf(Reminder reminder, LocalDate occurrenceDate) {
+        return occurrenceExceptionRepository.findByReminderIdAndOccurrenceDate(reminder.getId(), occurrenceDate)
+            .orElseGet(() -> {
+                ReminderOccurrenceException exception = new ReminderOccurrenceException();
+                exception.setReminder(reminder);
+                exception.setOccurrenceDate(occurrenceDate);
+                return exception;
+            });
+    }
+
+    // Exceptions of each series from its current occurrence on, by series id and occurrence date (one query)
+    private Map<UUID, Map<LocalDate, ReminderOccurrenceException>> exceptionsFromCurrentOccurrence(List<Reminder> series) {
+        return occurrenceExceptionRepository
+            .findFromCurrentOccurrence(series.stream().map(Reminder::getId).collect(Collectors.toList())).stream()
+            .collect(Collectors.groupingBy(exception -> exception.getReminder().getId(),
+                Collectors.toMap(ReminderOccurrenceException::getOccurrenceDate, Function.identity())));
+    }
+
+    // Close the series' current occurrence (completed or cancelled) and move the series to its next
+    // open occurrence. Returns the exception recording the closed occurrence, for the caller to save.
+    private ReminderOccurrenceException closeCurrentOccurrence(Reminder reminder, String outcome) {
+        return closeCurrentOccurrence(reminder, outcome,
+            exceptionsFromCurrentOccurrence(List.of(reminder)).getOrDefault(reminder.getId(), Map.of()));
+    }
+
+    private ReminderOccurrenceException closeCurrentOccurrence(Reminder reminder, String outcome,
+                                                               Map<LocalDate, ReminderOccurrenceException> exceptions) {
+        ReminderOccurrenceException exception = exceptions.get(reminder.getOccurrenceDate());
+        if (exception == null) {
+            exception = new ReminderOccurrenceException();
+            exception.setReminder(reminder);
+            exception.setOccurrenceDate(reminder.getOccurrenceDate());
         }
-        
-        return switch (recurrencePattern.toLowerCase()) {
-            case "daily" -> currentDate.plusDays(1);
-            case "weekly" -> currentDate.plusWeeks(1);
-            case "monthly" -> currentDate.plusMonths(1);
-            case "yearly" -> currentDate.plusYears(1);
-            default -> currentDate.plusDays(1);
-        };
+        exception.setStatus(outcome);
+        exception.setDueDate(null);
+        exception.setDueTime(null);
+        exception.setCompletedAt("completed".equals(outcome) ? LocalDateTime.now() : null);
+        advanceSeries(reminder, outcome, exceptions);
+        return exception;
     }
 
-    // Get related entity name for display
-    private String getRelatedEntityName(Reminder reminder) {
-        if (reminder.getRelatedType() == null || reminder.getRelatedId() == null) {
-            return null;
+    // Move the series to the first later rule date that is not already closed, applying a stored snooze;
+    // once the rule is exhausted the series itself takes the outcome of its last occurrence
+    private void advanceSeries(Reminder reminder, String outcome, Map<LocalDate, ReminderOccurrenceException> laterExceptions) {
+        RecurrenceRule rule = ruleOf(reminder);
+        LocalDate nextDate = rule.nextAfter(reminder.getOccurrenceDate());
+        while (nextDate != null && isClosed(laterExceptions.get(nextDate))) {
+            nextDate = rule.nextAfter(nextDate);
         }
         
-        try {
-            return switch (reminder.getRelatedType().toLowerCase()) {
-                case "client" -> {
-                    Client client = clientRepository.findById(reminder.getRelatedId()).orElse(null);
-                    yield client != null ? 
-                        (client.getCompanyName() != null ? client.getCompanyName() : client.getContactName()) : 
-                        null;
-                }
-                case "project" -> {
-                    Project project = projectRepository.findById(reminder.getRelatedId()).orElse(null);
-                    yield project != null ? project.getName() : null;
-                }
-                case "quote" -> {
-                    Quote quote = quoteRepository.findById(reminder.getRelatedId()).orElse(null);
-                    yield quote != null ? quote.getTitle() + " (" + quote.getQuoteNumber() + ")" : null;
-                }
-                case "invoice" -> {
-                    Invoice invoice = invoiceRepository.findById(reminder.getRelatedId()).orElse(null);
-                    yield invoice != null ? invoice.getTitle() + " (" + invoice.getInvoiceNumber() + ")" : null;
-                }
-                default -> null;
+        reminder.setNotifiedAt(null);
+        if (nextDate == null) {
+            reminder.setStatus(outcome);
+            reminder.setCompletedAt("completed".equals(outcome) ? LocalDateTime.now() : null);
+            return;
+        }
+        
+        ReminderOccurrenceException snoozed = laterExceptions.get(nextDate);
+        reminder.setOccurrenceDate(nextDate);
+        reminder.setDueDate(snoozed != null ? snoozed.getDueDate() : nextDate);
+        reminder.setDueTime(snoozed != null ? snoozed.getDueTime() : reminder.getSeriesTime());
+        reminder.setStatus("pending");
+        reminder.setCompletedAt(null);
+    }
+
+    private boolean isClosed(ReminderOccurrenceException exception) {
+        return exception != null && ("completed".equals(exception.getStatus()) || "cancelled".equals(exception.getStatus()));
+    }
+
+    // Display names of the related entities, by type and id. Ids are grouped per type
+    // and resolved with one name-only IN query each.
+    private Map<String, Map<UUID, String>> resolveRelatedNames(UUID userId, List<Reminder> reminders) {
+        Map<String, Set<UUID>> idsByType = new HashMap<>();
+        for (Reminder reminder : reminders) {
+            if (reminder.getRelatedType() != null && reminder.getRelatedId() != null) {
+                idsByType.computeIfAbsent(reminder.getRelatedType().toLowerCase(), type -> new HashSet<>())
+                    .add(reminder.getRelatedId());
+            }
+        }
+
+        Map<String, Map<UUID, String>> namesByType = new HashMap<>();
+        idsByType.forEach((type, ids) -> {
+            List<EntityNameRow> rows = switch (type) {
+                case "client" -> clientRepository.findNamesByUserIdAndIdIn(userId, ids);
+                case "project" -> projectRepository.findNamesByUserIdAndIdIn(userId, ids);
+                case "quote" -> quoteRepository.findNamesByUserIdAndIdIn(userId, ids);
+                case "invoice" -> invoiceRepository.findNamesByUserIdAndIdIn(userId, ids);
+                default -> List.of();
             };
-        } catch (Exception e) {
+            Map<UUID, String> names = new HashMap<>();
+            rows.forEach(row -> names.put(row.getId(), row.getName()));
+            namesByType.put(type, names);
+        });
+        return namesByType;
+    }
+
+    private String relatedNameOf(Reminder reminder, Map<String, Map<UUID, String>> relatedNames) {
+        if (reminder.getRelatedType() == null || reminder.getRelatedId() == null) {
             return null;
         }
+        Map<UUID, String> names = relatedNames.get(reminder.getRelatedType().toLowerCase());
+        return names != null ? names.get(reminder.getRelatedId()) : null;
     }
 
     // Map Request to Entity
@@ -137,6 +264,9 @@ public class ReminderService {
         reminder.setPriority(request.getPriority() != null ? request.getPriority() : "medium");
         reminder.setIsRecurring(request.getIsRecurring() != null ? request.getIsRecurring() : false);
         reminder.setRecurrencePattern(request.getRecurrencePattern());
+        reminder.setRecurrenceInterval(request.getRecurrenceInterval() != null ? request.getRecurrenceInterval() : 1);
+        reminder.setRecurrenceUntil(request.getRecurrenceUntil());
+        startSeries(reminder);
         
         return reminder;
     }
@@ -152,6 +282,20 @@ public class ReminderService {
             throw new BadRequestException("Recurrence pattern is required for recurring reminders");
         }
         
+        if (request.getRecurrencePattern() != null && !request.getRecurrencePattern().trim().isEmpty() &&
+            !RecurrenceRule.isSupportedPattern(request.getRecurrencePattern())) {
+            throw new BadRequestException("Invalid recurrence pattern: " + request.getRecurrencePattern());
+        }
+        
+        if (request.getRecurrenceInterval() != null && request.getRecurrenceInterval() < 1) {
+            throw new BadRequestException("Recurrence interval must be at least 1");
+        }
+        
+        if (request.getRecurrenceUntil() != null && request.getDueDate() != null &&
+            request.getRecurrenceUntil().isBefore(request.getDueDate())) {
+            throw new BadRequestException("Recurrence end date cannot be before the due date");
+        }
+        
         if (request.getRelatedType() != null && request.getRelatedId() == null) {
             throw new BadRequestException("Related ID is required when related type is specified");
         }
@@ -179,6 +323,8 @@ public class ReminderService {
         // Create reminder
         Reminder reminder = mapToEntity(request, user);
         Reminder savedReminder = reminderRepository.save(reminder);
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.reminderSaved(savedReminder);
         
         return mapToResponse(savedReminder);
     }
@@ -207,29 +353,23 @@ public class ReminderService {
 
     // Get all reminders for a user
     public List<ReminderResponse> getAllReminders(UUID userId) {
-        return reminderRepository.findByUserId(userId).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(userId, reminderRepository.findByUserId(userId));
     }
 
     // Get all reminders with pagination
     public Page<ReminderResponse> getAllReminders(UUID userId, Pageable pageable) {
-        return reminderRepository.findByUserId(userId, pageable)
-            .map(this::mapToResponse);
+        Page<Reminder> reminders = reminderRepository.findByUserId(userId, pageable);
+        return new PageImpl<>(mapToResponses(userId, reminders.getContent()), pageable, reminders.getTotalElements());
     }
 
     // Get reminders by status
     public List<ReminderResponse> getRemindersByStatus(UUID userId, String status) {
-        return reminderRepository.findByUserIdAndStatus(userId, status).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(userId, reminderRepository.findByUserIdAndStatus(userId, status));
     }
 
     // Get reminders by priority
     public List<ReminderResponse> getRemindersByPriority(UUID userId, String priority) {
-        return reminderRepository.findByUserIdAndPriority(userId, priority).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(userId, reminderRepository.findByUserIdAndPriority(userId, priority));
     }
 
     // Get reminders by related entity
@@ -237,9 +377,7 @@ public class ReminderService {
         // Verify related entity exists and belongs to user
         verifyRelatedEntity(userId, relatedType, relatedId);
         
-        return reminderRepository.findByUserIdAndRelatedTypeAndRelatedId(userId, relatedType, relatedId).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(userId, reminderRepository.findByUserIdAndRelatedTypeAndRelatedId(userId, relatedType, relatedId));
     }
 
     // Update reminder
@@ -256,6 +394,10 @@ public class ReminderService {
             verifyRelatedEntity(userId, request.getRelatedType(), request.getRelatedId());
         }
 
+        LocalDateTime dueBefore = ReminderDispatchService.dueAt(reminder.getDueDate(), reminder.getDueTime());
+        String statusBefore = reminder.getStatus();
+        List<Object> scheduleBefore = scheduleOf(reminder);
+
         // Update fields
         if (request.getTitle() != null) {
             reminder.setTitle(request.getTitle());
@@ -294,44 +436,42 @@ public class ReminderService {
         if (request.getRecurrencePattern() != null) {
             reminder.setRecurrencePattern(request.getRecurrencePattern());
         }
+        if (request.getRecurrenceInterval() != null) {
+            reminder.setRecurrenceInterval(request.getRecurrenceInterval());
+        }
+        if (request.getRecurrenceUntil() != null) {
+            reminder.setRecurrenceUntil(request.getRecurrenceUntil());
+        }
+
+        // A changed schedule restarts the series at the due date; exceptions from there on no longer apply
+        if (!scheduleBefore.equals(scheduleOf(reminder))) {
+            startSeries(reminder);
+            if (reminder.getSeriesStart() != null) {
+                occurrenceExceptionRepository.deleteAll(occurrenceExceptionRepository
+                    .findByReminderIdAndOccurrenceDateAfter(reminder.getId(), reminder.getSeriesStart().minusDays(1)));
+            }
+        }
+
+        // A rescheduled reminder fires again at its new time
+        if (!Objects.equals(dueBefore, ReminderDispatchService.dueAt(reminder.getDueDate(), reminder.getDueTime()))) {
+            reminder.setNotifiedAt(null);
+        }
 
-        // Handle recurrence - if completed and recurring, create next occurrence
-        if ("completed".equals(request.getStatus()) && Boolean.TRUE.equals(reminder.getIsRecurring())) {
-            createNextRecurrence(reminder);
+        // Completing a series closes its current occurrence and moves on to the next one
+        if ("completed".equals(request.getStatus()) && "pending".equals(statusBefore) && isSeries(reminder)) {
+            occurrenceExceptionRepository.save(closeCurrentOccurrence(reminder, "completed"));
         }
 
         Reminder updatedReminder = reminderRepository.save(reminder);
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.reminderSaved(updatedReminder);
         return mapToResponse(updatedReminder);
     }
 
-    // Create next recurrence for completed recurring reminder
-    @Transactional
-    private void createNextRecurrence(Reminder originalReminder) {
-        if (!Boolean.TRUE.equals(originalReminder.getIsRecurring()) || 
-            originalReminder.getDueDate() == null) {
-            return;
-        }
-        
-        LocalDate nextDueDate = calculateNextRecurrenceDate(
-            originalReminder.getDueDate(), 
-            originalReminder.getRecurrencePattern()
-        );
-        
-        // Create new reminder for next occurrence
-        Reminder nextReminder = new Reminder();
-        nextReminder.setUser(originalReminder.getUser());
-        nextReminder.setTitle(originalReminder.getTitle());
-        nextReminder.setDescription(originalReminder.getDescription());
-        nextReminder.setRelatedType(originalReminder.getRelatedType());
-        nextReminder.setRelatedId(originalReminder.getRelatedId());
-        nextReminder.setDueDate(nextDueDate);
-        nextReminder.setDueTime(originalReminder.getDueTime());
-        nextReminder.setStatus("pending");
-        nextReminder.setPriority(originalReminder.getPriority());
-        nextReminder.setIsRecurring(originalReminder.getIsRecurring());
-        nextReminder.setRecurrencePattern(originalReminder.getRecurrencePattern());
-        
-        reminderRepository.save(nextReminder);
+    // Fields that define when a reminder (series) occurs
+    private List<Object> scheduleOf(Reminder reminder) {
+        return Arrays.asList(reminder.getDueDate(), reminder.getDueTime(), reminder.getIsRecurring(),
+            reminder.getRecurrencePattern(), reminder.getRecurrenceInterval(), reminder.getRecurrenceUntil());
     }
 
     // Delete reminder
@@ -341,6 +481,8 @@ public class ReminderService {
             .orElseThrow(() -> new NotFoundException("Reminder not found"));
         
         reminderRepository.delete(reminder);
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.reminderDeleted(reminderId);
     }
 
     // Mark reminder as completed
@@ -353,15 +495,17 @@ public class ReminderService {
             throw new BadRequestException("Reminder is already completed");
         }
         
-        reminder.setStatus("completed");
-        reminder.setCompletedAt(LocalDateTime.now());
-        
-        // Handle recurrence
-        if (Boolean.TRUE.equals(reminder.getIsRecurring())) {
-            createNextRecurrence(reminder);
+        // A series only records the occurrence as completed and moves on
+        if (isSeries(reminder) && "pending".equals(reminder.getStatus())) {
+            occurrenceExceptionRepository.save(closeCurrentOccurrence(reminder, "completed"));
+        } else {
+            reminder.setStatus("completed");
+            reminder.setCompletedAt(LocalDateTime.now());
         }
         
         Reminder updatedReminder = reminderRepository.save(reminder);
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.reminderSaved(updatedReminder);
         return mapToResponse(updatedReminder);
     }
 
@@ -379,6 +523,8 @@ public class ReminderService {
         reminder.setCompletedAt(null);
         
         Reminder updatedReminder = reminderRepository.save(reminder);
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.reminderSaved(updatedReminder);
         return mapToResponse(updatedReminder);
     }
 
@@ -395,35 +541,84 @@ public class ReminderService {
         reminder.setStatus("cancelled");
         
         Reminder updatedReminder = reminderRepository.save(reminder);
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.reminderSaved(updatedReminder);
         return mapToResponse(updatedReminder);
     }
 
     // Search reminders
     public List<ReminderResponse> searchReminders(UUID userId, String searchTerm) {
-        return reminderRepository.searchByUser(userId, searchTerm).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(userId, reminderRepository.searchByUser(userId, searchTerm));
     }
 
     // Get due today reminders
     public List<ReminderResponse> getDueTodayReminders(UUID userId) {
-        return reminderRepository.findDueToday(userId, LocalDate.now()).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(userId, reminderRepository.findDueToday(userId, LocalDate.now()));
     }
 
     // Get overdue reminders
     public List<ReminderResponse> getOverdueReminders(UUID userId) {
-        return reminderRepository.findOverdue(userId, LocalDate.now()).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(userId, reminderRepository.findOverdue(userId, LocalDate.now()));
     }
 
-    // Get reminders by due date range
+    // Get reminders by due date range: one-off reminders plus the occurrences of recurring series,
+    // expanded for the range without being stored
     public List<ReminderResponse> getRemindersByDueDateRange(UUID userId, LocalDate startDate, LocalDate endDate) {
-        return reminderRepository.findByDueDateRange(userId, startDate, endDate).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("End date cannot be before start date");
+        }
+        
+        List<Reminder> reminders = reminderRepository.findByDueDateRange(userId, startDate, endDate);
+        List<Reminder> series = reminderRepository.findPendingSeriesInRange(userId, startDate, endDate);
+        Map<String, Map<UUID, String>> relatedNames = resolveRelatedNames(userId,
+            Stream.concat(reminders.stream(), series.stream()).collect(Collectors.toList()));
+        
+        List<ReminderResponse> responses = new ArrayList<>();
+        reminders.forEach(reminder -> responses.add(mapToResponse(reminder, relatedNameOf(reminder, relatedNames))));
+        
+        if (!series.isEmpty()) {
+            Map<UUID, List<ReminderOccurrenceException>> exceptionsBySeries = occurrenceExceptionRepository
+                .findAffectingRange(series.stream().map(Reminder::getId).collect(Collectors.toList()), startDate, endDate)
+                .stream()
+                .collect(Collectors.groupingBy(exception -> exception.getReminder().getId()));
+            for (Reminder reminder : series) {
+                responses.addAll(expandOccurrences(reminder, relatedNameOf(reminder, relatedNames), startDate, endDate,
+                    exceptionsBySeries.getOrDefault(reminder.getId(), List.of())));
+            }
+        }
+        
+        responses.sort(Comparator.comparing(ReminderResponse::getDueDate)
+            .thenComparing(ReminderResponse::getDueTime, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return responses;
+    }
+
+    // Pending occurrences of one series due in [startDate, endDate]: the current occurrence as stored,
+    // later rule dates not closed by an exception, and later occurrences snoozed into the range
+    private List<ReminderResponse> expandOccurrences(Reminder reminder, String relatedEntityName, LocalDate startDate,
+                                                     LocalDate endDate, List<ReminderOccurrenceException> exceptions) {
+        List<ReminderResponse> occurrences = new ArrayList<>();
+        LocalDate current = reminder.getOccurrenceDate();
+        if (!reminder.getDueDate().isBefore(startDate) && !reminder.getDueDate().isAfter(endDate)) {
+            occurrences.add(mapToResponse(reminder, relatedEntityName));
+        }
+        
+        Map<LocalDate, ReminderOccurrenceException> exceptionsByDate = exceptions.stream()
+            .filter(exception -> exception.getOccurrenceDate().isAfter(current))
+            .collect(Collectors.toMap(ReminderOccurrenceException::getOccurrenceDate, Function.identity()));
+        
+        LocalDate from = startDate.isAfter(current) ? startDate : current.plusDays(1);
+        for (LocalDate date : ruleOf(reminder).between(from, endDate, MAX_OCCURRENCES_PER_SERIES)) {
+            if (!exceptionsByDate.containsKey(date)) {
+                occurrences.add(mapToOccurrenceResponse(reminder, relatedEntityName, date, date, reminder.getSeriesTime()));
+            }
+        }
+        
+        exceptionsByDate.values().stream()
+            .filter(exception -> "snoozed".equals(exception.getStatus()))
+            .filter(exception -> !exception.getDueDate().isBefore(startDate) && !exception.getDueDate().isAfter(endDate))
+            .forEach(exception -> occurrences.add(mapToOccurrenceResponse(reminder, relatedEntityName,
+                exception.getOccurrenceDate(), exception.getDueDate(), exception.getDueTime())));
+        return occurrences;
     }
 
     // Get upcoming reminders
@@ -432,10 +627,11 @@ public class ReminderService {
             org.springframework.data.domain.PageRequest.of(0, limit));
         
         LocalDate today = LocalDate.now();
+        Map<String, Map<UUID, String>> relatedNames = resolveRelatedNames(userId, reminders);
         
         return reminders.stream()
             .map(reminder -> {
-                String relatedEntityName = getRelatedEntityName(reminder);
+                String relatedEntityName = relatedNameOf(reminder, relatedNames);
                 LocalDate dueDate = reminder.getDueDate();
                 long daysUntilDue = dueDate != null ? ChronoUnit.DAYS.between(today, dueDate) : 0;
                 
@@ -457,27 +653,43 @@ public class ReminderService {
             .collect(Collectors.toList());
     }
 
-    // Get reminder summary
+    // Get reminder summary (one aggregate query, cached per user until a reminder changes)
     public ReminderSummaryResponse getReminderSummary(UUID userId) {
-        Long totalReminders = reminderRepository.countByUserId(userId);
-        Long pendingCount = reminderRepository.countByUserIdAndStatus(userId, "pending");
-        Long completedCount = reminderRepository.countByUserIdAndStatus(userId, "completed");
-        Long overdueCount = (long) reminderRepository.findOverdue(userId, LocalDate.now()).size();
-        Long dueTodayCount = (long) reminderRepository.findDueToday(userId, LocalDate.now()).size();
-        Long highPriorityCount = reminderRepository.countByUserIdAndPriority(userId, "high");
-        Long recurringCount = reminderRepository.countRecurringByUserId(userId);
-        
-        return new ReminderSummaryResponse(
-            totalReminders,
-            pendingCount,
-            completedCount,
-            overdueCount,
-            dueTodayCount,
-            highPriorityCount,
-            recurringCount
+        LocalDate today = LocalDate.now();
+        return reminderSummaryCache.get(userId, today, () -> {
+            ReminderSummaryRow row = reminderRepository.summarizeByUser(userId, today);
+            return new ReminderSummaryResponse(
+                row.getTotalReminders(),
+                row.getPendingCount(),
+                row.getCompletedCount(),
+                row.getOverdueCount(),
+                row.getDueTodayCount(),
+                row.getHighPriorityCount(),
+                row.getRecurringCount()
+            );
+        });
+    }
+
+    // Get header badge counts (served from the cached summary)
+    public ReminderBadgeResponse getReminderBadge(UUID userId) {
+        ReminderSummaryResponse summary = getReminderSummary(userId);
+        return new ReminderBadgeResponse(
+            summary.getOverdueCount(),
+            summary.getDueTodayCount(),
+            summary.getOverdueCount() + summary.getDueTodayCount()
         );
     }
 
+    // Seconds a client may reuse the badge
+    public long getBadgeMaxAgeSeconds() {
+        return badgeMaxAgeSeconds;
+    }
+
+    // Recently fired reminders for the in-app feed, newest first
+    public List<ReminderNotificationResponse> getReminderNotifications(UUID userId) {
+        return inAppReminderNotifier.getRecent(userId);
+    }
+
     // Get reminders count
     public Long getRemindersCount(UUID userId) {
         return reminderRepository.countByUserId(userId);
@@ -495,25 +707,18 @@ public class ReminderService {
 
     // Get active recurring reminders
     public List<ReminderResponse> getActiveRecurringReminders(UUID userId) {
-        return reminderRepository.findActiveRecurringReminders(userId).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(userId, reminderRepository.findActiveRecurringReminders(userId));
     }
 
     // Get completed reminders in date range
     public List<ReminderResponse> getCompletedRemindersInRange(UUID userId, LocalDateTime startDate, LocalDateTime endDate) {
-        return reminderRepository.findCompletedInDateRange(userId, startDate, endDate).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(userId, reminderRepository.findCompletedInDateRange(userId, startDate, endDate));
     }
 
     // Get recent reminders
     public List<ReminderResponse> getRecentReminders(UUID userId, int limit) {
-        return reminderRepository.findRecentByUser(userId,
-            org.springframework.data.domain.PageRequest.of(0, limit))
-            .stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapToResponses(userId, reminderRepository.findRecentByUser(userId,
+            org.springframework.data.domain.PageRequest.of(0, limit)));
     }
 
     // Snooze reminder (update due date)
@@ -534,41 +739,94 @@ public class ReminderService {
         if (newTime != null) {
             reminder.setDueTime(newTime);
         }
+        reminder.setNotifiedAt(null);
+        
+        // A series keeps its rule; the move is stored as an exception for the current occurrence
+        if (isSeries(reminder)) {
+            ReminderOccurrenceException exception = occurrenceExceptionOf(reminder, reminder.getOccurrenceDate());
+            exception.setStatus("snoozed");
+            exception.setDueDate(reminder.getDueDate());
+            exception.setDueTime(reminder.getDueTime());
+            occurrenceExceptionRepository.save(exception);
+        }
         
         Reminder updatedReminder = reminderRepository.save(reminder);
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.reminderSaved(updatedReminder);
         return mapToResponse(updatedReminder);
     }
 
-    // Bulk update reminder status
+    // Cancel one occurrence of a recurring reminder (the series moves on if it is the current one)
+    @Transactional
+    public ReminderResponse cancelOccurrence(UUID userId, UUID reminderId, LocalDate occurrenceDate) {
+        Reminder reminder = reminderRepository.findByIdAndUserId(reminderId, userId)
+            .orElseThrow(() -> new NotFoundException("Reminder not found"));
+        
+        if (!isSeries(reminder)) {
+            throw new BadRequestException("Only recurring reminders have occurrences");
+        }
+        if (!"pending".equals(reminder.getStatus())) {
+            throw new BadRequestException("Only pending reminders can have occurrences cancelled");
+        }
+        if (!ruleOf(reminder).includes(occurrenceDate) || occurrenceDate.isBefore(reminder.getOccurrenceDate())) {
+            throw new BadRequestException("No upcoming occurrence on " + occurrenceDate);
+        }
+        
+        if (occurrenceDate.equals(reminder.getOccurrenceDate())) {
+            occurrenceExceptionRepository.save(closeCurrentOccurrence(reminder, "cancelled"));
+        } else {
+            ReminderOccurrenceException exception = occurrenceExceptionOf(reminder, occurrenceDate);
+            exception.setStatus("cancelled");
+            exception.setDueDate(null);
+            exception.setDueTime(null);
+            occurrenceExceptionRepository.save(exception);
+        }
+        
+        Reminder updatedReminder = reminderRepository.save(reminder);
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.reminderSaved(updatedReminder);
+        return mapToResponse(updatedReminder);
+    }
+
+    // Bulk update reminder status in one statement for the owned ids; completing pending series closes
+    // their current occurrences and moves them on in the same statement
     @Transactional
     public void bulkUpdateReminderStatus(UUID userId, List<UUID> reminderIds, String status) {
         if (!Arrays.asList("pending", "completed", "cancelled").contains(status)) {
             throw new BadRequestException("Invalid status: " + status);
         }
+        if (reminderIds == null || reminderIds.isEmpty()) {
+            return;
+        }
         
-        List<Reminder> reminders = reminderRepository.findAllById(reminderIds);
-        
-        // Filter reminders belonging to user
-        List<Reminder> userReminders = reminders.stream()
-            .filter(reminder -> reminder.getUser().getId().equals(userId))
-            .collect(Collectors.toList());
+        List<DueReminderRow> changed = reminderRepository.bulkUpdateStatus(userId, reminderIds.toArray(UUID[]::new),
+            status, LocalDateTime.now());
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.remindersSaved(changed);
+    }
+
+    // Bulk snooze: one statement moves the owned pending reminders and records snoozed series occurrences
+    @Transactional
+    public void bulkSnoozeReminders(UUID userId, List<UUID> reminderIds, int days, LocalTime newTime) {
+        if (reminderIds == null || reminderIds.isEmpty()) {
+            return;
+        }
         
-        // Update status
-        for (Reminder reminder : userReminders) {
-            reminder.setStatus(status);
-            
-            if ("completed".equals(status) && reminder.getCompletedAt() == null) {
-                reminder.setCompletedAt(LocalDateTime.now());
-                
-                // Handle recurrence for completed reminders
-                if (Boolean.TRUE.equals(reminder.getIsRecurring())) {
-                    createNextRecurrence(reminder);
-                }
-            } else if (!"completed".equals(status)) {
-                reminder.setCompletedAt(null);
-            }
+        List<DueReminderRow> snoozed = reminderRepository.bulkSnooze(userId, reminderIds.toArray(UUID[]::new),
+            LocalDate.now(), days, newTime == null, newTime != null ? newTime : LocalTime.MIDNIGHT, LocalDateTime.now());
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.remindersSaved(snoozed);
+    }
+
+    // Bulk delete: one statement for the owned ids
+    @Transactional
+    public void bulkDeleteReminders(UUID userId, List<UUID> reminderIds) {
+        if (reminderIds == null || reminderIds.isEmpty()) {
+            return;
         }
         
-        reminderRepository.saveAll(userReminders);
+        List<UUID> deletedIds = reminderRepository.bulkDelete(userId, reminderIds.toArray(UUID[]::new));
+        reminderSummaryCache.evict(userId);
+        reminderDispatchService.remindersDeleted(deletedIds);
     }
-}
\ No newline at end of file
+}
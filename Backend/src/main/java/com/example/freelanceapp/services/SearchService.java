@@ -0,0 +1,165 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.dtos.search.SearchHitResponse;
+import com.example.freelanceapp.dtos.search.SearchResponse;
+import com.example.freelanceapp.repositories.ClientRepository;
+import com.example.freelanceapp.repositories.InvoiceRepository;
+import com.example.freelanceapp.repositories.ProjectRepository;
+import com.example.freelanceapp.repositories.QuoteRepository;
+import com.example.freelanceapp.repositories.ReminderRepository;
+import com.example.freelanceapp.repositories.SearchHitRow;
+import com.example.freelanceapp.utils.SearchPatterns;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Unified search across clients, projects, quotes, invoices and reminders. The five
+ * per-type queries run concurrently on virtual threads, each limited to a few hits, and
+ * the results are merged into one list ordered by match score. A type that has not
+ * answered by the deadline is left out (and reported) instead of delaying the others.
+ * Each query carries the deadline as its statement_timeout, so PostgreSQL stops a query
+ * nobody is waiting for and frees its connection; a semaphore smaller than the connection
+ * pool caps how many search queries run at once across all requests.
+ */
+@Service
+@Slf4j
+public class SearchService {
+
+    private static final int DEFAULT_LIMIT_PER_TYPE = 5;
+    private static final int MAX_LIMIT_PER_TYPE = 20;
+
+    private final Map<String, HitQuery> queries = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore queryPermits;
+    private final long deadlineMs;
+
+    // One per-type hit query (userId, term, pattern, limit)
+    @FunctionalInterface
+    private interface HitQuery {
+        List<SearchHitRow> find(UUID userId, String term, String pattern, int limit);
+    }
+
+    public SearchService(ClientRepository clientRepository,
+                         ProjectRepository projectRepository,
+                         QuoteRepository quoteRepository,
+                         InvoiceRepository invoiceRepository,
+                         ReminderRepository reminderRepository,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${search.deadline-ms:300}") long deadlineMs,
+                         @Value("${search.max-concurrent-queries:5}") int maxConcurrentQueries) {
+        queries.put("client", clientRepository::findSearchHits);
+        queries.put("project", projectRepository::findSearchHits);
+        queries.put("quote", quoteRepository::findSearchHits);
+        queries.put("invoice", invoiceRepository::findSearchHits);
+        queries.put("reminder", reminderRepository::findSearchHits);
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.queryPermits = new Semaphore(maxConcurrentQueries, true);
+        this.deadlineMs = deadlineMs;
+    }
+
+    // Search every entity type at once and merge the hits, best match first
+    public SearchResponse search(UUID userId, String query, Integer limit) {
+        String term = query != null ? query.trim() : "";
+        if (term.isEmpty()) {
+            return new SearchResponse(term, List.of(), List.of());
+        }
+        int perType = limit != null ? Math.max(1, Math.min(limit, MAX_LIMIT_PER_TYPE)) : DEFAULT_LIMIT_PER_TYPE;
+        String pattern = SearchPatterns.containing(term);
+
+        // Each repository call runs in its own read-only transaction on its own virtual thread
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        Map<String, CompletableFuture<List<SearchHitRow>>> pending = new LinkedHashMap<>();
+        queries.forEach((type, hitQuery) -> pending.put(type, CompletableFuture.supplyAsync(
+            () -> findWithinDeadline(hitQuery, userId, term, pattern, perType, deadline), executor)));
+
+        List<SearchHitResponse> hits = new ArrayList<>();
+        List<String> incompleteTypes = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<List<SearchHitRow>>> entry : pending.entrySet()) {
+            String type = entry.getKey();
+            try {
+                long remainingNanos = Math.max(0, deadline - System.nanoTime());
+                for (SearchHitRow row : entry.getValue().get(remainingNanos, TimeUnit.NANOSECONDS)) {
+                    hits.add(new SearchHitResponse(type, row.getId(), row.getLabel(), row.getDetail(),
+                        row.getScore() != null ? row.getScore() : 0));
+                }
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                incompleteTypes.add(type);
+                log.debug("Search for {} missed the {} ms deadline", type, deadlineMs);
+            } catch (ExecutionException e) {
+                incompleteTypes.add(type);
+                if (e.getCause() instanceof TimeoutException || e.getCause() instanceof QueryTimeoutException) {
+                    log.debug("Search for {} missed the {} ms deadline", type, deadlineMs);
+                } else {
+                    log.warn("Search for {} failed", type, e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                incompleteTypes.add(type);
+            }
+        }
+
+        // Stable sort keeps the per-type order (client, project, quote, invoice, reminder) on ties
+        hits.sort(Comparator.comparingDouble(SearchHitResponse::getScore).reversed());
+        return new SearchResponse(term, hits, incompleteTypes);
+    }
+
+    // Run one per-type query once a permit is free, with whatever is left of the deadline as
+    // its statement_timeout; fails with TimeoutException if no permit frees up in time
+    private List<SearchHitRow> findWithinDeadline(HitQuery hitQuery, UUID userId, String term, String pattern,
+                                                  int limit, long deadline) {
+        try {
+            if (!queryPermits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new CompletionException(new TimeoutException("No search query permit before the deadline"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs < 1) {
+                throw new CompletionException(new TimeoutException("Search deadline passed"));
+            }
+            return transactionTemplate.execute(status -> {
+                entityManager.createNativeQuery("SELECT set_config('statement_timeout', :timeout, true)")
+                    .setParameter("timeout", remainingMs + "ms")
+                    .getSingleResult();
+                return hitQuery.find(userId, term, pattern, limit);
+            });
+        } finally {
+            queryPermits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
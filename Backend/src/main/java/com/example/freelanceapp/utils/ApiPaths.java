@@ -0,0 +1,27 @@
+package com.example.freelanceapp.utils;
+
+import java.util.UUID;
+
+/**
+ * Base paths of the document controllers. The controllers map these and services that
+ * store or hand out links (PDF URLs, signed public links) build them from the same values.
+ */
+public final class ApiPaths {
+
+    public static final String INVOICES = "/api/user/client/project/quote/invoices";
+    public static final String QUOTES = "/api/user/client/quotes";
+    public static final String PUBLIC = "/api/public";
+
+    private ApiPaths() {
+    }
+
+    // Download path of an invoice's PDF
+    public static String invoicePdf(UUID invoiceId) {
+        return INVOICES + "/" + invoiceId + "/pdf";
+    }
+
+    // Download path of a quote's PDF
+    public static String quotePdf(UUID quoteId) {
+        return QUOTES + "/" + quoteId + "/pdf";
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.freelanceapp.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves a bearer token to its verified claims, parsing each token at most once.
+ * Verified claims are kept in a size-bounded concurrent cache until the token expires,
+ * so repeat requests with the same access token skip signature verification without
+ * contending on a shared lock.
+ */
+@Component
+@Slf4j
+public class JwtClaimsResolver {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, CachedClaims> cache;
+
+    public JwtClaimsResolver(JwtUtil jwtUtil,
+                             @Value("${jwt.claims-cache.max-size:10000}") int maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
+
+    /**
+     * Get the verified claims for a token, or null if the token is invalid or expired.
+     */
+    public Claims resolve(String token) {
+        CachedClaims cached = cache.getIfPresent(token);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.claims();
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("JWT validation error: {}", e.getMessage());
+            return null;
+        }
+
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            cache.put(token, new CachedClaims(claims, expiration.getTime()));
+        }
+        return claims;
+    }
+
+    /**
+     * Drop all cached claims (e.g. after rotating the signing secret).
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private record CachedClaims(Claims claims, long expiresAt) {
+    }
+
+    // Each entry lives until its token's own expiry; reads do not extend it
+    private static class UntilTokenExpiry implements Expiry<String, CachedClaims> {
+        @Override
+        public long expireAfterCreate(String token, CachedClaims value, long currentTime) {
+            long remainingMs = value.expiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, CachedClaims value, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, CachedClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,103 +1,28 @@
 package com.example.freelanceapp.utils;
 
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
-@RequiredArgsConstructor
 public class NumberGenerator {
 
-    private static final String QUOTE_PREFIX = "QUO-";
-    private static final String INVOICE_PREFIX = "INV-";
     private static final DateTimeFormatter YEAR_MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
-    private static final DateTimeFormatter YEAR_MONTH_DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
-    
-    // Thread-safe counters for each prefix
-    private final AtomicInteger quoteCounter = new AtomicInteger(0);
-    private final AtomicInteger invoiceCounter = new AtomicInteger(0);
-    
-    /**
-     * Generate a unique quote number in format: QUO-YYYYMM-001
-     */
-    public String generateQuoteNumber() {
-        LocalDate now = LocalDate.now();
-        String yearMonth = now.format(YEAR_MONTH_FORMATTER);
-        String baseNumber = QUOTE_PREFIX + yearMonth + "-";
-        
-        // Get the highest sequence number for this month
-        int maxSequence = findMaxSequenceForMonth(QUOTE_PREFIX, yearMonth);
-        
-        // Increment and format with leading zeros
-        int sequenceNumber = maxSequence + 1;
-        return baseNumber + String.format("%03d", sequenceNumber);
-    }
-    
-    /**
-     * Generate a unique invoice number in format: INV-YYYYMM-001
-     */
-    public String generateInvoiceNumber() {
-        LocalDate now = LocalDate.now();
-        String yearMonth = now.format(YEAR_MONTH_FORMATTER);
-        String baseNumber = INVOICE_PREFIX + yearMonth + "-";
-        
-        // Get the highest sequence number for this month
-        int maxSequence = findMaxSequenceForMonth(INVOICE_PREFIX, yearMonth);
-        
-        // Increment and format with leading zeros
-        int sequenceNumber = maxSequence + 1;
-        return baseNumber + String.format("%03d", sequenceNumber);
-    }
-    
-    /**
-     * Generate a custom number with prefix and sequence
-     * Format: PREFIX-YYYYMM-001
-     */
-    public String generateCustomNumber(String prefix) {
-        LocalDate now = LocalDate.now();
-        String yearMonth = now.format(YEAR_MONTH_FORMATTER);
-        String baseNumber = prefix + "-" + yearMonth + "-";
-        
-        // Get the highest sequence number for this month
-        int maxSequence = findMaxSequenceForMonth(prefix, yearMonth);
-        
-        // Increment and format with leading zeros
-        int sequenceNumber = maxSequence + 1;
-        return baseNumber + String.format("%03d", sequenceNumber);
-    }
     
     /**
-     * Generate a daily number (resets each day)
-     * Format: PREFIX-YYYYMMDD-001
+     * Current numbering period (YYYYMM); document numbers restart each month
      */
-    public String generateDailyNumber(String prefix) {
-        LocalDate now = LocalDate.now();
-        String dateStr = now.format(YEAR_MONTH_DAY_FORMATTER);
-        String baseNumber = prefix + "-" + dateStr + "-";
-        
-        // Get the highest sequence number for today
-        int maxSequence = findMaxSequenceForDaily(prefix, dateStr);
-        
-        // Increment and format with leading zeros
-        int sequenceNumber = maxSequence + 1;
-        return baseNumber + String.format("%03d", sequenceNumber);
+    public String currentPeriod() {
+        return LocalDate.now().format(YEAR_MONTH_FORMATTER);
     }
     
     /**
-     * Generate a simple sequential number
-     * Format: PREFIX-000001
+     * Format a document number from its prefix, period and sequence: INV-YYYYMM-001
      */
-    public String generateSequentialNumber(String prefix) {
-        // Get the highest sequence number for this prefix
-        int maxSequence = findMaxSequence(prefix);
-        
-        // Increment and format with leading zeros
-        int sequenceNumber = maxSequence + 1;
-        return prefix + "-" + String.format("%06d", sequenceNumber);
+    public String formatNumber(String prefix, String period, long sequence) {
+        return prefix + period + "-" + String.format("%03d", sequence);
     }
     
     /**
@@ -161,42 +86,6 @@ public class NumberGenerator {
         }
     }
     
-    /**
-     * Find the maximum sequence number for a given prefix and month
-     * This method would typically query the database
-     * For now, we'll simulate with a simple counter
-     */
-    private int findMaxSequenceForMonth(String prefix, String yearMonth) {
-        // In a real implementation, you would query the database:
-        // SELECT MAX(CAST(SUBSTRING(number FROM '^PREFIX-YYYYMM-(\d+)$') AS INTEGER))
-        // FROM table WHERE number LIKE 'PREFIX-YYYYMM-%'
-        
-        // For simulation, we'll return the current counter value
-        if (prefix.equals(QUOTE_PREFIX)) {
-            return quoteCounter.get();
-        } else if (prefix.equals(INVOICE_PREFIX)) {
-            return invoiceCounter.get();
-        }
-        
-        return 0;
-    }
-    
-    /**
-     * Find the maximum sequence number for daily numbers
-     */
-    private int findMaxSequenceForDaily(String prefix, String dateStr) {
-        // Similar to findMaxSequenceForMonth but for daily
-        return 0; // Simplified for now
-    }
-    
-    /**
-     * Find the maximum sequence number for simple sequential numbers
-     */
-    private int findMaxSequence(String prefix) {
-        // Query the database for max sequence
-        return 0; // Simplified for now
-    }
-    
     /**
      * Parse year and month from a generated number
      */
@@ -240,52 +129,7 @@ public class NumberGenerator {
             // If parsing fails, generate a new number
         }
         
-        // Fallback: generate a new number based on prefix
-        if (currentNumber.startsWith(QUOTE_PREFIX)) {
-            return generateQuoteNumber();
-        } else if (currentNumber.startsWith(INVOICE_PREFIX)) {
-            return generateInvoiceNumber();
-        }
-        
-        return generateCustomNumber("NUM");
-    }
-    
-    /**
-     * Reset counters (useful for testing)
-     */
-    public void resetCounters() {
-        quoteCounter.set(0);
-        invoiceCounter.set(0);
-    }
-    
-    /**
-     * Generate a quote number with custom year and month (for testing/migration)
-     */
-    public String generateQuoteNumberForDate(int year, int month) {
-        String yearMonth = String.format("%04d%02d", year, month);
-        String baseNumber = QUOTE_PREFIX + yearMonth + "-";
-        
-        // Get the highest sequence number for this month
-        int maxSequence = findMaxSequenceForMonth(QUOTE_PREFIX, yearMonth);
-        
-        // Increment and format with leading zeros
-        int sequenceNumber = maxSequence + 1;
-        return baseNumber + String.format("%03d", sequenceNumber);
-    }
-    
-    /**
-     * Generate an invoice number with custom year and month (for testing/migration)
-     */
-    public String generateInvoiceNumberForDate(int year, int month) {
-        String yearMonth = String.format("%04d%02d", year, month);
-        String baseNumber = INVOICE_PREFIX + yearMonth + "-";
-        
-        // Get the highest sequence number for this month
-        int maxSequence = findMaxSequenceForMonth(INVOICE_PREFIX, yearMonth);
-        
-        // Increment and format with leading zeros
-        int sequenceNumber = maxSequence + 1;
-        return baseNumber + String.format("%03d", sequenceNumber);
+        throw new IllegalArgumentException("Not a sequence number: " + currentNumber);
     }
     
     /**
@@ -0,0 +1,213 @@
+package com.example.freelanceapp.utils;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * PDF writer for text documents (invoices, quotes), built on PDFBox. Lays out lines top to
+ * bottom on A4 pages in DejaVu Sans, embedded as a subset, so names and descriptions in any
+ * script the font covers print as typed; characters it has no glyph for are replaced with '?'.
+ * Paragraphs are wrapped and table cells cut using the font's real glyph widths.
+ */
+public class PdfDocumentBuilder {
+
+    private static final float PAGE_WIDTH = PDRectangle.A4.getWidth();
+    private static final float PAGE_HEIGHT = PDRectangle.A4.getHeight();
+    private static final float MARGIN = 50;
+    private static final float CONTENT_WIDTH = PAGE_WIDTH - 2 * MARGIN;
+    private static final float BODY_SIZE = 10;
+    private static final String ELLIPSIS = "…";
+
+    // Read from the classpath once; each document embeds its own subset
+    private static final byte[] REGULAR_FONT = fontFile("fonts/DejaVuSans.ttf");
+    private static final byte[] BOLD_FONT = fontFile("fonts/DejaVuSans-Bold.ttf");
+
+    private final PDDocument document = new PDDocument();
+    private final PDFont regular;
+    private final PDFont bold;
+    private PDPageContentStream page;
+    private float y;
+
+    public PdfDocumentBuilder() {
+        try {
+            regular = PDType0Font.load(document, new ByteArrayInputStream(REGULAR_FONT), true);
+            bold = PDType0Font.load(document, new ByteArrayInputStream(BOLD_FONT), true);
+            newPage();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start PDF document", e);
+        }
+    }
+
+    public PdfDocumentBuilder title(String text) {
+        return line(text, true, 18, MARGIN);
+    }
+
+    public PdfDocumentBuilder heading(String text) {
+        space();
+        return line(text, true, 12, MARGIN);
+    }
+
+    // Paragraph in the body font, wrapped at word boundaries to the page width
+    public PdfDocumentBuilder text(String text) {
+        if (text == null) {
+            return this;
+        }
+        for (String paragraph : text.split("\\R")) {
+            String remaining = printable(regular, paragraph);
+            while (width(regular, BODY_SIZE, remaining) > CONTENT_WIDTH) {
+                int cut = fittingLength(regular, remaining, CONTENT_WIDTH);
+                int space = remaining.lastIndexOf(' ', cut);
+                if (space > 0) {
+                    cut = space;
+                }
+                line(remaining.substring(0, cut), false, BODY_SIZE, MARGIN);
+                remaining = remaining.substring(cut).stripLeading();
+            }
+            line(remaining, false, BODY_SIZE, MARGIN);
+        }
+        return this;
+    }
+
+    // One table row: cells start at the given x offsets (from the left margin) and are cut to fit
+    public PdfDocumentBuilder columns(float[] offsets, boolean bold, String... cells) {
+        PDFont font = bold ? this.bold : regular;
+        ensureRoom(14);
+        for (int i = 0; i < cells.length && i < offsets.length; i++) {
+            float width = (i + 1 < offsets.length ? offsets[i + 1] : CONTENT_WIDTH) - offsets[i] - 6;
+            String cell = printable(font, cells[i] != null ? cells[i] : "");
+            if (width(font, BODY_SIZE, cell) > width) {
+                float room = width - width(font, BODY_SIZE, ELLIPSIS);
+                cell = cell.substring(0, fittingLength(font, cell, room)) + ELLIPSIS;
+            }
+            showText(cell, font, BODY_SIZE, MARGIN + offsets[i], y);
+        }
+        y -= 14;
+        return this;
+    }
+
+    public PdfDocumentBuilder space() {
+        y -= 8;
+        return this;
+    }
+
+    public byte[] build() {
+        try (document) {
+            page.close();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write PDF document", e);
+        }
+    }
+
+    private PdfDocumentBuilder line(String text, boolean bold, float size, float x) {
+        PDFont font = bold ? this.bold : regular;
+        float leading = size * 1.4f;
+        ensureRoom(leading);
+        showText(printable(font, text), font, size, x, y);
+        y -= leading;
+        return this;
+    }
+
+    private void ensureRoom(float height) {
+        if (y - height < MARGIN) {
+            try {
+                page.close();
+                newPage();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not add PDF page", e);
+            }
+        }
+    }
+
+    private void newPage() throws IOException {
+        PDPage next = new PDPage(PDRectangle.A4);
+        document.addPage(next);
+        page = new PDPageContentStream(document, next);
+        y = PAGE_HEIGHT - MARGIN;
+    }
+
+    private void showText(String text, PDFont font, float size, float x, float baseline) {
+        if (text.isEmpty()) {
+            return;
+        }
+        try {
+            page.beginText();
+            page.setFont(font, size);
+            page.newLineAtOffset(x, baseline - size);
+            page.showText(text);
+            page.endText();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write PDF text", e);
+        }
+    }
+
+    // Length of the longest prefix of text that fits the width (at least one character, so
+    // wrapping always advances); glyph widths simply add up, as no kerning is applied
+    private static int fittingLength(PDFont font, String text, float maxWidth) {
+        int length = 0;
+        float used = 0;
+        while (length < text.length()) {
+            int next = text.offsetByCodePoints(length, 1);
+            used += width(font, BODY_SIZE, text.substring(length, next));
+            if (used > maxWidth && length > 0) {
+                break;
+            }
+            length = next;
+        }
+        return length;
+    }
+
+    private static float width(PDFont font, float size, String text) {
+        try {
+            return font.getStringWidth(text) / 1000 * size;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not measure PDF text", e);
+        }
+    }
+
+    // Replace control characters and characters the font has no glyph for
+    private static String printable(PDFont font, String text) {
+        StringBuilder printable = new StringBuilder(text.length());
+        text.codePoints().forEach(codePoint -> {
+            String glyph = Character.toString(codePoint);
+            if (codePoint < 32 || !hasGlyph(font, glyph)) {
+                printable.append('?');
+            } else {
+                printable.append(glyph);
+            }
+        });
+        return printable.toString();
+    }
+
+    private static boolean hasGlyph(PDFont font, String glyph) {
+        try {
+            font.encode(glyph);
+            return true;
+        } catch (IllegalArgumentException | IOException e) {
+            return false;
+        }
+    }
+
+    private static byte[] fontFile(String resource) {
+        try (InputStream in = PdfDocumentBuilder.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing font resource " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read font resource " + resource, e);
+        }
+    }
+}
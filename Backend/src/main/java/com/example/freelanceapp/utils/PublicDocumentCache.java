@@ -0,0 +1,49 @@
+package com.example.freelanceapp.utils;
+
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import com.example.freelanceapp.dtos.quote.QuoteResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the responses served on public invoice and quote links, keyed by
+ * document id. Services evict a document whenever they change it; the eviction is repeated
+ * after commit so a reader that loaded the old row mid-transaction cannot re-populate it.
+ * Entries also expire after a TTL, which bounds staleness for changes made outside the
+ * services (database triggers, scheduled sweeps).
+ */
+@Component
+public class PublicDocumentCache {
+
+    private final VersionedLruCache<UUID, InvoiceResponse> invoices;
+    private final VersionedLruCache<UUID, QuoteResponse> quotes;
+
+    public PublicDocumentCache(@Value("${public-links.cache.max-entries:10000}") int maxEntries,
+                               @Value("${public-links.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.invoices = new VersionedLruCache<>(maxEntries, ttlSeconds * 1000);
+        this.quotes = new VersionedLruCache<>(maxEntries, ttlSeconds * 1000);
+    }
+
+    public InvoiceResponse getInvoice(UUID invoiceId, Supplier<InvoiceResponse> loader) {
+        return invoices.get(invoiceId, loader);
+    }
+
+    public QuoteResponse getQuote(UUID quoteId, Supplier<QuoteResponse> loader) {
+        return quotes.get(quoteId, loader);
+    }
+
+    public void evictInvoice(UUID invoiceId) {
+        if (invoiceId != null) {
+            invoices.evict(invoiceId);
+        }
+    }
+
+    public void evictQuote(UUID quoteId) {
+        if (quoteId != null) {
+            quotes.evict(quoteId);
+        }
+    }
+}
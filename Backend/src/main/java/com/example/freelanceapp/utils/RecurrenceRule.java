@@ -0,0 +1,71 @@
+package com.example.freelanceapp.utils;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recurrence of a reminder series: the FREQ/INTERVAL/UNTIL subset of an iCalendar RRULE,
+ * anchored at the series start (DTSTART). The n-th occurrence is computed from the start
+ * (start + n * interval units) rather than from the previous occurrence, so a monthly
+ * series starting on the 31st comes back to the 31st after a shorter month.
+ */
+public record RecurrenceRule(LocalDate start, ChronoUnit unit, int interval, LocalDate until) {
+
+    public static RecurrenceRule of(String pattern, LocalDate start, Integer interval, LocalDate until) {
+        ChronoUnit unit = switch (pattern != null ? pattern.toLowerCase() : "daily") {
+            case "weekly" -> ChronoUnit.WEEKS;
+            case "monthly" -> ChronoUnit.MONTHS;
+            case "yearly" -> ChronoUnit.YEARS;
+            default -> ChronoUnit.DAYS;
+        };
+        return new RecurrenceRule(start, unit, interval != null && interval > 0 ? interval : 1, until);
+    }
+
+    public static boolean isSupportedPattern(String pattern) {
+        return pattern != null && List.of("daily", "weekly", "monthly", "yearly").contains(pattern.toLowerCase());
+    }
+
+    // Occurrences in [from, to], oldest first, at most maxCount of them
+    public List<LocalDate> between(LocalDate from, LocalDate to, int maxCount) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate last = until != null && until.isBefore(to) ? until : to;
+        for (long n = firstIndexOnOrAfter(from); dates.size() < maxCount; n++) {
+            LocalDate date = occurrence(n);
+            if (date.isAfter(last)) {
+                break;
+            }
+            dates.add(date);
+        }
+        return dates;
+    }
+
+    // First occurrence after the given date, or null once the series has ended
+    public LocalDate nextAfter(LocalDate date) {
+        LocalDate next = occurrence(firstIndexOnOrAfter(date.plusDays(1)));
+        return until != null && next.isAfter(until) ? null : next;
+    }
+
+    // Whether the date is one of the series' occurrences
+    public boolean includes(LocalDate date) {
+        return !date.isBefore(start) && (until == null || !date.isAfter(until))
+            && occurrence(firstIndexOnOrAfter(date)).equals(date);
+    }
+
+    private LocalDate occurrence(long n) {
+        return start.plus(n * interval, unit);
+    }
+
+    // Index of the first occurrence on or after the date (the estimate never overshoots)
+    private long firstIndexOnOrAfter(LocalDate date) {
+        if (!date.isAfter(start)) {
+            return 0;
+        }
+        long n = unit.between(start, date) / interval;
+        while (occurrence(n).isBefore(date)) {
+            n++;
+        }
+        return n;
+    }
+}
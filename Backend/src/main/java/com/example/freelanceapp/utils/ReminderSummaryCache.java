@@ -0,0 +1,39 @@
+package com.example.freelanceapp.utils;
+
+import com.example.freelanceapp.dtos.reminder.ReminderSummaryResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of the reminder summary, which backs the header badge and is polled
+ * constantly. ReminderService evicts a user's entry on every reminder change (again after
+ * commit, as in PublicDocumentCache). Entries are tied to the day they were computed, so
+ * overdue and due-today counts roll over at midnight, and expire after a TTL.
+ */
+@Component
+public class ReminderSummaryCache {
+
+    private final VersionedLruCache<UUID, DailySummary> summaries;
+
+    private record DailySummary(ReminderSummaryResponse summary, LocalDate day) {
+    }
+
+    public ReminderSummaryCache(@Value("${reminders.summary-cache.max-entries:10000}") int maxEntries,
+                                @Value("${reminders.summary-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.summaries = new VersionedLruCache<>(maxEntries, ttlSeconds * 1000);
+    }
+
+    public ReminderSummaryResponse get(UUID userId, LocalDate today, Supplier<ReminderSummaryResponse> loader) {
+        return summaries.get(userId,
+            cached -> cached.day().equals(today),
+            () -> new DailySummary(loader.get(), today)).summary();
+    }
+
+    public void evict(UUID userId) {
+        summaries.evict(userId);
+    }
+}
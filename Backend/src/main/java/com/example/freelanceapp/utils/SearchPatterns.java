@@ -0,0 +1,32 @@
+package com.example.freelanceapp.utils;
+
+/**
+ * Builds LIKE/ILIKE patterns from user input. Wildcards typed by the user are escaped
+ * (with the default backslash escape character) so they match literally.
+ */
+public final class SearchPatterns {
+
+    private SearchPatterns() {
+    }
+
+    // "%term%" for substring matching
+    public static String containing(String term) {
+        return "%" + escape(term) + "%";
+    }
+
+    // "term%" for prefix matching
+    public static String startingWith(String term) {
+        return escape(term) + "%";
+    }
+
+    private static String escape(String term) {
+        StringBuilder escaped = new StringBuilder(term.length());
+        for (char c : term.toCharArray()) {
+            if (c == '%' || c == '_' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
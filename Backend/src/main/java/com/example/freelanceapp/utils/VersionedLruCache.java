@@ -0,0 +1,126 @@
+package com.example.freelanceapp.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded concurrent map used as a read-through cache, optionally with per-entry expiry.
+ * Once full, the least recently (and least often) used entries are dropped first.
+ *
+ * <p>Each key with a load in flight has a version, bumped by an eviction or in-place update of
+ * that key; a load that overlapped one is returned to its caller but not cached, so a reader that
+ * loaded data just before a change cannot put the stale value back. Changes to other keys never
+ * discard a load. Evictions made inside a transaction are repeated after commit, since another
+ * reader may load the old row between the first eviction and the commit.
+ */
+public final class VersionedLruCache<K, V> {
+
+    private final Cache<K, V> entries;
+
+    // Keys with loads in flight; the entry is removed when its last load finishes
+    private final ConcurrentMap<K, KeyVersion> inFlight = new ConcurrentHashMap<>();
+
+    // Only read and written inside inFlight.compute for its key
+    private static final class KeyVersion {
+        private long version;
+        private int loads;
+    }
+
+    // A ttlMillis of 0 or less keeps entries until they are evicted or pushed out by newer ones
+    public VersionedLruCache(int maxEntries, long ttlMillis) {
+        // Size evictions run on the writing thread, so the bound holds as soon as a put returns
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .executor(Runnable::run);
+        if (ttlMillis > 0) {
+            builder.expireAfterWrite(Duration.ofMillis(ttlMillis));
+        }
+        this.entries = builder.build();
+    }
+
+    // The cached value for the key, or the loader's result
+    public V get(K key, Supplier<V> loader) {
+        return get(key, value -> true, loader);
+    }
+
+    // As get, but a cached value that fails the check is treated as missing and reloaded
+    public V get(K key, Predicate<V> usable, Supplier<V> loader) {
+        V cached = entries.getIfPresent(key);
+        if (cached != null && usable.test(cached)) {
+            return cached;
+        }
+
+        long versionBeforeLoad = startLoad(key);
+        V value = null;
+        try {
+            value = loader.get();
+            return value;
+        } finally {
+            finishLoad(key, versionBeforeLoad, value);
+        }
+    }
+
+    // Evict now and, inside a transaction, once more after commit
+    public void evict(K key) {
+        evictNow(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(key);
+                }
+            });
+        }
+    }
+
+    // The cached value (or null) for callers that change it in place; loads of the key in flight are not kept
+    public V currentForUpdate(K key) {
+        inFlight.computeIfPresent(key, (k, state) -> {
+            state.version++;
+            return state;
+        });
+        return entries.getIfPresent(key);
+    }
+
+    private void evictNow(K key) {
+        // Inside compute, so a load of this key cannot cache its value between the bump and the removal
+        inFlight.compute(key, (k, state) -> {
+            entries.invalidate(k);
+            if (state != null) {
+                state.version++;
+            }
+            return state;
+        });
+    }
+
+    // Register a load of the key; returns the key's version as the load starts
+    private long startLoad(K key) {
+        long[] versionBeforeLoad = new long[1];
+        inFlight.compute(key, (k, state) -> {
+            KeyVersion current = state != null ? state : new KeyVersion();
+            current.loads++;
+            versionBeforeLoad[0] = current.version;
+            return current;
+        });
+        return versionBeforeLoad[0];
+    }
+
+    // Cache the value unless the key changed since the load started; a failed (null) load is never cached
+    private void finishLoad(K key, long versionBeforeLoad, V value) {
+        inFlight.compute(key, (k, state) -> {
+            if (value != null && state.version == versionBeforeLoad) {
+                entries.put(k, value);
+            }
+            state.loads--;
+            return state.loads > 0 ? state : null;
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.freelanceapp;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Base class for tests that run against PostgreSQL with the real schema (the structure/V*.sql
+ * migrations, applied in version order). The database is a Testcontainers PostgreSQL, or the
+ * scratch database named by TEST_DATABASE_URL (wiped before use) where Docker is not available.
+ * Without either the tests are skipped. The create* helpers insert the rows most tests start from.
+ */
+@SpringBootTest
+@ExtendWith(PostgresIntegrationTest.DatabaseAvailable.class)
+public abstract class PostgresIntegrationTest {
+
+    private static final String EXTERNAL_URL = System.getenv("TEST_DATABASE_URL");
+    private static final String EXTERNAL_USERNAME = System.getenv().getOrDefault("TEST_DATABASE_USERNAME", "postgres");
+    private static final String EXTERNAL_PASSWORD = System.getenv().getOrDefault("TEST_DATABASE_PASSWORD", "");
+
+    private static PostgreSQLContainer postgres;
+    private static boolean migrated;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    // Skips the test class (before its context is loaded) when there is no database to run against
+    static class DatabaseAvailable implements ExecutionCondition {
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            return EXTERNAL_URL != null || DockerClientFactory.instance().isDockerAvailable()
+                ? ConditionEvaluationResult.enabled("PostgreSQL available")
+                : ConditionEvaluationResult.disabled("Needs Docker or TEST_DATABASE_URL");
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws Exception {
+        startDatabase();
+        registry.add("spring.datasource.url", () -> withApplicationParameters(url()));
+        registry.add("spring.datasource.username", PostgresIntegrationTest::username);
+        registry.add("spring.datasource.password", PostgresIntegrationTest::password);
+        // The schema comes from the migrations only
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    // A user with a unique email
+    protected UUID createUser() {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO users (email, password_hash) VALUES (?, 'x') RETURNING id",
+            UUID.class, UUID.randomUUID() + "@example.com");
+    }
+
+    // A client of the user with only a contact name
+    protected UUID createClient(UUID userId) {
+        return createClient(userId, null);
+    }
+
+    protected UUID createClient(UUID userId, String companyName) {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO clients (user_id, contact_name, company_name) VALUES (?, 'Contact', ?) RETURNING id",
+            UUID.class, userId, companyName);
+    }
+
+    // An invoice for 100 with the given status, issued 40 days ago and due 30 days ago, nothing paid.
+    // Unless it is a draft it was sent on its issue date
+    protected UUID pastDueInvoice(UUID userId, UUID clientId, String status) {
+        LocalDate issued = LocalDate.now().minusDays(40);
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO invoices (user_id, client_id, invoice_number, title, status, issue_date, due_date, sent_at, " +
+            "subtotal, total_amount, amount_paid, balance_due) " +
+            "VALUES (?, ?, ?, 'Invoice', ?, ?, ?, ?, 100, 100, 0, 100) RETURNING id",
+            UUID.class, userId, clientId, "T-" + UUID.randomUUID().toString().substring(0, 8), status,
+            issued, issued.plusDays(10), "draft".equals(status) ? null : issued.atStartOfDay());
+    }
+
+    private static synchronized void startDatabase() throws SQLException, IOException {
+        if (migrated) {
+            return;
+        }
+        if (EXTERNAL_URL == null) {
+            postgres = new PostgreSQLContainer("postgres:16-alpine");
+            postgres.start();
+        }
+        try (Connection connection = DriverManager.getConnection(url(), username(), password());
+             Statement statement = connection.createStatement()) {
+            if (EXTERNAL_URL != null) {
+                statement.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+            }
+            for (Path migration : migrations()) {
+                statement.execute(Files.readString(migration));
+            }
+        }
+        migrated = true;
+    }
+
+    // structure/V1__*.sql, V2__*.sql, ... in numeric version order
+    private static List<Path> migrations() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of("structure"))) {
+            return files
+                .filter(file -> file.getFileName().toString().matches("V\\d+__.*\\.sql"))
+                .sorted(Comparator.comparingInt(file -> {
+                    String name = file.getFileName().toString();
+                    return Integer.parseInt(name.substring(1, name.indexOf("__")));
+                }))
+                .toList();
+        }
+    }
+
+    // The driver settings application.properties puts on its URL (multi-row batched inserts)
+    private static String withApplicationParameters(String url) {
+        return url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+    }
+
+    private static String url() {
+        return EXTERNAL_URL != null ? EXTERNAL_URL : postgres.getJdbcUrl();
+    }
+
+    private static String username() {
+        return EXTERNAL_URL != null ? EXTERNAL_USERNAME : postgres.getUsername();
+    }
+
+    private static String password() {
+        return EXTERNAL_URL != null ? EXTERNAL_PASSWORD : postgres.getPassword();
+    }
+}
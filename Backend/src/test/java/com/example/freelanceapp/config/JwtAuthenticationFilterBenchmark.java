@@ -0,0 +1,159 @@
+package com.example.freelanceapp.config;
+
+import com.example.freelanceapp.utils.JwtClaimsResolver;
+import com.example.freelanceapp.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request in JwtAuthenticationFilter: the old filter (three full
+ * HS256 verifications, each re-deriving the key) against the current one on a cache miss
+ * (one verification) and on a cache hit (none). The hit case also runs on 8 threads to
+ * show the shared claims cache does not serialize requests.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.freelanceapp.config.JwtAuthenticationFilterBenchmark},
+ * or from the IDE through {@link #main}; JMH command-line options are passed through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "YqP3dM9vN8sJ4kL2zA1xR6fV7gH8tB9q";
+
+    private String authorization;
+    private JwtClaimsResolver resolver;
+    private JwtAuthenticationFilter filter;
+    private ThreeParseFilter threeParseFilter;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpirationMs", 604_800_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        authorization = "Bearer " + jwtUtil.generateAccessToken(UUID.randomUUID().toString(), "user@example.com");
+        resolver = new JwtClaimsResolver(jwtUtil, 10_000);
+        filter = new JwtAuthenticationFilter(resolver);
+        threeParseFilter = new ThreeParseFilter();
+    }
+
+    // Only used by cacheMiss; per-invocation setup is fine next to a signature verification
+    @State(Scope.Thread)
+    public static class ColdCache {
+        @Setup(Level.Invocation)
+        public void clear(JwtAuthenticationFilterBenchmark benchmark) {
+            benchmark.resolver.clear();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object before() throws Exception {
+        return authenticate(threeParseFilter);
+    }
+
+    @Benchmark
+    public Object cacheMiss(ColdCache coldCache) throws Exception {
+        return authenticate(filter);
+    }
+
+    @Benchmark
+    public Object cacheHit() throws Exception {
+        return authenticate(filter);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object cacheHitContended() throws Exception {
+        return authenticate(filter);
+    }
+
+    // A fresh request each time: OncePerRequestFilter skips requests it has already seen
+    private Object authenticate(OncePerRequestFilter target) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/invoices");
+        request.addHeader("Authorization", authorization);
+        target.doFilter(request, new MockHttpServletResponse(), chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    /**
+     * The filter as it was before claims resolution: validate, then read the email and the
+     * user id, each parsing the token again with a freshly derived key.
+     */
+    static class ThreeParseFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            String token = request.getHeader("Authorization").substring(7);
+            if (parse(token) != null) {
+                String email = parse(token).getSubject();
+                String userId = parse(token).get("userId", String.class);
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        email, null, Collections.singletonList(new SimpleGrantedAuthority("USER")));
+                authentication.setDetails(userId);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        private static Claims parse(String token) {
+            return Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
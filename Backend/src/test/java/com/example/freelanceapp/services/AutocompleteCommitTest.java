@@ -0,0 +1,54 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.client.ClientRequest;
+import com.example.freelanceapp.dtos.project.ProjectRequest;
+import com.example.freelanceapp.dtos.search.AutocompleteResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A client or project saved through its service shows up in the next suggestion for that user,
+ * even though the user's autocomplete index was already loaded before the save.
+ */
+class AutocompleteCommitTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Test
+    void committedChangesReachTheLoadedIndex() {
+        UUID userId = createUser();
+        UUID existingClientId = createClient(userId, "Acme Corp");
+        assertThat(clientService.autocompleteClients(userId, "acme", null))
+            .extracting(AutocompleteResponse::getId)
+            .containsExactly(existingClientId);
+
+        ClientRequest client = new ClientRequest();
+        client.setCompanyName("Globex Studio");
+        client.setContactName("Hank Scorpio");
+        UUID clientId = clientService.createClient(userId, client).getId();
+
+        ProjectRequest project = new ProjectRequest();
+        project.setClientId(clientId.toString());
+        project.setName("Volcano website");
+        UUID projectId = projectService.createProject(userId, project).getId();
+
+        assertThat(clientService.autocompleteClients(userId, "scorp", null))
+            .extracting(AutocompleteResponse::getId)
+            .containsExactly(clientId);
+        assertThat(projectService.autocompleteProjects(userId, "website", null))
+            .singleElement()
+            .satisfies(suggestion -> {
+                assertThat(suggestion.getId()).isEqualTo(projectId);
+                assertThat(suggestion.getDetail()).isEqualTo("Globex Studio");
+            });
+    }
+}
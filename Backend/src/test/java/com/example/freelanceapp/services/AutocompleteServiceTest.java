@@ -0,0 +1,213 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.dtos.search.AutocompleteResponse;
+import com.example.freelanceapp.repositories.ClientRepository;
+import com.example.freelanceapp.repositories.ClientRepository.ClientAutocompleteRow;
+import com.example.freelanceapp.repositories.ProjectRepository;
+import com.example.freelanceapp.repositories.ProjectRepository.ProjectAutocompleteRow;
+import com.example.freelanceapp.utils.VersionedLruCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Suggestions match the start of any word in a client's names or email or a project's name,
+ * each client or project once, up to the limit and in key order. Changes reach a loaded index
+ * only after commit, deleting a client drops its projects, and an index dropped by the JVM is
+ * loaded again on the next lookup.
+ */
+class AutocompleteServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final List<ClientAutocompleteRow> clientRows = new ArrayList<>();
+    private final List<ProjectAutocompleteRow> projectRows = new ArrayList<>();
+
+    private ClientRepository clientRepository;
+    private ProjectRepository projectRepository;
+    private AutocompleteService autocompleteService;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = mock(ClientRepository.class);
+        projectRepository = mock(ProjectRepository.class);
+        when(clientRepository.findAutocompleteRows(userId)).thenReturn(clientRows);
+        when(projectRepository.findAutocompleteRows(userId)).thenReturn(projectRows);
+        autocompleteService = new AutocompleteService(clientRepository, projectRepository, 100);
+    }
+
+    @Test
+    void matchesTheStartOfEveryWordInEveryField() {
+        UUID acme = client("Acme Corp", "Jane Doe", "billing@acme.io");
+
+        assertThat(clientIds("acme")).containsExactly(acme);
+        assertThat(clientIds("corp")).containsExactly(acme);
+        assertThat(clientIds("doe")).containsExactly(acme);
+        assertThat(clientIds("bill")).containsExactly(acme);
+        assertThat(clientIds("io")).containsExactly(acme);
+        assertThat(clientIds("  CORP ")).containsExactly(acme);
+        assertThat(clientIds("orp")).isEmpty();
+        assertThat(clientIds(" ")).isEmpty();
+
+        AutocompleteResponse suggestion = autocompleteService.suggestClients(userId, "jane", null).get(0);
+        assertThat(suggestion.getLabel()).isEqualTo("Acme Corp");
+        assertThat(suggestion.getDetail()).isEqualTo("billing@acme.io");
+    }
+
+    @Test
+    void findsTheMatchingRangeAmongManyTerms() {
+        List<UUID> ids = IntStream.range(0, 300)
+            .mapToObj(i -> client(String.format("Studio %03d", i), "Contact", null))
+            .toList();
+
+        assertThat(clientIds("studio 12")).containsExactlyElementsOf(ids.subList(120, 130));
+        assertThat(clientIds("299")).containsExactly(ids.get(299));
+        assertThat(clientIds("studio 3")).isEmpty();
+        assertThat(clientIds("zzz")).isEmpty();
+    }
+
+    @Test
+    void returnsEachClientOnceUpToTheLimit() {
+        UUID repeated = client("Acme", "Acme Acme", "acme@acme.io");
+        for (int i = 0; i < 60; i++) {
+            client("Acme " + i, "Contact", null);
+        }
+
+        assertThat(autocompleteService.suggestClients(userId, "acme", 100))
+            .hasSize(50)
+            .extracting(AutocompleteResponse::getId)
+            .doesNotHaveDuplicates()
+            .startsWith(repeated);
+        assertThat(autocompleteService.suggestClients(userId, "acme", null)).hasSize(10);
+        assertThat(autocompleteService.suggestClients(userId, "acme", 0)).hasSize(1);
+    }
+
+    @Test
+    void changesApplyAfterCommit() {
+        UUID clientId = client("Acme", "Jane", null);
+        assertThat(clientIds("acme")).containsExactly(clientId);
+
+        List<TransactionSynchronization> committed = inTransaction(() -> {
+            autocompleteService.clientSaved(userId, clientId, "Globex", "Jane", null);
+            autocompleteService.projectSaved(userId, UUID.randomUUID(), "Website", clientId);
+        });
+        assertThat(clientIds("globex")).isEmpty();
+        assertThat(autocompleteService.suggestProjects(userId, "web", null)).isEmpty();
+
+        committed.forEach(TransactionSynchronization::afterCommit);
+        assertThat(clientIds("globex")).containsExactly(clientId);
+        assertThat(clientIds("acme")).isEmpty();
+        assertThat(autocompleteService.suggestProjects(userId, "web", null))
+            .extracting(AutocompleteResponse::getDetail)
+            .containsExactly("Globex");
+
+        // Applied in memory: the index was loaded once
+        verify(clientRepository, times(1)).findAutocompleteRows(userId);
+    }
+
+    @Test
+    void deletingAClientRemovesItsProjects() {
+        UUID clientId = client("Acme", "Jane", null);
+        UUID otherClientId = client("Globex", "Hank", null);
+        project("Acme website", clientId);
+        UUID otherProject = project("Globex website", otherClientId);
+        assertThat(autocompleteService.suggestProjects(userId, "website", null)).hasSize(2);
+
+        autocompleteService.clientDeleted(userId, clientId);
+
+        assertThat(clientIds("acme")).isEmpty();
+        assertThat(autocompleteService.suggestProjects(userId, "website", null))
+            .extracting(AutocompleteResponse::getId)
+            .containsExactly(otherProject);
+    }
+
+    @Test
+    void indexDroppedByTheJvmIsReloaded() {
+        UUID acme = client("Acme", "Jane", null);
+        assertThat(clientIds("acme")).containsExactly(acme);
+
+        UUID globex = client("Globex", "Hank", null);
+        cachedIndex().clear();
+
+        assertThat(clientIds("globex")).containsExactly(globex);
+        verify(clientRepository, times(2)).findAutocompleteRows(userId);
+    }
+
+    private List<UUID> clientIds(String prefix) {
+        return autocompleteService.suggestClients(userId, prefix, null).stream()
+            .map(AutocompleteResponse::getId)
+            .toList();
+    }
+
+    // Runs the calls with transaction synchronization active; returns what they registered
+    private List<TransactionSynchronization> inTransaction(Runnable calls) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            calls.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // The soft reference holding the user's loaded index
+    @SuppressWarnings("unchecked")
+    private SoftReference<?> cachedIndex() {
+        VersionedLruCache<UUID, SoftReference<?>> indexes =
+            (VersionedLruCache<UUID, SoftReference<?>>) ReflectionTestUtils.getField(autocompleteService, "indexes");
+        return indexes.currentForUpdate(userId);
+    }
+
+    private UUID client(String companyName, String contactName, String email) {
+        UUID id = UUID.randomUUID();
+        clientRows.add(new ClientAutocompleteRow() {
+            public UUID getId() {
+                return id;
+            }
+
+            public String getCompanyName() {
+                return companyName;
+            }
+
+            public String getContactName() {
+                return contactName;
+            }
+
+            public String getEmail() {
+                return email;
+            }
+        });
+        return id;
+    }
+
+    private UUID project(String name, UUID clientId) {
+        UUID id = UUID.randomUUID();
+        projectRows.add(new ProjectAutocompleteRow() {
+            public UUID getId() {
+                return id;
+            }
+
+            public String getName() {
+                return name;
+            }
+
+            public UUID getClientId() {
+                return clientId;
+            }
+        });
+        return id;
+    }
+}
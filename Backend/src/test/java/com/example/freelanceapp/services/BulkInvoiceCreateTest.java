@@ -0,0 +1,101 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.BulkInvoiceResponse;
+import com.example.freelanceapp.dtos.invoice.BulkInvoiceResult;
+import com.example.freelanceapp.dtos.invoice.InvoiceItemRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * An element that fails during a bulk create, whether the database rejects it or the application
+ * throws, fails on its own: the other elements of its chunk and of the other chunks are still
+ * created, and every element is reported.
+ */
+@SpringBootTest(properties = "invoices.bulk.chunk-size=4")
+class BulkInvoiceCreateTest extends PostgresIntegrationTest {
+
+    private static final int INVOICES = 10;
+    private static final int REJECTED = 5;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @MockitoSpyBean
+    private FinancialRollupService financialRollupService;
+
+    @Test
+    void databaseFailureIsReportedForItsElementOnly() {
+        // unit_price is NUMERIC(10,2): this one passes validation but overflows the column
+        assertOnlyRejectedElementFails("1000000000");
+    }
+
+    @Test
+    void applicationFailureIsReportedForItsElementOnly() {
+        // Any runtime failure, not only a database one, while saving the element with this total
+        BigDecimal poisonedTotal = new BigDecimal("777.00");
+        doThrow(new IllegalStateException("Rollup unavailable"))
+            .when(financialRollupService)
+            .recordInvoiceChanges(any(), any(), argThat(figures -> figures.stream()
+                .anyMatch(figure -> figure.totalAmount().compareTo(poisonedTotal) == 0)));
+
+        assertOnlyRejectedElementFails("777");
+    }
+
+    private void assertOnlyRejectedElementFails(String rejectedUnitPrice) {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+
+        List<InvoiceRequest> requests = new ArrayList<>();
+        for (int i = 0; i < INVOICES; i++) {
+            String unitPrice = i == REJECTED ? rejectedUnitPrice : "100";
+            requests.add(invoice(clientId, "Retainer " + i, unitPrice));
+        }
+
+        BulkInvoiceResponse response = invoiceService.createInvoices(userId, requests);
+
+        assertThat(response.getCreated()).isEqualTo(INVOICES - 1);
+        assertThat(response.getFailed()).isEqualTo(1);
+        for (BulkInvoiceResult result : response.getResults()) {
+            assertThat(result.isCreated()).isEqualTo(result.getIndex() != REJECTED);
+        }
+        assertThat(response.getResults().get(REJECTED).getError()).isNotBlank();
+
+        Integer stored = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM invoices WHERE user_id = ?", Integer.class, userId);
+        Integer storedItems = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM invoice_items ii JOIN invoices i ON i.id = ii.invoice_id WHERE i.user_id = ?",
+            Integer.class, userId);
+        assertThat(stored).isEqualTo(INVOICES - 1);
+        assertThat(storedItems).isEqualTo(INVOICES - 1);
+    }
+
+    private InvoiceRequest invoice(UUID clientId, String title, String unitPrice) {
+        InvoiceItemRequest item = new InvoiceItemRequest();
+        item.setDescription("Monthly retainer");
+        item.setQuantity(BigDecimal.ONE);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+
+        InvoiceRequest request = new InvoiceRequest();
+        request.setClientId(clientId.toString());
+        request.setTitle(title);
+        request.setIssueDate(LocalDate.now());
+        request.setDueDate(LocalDate.now().plusDays(30));
+        request.setItems(List.of(item));
+        return request;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.InvoiceItemRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A rendered invoice PDF reads back with its item and invoice totals in full and with names
+ * outside Latin-1 as typed, since the font is embedded and cells are fitted by glyph widths.
+ */
+@SpringBootTest(properties = "documents.pdf.storage-dir=target/test-pdfs")
+class DocumentRenderPdfTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Test
+    void invoicePdfShowsFullAmountsAndNonAsciiNames() throws IOException {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId, "Łódź Żółć Studio");
+
+        InvoiceRequest request = new InvoiceRequest();
+        request.setClientId(clientId.toString());
+        request.setTitle("Přehled prací");
+        request.setIssueDate(LocalDate.now());
+        request.setDueDate(LocalDate.now().plusDays(30));
+        request.setItems(List.of(item("Návrh loga", "100"), item("Ретейнер", "1234567")));
+        InvoiceResponse invoice = invoiceService.createInvoice(userId, request);
+
+        String text = pdfText(invoiceService.getInvoicePdf(userId, invoice.getId()).path());
+
+        assertThat(text)
+            .contains("Łódź Żółć Studio")
+            .contains("Přehled prací")
+            .contains("Návrh loga")
+            .contains("Ретейнер")
+            .contains("USD 100.00")
+            .contains("USD 1234567.00")
+            .contains("USD 1234667.00")
+            .doesNotContain("?")
+            .doesNotContain("…");
+    }
+
+    private InvoiceItemRequest item(String description, String unitPrice) {
+        InvoiceItemRequest item = new InvoiceItemRequest();
+        item.setDescription(description);
+        item.setQuantity(BigDecimal.ONE);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        return item;
+    }
+
+    private String pdfText(Path pdf) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdf.toFile())) {
+            return new PDFTextStripper().getText(document);
+        }
+    }
+}
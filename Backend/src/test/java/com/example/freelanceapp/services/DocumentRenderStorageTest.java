@@ -0,0 +1,69 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.InvoiceRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import com.example.freelanceapp.utils.ApiPaths;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rendering a document again after its content changed replaces its stored PDF instead of
+ * adding another file, and the stored pdf_url points at the controller's download path.
+ */
+@SpringBootTest(properties = "documents.pdf.storage-dir=target/test-pdfs")
+class DocumentRenderStorageTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Test
+    void changedInvoiceKeepsOnlyItsLatestPdf() throws IOException {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+
+        InvoiceRequest request = new InvoiceRequest();
+        request.setClientId(clientId.toString());
+        request.setTitle("First title");
+        request.setIssueDate(LocalDate.now());
+        request.setDueDate(LocalDate.now().plusDays(30));
+        InvoiceResponse invoice = invoiceService.createInvoice(userId, request);
+
+        Path first = invoiceService.getInvoicePdf(userId, invoice.getId()).path();
+        assertThat(storedFiles(invoice.getId())).containsExactly(first);
+
+        InvoiceRequest retitled = new InvoiceRequest();
+        retitled.setTitle("Second title");
+        invoiceService.updateInvoice(userId, invoice.getId(), retitled);
+
+        Path second = invoiceService.getInvoicePdf(userId, invoice.getId()).path();
+        assertThat(second).isNotEqualTo(first);
+        assertThat(storedFiles(invoice.getId())).containsExactly(second);
+
+        String pdfUrl = jdbcTemplate.queryForObject(
+            "SELECT pdf_url FROM invoices WHERE id = ?", String.class, invoice.getId());
+        assertThat(pdfUrl).isEqualTo(ApiPaths.INVOICES + "/" + invoice.getId() + "/pdf");
+    }
+
+    private List<Path> storedFiles(UUID invoiceId) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Path dir = Paths.get("target/test-pdfs").toAbsolutePath();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "invoice-" + invoiceId + "-*.pdf")) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+}
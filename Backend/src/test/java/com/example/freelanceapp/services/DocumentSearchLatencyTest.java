@@ -0,0 +1,123 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import com.example.freelanceapp.dtos.quote.QuoteResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Invoice and quote search stays under 50 ms on an account with 100k documents (50k invoices,
+ * 50k quotes, 500 clients): matching by title and by client name is served by the trigram
+ * indexes instead of scanning the account's documents. Timings are the median of several runs
+ * after a warm-up, so one slow run on a busy machine does not fail the build.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentSearchLatencyTest extends PostgresIntegrationTest {
+
+    private static final int DOCUMENTS_PER_TYPE = 50_000;
+    private static final int CLIENTS = 500;
+    private static final long BUDGET_MS = 50;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    private UUID userId;
+
+    @BeforeAll
+    void seedLargeAccount() {
+        userId = createUser();
+        String tag = userId.toString().substring(0, 8);
+
+        // Client 7 is the only "Halcyon" client; every other client is generic
+        jdbcTemplate.update(
+            "INSERT INTO clients (user_id, contact_name, company_name) " +
+            "SELECT ?, 'Contact ' || g, CASE WHEN g = 7 THEN 'Halcyon Studio' ELSE 'Client Company ' || g END " +
+            "FROM generate_series(1, ?) g",
+            userId, CLIENTS);
+
+        // Documents are spread evenly over the clients; one of each type has a distinctive title
+        jdbcTemplate.update(
+            "INSERT INTO invoices (user_id, client_id, invoice_number, title, issue_date, due_date) " +
+            "SELECT ?, c.id, 'INV-' || ? || '-' || g, " +
+            "CASE WHEN g = 4242 THEN 'Zephyrine audit' ELSE 'Website work phase ' || g END, " +
+            "CURRENT_DATE, CURRENT_DATE + 30 " +
+            "FROM generate_series(1, ?) g " +
+            "JOIN (SELECT id, row_number() OVER (ORDER BY contact_name) - 1 AS n FROM clients WHERE user_id = ?) c " +
+            "ON c.n = g % ?",
+            userId, tag, DOCUMENTS_PER_TYPE, userId, CLIENTS);
+        jdbcTemplate.update(
+            "INSERT INTO quotes (user_id, client_id, quote_number, title) " +
+            "SELECT ?, c.id, 'QUO-' || ? || '-' || g, " +
+            "CASE WHEN g = 4242 THEN 'Zephyrine audit' ELSE 'Website work phase ' || g END " +
+            "FROM generate_series(1, ?) g " +
+            "JOIN (SELECT id, row_number() OVER (ORDER BY contact_name) - 1 AS n FROM clients WHERE user_id = ?) c " +
+            "ON c.n = g % ?",
+            userId, tag, DOCUMENTS_PER_TYPE, userId, CLIENTS);
+
+        // Settle the bulk load as autovacuum would: until the GIN pending lists are merged the
+        // planner prices the trigram indexes too high and scans the table instead
+        jdbcTemplate.execute("VACUUM ANALYZE clients");
+        jdbcTemplate.execute("VACUUM ANALYZE invoices");
+        jdbcTemplate.execute("VACUUM ANALYZE quotes");
+    }
+
+    @Test
+    void invoiceSearchByTitleIsFast() {
+        List<InvoiceResponse> hits = timed(() -> invoiceService.searchInvoices(userId, "zephyrine", 20));
+
+        assertThat(hits).extracting(InvoiceResponse::getTitle).containsExactly("Zephyrine audit");
+    }
+
+    @Test
+    void invoiceSearchByClientNameIsFast() {
+        List<InvoiceResponse> hits = timed(() -> invoiceService.searchInvoices(userId, "halcyon", 20));
+
+        assertThat(hits).hasSize(20);
+    }
+
+    @Test
+    void quoteSearchByTitleIsFast() {
+        List<QuoteResponse> hits = timed(() -> quoteService.searchQuotes(userId, "zephyrine", 20));
+
+        assertThat(hits).extracting(QuoteResponse::getTitle).containsExactly("Zephyrine audit");
+    }
+
+    @Test
+    void quoteSearchByClientNameIsFast() {
+        List<QuoteResponse> hits = timed(() -> quoteService.searchQuotes(userId, "halcyon", 20));
+
+        assertThat(hits).hasSize(20);
+    }
+
+    // Runs the search until the JIT has warmed up, then asserts the median of the timed runs
+    private <T> T timed(Supplier<T> search) {
+        for (int i = 0; i < 30; i++) {
+            search.get();
+        }
+        long[] elapsedMs = new long[7];
+        T result = null;
+        for (int i = 0; i < elapsedMs.length; i++) {
+            long start = System.nanoTime();
+            result = search.get();
+            elapsedMs[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(elapsedMs);
+        assertThat(elapsedMs[elapsedMs.length / 2])
+            .as("median search time in ms, runs %s", Arrays.toString(elapsedMs))
+            .isLessThan(BUDGET_MS);
+        return result;
+    }
+}
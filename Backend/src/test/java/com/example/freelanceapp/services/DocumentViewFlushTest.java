@@ -0,0 +1,117 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.repositories.QuoteHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Buffered public link views are flushed per document type: each document gets its own first
+ * view time, a view of a deleted quote is skipped instead of failing the batch, and a batch that
+ * fails is kept for the next flush without holding back the other type.
+ */
+class DocumentViewFlushTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private DocumentViewService documentViewService;
+
+    @MockitoSpyBean
+    private QuoteHistoryRepository quoteHistoryRepository;
+
+    @Test
+    void viewOfDeletedQuoteIsSkipped() {
+        UUID[] ids = createInvoiceAndQuote();
+        UUID invoiceId = ids[0];
+        UUID quoteId = ids[1];
+
+        documentViewService.recordInvoiceView(invoiceId);
+        documentViewService.recordQuoteView(UUID.randomUUID(), "203.0.113.7", "test");
+        documentViewService.recordQuoteView(quoteId, "203.0.113.7", "test");
+        documentViewService.flush();
+
+        assertThat(viewedAtIsSet("invoices", invoiceId)).isTrue();
+        assertThat(viewedAtIsSet("quotes", quoteId)).isTrue();
+        assertThat(historyRows(quoteId)).isEqualTo(1);
+    }
+
+    @Test
+    void eachDocumentGetsItsOwnFirstViewTime() throws InterruptedException {
+        UUID[] first = createInvoiceAndQuote();
+        UUID[] second = createInvoiceAndQuote();
+
+        documentViewService.recordInvoiceView(first[0]);
+        documentViewService.recordQuoteView(first[1], "203.0.113.7", "test");
+        Thread.sleep(20);
+        documentViewService.recordInvoiceView(second[0]);
+        documentViewService.recordQuoteView(second[1], "203.0.113.7", "test");
+        // A later view of the first invoice in the same batch does not move its first view
+        documentViewService.recordInvoiceView(first[0]);
+        documentViewService.flush();
+
+        assertThat(viewedAt("invoices", second[0])).isAfter(viewedAt("invoices", first[0]));
+        assertThat(viewedAt("quotes", second[1])).isAfter(viewedAt("quotes", first[1]));
+    }
+
+    @Test
+    void failedBatchIsKeptForTheNextFlush() {
+        UUID[] ids = createInvoiceAndQuote();
+        UUID invoiceId = ids[0];
+        UUID quoteId = ids[1];
+
+        documentViewService.recordInvoiceView(invoiceId);
+        documentViewService.recordQuoteView(quoteId, "203.0.113.7", "test");
+
+        doThrow(new IllegalStateException("History unavailable")).when(quoteHistoryRepository).saveAll(anyIterable());
+        documentViewService.flush();
+
+        assertThat(viewedAtIsSet("invoices", invoiceId)).isTrue();
+        assertThat(viewedAtIsSet("quotes", quoteId)).isFalse();
+        assertThat(historyRows(quoteId)).isZero();
+
+        reset(quoteHistoryRepository);
+        documentViewService.flush();
+
+        assertThat(viewedAtIsSet("quotes", quoteId)).isTrue();
+        assertThat(historyRows(quoteId)).isEqualTo(1);
+    }
+
+    // An invoice and a quote for a new user, neither viewed yet
+    private UUID[] createInvoiceAndQuote() {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        UUID invoiceId = jdbcTemplate.queryForObject(
+            "INSERT INTO invoices (user_id, client_id, invoice_number, title, status, issue_date, due_date) " +
+            "VALUES (?, ?, ?, 'Invoice', 'sent', ?, ?) RETURNING id",
+            UUID.class, userId, clientId, "T-" + suffix, LocalDate.now(), LocalDate.now().plusDays(30));
+        UUID quoteId = jdbcTemplate.queryForObject(
+            "INSERT INTO quotes (user_id, client_id, quote_number, title, status) " +
+            "VALUES (?, ?, ?, 'Quote', 'sent') RETURNING id",
+            UUID.class, userId, clientId, "Q-" + suffix);
+        return new UUID[] {invoiceId, quoteId};
+    }
+
+    private boolean viewedAtIsSet(String table, UUID id) {
+        return jdbcTemplate.queryForObject(
+            "SELECT viewed_at IS NOT NULL FROM " + table + " WHERE id = ?", Boolean.class, id);
+    }
+
+    private LocalDateTime viewedAt(String table, UUID id) {
+        return jdbcTemplate.queryForObject("SELECT viewed_at FROM " + table + " WHERE id = ?", LocalDateTime.class, id);
+    }
+
+    private int historyRows(UUID quoteId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM quote_history WHERE quote_id = ? AND action = 'viewed'", Integer.class, quoteId);
+    }
+}
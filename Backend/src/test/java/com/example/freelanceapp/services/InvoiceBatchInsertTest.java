@@ -0,0 +1,105 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.BulkInvoiceResponse;
+import com.example.freelanceapp.dtos.invoice.InvoiceItemRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceRequest;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.postgresql.core.BaseConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Creating 1,000 invoices with 20 items each goes out as batched inserts: Hibernate prepares a
+ * handful of statements and reuses them batch after batch (unbatched, it prepares one per row),
+ * and the driver is set to rewrite each batch into multi-row INSERTs. Logs statements and
+ * throughput for the run.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "invoices.bulk.max-size=1000",
+    "invoices.bulk.chunk-size=1000"
+})
+class InvoiceBatchInsertTest extends PostgresIntegrationTest {
+
+    private static final int INVOICES = 1000;
+    private static final int ITEMS_PER_INVOICE = 20;
+
+    // One per statement shape (invoice insert, item insert, lookups, rollup update), not per row
+    private static final long MAX_PREPARED_STATEMENTS = 30;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void bulkCreateUsesBatchedInserts() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.unwrap(BaseConnection.class).getQueryExecutor().isReWriteBatchedInsertsEnabled())
+                .isTrue();
+        }
+
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+        List<InvoiceRequest> requests = new ArrayList<>();
+        for (int i = 0; i < INVOICES; i++) {
+            requests.add(invoice(clientId, i));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long started = System.nanoTime();
+        BulkInvoiceResponse response = invoiceService.createInvoices(userId, requests);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        long statements = statistics.getPrepareStatementCount();
+
+        log.info("Created {} invoices x {} items with {} prepared statements in {} ms ({} invoices/s)",
+            INVOICES, ITEMS_PER_INVOICE, statements, elapsedMs, INVOICES * 1000L / Math.max(elapsedMs, 1));
+
+        assertThat(response.getCreated()).isEqualTo(INVOICES);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(INVOICES + (long) INVOICES * ITEMS_PER_INVOICE);
+        assertThat(statements).isLessThanOrEqualTo(MAX_PREPARED_STATEMENTS);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM invoice_items ii JOIN invoices i ON i.id = ii.invoice_id WHERE i.user_id = ?",
+            Long.class, userId)).isEqualTo((long) INVOICES * ITEMS_PER_INVOICE);
+    }
+
+    private InvoiceRequest invoice(UUID clientId, int index) {
+        List<InvoiceItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_INVOICE; i++) {
+            InvoiceItemRequest item = new InvoiceItemRequest();
+            item.setDescription("Line " + i);
+            item.setQuantity(BigDecimal.ONE);
+            item.setUnitPrice(new BigDecimal("25.00"));
+            items.add(item);
+        }
+
+        InvoiceRequest request = new InvoiceRequest();
+        request.setClientId(clientId.toString());
+        request.setTitle("Invoice " + index);
+        request.setIssueDate(LocalDate.now());
+        request.setDueDate(LocalDate.now().plusDays(30));
+        request.setItems(items);
+        return request;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CSV export cells that start like a formula are written with a leading apostrophe, so a
+ * spreadsheet opening the file shows the text instead of evaluating it. Amounts stay numbers.
+ */
+class InvoiceExportServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private InvoiceExportService invoiceExportService;
+
+    @Test
+    void formulaLikeCellsAreNeutralised() throws IOException {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId, "=HYPERLINK(\"http://example.com\")");
+        UUID invoiceId = pastDueInvoice(userId, clientId, "sent");
+        jdbcTemplate.update("UPDATE invoices SET title = '@SUM(A1)', discount_amount = -5 WHERE id = ?", invoiceId);
+        jdbcTemplate.update(
+            "INSERT INTO invoice_items (invoice_id, description, quantity, unit_price, total, sort_order) " +
+            "VALUES (?, '+cmd', 1, 100, 100, 0), (?, '-1 day rush fee', 1, 0, 0, 1)", invoiceId, invoiceId);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        invoiceExportService.exportInvoices(userId, LocalDate.now().minusDays(60), LocalDate.now(),
+            InvoiceExportService.FORMAT_CSV, out);
+        String csv = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(csv)
+            .contains(",'@SUM(A1),")
+            .contains(",\"'=HYPERLINK(\"\"http://example.com\"\")\",")
+            .contains(",'+cmd,")
+            .contains(",'-1 day rush fee,")
+            .contains(",-5.00,")
+            .doesNotContain(",@SUM")
+            .doesNotContain(",+cmd");
+    }
+}
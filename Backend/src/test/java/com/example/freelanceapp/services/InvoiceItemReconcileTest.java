@@ -0,0 +1,89 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.InvoiceItemRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceItemResponse;
+import com.example.freelanceapp.dtos.invoice.InvoiceRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import com.example.freelanceapp.entities.InvoiceItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Saving an invoice with its item list updates only the rows whose values changed; items
+ * sent back unchanged are not rewritten, even when tax makes their total a fraction of a cent.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class InvoiceItemReconcileTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void onlyChangedItemsAreUpdated() {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+
+        InvoiceRequest request = new InvoiceRequest();
+        request.setClientId(clientId.toString());
+        request.setTitle("Reconcile");
+        request.setIssueDate(LocalDate.now());
+        request.setDueDate(LocalDate.now().plusDays(30));
+        request.setItems(List.of(
+            item(null, "Design", "3", "3.33", 0),
+            item(null, "Build", "1", "0.07", 1),
+            item(null, "Review", "2", "12.50", 2)));
+        InvoiceResponse created = invoiceService.createInvoice(userId, request);
+        List<InvoiceItemResponse> saved = created.getItems();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Same values sent back: nothing to write
+        InvoiceRequest unchanged = new InvoiceRequest();
+        unchanged.setItems(List.of(
+            item(saved.get(0).getId(), "Design", "3", "3.33", 0),
+            item(saved.get(1).getId(), "Build", "1", "0.07", 1),
+            item(saved.get(2).getId(), "Review", "2", "12.50", 2)));
+        invoiceService.updateInvoice(userId, created.getId(), unchanged);
+        assertThat(itemUpdates(statistics)).isZero();
+
+        // One line edited: one row written
+        InvoiceRequest edited = new InvoiceRequest();
+        edited.setItems(List.of(
+            item(saved.get(0).getId(), "Design", "3", "3.33", 0),
+            item(saved.get(1).getId(), "Build", "2", "0.07", 1),
+            item(saved.get(2).getId(), "Review", "2", "12.50", 2)));
+        invoiceService.updateInvoice(userId, created.getId(), edited);
+        assertThat(itemUpdates(statistics)).isEqualTo(1);
+    }
+
+    private long itemUpdates(Statistics statistics) {
+        return statistics.getEntityStatistics(InvoiceItem.class.getName()).getUpdateCount();
+    }
+
+    private InvoiceItemRequest item(UUID id, String description, String quantity, String unitPrice, int sortOrder) {
+        InvoiceItemRequest item = new InvoiceItemRequest();
+        item.setId(id != null ? id.toString() : null);
+        item.setDescription(description);
+        item.setQuantity(new BigDecimal(quantity));
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        item.setTaxRate(new BigDecimal("7.25"));
+        item.setSortOrder(sortOrder);
+        return item;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The invoice list paths load items, payments and the client/project/quote associations for the
+ * whole list at once, so the number of statements does not depend on the number of invoices.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class InvoiceListQueryCountTest extends PostgresIntegrationTest {
+
+    // Invoices, then items and payments for all of them
+    private static final long LIST_STATEMENTS = 3;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private UUID fewInvoicesUser;
+    private UUID manyInvoicesUser;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        fewInvoicesUser = createUserWithInvoices(2);
+        manyInvoicesUser = createUserWithInvoices(30);
+    }
+
+    @Test
+    void getAllInvoicesUsesAConstantNumberOfStatements() {
+        assertConstantStatements(userId -> invoiceService.getAllInvoices(userId), LIST_STATEMENTS);
+    }
+
+    @Test
+    void getInvoicesByStatusUsesAConstantNumberOfStatements() {
+        assertConstantStatements(userId -> invoiceService.getInvoicesByStatus(userId, "sent"), LIST_STATEMENTS);
+    }
+
+    @Test
+    void getOverdueInvoicesUsesAConstantNumberOfStatements() {
+        assertConstantStatements(userId -> invoiceService.getOverdueInvoices(userId), LIST_STATEMENTS);
+    }
+
+    @Test
+    void getRecentInvoicesUsesAConstantNumberOfStatements() {
+        assertConstantStatements(userId -> invoiceService.getRecentInvoices(userId, 50), LIST_STATEMENTS);
+    }
+
+    @Test
+    void paginatedInvoicesUseAConstantNumberOfStatements() {
+        // Both lists fit on the first page, so no separate count statement is needed
+        assertConstantStatements(userId -> invoiceService.getAllInvoices(userId, PageRequest.of(0, 50)).getContent(),
+            LIST_STATEMENTS);
+    }
+
+    private void assertConstantStatements(Function<UUID, List<InvoiceResponse>> listCall, long expected) {
+        long few = countStatements(() -> listCall.apply(fewInvoicesUser), 2);
+        long many = countStatements(() -> listCall.apply(manyInvoicesUser), 30);
+        assertThat(few).isEqualTo(expected);
+        assertThat(many).isEqualTo(expected);
+    }
+
+    // Runs the call in a read-only transaction, as a request does with open-in-view, so any
+    // lazy association load is counted instead of failing
+    private long countStatements(Supplier<List<InvoiceResponse>> listCall, int expectedInvoices) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        statistics.clear();
+        List<InvoiceResponse> invoices = readOnly.execute(status -> listCall.get());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(invoices).hasSize(expectedInvoices);
+        assertThat(invoices).allSatisfy(invoice -> {
+            assertThat(invoice.getClientName()).isNotNull();
+            assertThat(invoice.getProjectName()).isNotNull();
+            assertThat(invoice.getItems()).hasSize(2);
+            assertThat(invoice.getPayments()).hasSize(1);
+        });
+        return statements;
+    }
+
+    // A user with one client and project and the given number of sent, past-due invoices,
+    // each with two items and one payment
+    private UUID createUserWithInvoices(int invoiceCount) {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId, "Client Ltd");
+        UUID projectId = jdbcTemplate.queryForObject(
+            "INSERT INTO projects (user_id, client_id, name) VALUES (?, ?, 'Project') RETURNING id",
+            UUID.class, userId, clientId);
+
+        for (int i = 0; i < invoiceCount; i++) {
+            UUID invoiceId = pastDueInvoice(userId, clientId, "sent");
+            jdbcTemplate.update("UPDATE invoices SET project_id = ? WHERE id = ?", projectId, invoiceId);
+            jdbcTemplate.update(
+                "INSERT INTO invoice_items (invoice_id, description, quantity, unit_price, total, sort_order) " +
+                "VALUES (?, 'Design', 1, 10, 10, 0), (?, 'Build', 1, 20, 20, 1)", invoiceId, invoiceId);
+            jdbcTemplate.update(
+                "INSERT INTO invoice_payments (invoice_id, payment_method, amount, payment_date, status) " +
+                "VALUES (?, 'bank_transfer', 10, ?, 'completed')", invoiceId, LocalDate.now().minusDays(35));
+        }
+        return userId;
+    }
+}
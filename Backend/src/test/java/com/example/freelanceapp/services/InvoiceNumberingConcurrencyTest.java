@@ -0,0 +1,114 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.InvoiceRequest;
+import com.example.freelanceapp.utils.NumberGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Invoices created from many threads at once (more than the connection pool holds) all get
+ * distinct numbers for the current month, and a create in progress does not keep the month's
+ * counter row locked.
+ */
+class InvoiceNumberingConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int CREATES = 40;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private NumberGenerator numberGenerator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void parallelCreatesGetDistinctNumbers() throws Exception {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CREATES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CREATES; i++) {
+                InvoiceRequest request = new InvoiceRequest();
+                request.setClientId(clientId.toString());
+                request.setTitle("Invoice " + i);
+                request.setIssueDate(LocalDate.now());
+                request.setDueDate(LocalDate.now().plusDays(30));
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return invoiceService.createInvoice(userId, request).getInvoiceNumber();
+                }));
+            }
+            start.countDown();
+
+            List<String> numbers = new ArrayList<>();
+            for (Future<String> result : results) {
+                numbers.add(result.get(60, TimeUnit.SECONDS));
+            }
+
+            String monthPrefix = "INV-" + numberGenerator.currentPeriod() + "-";
+            assertThat(numbers).doesNotHaveDuplicates().allSatisfy(number -> assertThat(number).startsWith(monthPrefix));
+
+            // One node hands its block out in order, so the numbers are still contiguous here
+            List<Long> sequences = numbers.stream()
+                .map(number -> (long) numberGenerator.extractSequenceNumber(number))
+                .sorted()
+                .toList();
+            long first = sequences.get(0);
+            assertThat(sequences).containsExactlyElementsOf(LongStream.range(first, first + CREATES).boxed().toList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void openCreateDoesNotLockTheCounter() {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+        InvoiceRequest request = new InvoiceRequest();
+        request.setClientId(clientId.toString());
+        request.setTitle("Open invoice");
+        request.setIssueDate(LocalDate.now());
+        request.setDueDate(LocalDate.now().plusDays(30));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            invoiceService.createInvoice(userId, request);
+
+            // Another connection can take the counter row's lock while the create is uncommitted
+            String sequenceKey = "INV-" + numberGenerator.currentPeriod();
+            Long locked = new TransactionTemplate(transactionManager, requiresNew()).execute(inner ->
+                jdbcTemplate.queryForObject(
+                    "SELECT next_value FROM document_sequences WHERE sequence_key = ? FOR UPDATE NOWAIT",
+                    Long.class, sequenceKey));
+            assertThat(locked).isNotNull();
+
+            status.setRollbackOnly();
+        });
+    }
+
+    private static DefaultTransactionDefinition requiresNew() {
+        return new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.BulkInvoiceResponse;
+import com.example.freelanceapp.dtos.invoice.InvoiceItemRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The overdue sweep moves past-due invoices that were sent or viewed to overdue, and leaves
+ * past-due drafts as drafts so they can still be edited and deleted. Creating an invoice that is
+ * already past due follows the same rule.
+ */
+class InvoiceOverdueSweepTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private InvoiceOverdueService invoiceOverdueService;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Test
+    void sweepSkipsDrafts() {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+
+        UUID draft = pastDueInvoice(userId, clientId, "draft");
+        UUID sent = pastDueInvoice(userId, clientId, "sent");
+        UUID viewed = pastDueInvoice(userId, clientId, "viewed");
+
+        invoiceOverdueService.sweep();
+
+        assertThat(status(draft)).isEqualTo("draft");
+        assertThat(status(sent)).isEqualTo("overdue");
+        assertThat(status(viewed)).isEqualTo("overdue");
+    }
+
+    @Test
+    void pastDueDraftsStayDraftsWhenCreated() {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+
+        InvoiceResponse created = invoiceService.createInvoice(userId, pastDueRequest(clientId));
+        BulkInvoiceResponse bulk = invoiceService.createInvoices(userId, List.of(pastDueRequest(clientId)));
+
+        assertThat(created.getStatus()).isEqualTo("draft");
+        assertThat(status(bulk.getResults().get(0).getInvoice().getId())).isEqualTo("draft");
+    }
+
+    @Test
+    void invoiceMarkedViewedByHandCountsAsSent() {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+        UUID invoiceId = pastDueInvoice(userId, clientId, "draft");
+
+        invoiceService.updateInvoiceStatus(userId, invoiceId, "viewed");
+        invoiceOverdueService.sweep();
+
+        assertThat(status(invoiceId)).isEqualTo("overdue");
+    }
+
+    private InvoiceRequest pastDueRequest(UUID clientId) {
+        InvoiceItemRequest item = new InvoiceItemRequest();
+        item.setDescription("Design");
+        item.setQuantity(BigDecimal.ONE);
+        item.setUnitPrice(new BigDecimal("100"));
+
+        InvoiceRequest request = new InvoiceRequest();
+        request.setClientId(clientId.toString());
+        request.setTitle("Late draft");
+        request.setIssueDate(LocalDate.now().minusDays(40));
+        request.setDueDate(LocalDate.now().minusDays(30));
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    private String status(UUID invoiceId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM invoices WHERE id = ?", String.class, invoiceId);
+    }
+}
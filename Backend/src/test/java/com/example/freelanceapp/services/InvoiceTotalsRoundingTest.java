@@ -0,0 +1,73 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.InvoiceItemRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Item totals that are not whole cents are rounded before they reach the invoice header, so
+ * the stored subtotal always equals SUM(invoice_items.total) after creating and editing items.
+ */
+class InvoiceTotalsRoundingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceItemService invoiceItemService;
+
+    @Test
+    void subtotalMatchesStoredItemTotals() {
+        UUID userId = createUser();
+        UUID clientId = createClient(userId);
+
+        // Each line is half a cent: unrounded they sum to 0.015, stored they are 0.01 each
+        InvoiceRequest request = new InvoiceRequest();
+        request.setClientId(clientId.toString());
+        request.setTitle("Rounding");
+        request.setIssueDate(LocalDate.now());
+        request.setDueDate(LocalDate.now().plusDays(30));
+        request.setItems(List.of(halfCentItem(null), halfCentItem(null), halfCentItem(null)));
+        InvoiceResponse created = invoiceService.createInvoice(userId, request);
+        assertSubtotalMatchesItems(created.getId());
+
+        // Keep one line, drop one, add two new ones
+        InvoiceRequest update = new InvoiceRequest();
+        update.setItems(List.of(
+            halfCentItem(created.getItems().get(0).getId().toString()),
+            halfCentItem(null),
+            halfCentItem(null)));
+        invoiceService.updateInvoice(userId, created.getId(), update);
+        assertSubtotalMatchesItems(created.getId());
+
+        invoiceItemService.addInvoiceItem(userId, created.getId(), halfCentItem(null));
+        assertSubtotalMatchesItems(created.getId());
+    }
+
+    private InvoiceItemRequest halfCentItem(String id) {
+        InvoiceItemRequest item = new InvoiceItemRequest();
+        item.setId(id);
+        item.setDescription("Half a cent");
+        item.setQuantity(BigDecimal.ONE);
+        item.setUnitPrice(new BigDecimal("0.005"));
+        return item;
+    }
+
+    private void assertSubtotalMatchesItems(UUID invoiceId) {
+        BigDecimal subtotal = jdbcTemplate.queryForObject(
+            "SELECT subtotal FROM invoices WHERE id = ?", BigDecimal.class, invoiceId);
+        BigDecimal itemsTotal = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(total), 0) FROM invoice_items WHERE invoice_id = ?", BigDecimal.class, invoiceId);
+        assertThat(subtotal).isEqualByComparingTo(itemsTotal);
+    }
+}
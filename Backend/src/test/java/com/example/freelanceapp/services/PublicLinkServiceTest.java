@@ -0,0 +1,75 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.invoice.InvoiceRequest;
+import com.example.freelanceapp.dtos.invoice.InvoiceResponse;
+import com.example.freelanceapp.dtos.publiclink.PublicLinkResponse;
+import com.example.freelanceapp.exceptions.NotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Signed public links name the document by id only: the permanent public hash never appears
+ * in the token, the link resolves the document by id, and a tampered token is rejected.
+ * Hash links sent before signed links existed still resolve to the same document.
+ */
+class PublicLinkServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PublicLinkService publicLinkService;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Test
+    void invoiceLinkCarriesNoPublicHash() {
+        UUID userId = createUser();
+        InvoiceResponse invoice = createInvoice(userId);
+
+        PublicLinkResponse link = publicLinkService.createInvoiceLink(userId, invoice.getId(), 7);
+
+        String payload = new String(Base64.getUrlDecoder().decode(link.getToken().split("\\.")[1]),
+            StandardCharsets.UTF_8);
+        assertThat(payload)
+            .contains(invoice.getId().toString())
+            .doesNotContain("\"hash\"")
+            .doesNotContain(invoice.getPublicHash());
+
+        assertThat(publicLinkService.viewInvoice(link.getToken()).getId()).isEqualTo(invoice.getId());
+
+        String tampered = link.getToken().substring(0, link.getToken().length() - 2) + "xx";
+        assertThatThrownBy(() -> publicLinkService.viewInvoice(tampered))
+            .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void legacyHashLinkStillResolves() {
+        UUID userId = createUser();
+        InvoiceResponse invoice = createInvoice(userId);
+        assertThat(invoice.getPublicHash()).isNotBlank();
+
+        assertThat(publicLinkService.viewInvoiceByPublicHash(invoice.getPublicHash()).getId())
+            .isEqualTo(invoice.getId());
+        assertThatThrownBy(() -> publicLinkService.viewInvoiceByPublicHash("no-such-hash"))
+            .isInstanceOf(NotFoundException.class);
+    }
+
+    private InvoiceResponse createInvoice(UUID userId) {
+        UUID clientId = createClient(userId);
+
+        InvoiceRequest request = new InvoiceRequest();
+        request.setClientId(clientId.toString());
+        request.setTitle("Shared");
+        request.setIssueDate(LocalDate.now());
+        request.setDueDate(LocalDate.now().plusDays(30));
+        return invoiceService.createInvoice(userId, request);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.reminder.ReminderRequest;
+import com.example.freelanceapp.dtos.reminder.ReminderResponse;
+import com.example.freelanceapp.utils.RecurrenceRule;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk complete is one statement, series included: each pending series records its current
+ * occurrence as completed and moves to the next open rule date (skipping cancelled occurrences
+ * and applying a stored snooze) exactly as completing it on its own does, a series whose rule is
+ * exhausted ends, and other users' reminders are left alone. The next date the statement
+ * computes is the one RecurrenceRule.nextAfter gives, for every pattern, with intervals and
+ * series that start at a month end.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReminderBulkCompleteTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void completesOneOffsAndSeriesInOneStatement() {
+        UUID userId = createUser();
+        UUID otherUserId = createUser();
+        LocalDate start = LocalDate.now().plusDays(5);
+        LocalDate monthEnd = LocalDate.of(LocalDate.now().getYear() + 1, 1, 31);
+
+        // The same weekly series twice: one completed in bulk, one on its own for comparison
+        UUID weekly = createSeries(userId, "weekly", start, null).getId();
+        UUID weeklySingle = createSeries(userId, "weekly", start, null).getId();
+        for (UUID id : List.of(weekly, weeklySingle)) {
+            reminderService.cancelOccurrence(userId, id, start.plusWeeks(1));
+            jdbcTemplate.update(
+                "INSERT INTO reminder_occurrence_exceptions (reminder_id, occurrence_date, status, due_date, due_time) " +
+                "VALUES (?, ?, 'snoozed', ?, '15:00')", id, start.plusWeeks(2), start.plusWeeks(2).plusDays(2));
+        }
+        UUID monthly = createSeries(userId, "monthly", monthEnd, null).getId();
+        UUID lastOccurrence = createSeries(userId, "daily", start, start).getId();
+        UUID oneOff = createOneOff(userId, start);
+        UUID otherUsers = createOneOff(otherUserId, start);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        reminderService.bulkUpdateReminderStatus(userId,
+            List.of(weekly, monthly, lastOccurrence, oneOff, otherUsers), "completed");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        ReminderResponse single = reminderService.markAsCompleted(userId, weeklySingle);
+        assertThat(single.getOccurrenceDate()).isEqualTo(start.plusWeeks(2));
+        assertThat(row(weekly)).containsEntry("status", "pending")
+            .containsEntry("occurrence_date", single.getOccurrenceDate().toString())
+            .containsEntry("due_date", single.getDueDate().toString())
+            .containsEntry("due_time", single.getDueTime().toString());
+        assertThat(single.getDueTime()).isEqualTo(LocalTime.of(15, 0));
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT status FROM reminder_occurrence_exceptions WHERE reminder_id = ? AND occurrence_date = ?",
+            String.class, weekly, start)).isEqualTo("completed");
+
+        assertThat(row(monthly)).containsEntry("status", "pending")
+            .containsEntry("occurrence_date", monthEnd.plusMonths(1).toString());
+        assertThat(row(lastOccurrence)).containsEntry("status", "completed");
+        assertThat(row(oneOff)).containsEntry("status", "completed");
+        assertThat(row(otherUsers)).containsEntry("status", "pending");
+    }
+
+    @Test
+    void nextDateMatchesRecurrenceRule() {
+        UUID userId = createUser();
+        LocalDate jan31 = LocalDate.of(2027, 1, 31);
+        LocalDate leapDay = LocalDate.of(2028, 2, 29);
+
+        // Each series with its rule, moved on to its n-th occurrence before the bulk complete
+        Map<UUID, RecurrenceRule> rules = new LinkedHashMap<>();
+        series(userId, rules, "daily", 1, jan31, null, 0);
+        series(userId, rules, "daily", 3, jan31, null, 5);
+        series(userId, rules, "weekly", 1, jan31, null, 0);
+        series(userId, rules, "weekly", 2, jan31, null, 3);
+        series(userId, rules, "monthly", 1, jan31, null, 0);
+        series(userId, rules, "monthly", 1, jan31, null, 1);
+        series(userId, rules, "monthly", 1, jan31, null, 2);
+        series(userId, rules, "monthly", 2, LocalDate.of(2027, 12, 31), null, 0);
+        series(userId, rules, "monthly", 3, LocalDate.of(2027, 11, 30), null, 1);
+        series(userId, rules, "monthly", 6, LocalDate.of(2027, 8, 31), null, 0);
+        series(userId, rules, "yearly", 1, leapDay, null, 0);
+        series(userId, rules, "yearly", 1, leapDay, null, 3);
+        series(userId, rules, "yearly", 2, LocalDate.of(2027, 3, 15), null, 1);
+        series(userId, rules, "weekly", 1, jan31, jan31.plusDays(13), 1);
+        series(userId, rules, "monthly", 1, jan31, LocalDate.of(2027, 3, 31), 1);
+
+        Map<UUID, LocalDate> completedOccurrences = new LinkedHashMap<>();
+        rules.keySet().forEach(id -> completedOccurrences.put(id, LocalDate.parse((String) row(id).get("occurrence_date"))));
+        reminderService.bulkUpdateReminderStatus(userId, List.copyOf(rules.keySet()), "completed");
+
+        rules.forEach((id, rule) -> {
+            LocalDate next = rule.nextAfter(completedOccurrences.get(id));
+            Map<String, Object> row = row(id);
+            if (next != null) {
+                assertThat(row).as("%s after %s", rule, completedOccurrences.get(id))
+                    .containsEntry("status", "pending")
+                    .containsEntry("occurrence_date", next.toString())
+                    .containsEntry("due_date", next.toString());
+            } else {
+                assertThat(row).as("%s after %s", rule, completedOccurrences.get(id))
+                    .containsEntry("status", "completed");
+            }
+        });
+    }
+
+    private Map<String, Object> row(UUID reminderId) {
+        return jdbcTemplate.queryForMap(
+            "SELECT status, CAST(occurrence_date AS text) AS occurrence_date, CAST(due_date AS text) AS due_date, " +
+            "to_char(due_time, 'HH24:MI') AS due_time FROM reminders WHERE id = ?", reminderId);
+    }
+
+    private ReminderResponse createSeries(UUID userId, String pattern, LocalDate start, LocalDate until) {
+        ReminderRequest request = new ReminderRequest();
+        request.setTitle("Series");
+        request.setDueDate(start);
+        request.setIsRecurring(true);
+        request.setRecurrencePattern(pattern);
+        request.setRecurrenceUntil(until);
+        return reminderService.createReminder(userId, request);
+    }
+
+    // A series on the rule, with its current occurrence moved to the rule's n-th date
+    private void series(UUID userId, Map<UUID, RecurrenceRule> rules, String pattern, int interval,
+                        LocalDate start, LocalDate until, int occurrence) {
+        ReminderRequest request = new ReminderRequest();
+        request.setTitle("Series");
+        request.setDueDate(start);
+        request.setIsRecurring(true);
+        request.setRecurrencePattern(pattern);
+        request.setRecurrenceInterval(interval);
+        request.setRecurrenceUntil(until);
+        UUID id = reminderService.createReminder(userId, request).getId();
+
+        RecurrenceRule rule = RecurrenceRule.of(pattern, start, interval, until);
+        LocalDate current = start;
+        for (int i = 0; i < occurrence; i++) {
+            current = rule.nextAfter(current);
+        }
+        jdbcTemplate.update("UPDATE reminders SET occurrence_date = ?, due_date = ? WHERE id = ?", current, current, id);
+        rules.put(id, rule);
+    }
+
+    private UUID createOneOff(UUID userId, LocalDate due) {
+        ReminderRequest request = new ReminderRequest();
+        request.setTitle("One-off");
+        request.setDueDate(due);
+        return reminderService.createReminder(userId, request).getId();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.reminder.ReminderNotificationResponse;
+import com.example.freelanceapp.dtos.reminder.ReminderRequest;
+import com.example.freelanceapp.dtos.reminder.ReminderResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A reminder saved after its due time fires on the next tick, even when it is further in
+ * the past than the catch-up period (which only limits the backlog from before startup).
+ */
+class ReminderDispatchCatchUpTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private ReminderDispatchService reminderDispatchService;
+
+    @Autowired
+    private InAppReminderNotifier inAppReminderNotifier;
+
+    @Test
+    void reminderSavedPastDueFires() {
+        UUID userId = createUser();
+
+        ReminderRequest request = new ReminderRequest();
+        request.setTitle("Send the invoice");
+        request.setDueDate(LocalDate.now());
+        request.setDueTime(LocalTime.MIDNIGHT);
+        ReminderResponse reminder = reminderService.createReminder(userId, request);
+
+        reminderDispatchService.fireDue();
+
+        assertThat(inAppReminderNotifier.getRecent(userId))
+            .extracting(ReminderNotificationResponse::getReminderId)
+            .containsExactly(reminder.getId());
+        Integer notified = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM reminders WHERE id = ? AND notified_at IS NOT NULL", Integer.class, reminder.getId());
+        assertThat(notified).isEqualTo(1);
+    }
+}
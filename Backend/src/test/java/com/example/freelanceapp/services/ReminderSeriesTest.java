@@ -0,0 +1,66 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.reminder.ReminderRequest;
+import com.example.freelanceapp.dtos.reminder.ReminderResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recurring reminders as series: a date range lists each occurrence once, honouring snoozes
+ * into and out of the range and cancelled occurrences.
+ */
+class ReminderSeriesTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Test
+    void rangeExpansionHonoursSnoozesAndCancellations() {
+        UUID userId = createUser();
+        LocalDate start = LocalDate.now().plusDays(10);
+        ReminderResponse series = createWeeklySeries(userId, start);
+
+        // Current occurrence snoozed by a day, the second cancelled, the third snoozed by two days
+        // and the fourth snoozed out of the first range
+        reminderService.snoozeReminder(userId, series.getId(), 1, null);
+        reminderService.cancelOccurrence(userId, series.getId(), start.plusWeeks(1));
+        snoozeOccurrence(series.getId(), start.plusWeeks(2), start.plusWeeks(2).plusDays(2));
+        snoozeOccurrence(series.getId(), start.plusWeeks(3), start.plusDays(40));
+
+        ReminderRequest oneOff = new ReminderRequest();
+        oneOff.setTitle("Call client");
+        oneOff.setDueDate(start.plusDays(3));
+        reminderService.createReminder(userId, oneOff);
+
+        assertThat(reminderService.getRemindersByDueDateRange(userId, start, start.plusDays(27)))
+            .extracting(ReminderResponse::getDueDate)
+            .containsExactly(start.plusDays(1), start.plusDays(3), start.plusDays(16));
+
+        // A later range picks up the plain rule dates and the occurrence snoozed into it
+        assertThat(reminderService.getRemindersByDueDateRange(userId, start.plusDays(22), start.plusDays(40)))
+            .extracting(ReminderResponse::getDueDate)
+            .containsExactly(start.plusDays(28), start.plusDays(35), start.plusDays(40));
+    }
+
+    private ReminderResponse createWeeklySeries(UUID userId, LocalDate start) {
+        ReminderRequest request = new ReminderRequest();
+        request.setTitle("Weekly report");
+        request.setDueDate(start);
+        request.setIsRecurring(true);
+        request.setRecurrencePattern("weekly");
+        return reminderService.createReminder(userId, request);
+    }
+
+    // A later occurrence moved to another date (as stored by a bulk snooze once it is current)
+    private void snoozeOccurrence(UUID reminderId, LocalDate occurrenceDate, LocalDate dueDate) {
+        jdbcTemplate.update(
+            "INSERT INTO reminder_occurrence_exceptions (reminder_id, occurrence_date, status, due_date) " +
+            "VALUES (?, ?, 'snoozed', ?)", reminderId, occurrenceDate, dueDate);
+    }
+}
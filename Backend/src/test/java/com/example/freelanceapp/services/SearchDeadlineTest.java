@@ -0,0 +1,69 @@
+package com.example.freelanceapp.services;
+
+import com.example.freelanceapp.PostgresIntegrationTest;
+import com.example.freelanceapp.dtos.search.SearchHitResponse;
+import com.example.freelanceapp.dtos.search.SearchResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A search query that misses the deadline is stopped in the database, not just abandoned:
+ * with the clients table locked the client query blocks, is reported as incomplete, and no
+ * longer holds a connection waiting on the lock once the deadline has passed.
+ */
+class SearchDeadlineTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void searchFindsMatches() {
+        UUID userId = seedUserWithClient();
+
+        SearchResponse response = searchService.search(userId, "Acme", 5);
+
+        assertThat(response.getIncompleteTypes()).isEmpty();
+        assertThat(response.getHits()).extracting(SearchHitResponse::getType).contains("client");
+    }
+
+    @Test
+    void blockedQueryIsCancelledAtTheDeadline() throws Exception {
+        UUID userId = seedUserWithClient();
+
+        try (Connection locker = dataSource.getConnection()) {
+            locker.setAutoCommit(false);
+            try (Statement statement = locker.createStatement()) {
+                statement.execute("LOCK TABLE clients IN ACCESS EXCLUSIVE MODE");
+            }
+
+            SearchResponse response = searchService.search(userId, "Acme", 5);
+            assertThat(response.getIncompleteTypes()).contains("client");
+
+            // Give the server a moment past the deadline, then look for search queries still waiting
+            Thread.sleep(500);
+            Integer waiting = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_stat_activity " +
+                "WHERE pid <> pg_backend_pid() AND wait_event_type = 'Lock' AND query LIKE '%word_similarity%'",
+                Integer.class);
+            assertThat(waiting).isZero();
+
+            locker.rollback();
+        }
+    }
+
+    private UUID seedUserWithClient() {
+        UUID userId = createUser();
+        createClient(userId, "Acme Corp");
+        return userId;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.freelanceapp.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Occurrences are counted from the series start: a monthly series on the 31st clamps to
+ * shorter months and comes back to the 31st, intervals skip the dates in between, and
+ * nothing is produced past the end date.
+ */
+class RecurrenceRuleTest {
+
+    @Test
+    void monthlySeriesKeepsItsDayAfterShorterMonths() {
+        RecurrenceRule rule = RecurrenceRule.of("monthly", LocalDate.of(2024, 1, 31), 1, null);
+
+        assertThat(rule.between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 5, 31), 10)).containsExactly(
+            LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31),
+            LocalDate.of(2024, 4, 30), LocalDate.of(2024, 5, 31));
+        assertThat(rule.nextAfter(LocalDate.of(2024, 2, 29))).isEqualTo(LocalDate.of(2024, 3, 31));
+        assertThat(rule.includes(LocalDate.of(2024, 4, 30))).isTrue();
+        assertThat(rule.includes(LocalDate.of(2024, 4, 29))).isFalse();
+    }
+
+    @Test
+    void intervalSkipsTheDatesInBetween() {
+        RecurrenceRule rule = RecurrenceRule.of("weekly", LocalDate.of(2024, 3, 4), 2, null);
+
+        assertThat(rule.between(LocalDate.of(2024, 3, 10), LocalDate.of(2024, 4, 15), 10)).containsExactly(
+            LocalDate.of(2024, 3, 18), LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 15));
+        assertThat(rule.nextAfter(LocalDate.of(2024, 3, 4))).isEqualTo(LocalDate.of(2024, 3, 18));
+        assertThat(rule.includes(LocalDate.of(2024, 3, 11))).isFalse();
+    }
+
+    @Test
+    void seriesEndsAtItsUntilDate() {
+        RecurrenceRule rule = RecurrenceRule.of("daily", LocalDate.of(2024, 6, 1), 3, LocalDate.of(2024, 6, 8));
+
+        assertThat(rule.between(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 7, 1), 10)).containsExactly(
+            LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 4), LocalDate.of(2024, 6, 7));
+        assertThat(rule.nextAfter(LocalDate.of(2024, 6, 7))).isNull();
+        assertThat(rule.includes(LocalDate.of(2024, 6, 10))).isFalse();
+    }
+
+    @Test
+    void expansionStopsAtTheCap() {
+        RecurrenceRule rule = RecurrenceRule.of("daily", LocalDate.of(2024, 1, 1), null, null);
+
+        assertThat(rule.between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), 5)).hasSize(5);
+    }
+}
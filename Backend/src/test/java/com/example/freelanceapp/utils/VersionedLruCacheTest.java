@@ -0,0 +1,93 @@
+package com.example.freelanceapp.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Loads are cached unless an eviction or update of the same key overlapped them, changes to
+ * other keys leave a load alone, entries failing the caller's check are reloaded, and the
+ * cache stays within its size bound.
+ */
+class VersionedLruCacheTest {
+
+    @Test
+    void loadOverlappingAnEvictionIsNotCached() {
+        VersionedLruCache<String, String> cache = new VersionedLruCache<>(10, 0);
+
+        String loaded = cache.get("a", () -> {
+            cache.evict("a");
+            return "stale";
+        });
+        assertThat(loaded).isEqualTo("stale");
+
+        assertThat(cache.get("a", () -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.get("a", () -> "reloaded")).isEqualTo("fresh");
+    }
+
+    @Test
+    void loadOverlappingAnUpdateIsNotCached() {
+        VersionedLruCache<String, String> cache = new VersionedLruCache<>(10, 0);
+
+        cache.get("a", () -> {
+            cache.currentForUpdate("a");
+            return "stale";
+        });
+
+        assertThat(cache.get("a", () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void changesToOtherKeysDoNotDiscardALoad() {
+        VersionedLruCache<String, String> cache = new VersionedLruCache<>(10, 0);
+        cache.get("b", () -> "b");
+
+        cache.get("a", () -> {
+            cache.evict("b");
+            cache.currentForUpdate("c");
+            return "loaded";
+        });
+
+        assertThat(cache.get("a", () -> "reloaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        VersionedLruCache<String, String> cache = new VersionedLruCache<>(10, 0);
+
+        assertThatThrownBy(() -> cache.get("a", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("a", () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get("a", () -> "reloaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    void unusableEntryIsReloaded() {
+        VersionedLruCache<String, String> cache = new VersionedLruCache<>(10, 0);
+        cache.get("a", () -> "monday");
+
+        assertThat(cache.get("a", value -> value.equals("tuesday"), () -> "tuesday")).isEqualTo("tuesday");
+        assertThat(cache.get("a", () -> "other")).isEqualTo("tuesday");
+    }
+
+    @Test
+    void entriesBeyondTheBoundAreDropped() {
+        VersionedLruCache<Integer, Integer> cache = new VersionedLruCache<>(2, 0);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int key = 0; key < 10; key++) {
+            cache.get(key, loads::incrementAndGet);
+        }
+        for (int key = 0; key < 10; key++) {
+            cache.get(key, loads::incrementAndGet);
+        }
+
+        // At most two of the ten keys can still be cached on the second pass
+        assertThat(loads.get()).isGreaterThanOrEqualTo(18);
+    }
+}
@@ -0,0 +1,42 @@
+-- =============================================
+-- RECURRING REMINDERS AS SERIES
+-- =============================================
+
+-- A recurring reminder is one row describing the series (RRULE-style pattern,
+-- interval and end date, anchored at series_start). Occurrences are expanded on
+-- read; the row's due_date/due_time track the current open occurrence
+-- (occurrence_date is its nominal date), and only occurrences that differ from
+-- the series are stored, in reminder_occurrence_exceptions.
+ALTER TABLE reminders
+    ADD COLUMN recurrence_interval INT NOT NULL DEFAULT 1,
+    ADD COLUMN recurrence_until DATE,
+    ADD COLUMN series_start DATE,
+    ADD COLUMN series_time TIME,
+    ADD COLUMN occurrence_date DATE;
+
+UPDATE reminders
+SET series_start = due_date,
+    series_time = due_time,
+    occurrence_date = due_date
+WHERE is_recurring = TRUE AND due_date IS NOT NULL;
+
+CREATE TABLE reminder_occurrence_exceptions (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    reminder_id UUID NOT NULL REFERENCES reminders(id) ON DELETE CASCADE,
+    occurrence_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL, -- completed, cancelled, snoozed
+    due_date DATE,
+    due_time TIME,
+    completed_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (reminder_id, occurrence_date)
+);
+
+-- Snoozed occurrences looked up by the date they were moved to
+CREATE INDEX idx_reminder_exceptions_due_date ON reminder_occurrence_exceptions(reminder_id, due_date)
+    WHERE due_date IS NOT NULL;
+
+-- Serves the range expansion: pending series of a user that start before the range end
+CREATE INDEX idx_reminders_pending_series ON reminders(user_id, series_start)
+    WHERE is_recurring = TRUE AND status = 'pending';
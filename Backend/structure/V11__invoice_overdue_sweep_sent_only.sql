@@ -0,0 +1,11 @@
+-- =============================================
+-- INVOICE OVERDUE SWEEP: SENT INVOICES ONLY
+-- =============================================
+
+-- The sweep no longer touches drafts (WHERE status IN ('sent', 'viewed') AND due_date < ?):
+-- a draft has not reached the client, and moving it to overdue took away editing and
+-- deleting, which only drafts allow. Rebuild the partial index for the narrower rule.
+DROP INDEX IF EXISTS idx_invoices_overdue_candidates;
+
+CREATE INDEX idx_invoices_overdue_candidates ON invoices(due_date)
+    WHERE status IN ('sent', 'viewed') AND balance_due > 0 AND amount_paid = 0;
@@ -0,0 +1,15 @@
+-- =============================================
+-- INVOICE OVERDUE RULE: SENT_AT
+-- =============================================
+
+-- An invoice becomes overdue only once it was sent, decided by sent_at both in the sweep
+-- (Invoice.OVERDUE_CONDITION) and when payments or items change the status. Invoices already
+-- past draft without a sent_at (status set by hand) get one, so they keep going overdue.
+UPDATE invoices
+SET sent_at = COALESCE(viewed_at, updated_at, created_at, CURRENT_TIMESTAMP)
+WHERE sent_at IS NULL AND status IN ('sent', 'viewed', 'overdue', 'partial', 'paid');
+
+DROP INDEX IF EXISTS idx_invoices_overdue_candidates;
+
+CREATE INDEX idx_invoices_overdue_candidates ON invoices(due_date)
+    WHERE status IN ('sent', 'viewed') AND sent_at IS NOT NULL AND balance_due > 0 AND amount_paid = 0;
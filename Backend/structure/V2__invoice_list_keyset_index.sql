@@ -0,0 +1,7 @@
+-- =============================================
+-- INVOICE LIST KEYSET PAGINATION
+-- =============================================
+
+-- Serves GET /invoices/list: WHERE user_id = ? AND (created_at, id) < (?, ?)
+-- ORDER BY created_at DESC, id DESC LIMIT ?
+CREATE INDEX idx_invoices_user_created ON invoices(user_id, created_at DESC, id DESC);
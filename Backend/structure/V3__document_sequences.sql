@@ -0,0 +1,15 @@
+-- =============================================
+-- DOCUMENT NUMBER SEQUENCES
+-- =============================================
+
+-- One counter row per prefix and period (e.g. INV-202601). Application nodes
+-- reserve numbers in blocks with a single UPDATE ... RETURNING, so issuing a
+-- number no longer scans invoices/quotes for the current maximum.
+CREATE TABLE document_sequences (
+    sequence_key VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- generate_invoice_number / generate_quote_number only fire when the number is
+-- NULL; they stay as a fallback for rows inserted outside the application.
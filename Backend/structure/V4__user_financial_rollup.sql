@@ -0,0 +1,41 @@
+-- =============================================
+-- USER FINANCIAL ROLLUP
+-- =============================================
+
+-- Per-user read model behind GET /api/user/dashboard/summary. Kept current by
+-- deltas from the invoice, quote and payment services and verified nightly
+-- against the base tables (FinancialRollupService.verifyAll).
+CREATE TABLE user_financial_rollup (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+
+    invoice_count BIGINT NOT NULL DEFAULT 0,
+    draft_invoice_count BIGINT NOT NULL DEFAULT 0,
+    sent_invoice_count BIGINT NOT NULL DEFAULT 0,
+    viewed_invoice_count BIGINT NOT NULL DEFAULT 0,
+    partial_invoice_count BIGINT NOT NULL DEFAULT 0,
+    paid_invoice_count BIGINT NOT NULL DEFAULT 0,
+    overdue_invoice_count BIGINT NOT NULL DEFAULT 0,
+    cancelled_invoice_count BIGINT NOT NULL DEFAULT 0,
+    total_invoiced DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+    total_paid DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+    total_balance_due DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+    overdue_balance DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+
+    quote_count BIGINT NOT NULL DEFAULT 0,
+    draft_quote_count BIGINT NOT NULL DEFAULT 0,
+    sent_quote_count BIGINT NOT NULL DEFAULT 0,
+    accepted_quote_count BIGINT NOT NULL DEFAULT 0,
+    rejected_quote_count BIGINT NOT NULL DEFAULT 0,
+    expired_quote_count BIGINT NOT NULL DEFAULT 0,
+    accepted_quotes_total DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+
+    completed_payment_count BIGINT NOT NULL DEFAULT 0,
+    total_payments_received DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+    pending_payment_count BIGINT NOT NULL DEFAULT 0,
+    pending_payments_total DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Rows are created on a user's first change or dashboard read; the nightly
+-- verification job fills in anything missing.
@@ -0,0 +1,27 @@
+-- =============================================
+-- INVOICE TOTALS: SINGLE AUTHORITATIVE PATH
+-- =============================================
+
+-- Invoice subtotal/amount_paid/balance_due are maintained by the application
+-- (InvoiceService.applyTotalsDelta), which applies each item or payment change
+-- as a delta under a row lock. The per-row triggers re-aggregated items and
+-- payments on every change (and keyed the update on the item/payment id, so
+-- their result never reached the invoice); drop them.
+DROP TRIGGER IF EXISTS update_invoice_totals_trigger ON invoice_items;
+DROP TRIGGER IF EXISTS update_invoice_payments_trigger ON invoice_payments;
+DROP FUNCTION IF EXISTS update_invoice_totals();
+
+-- One-off resync so the deltas start from correct stored totals
+UPDATE invoices i
+SET subtotal = t.subtotal,
+    total_amount = t.subtotal + COALESCE(i.tax_amount, 0) - COALESCE(i.discount_amount, 0),
+    amount_paid = t.amount_paid,
+    balance_due = t.subtotal + COALESCE(i.tax_amount, 0) - COALESCE(i.discount_amount, 0) - t.amount_paid
+FROM (
+    SELECT inv.id,
+           COALESCE((SELECT SUM(ii.total) FROM invoice_items ii WHERE ii.invoice_id = inv.id), 0) AS subtotal,
+           COALESCE((SELECT SUM(ip.amount) FROM invoice_payments ip
+                     WHERE ip.invoice_id = inv.id AND ip.status = 'completed'), 0) AS amount_paid
+    FROM invoices inv
+) t
+WHERE t.id = i.id;
@@ -0,0 +1,9 @@
+-- =============================================
+-- INVOICE OVERDUE SWEEP
+-- =============================================
+
+-- Serves the scheduled sweep: WHERE status IN ('draft', 'sent', 'viewed') AND due_date < ?
+-- Only invoices that can still become overdue are indexed, so the index stays small.
+CREATE INDEX idx_invoices_overdue_candidates ON invoices(due_date)
+    WHERE status IN ('draft', 'sent', 'viewed') AND balance_due > 0 AND amount_paid = 0;
+
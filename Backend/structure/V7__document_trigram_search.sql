@@ -0,0 +1,17 @@
+-- =============================================
+-- INVOICE / QUOTE TRIGRAM SEARCH
+-- =============================================
+
+-- Serves GET /invoices/search and GET /quotes/search: ILIKE '%term%' on number,
+-- title and client names, ranked by word_similarity(). Trigram GIN indexes let
+-- the substring match use an index instead of scanning every document.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_invoices_number_trgm ON invoices USING gin (invoice_number gin_trgm_ops);
+CREATE INDEX idx_invoices_title_trgm ON invoices USING gin (title gin_trgm_ops);
+
+CREATE INDEX idx_quotes_number_trgm ON quotes USING gin (quote_number gin_trgm_ops);
+CREATE INDEX idx_quotes_title_trgm ON quotes USING gin (title gin_trgm_ops);
+
+CREATE INDEX idx_clients_company_name_trgm ON clients USING gin (company_name gin_trgm_ops);
+CREATE INDEX idx_clients_contact_name_trgm ON clients USING gin (contact_name gin_trgm_ops);
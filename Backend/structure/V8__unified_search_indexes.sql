@@ -0,0 +1,9 @@
+-- =============================================
+-- UNIFIED SEARCH
+-- =============================================
+
+-- Serves GET /api/search: ILIKE '%term%' on project names, reminder titles and
+-- client emails (client names, quotes and invoices are covered by V7).
+CREATE INDEX idx_projects_name_trgm ON projects USING gin (name gin_trgm_ops);
+CREATE INDEX idx_reminders_title_trgm ON reminders USING gin (title gin_trgm_ops);
+CREATE INDEX idx_clients_email_trgm ON clients USING gin (email gin_trgm_ops);
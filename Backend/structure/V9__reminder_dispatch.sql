@@ -0,0 +1,13 @@
+-- =============================================
+-- REMINDER DISPATCH
+-- =============================================
+
+-- Set when the in-process dispatcher fires a reminder, so each one fires once
+-- (cleared again when a reminder is rescheduled).
+ALTER TABLE reminders ADD COLUMN notified_at TIMESTAMP;
+
+-- Serves the dispatcher's once-a-minute window query on the due instant
+-- (due_date + due_time, 09:00 when no time is set). Only reminders that can
+-- still fire are indexed.
+CREATE INDEX idx_reminders_dispatch_due ON reminders ((due_date + COALESCE(due_time, TIME '09:00')))
+    WHERE status = 'pending' AND notified_at IS NULL;
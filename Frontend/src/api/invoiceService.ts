@@ -286,7 +286,13 @@ export const invoiceService = {
 
   // ========== PUBLIC ENDPOINTS ==========
 
-  // Get invoice by public hash
+  // Get invoice through a signed public link
+  getInvoiceByLinkToken: async (token: string): Promise<Invoice> => {
+    const response = await api.get(`/public/invoices/${token}`);
+    return response.data;
+  },
+
+  // Deprecated: only for links sent before signed links existed (use getInvoiceByLinkToken)
   getInvoiceByPublicHash: async (publicHash: string): Promise<Invoice> => {
     const response = await api.get(`/user/client/project/quote/invoices/public/${publicHash}`);
     return response.data;
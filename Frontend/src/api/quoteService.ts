@@ -198,19 +198,37 @@ export const quoteService = {
 
   // ========== PUBLIC ENDPOINTS ==========
 
-  // Get quote by public hash
+  // Get quote through a signed public link
+  getQuoteByLinkToken: async (token: string): Promise<Quote> => {
+    const response = await api.get(`/public/quotes/${token}`);
+    return response.data;
+  },
+
+  // Accept quote through a signed public link
+  acceptQuoteByLinkToken: async (token: string): Promise<Quote> => {
+    const response = await api.post(`/public/quotes/${token}/accept`);
+    return response.data;
+  },
+
+  // Reject quote through a signed public link
+  rejectQuoteByLinkToken: async (token: string): Promise<Quote> => {
+    const response = await api.post(`/public/quotes/${token}/reject`);
+    return response.data;
+  },
+
+  // Deprecated: only for links sent before signed links existed (use getQuoteByLinkToken)
   getQuoteByPublicHash: async (publicHash: string): Promise<Quote> => {
     const response = await api.get(`/user/client/quotes/public/${publicHash}`);
     return response.data;
   },
 
-  // Accept quote (public)
+  // Deprecated: only for links sent before signed links existed (use acceptQuoteByLinkToken)
   acceptQuote: async (publicHash: string): Promise<Quote> => {
     const response = await api.post(`/user/client/quotes/public/${publicHash}/accept`);
     return response.data;
   },
 
-  // Reject quote (public)
+  // Deprecated: only for links sent before signed links existed (use rejectQuoteByLinkToken)
   rejectQuote: async (publicHash: string): Promise<Quote> => {
     const response = await api.post(`/user/client/quotes/public/${publicHash}/reject`);
     return response.data;